@@ -10,15 +10,19 @@ package ch.framedev.reportPlugin;
  */
 
 import ch.framedev.reportPlugin.database.Database;
+import ch.framedev.reportPlugin.database.ReportQuery;
 import ch.framedev.reportPlugin.main.ReportPlugin;
 import ch.framedev.reportPlugin.utils.DiscordUtils;
 import ch.framedev.reportPlugin.utils.Report;
 import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Singleton class providing an API for managing player reports.
@@ -146,6 +150,16 @@ public class ReportAPI {
         return getDatabaseOrThrow().getReportById(reportId);
     }
 
+    /**
+     * Retrieves several reports by their IDs in one batch.
+     *
+     * @param reportIds the IDs of the reports
+     * @return the found reports by ID, IDs without a report are absent
+     */
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        return getDatabaseOrThrow().getReportsByIds(reportIds);
+    }
+
     /**
      * Checks if a report exists by its ID.
      *
@@ -213,6 +227,39 @@ public class ReportAPI {
         return getDatabaseOrThrow().getAllReports();
     }
 
+    /**
+     * Retrieves the reports matching the given query.
+     * The backend evaluates as much of the query as it can natively.
+     *
+     * @param query the filter, sort order and limit
+     * @return the matching reports in query order
+     */
+    public List<Report> findReports(ReportQuery query) {
+        return getDatabaseOrThrow().findReports(query);
+    }
+
+    /**
+     * Retrieves the ID, players, reason, status and timestamp of the reports matching the given query.
+     * Cheaper than {@link #findReports(ReportQuery)} for list views, SQL and MongoDB only read these fields.
+     *
+     * @param query the filter, sort order and limit
+     * @return the summaries of the matching reports in query order
+     */
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        return getDatabaseOrThrow().findReportSummaries(query);
+    }
+
+    /**
+     * Streams the reports matching the given query without loading them all into memory,
+     * e.g. for exports. The stream must be closed, preferably with try-with-resources.
+     *
+     * @param query the filter, sort order and paging, use {@link ReportQuery.SortKey#UNSORTED} if the order does not matter
+     * @return the matching reports in query order
+     */
+    public Stream<Report> streamReports(ReportQuery query) {
+        return getDatabaseOrThrow().streamReports(query);
+    }
+
     /**
      * Counts the number of reports for a specific player.
      *
@@ -230,9 +277,7 @@ public class ReportAPI {
      * @return a list of reports for the specified player
      */
     public List<Report> getAllReportsFromReportedPlayer(String reportedPlayer) {
-        return getDatabaseOrThrow().getAllReports().stream()
-                .filter(report -> report.getReportedPlayer().equalsIgnoreCase(reportedPlayer))
-                .toList();
+        return findReports(ReportQuery.builder().reportedPlayer(reportedPlayer).build());
     }
 
     /**
@@ -242,9 +287,7 @@ public class ReportAPI {
      * @return a list of reports from the specified reporter
      */
     public List<Report> getAllReportsFromReporter(String reporter) {
-        return getDatabaseOrThrow().getAllReports().stream()
-                .filter(report -> report.getReporter().equalsIgnoreCase(reporter))
-                .toList();
+        return findReports(ReportQuery.builder().reporter(reporter).build());
     }
 
     /**
@@ -253,9 +296,7 @@ public class ReportAPI {
      * @return a list of all unresolved reports
      */
     public List<Report> getAllUnresolvedReports() {
-        return getDatabaseOrThrow().getAllReports().stream()
-                .filter(report -> !report.getStatus().isClosed())
-                .toList();
+        return findReports(ReportQuery.builder().openOnly().build());
     }
 
     /**
@@ -264,9 +305,7 @@ public class ReportAPI {
      * @return a list of all resolved reports
      */
     public List<Report> getAllResolvedReports() {
-        return getDatabaseOrThrow().getAllReports().stream()
-                .filter(report -> report.getStatus().isClosed())
-                .toList();
+        return findReports(ReportQuery.builder().closedOnly().build());
     }
 
     /**
@@ -275,7 +314,7 @@ public class ReportAPI {
      * @return the total number of reports
      */
     public int countAllReports() {
-        return getDatabaseOrThrow().getAllReports().size();
+        return getDatabaseOrThrow().countReports(ReportQuery.all());
     }
 
     /**
@@ -284,9 +323,7 @@ public class ReportAPI {
      * @return the total number of unresolved reports
      */
     public int countAllUnresolvedReports() {
-        return (int) getDatabaseOrThrow().getAllReports().stream()
-                .filter(report -> !report.getStatus().isClosed())
-                .count();
+        return getDatabaseOrThrow().countReports(ReportQuery.builder().openOnly().build());
     }
 
     /**
@@ -295,9 +332,17 @@ public class ReportAPI {
      * @return the total number of resolved reports
      */
     public int countAllResolvedReports() {
-        return (int) getDatabaseOrThrow().getAllReports().stream()
-                .filter(report -> report.getStatus().isClosed())
-                .count();
+        return getDatabaseOrThrow().countReports(ReportQuery.builder().closedOnly().build());
+    }
+
+    /**
+     * Counts all reports grouped by status.
+     * The counts are computed by the database in a single query where the backend supports it.
+     *
+     * @return the number of reports per status
+     */
+    public Map<ReportStatus, Integer> countReportsByStatus() {
+        return getDatabaseOrThrow().countReportsByStatus(ReportQuery.all());
     }
 
     /**
@@ -318,10 +363,7 @@ public class ReportAPI {
      * @return a list of resolved reports for the specified player
      */
     public List<Report> getAllResolvedReportsByPlayer(String reportedPlayer) {
-        return getDatabaseOrThrow().getAllReports().stream()
-                .filter(report -> report.getReportedPlayer().equalsIgnoreCase(reportedPlayer)
-                        && report.getStatus().isClosed())
-                .toList();
+        return findReports(ReportQuery.builder().reportedPlayer(reportedPlayer).closedOnly().build());
     }
 
     /**
@@ -331,10 +373,7 @@ public class ReportAPI {
      * @return a list of unresolved reports for the specified player
      */
     public List<Report> getAllUnresolvedReportsByPlayer(String reportedPlayer) {
-        return getDatabaseOrThrow().getAllReports().stream()
-                .filter(report -> report.getReportedPlayer().equalsIgnoreCase(reportedPlayer)
-                        && !report.getStatus().isClosed())
-                .toList();
+        return findReports(ReportQuery.builder().reportedPlayer(reportedPlayer).openOnly().build());
     }
 
     /**
@@ -387,4 +426,15 @@ public class ReportAPI {
     public Map<String, Report> getUpdateHistory(Report report) {
         return getDatabaseOrThrow().getUpdateHistory(report);
     }
+
+    /**
+     * Retrieves the newest entries of the update history for a specific report.
+     *
+     * @param report the report to retrieve the update history for
+     * @param limit  the maximum number of entries
+     * @return a map containing the newest entries in the order they were written
+     */
+    public Map<String, Report> getUpdateHistory(Report report, int limit) {
+        return getDatabaseOrThrow().getUpdateHistory(report, limit);
+    }
 }
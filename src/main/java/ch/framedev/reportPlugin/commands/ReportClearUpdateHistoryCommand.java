@@ -2,7 +2,6 @@ package ch.framedev.reportPlugin.commands;
 
 import ch.framedev.reportPlugin.database.Database;
 import ch.framedev.reportPlugin.utils.MessageUtils;
-import ch.framedev.reportPlugin.utils.Report;
 
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -15,6 +14,8 @@ import java.util.List;
 
 public class ReportClearUpdateHistoryCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_SUGGESTIONS = 100;
+
     private Database database;
 
     public ReportClearUpdateHistoryCommand(Database database) {
@@ -38,15 +39,18 @@ public class ReportClearUpdateHistoryCommand implements CommandExecutor, TabComp
                 return true;
             }
             String reportId = args[0];
-            if (database.clearUpdateHistory(database.getReportById(reportId))) {
-                MessageUtils.send(sender, "messages.clear_update_history_success",
-                        "&aUpdate history for report ID {reportId} has been cleared.",
-                        "{reportId}", reportId);
-            } else {
-                MessageUtils.send(sender, "messages.clear_update_history_not_found",
-                        "&cNo report found with ID {reportId}.",
-                        "{reportId}", reportId);
-            }
+            database.async().supply(() -> database.clearUpdateHistory(database.getReportById(reportId)))
+                    .thenAccept(cleared -> {
+                        if (cleared) {
+                            MessageUtils.send(sender, "messages.clear_update_history_success",
+                                    "&aUpdate history for report ID {reportId} has been cleared.",
+                                    "{reportId}", reportId);
+                        } else {
+                            MessageUtils.send(sender, "messages.clear_update_history_not_found",
+                                    "&cNo report found with ID {reportId}.",
+                                    "{reportId}", reportId);
+                        }
+                    });
             return true;
         }
         return false;
@@ -59,10 +63,7 @@ public class ReportClearUpdateHistoryCommand implements CommandExecutor, TabComp
             return null;
         }
         if (args.length == 1) {
-            return database.getAllReports().stream()
-                    .map(Report::getReportId)
-                    .filter(s -> s.startsWith(args[0]))
-                    .toList();
+            return database.suggestReportIds(args[0], MAX_SUGGESTIONS);
         }
         return List.of();
     }
@@ -1,13 +1,13 @@
 package ch.framedev.reportPlugin.commands;
 
 import ch.framedev.reportPlugin.database.Database;
+import ch.framedev.reportPlugin.database.ReportQuery;
 import ch.framedev.reportPlugin.utils.Report;
 import ch.framedev.reportPlugin.main.ReportPlugin;
 import ch.framedev.reportPlugin.utils.MessageUtils;
 import net.md_5.bungee.api.chat.ClickEvent;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -16,6 +16,8 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
 
 import static ch.framedev.reportPlugin.utils.DiscordUtils.sendReportToDiscord;
 
@@ -24,6 +26,9 @@ public class ReportCommand implements CommandExecutor {
     private final ReportPlugin plugin;
     private Database database;
 
+    // Serializes the limit checks with the insert, so two reports sent at once can not both pass the limits
+    private final ReentrantLock admissionLock = new ReentrantLock();
+
     public ReportCommand(ReportPlugin plugin, Database database) {
         this.plugin = plugin;
         this.database = database;
@@ -55,59 +60,92 @@ public class ReportCommand implements CommandExecutor {
         String reportedPlayer = args[0];
         int maxReportsPerPlayer = plugin.getConfig().getInt("report-settings.max-reports-per-player", 3);
         int maxReportsPerReporter = plugin.getConfig().getInt("report-settings.max-reports-per-reporter", 10);
-        long reportsAgainstPlayer = database.getAllReports().stream()
-                .filter(report -> report.getReportedPlayer() != null)
-                .filter(report -> report.getReportedPlayer().equalsIgnoreCase(reportedPlayer))
-                .count();
-        long reportsByReporter = database.getAllReports().stream()
-                .filter(report -> report.getReporter() != null)
-                .filter(report -> report.getReporter().equalsIgnoreCase(player.getName()))
-                .count();
-
-        if (maxReportsPerPlayer > 0 && reportsAgainstPlayer >= maxReportsPerPlayer) {
-            MessageUtils.send(sender, "messages.max_reports_per_player_reached",
-                    "&cThis player has reached the configured report limit.");
-            return true;
-        }
+        long duplicateWindowSeconds = plugin.getConfig().getLong("report-settings.duplicate-window-seconds", 300L);
+        Report report = createReport(args, player);
+
+        // The limit checks may have to query the database, run them and the insert off the main thread
+        database.async().supply(() -> insertWithinLimits(report, maxReportsPerPlayer, maxReportsPerReporter, duplicateWindowSeconds))
+                .thenAccept(rejection -> {
+                    // A stored report is announced to staff even if the reporter left in the meantime
+                    if (rejection != LimitRejection.NONE && !player.isOnline()) {
+                        return;
+                    }
+                    switch (rejection) {
+                        case PLAYER_LIMIT -> MessageUtils.send(player, "messages.max_reports_per_player_reached",
+                                "&cThis player has reached the configured report limit.");
+                        case REPORTER_LIMIT -> MessageUtils.send(player, "messages.max_reports_per_reporter_reached",
+                                "&cYou have reached the configured report limit.");
+                        case DUPLICATE -> MessageUtils.send(player, "messages.duplicate_report_recently",
+                                "&cYou already reported this player recently. Please wait before sending the same report again.");
+                        case NONE -> onReportStored(player, report);
+                    }
+                })
+                .exceptionally(throwable -> {
+                    plugin.getLogger().log(Level.SEVERE, "Could not store the report of " + report.getReporter(), throwable);
+                    if (player.isOnline()) {
+                        MessageUtils.send(player, "messages.report_failed", "&cYour report could not be saved. Please try again later.");
+                    }
+                    return null;
+                });
+        return true;
+    }
 
-        if (maxReportsPerReporter > 0 && reportsByReporter >= maxReportsPerReporter) {
-            MessageUtils.send(sender, "messages.max_reports_per_reporter_reached",
-                    "&cYou have reached the configured report limit.");
-            return true;
+    private enum LimitRejection {
+        NONE,
+        PLAYER_LIMIT,
+        REPORTER_LIMIT,
+        DUPLICATE
+    }
+
+    /**
+     * Checks the limits and inserts the report while holding the admission lock.
+     *
+     * @return {@link LimitRejection#NONE} once the report is stored, otherwise the limit it exceeds
+     */
+    private LimitRejection insertWithinLimits(Report report, int maxReportsPerPlayer, int maxReportsPerReporter,
+                                              long duplicateWindowSeconds) {
+        admissionLock.lock();
+        try {
+            LimitRejection rejection = checkLimits(report.getReporter(), report.getReportedPlayer(),
+                    maxReportsPerPlayer, maxReportsPerReporter, duplicateWindowSeconds);
+            if (rejection == LimitRejection.NONE) {
+                database.insertReport(report);
+            }
+            return rejection;
+        } finally {
+            admissionLock.unlock();
         }
+    }
 
-        long duplicateWindowSeconds = plugin.getConfig().getLong("report-settings.duplicate-window-seconds", 300L);
-        if (duplicateWindowSeconds > 0 && isDuplicateReport(player.getName(), reportedPlayer, duplicateWindowSeconds)) {
-            MessageUtils.send(sender, "messages.duplicate_report_recently",
-                    "&cYou already reported this player recently. Please wait before sending the same report again.");
-            return true;
+    private LimitRejection checkLimits(String reporter, String reportedPlayer, int maxReportsPerPlayer,
+                                       int maxReportsPerReporter, long duplicateWindowSeconds) {
+        if (maxReportsPerPlayer > 0 && reachesLimit(ReportQuery.builder().reportedPlayer(reportedPlayer), maxReportsPerPlayer)) {
+            return LimitRejection.PLAYER_LIMIT;
+        }
+        if (maxReportsPerReporter > 0 && reachesLimit(ReportQuery.builder().reporter(reporter), maxReportsPerReporter)) {
+            return LimitRejection.REPORTER_LIMIT;
+        }
+        if (duplicateWindowSeconds > 0 && isDuplicateReport(reporter, reportedPlayer, duplicateWindowSeconds)) {
+            return LimitRejection.DUPLICATE;
         }
+        return LimitRejection.NONE;
+    }
 
-        report(args, player);
-        return true;
+    private boolean reachesLimit(ReportQuery.Builder query, int limit) {
+        return database.countReports(query.build()) >= limit;
     }
 
     private boolean isDuplicateReport(String reporter, String reportedPlayer, long duplicateWindowSeconds) {
-        long now = System.currentTimeMillis();
         long duplicateWindowMillis = duplicateWindowSeconds * 1000L;
-        return database.getAllReports().stream()
-                .filter(report -> report.getReporter() != null && report.getReportedPlayer() != null)
-                .anyMatch(report -> report.getReporter().equalsIgnoreCase(reporter)
-                        && report.getReportedPlayer().equalsIgnoreCase(reportedPlayer)
-                        && now - report.getTimestamp() < duplicateWindowMillis);
+        return database.hasRecentReport(reporter, reportedPlayer, System.currentTimeMillis() - duplicateWindowMillis + 1);
     }
 
-    private void report(String[] args, Player player) {
+    private Report createReport(String[] args, Player player) {
         String reportedPlayer = args[0];
         String reason = args.length > 1
                 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length))
                 : MessageUtils.get("messages.default_report_reason", "No reason provided");
-        MessageUtils.send(player, "messages.report_created",
-                "&aYou reported &e{player}&a for: &f{reason}",
-                "{player}", reportedPlayer,
-                "{reason}", reason);
-
-        Report report = new Report(
+        return new Report(
                 reportedPlayer,
                 reason,
                 player.getName(),
@@ -118,7 +156,17 @@ public class ReportCommand implements CommandExecutor {
                 player.getWorld().getName(),
                 Report.getLocationAsString(player.getLocation())
         );
-        database.insertReport(report);
+    }
+
+    private void onReportStored(Player player, Report report) {
+        String reportedPlayer = report.getReportedPlayer();
+        String reason = report.getReason();
+        if (player.isOnline()) {
+            MessageUtils.send(player, "messages.report_created",
+                    "&aYou reported &e{player}&a for: &f{reason}",
+                    "{player}", reportedPlayer,
+                    "{reason}", reason);
+        }
         Bukkit.getLogger().info("Report created by " + player.getName() + ": " + report.getReportedPlayer() + " for reason: " + report.getReason());
 
         for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
@@ -131,12 +179,12 @@ public class ReportCommand implements CommandExecutor {
                             "{player}", reportedPlayer,
                             "{reason}", reason);
                     boolean isHoverEnabled = plugin.getConfig().getBoolean("notify.hoverable-teleport", true);
-                    if (isHoverEnabled) {
+                    if (isHoverEnabled && report.hasCoordinates()) {
                         TextComponent textComponent = new TextComponent(
                                 MessageUtils.get("messages.staff_click_to_teleport",
                                         "&7[&eClick to Teleport to Report Location&7]"));
-                        Location location = Report.getLocationAsBukkitLocation(report.getLocation());
-                        textComponent.setClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/tp " + location.getX() + " " + location.getY() + " " + location.getZ()));
+                        // Coordinates were parsed when the report was created
+                        textComponent.setClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, "/tp " + report.getLocationX() + " " + report.getLocationY() + " " + report.getLocationZ()));
                         onlinePlayer.spigot().sendMessage(textComponent);
                     }
                 }
@@ -2,8 +2,9 @@
 package ch.framedev.reportPlugin.commands;
 
 import ch.framedev.reportPlugin.database.Database;
+import ch.framedev.reportPlugin.database.ReportQuery;
 import ch.framedev.reportPlugin.utils.MessageUtils;
-import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
@@ -14,20 +15,22 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.*;
 import org.bukkit.inventory.meta.ItemMeta;
-import org.bukkit.inventory.meta.SkullMeta;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ReportDataCommand implements CommandExecutor, Listener {
 
     private Database database;
+    private final ReportItemCache itemCache;
 
-    public ReportDataCommand(Database database) {
+    public ReportDataCommand(Database database, ReportItemCache itemCache) {
         this.database = database;
+        this.itemCache = itemCache;
     }
 
     public void setDatabase(Database database) {
@@ -58,6 +61,43 @@ public class ReportDataCommand implements CommandExecutor, Listener {
      */
     private void openPage(Player player, int page) {
         List<? extends Player> online = Bukkit.getOnlinePlayers().stream().toList();
+        int start = page * PAGE_SIZE;
+        int end = Math.min(start + PAGE_SIZE, online.size());
+        List<String> names = online.subList(Math.max(0, Math.min(start, end)), end).stream()
+                .map(Player::getName)
+                .toList();
+
+        // Load the report data for the visible heads off the main thread
+        database.async().supply(() -> loadPlayerData(names))
+                .thenAccept(playerData -> {
+                    if (player.isOnline()) {
+                        openPage(player, page, online, playerData);
+                    }
+                });
+    }
+
+    private record PlayerReportData(ReportSummary lastReport, int totalReports) {
+    }
+
+    private record HeadVersion(String name, PlayerReportData data) {
+    }
+
+    private Map<String, PlayerReportData> loadPlayerData(List<String> names) {
+        Map<String, PlayerReportData> result = new HashMap<>();
+        for (String name : names) {
+            List<ReportSummary> latest = database.findReportSummaries(ReportQuery.builder()
+                    .reportedPlayer(name)
+                    .sortBy(ReportQuery.SortKey.TIMESTAMP, true)
+                    .limit(1)
+                    .build());
+            ReportSummary lastReport = latest.isEmpty() ? null : latest.getFirst();
+            int total = lastReport == null ? 0 : database.countReportsForPlayer(name);
+            result.put(name, new PlayerReportData(lastReport, total));
+        }
+        return result;
+    }
+
+    private void openPage(Player player, int page, List<? extends Player> online, Map<String, PlayerReportData> playerData) {
         int totalPages = (online.size() - 1) / PAGE_SIZE + 1;
         int size = 54; // 6 rows
         String guiTitle = MessageUtils.get("gui.titles.report_data", "&bReport Data");
@@ -73,34 +113,28 @@ public class ReportDataCommand implements CommandExecutor, Listener {
 
         for (int i = start, slot = 0; i < end; i++, slot++) {
             Player p = online.get(i);
-            ItemStack head = new ItemStack(Material.PLAYER_HEAD);
-            SkullMeta meta = (SkullMeta) head.getItemMeta();
-            if (meta != null) {
-                meta.setOwningPlayer(p);
+            PlayerReportData data = playerData.get(p.getName());
+            // The head is only rendered again once the name or report data of the player changed
+            ItemStack head = itemCache.getPlayerHead(p, new HeadVersion(p.getName(), data), meta -> {
                 meta.setDisplayName(ChatColor.YELLOW + p.getName());
                 List<String> lore = new ArrayList<>();
-                Report lastReport = database.getAllReports().stream()
-                        .filter(r -> r.getReportedPlayer() != null
-                                && r.getReportedPlayer().equalsIgnoreCase(p.getName()))
-                        .max(Comparator.comparingLong(Report::getTimestamp))
-                        .orElse(null);
+                ReportSummary lastReport = data == null ? null : data.lastReport();
                 if (lastReport == null) {
                     lore.add(MessageUtils.get("gui.lores.report_data_no_reports", "&7No reports found for this player."));
                 } else {
                     lore.add(MessageUtils.format("gui.lores.report_data_last_reason", "&7Last Reported Reason: &6{reason}",
-                            "{reason}", lastReport.getReason()));
+                            "{reason}", lastReport.reason()));
                     lore.add(MessageUtils.format("gui.lores.report_data_last_reporter", "&7Last Reported By: &6{reporter}",
-                            "{reporter}", lastReport.getReporter()));
+                            "{reporter}", lastReport.reporter()));
                     lore.add(MessageUtils.format("gui.lores.report_data_last_reported_at", "&7Last Reported At: &6{time}",
-                            "{time}", String.valueOf(new Date(lastReport.getTimestamp()))));
+                            "{time}", String.valueOf(new Date(lastReport.timestamp()))));
                     lore.add(MessageUtils.format("gui.lores.report_data_last_status", "&7Last Report Status: &6{status}",
-                            "{status}", lastReport.getStatus().getDisplayName()));
+                            "{status}", lastReport.status().getDisplayName()));
                     lore.add(MessageUtils.format("gui.lores.report_data_total_reports", "&7Total Reports: &6{count}",
-                            "{count}", String.valueOf(database.countReportsForPlayer(p.getName()))));
+                            "{count}", String.valueOf(data.totalReports())));
                 }
                 meta.setLore(lore);
-                head.setItemMeta(meta);
-            }
+            });
             gui.setItem(slot, head);
         }
 
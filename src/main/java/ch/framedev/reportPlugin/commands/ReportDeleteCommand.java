@@ -2,7 +2,6 @@ package ch.framedev.reportPlugin.commands;
 
 import ch.framedev.reportPlugin.database.Database;
 import ch.framedev.reportPlugin.utils.MessageUtils;
-import ch.framedev.reportPlugin.utils.Report;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -15,6 +14,8 @@ import java.util.List;
 
 public class ReportDeleteCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_SUGGESTIONS = 100;
+
     private Database database;
 
     public ReportDeleteCommand(Database database) {
@@ -40,12 +41,13 @@ public class ReportDeleteCommand implements CommandExecutor, TabCompleter {
             return true;
         }
         String reportId = args[0];
-        if (!database.deleteReport(reportId)) {
-            MessageUtils.send(player, "messages.report_delete_not_found", "&cNo report found with ID {reportId}.", "{reportId}", reportId);
-            return true;
-        } else {
-            MessageUtils.send(player, "messages.report_delete_success", "&aReport with ID {reportId} has been deleted.", "{reportId}", reportId);
-        }
+        database.async().deleteReport(reportId).thenAccept(deleted -> {
+            if (!deleted) {
+                MessageUtils.send(player, "messages.report_delete_not_found", "&cNo report found with ID {reportId}.", "{reportId}", reportId);
+            } else {
+                MessageUtils.send(player, "messages.report_delete_success", "&aReport with ID {reportId} has been deleted.", "{reportId}", reportId);
+            }
+        });
         return true;
     }
 
@@ -55,10 +57,7 @@ public class ReportDeleteCommand implements CommandExecutor, TabCompleter {
             return null;
         }
         if (args.length == 1) {
-            return database.getAllReports().stream()
-                    .map(Report::getReportId)
-                    .filter(s -> s.startsWith(args[0]))
-                    .toList();
+            return database.suggestReportIds(args[0], MAX_SUGGESTIONS);
         }
         return List.of();
     }
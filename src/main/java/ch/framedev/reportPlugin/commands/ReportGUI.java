@@ -1,10 +1,13 @@
 package ch.framedev.reportPlugin.commands;
 
 import ch.framedev.reportPlugin.database.Database;
+import ch.framedev.reportPlugin.database.ReportInvalidationBus;
+import ch.framedev.reportPlugin.database.ReportQuery;
 import ch.framedev.reportPlugin.main.ReportPlugin;
 import ch.framedev.reportPlugin.utils.DiscordUtils;
 import ch.framedev.reportPlugin.utils.Report;
 import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 import net.md_5.bungee.api.chat.ClickEvent;
 import net.md_5.bungee.api.chat.TextComponent;
 import org.bukkit.Bukkit;
@@ -20,29 +23,42 @@ import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 
-import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class ReportGUI implements CommandExecutor, Listener {
 
-    private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    // The bottom row is reserved for the action buttons
+    private static final int MAX_LIST_REPORTS = 45;
+    // Reports per page once the list needs paging, the row above the action buttons holds the page buttons
+    private static final int PAGED_LIST_REPORTS = 36;
     private static String singleReportTitlePrefix = "Report: ";
 
     private static String guiTitle = "";
@@ -55,8 +71,11 @@ public class ReportGUI implements CommandExecutor, Listener {
     private static String updateHistoryTitle = "";
     private static String sortTitle = "";
     private static String filterTitle = "";
+    private static String previousPageTitle = "";
+    private static String nextPageTitle = "";
 
     private Database database;
+    private final ReportItemCache itemCache;
 
     private enum GuiSortMode {
         NEWEST("Newest"),
@@ -105,6 +124,39 @@ public class ReportGUI implements CommandExecutor, Listener {
     private static final class GuiViewSettings {
         private GuiSortMode sortMode = GuiSortMode.NEWEST;
         private GuiFilterMode filterMode = GuiFilterMode.ACTIVE_ONLY;
+        // Keyset cursors, the last report of the page before, null for the first page
+        private ReportSummary pageCursor;
+        private final List<ReportSummary> previousCursors = new ArrayList<>();
+        private ReportSummary nextCursor;
+
+        private void resetPaging() {
+            pageCursor = null;
+            previousCursors.clear();
+            nextCursor = null;
+        }
+    }
+
+    // An inventory of this GUI that is still open, refreshed in place when the reports it shows change
+    private static final class OpenView {
+        private final Player player;
+        private final Inventory inventory;
+        // The report of a single report view, null for the report list
+        private final String reportId;
+        // The reports in the first slots of the list and whether it has the page row
+        private List<ReportSummary> shown = List.of();
+        private boolean paged;
+        private boolean refreshing;
+        private boolean stale;
+
+        private OpenView(Player player, Inventory inventory, String reportId) {
+            this.player = player;
+            this.inventory = inventory;
+            this.reportId = reportId;
+        }
+
+        private boolean isShowing() {
+            return player.isOnline() && player.getOpenInventory().getTopInventory() == inventory;
+        }
     }
 
     private static final class UpdateSession {
@@ -127,14 +179,25 @@ public class ReportGUI implements CommandExecutor, Listener {
     private final Map<UUID, String> playerKickReason = new HashMap<>();
     private final Map<UUID, BanSession> playerBanSessions = new HashMap<>();
     private final Map<UUID, GuiViewSettings> guiViewSettings = new HashMap<>();
+    private final Map<UUID, OpenView> openViews = new HashMap<>();
+
+    // Changed reports since the last refresh, written by the database threads and drained once per tick
+    private final Set<String> pendingChanges = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private volatile boolean refreshAll;
+    private final ReportInvalidationBus.Listener changeListener = this::onReportChanged;
 
-    public ReportGUI(Database database) {
+    public ReportGUI(Database database, ReportItemCache itemCache) {
         this.database = database;
+        this.itemCache = itemCache;
+        database.addChangeListener(changeListener);
         reloadTitles();
     }
 
     public void setDatabase(Database database) {
+        this.database.removeChangeListener(changeListener);
         this.database = database;
+        database.addChangeListener(changeListener);
         reloadTitles();
     }
 
@@ -144,6 +207,8 @@ public class ReportGUI implements CommandExecutor, Listener {
         playerKickReason.clear();
         playerBanSessions.clear();
         guiViewSettings.clear();
+        openViews.clear();
+        pendingChanges.clear();
     }
 
     @Override
@@ -208,6 +273,7 @@ public class ReportGUI implements CommandExecutor, Listener {
         if (displayName.equals(ChatColor.stripColor(filterTitle))) {
             GuiViewSettings settings = getGuiViewSettings(uuid);
             settings.filterMode = settings.filterMode.next();
+            settings.resetPaging();
             openReportList(player);
             return;
         }
@@ -215,10 +281,30 @@ public class ReportGUI implements CommandExecutor, Listener {
         if (displayName.equals(ChatColor.stripColor(sortTitle))) {
             GuiViewSettings settings = getGuiViewSettings(uuid);
             settings.sortMode = settings.sortMode.next();
+            settings.resetPaging();
             openReportList(player);
             return;
         }
 
+        if (displayName.equals(ChatColor.stripColor(nextPageTitle))) {
+            GuiViewSettings settings = getGuiViewSettings(uuid);
+            if (settings.nextCursor != null) {
+                settings.previousCursors.add(settings.pageCursor);
+                settings.pageCursor = settings.nextCursor;
+                openReportList(player);
+            }
+            return;
+        }
+
+        if (displayName.equals(ChatColor.stripColor(previousPageTitle))) {
+            GuiViewSettings settings = getGuiViewSettings(uuid);
+            if (!settings.previousCursors.isEmpty()) {
+                settings.pageCursor = settings.previousCursors.removeLast();
+                openReportList(player);
+            }
+            return;
+        }
+
         if (displayName.equals(ChatColor.stripColor(updateTitle))) {
             if (!ensureSelectedReport(player, uuid, messages)) {
                 return;
@@ -238,22 +324,18 @@ public class ReportGUI implements CommandExecutor, Listener {
             if (!ensureSelectedReport(player, uuid, messages)) {
                 return;
             }
-            Report report = database.getReportById(playerSelectedReport.get(uuid));
-            if (report == null) {
-                player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-                return;
-            }
-
-            Location reportLocation = safeLocation(report);
-            World world = reportLocation == null ? null : reportLocation.getWorld();
-            if (world == null) {
-                String worldNotFound = messages.getString("messages.world_not_found", "&cThe world for this report could not be found. {world}");
-                player.sendMessage(ChatColor.translateAlternateColorCodes('&', worldNotFound.replace("{world}", report.getWorldName())));
-                return;
-            }
+            withReport(player, playerSelectedReport.get(uuid), messages, report -> {
+                Location reportLocation = safeLocation(report);
+                World world = reportLocation == null ? null : reportLocation.getWorld();
+                if (world == null) {
+                    String worldNotFound = messages.getString("messages.world_not_found", "&cThe world for this report could not be found. {world}");
+                    player.sendMessage(ChatColor.translateAlternateColorCodes('&', worldNotFound.replace("{world}", report.getWorldName())));
+                    return;
+                }
 
-            player.teleport(reportLocation);
-            player.sendMessage(message(messages, "messages.teleported_to_report_location", "&aTeleported to the reported location."));
+                player.teleport(reportLocation);
+                player.sendMessage(message(messages, "messages.teleported_to_report_location", "&aTeleported to the reported location."));
+            });
             return;
         }
 
@@ -263,36 +345,32 @@ public class ReportGUI implements CommandExecutor, Listener {
             }
 
             String reportId = playerSelectedReport.get(uuid);
-            Report report = database.getReportById(reportId);
-            if (report == null) {
-                player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-                return;
-            }
-
-            if (database.deleteReport(reportId)) {
-                String successMessage = messages.getString("messages.report_deleted", "&aReport {reportId} deleted.");
-                player.sendMessage(ChatColor.translateAlternateColorCodes('&', successMessage.replace("{reportId}", reportId)));
-            } else {
-                String failureMessage = messages.getString("messages.failed_to_delete_report", "&cFailed to delete report {reportId}.");
-                player.sendMessage(ChatColor.translateAlternateColorCodes('&', failureMessage.replace("{reportId}", reportId)));
-            }
             player.closeInventory();
+            database.async().supply(() -> database.reportExists(reportId) ? database.deleteReport(reportId) : null)
+                    .thenAccept(deleted -> {
+                        if (!player.isOnline()) {
+                            return;
+                        }
+                        if (deleted == null) {
+                            player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
+                        } else if (deleted) {
+                            String successMessage = messages.getString("messages.report_deleted", "&aReport {reportId} deleted.");
+                            player.sendMessage(ChatColor.translateAlternateColorCodes('&', successMessage.replace("{reportId}", reportId)));
+                        } else {
+                            String failureMessage = messages.getString("messages.failed_to_delete_report", "&cFailed to delete report {reportId}.");
+                            player.sendMessage(ChatColor.translateAlternateColorCodes('&', failureMessage.replace("{reportId}", reportId)));
+                        }
+                    });
             return;
         }
 
         if (displayName.equals(ChatColor.stripColor(kickTitle))) {
-            if (!prepareModerationAction(player, uuid, playerKickReason, messages, "messages.enter_kick_reason")) {
-                return;
-            }
-            player.closeInventory();
+            prepareModerationAction(player, uuid, playerKickReason, messages, "messages.enter_kick_reason");
             return;
         }
 
         if (displayName.equals(ChatColor.stripColor(banTitle))) {
-            if (!startBanFlow(player, uuid, messages)) {
-                return;
-            }
-            player.closeInventory();
+            startBanFlow(player, uuid, messages);
             return;
         }
 
@@ -301,20 +379,16 @@ public class ReportGUI implements CommandExecutor, Listener {
                 return;
             }
 
-            Report report = database.getReportById(playerSelectedReport.get(uuid));
-            if (report == null) {
-                player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-                return;
-            }
-
-            Player reporter = Bukkit.getPlayerExact(report.getReporter());
-            if (reporter == null || !reporter.isOnline()) {
-                player.sendMessage(message(messages, "messages.reporter_not_found", "&cReporter is not online."));
-                return;
-            }
+            withReport(player, playerSelectedReport.get(uuid), messages, report -> {
+                Player reporter = Bukkit.getPlayerExact(report.getReporter());
+                if (reporter == null || !reporter.isOnline()) {
+                    player.sendMessage(message(messages, "messages.reporter_not_found", "&cReporter is not online."));
+                    return;
+                }
 
-            player.teleport(reporter.getLocation());
-            player.sendMessage(message(messages, "messages.teleported_to_reporter", "&aTeleported to reporter's location."));
+                player.teleport(reporter.getLocation());
+                player.sendMessage(message(messages, "messages.teleported_to_reporter", "&aTeleported to reporter's location."));
+            });
             return;
         }
 
@@ -326,6 +400,20 @@ public class ReportGUI implements CommandExecutor, Listener {
         }
     }
 
+    @EventHandler
+    public void onInventoryClose(InventoryCloseEvent event) {
+        UUID uuid = event.getPlayer().getUniqueId();
+        OpenView view = openViews.get(uuid);
+        if (view != null && view.inventory == event.getInventory()) {
+            openViews.remove(uuid);
+        }
+    }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        openViews.remove(event.getPlayer().getUniqueId());
+    }
+
     @EventHandler
     public void onPlayerChat(AsyncPlayerChatEvent event) {
         Player player = event.getPlayer();
@@ -365,20 +453,50 @@ public class ReportGUI implements CommandExecutor, Listener {
         updateHistoryTitle = message(messages, "gui.titles.view_update_history", "&dView Update History");
         sortTitle = message(messages, "gui.titles.sort_reports", "&6Sort Reports");
         filterTitle = message(messages, "gui.titles.filter_reports", "&bFilter Reports");
+        previousPageTitle = message(messages, "gui.titles.previous_page", "&aPrevious Page");
+        nextPageTitle = message(messages, "gui.titles.next_page", "&aNext Page");
     }
 
     private void openReportList(Player player) {
         GuiViewSettings settings = getGuiViewSettings(player.getUniqueId());
-        List<Report> reports = getFilteredAndSortedReports(settings);
+        GuiSortMode sortMode = settings.sortMode;
+        GuiFilterMode filterMode = settings.filterMode;
+        ReportSummary cursor = settings.pageCursor;
+        database.async().findReportSummaries(getListQuery(sortMode, filterMode, cursor, getListLimit(cursor)))
+                .thenAccept(reports -> {
+                    if (player.isOnline() && settings.pageCursor == cursor) {
+                        openReportList(player, settings, reports);
+                    }
+                });
+    }
+
+    private void openReportList(Player player, GuiViewSettings settings, List<ReportSummary> reports) {
+        // A single page as long as every report fits, otherwise one row is given up for the page buttons
+        boolean paged = settings.pageCursor != null || reports.size() > MAX_LIST_REPORTS;
+        int displayedReports = Math.min(reports.size(), paged ? PAGED_LIST_REPORTS : MAX_LIST_REPORTS);
+        settings.nextCursor = reports.size() > displayedReports ? reports.get(displayedReports - 1) : null;
 
         int actionButtonCount = 9;
-        int displayedReports = Math.min(reports.size(), 45);
-        int inventorySize = Math.min(Math.max(((displayedReports + actionButtonCount - 1) / 9 + 1) * 9, 9), 54);
+        int reportRows = (displayedReports + 8) / 9;
+        int inventorySize = (reportRows + (paged ? 2 : 1)) * 9;
         Inventory gui = Bukkit.createInventory(null, inventorySize, guiTitle);
 
-        int maxReportSlots = inventorySize - actionButtonCount;
-        for (int i = 0; i < Math.min(reports.size(), maxReportSlots); i++) {
-            gui.setItem(i, createReportItem(reports.get(i), true, ReportPlugin.getInstance().getMessagesConfig()));
+        for (int i = 0; i < displayedReports; i++) {
+            gui.setItem(i, getSummaryItem(reports.get(i), ReportPlugin.getInstance().getMessagesConfig()));
+        }
+
+        if (paged) {
+            int pageRow = reportRows * 9;
+            if (settings.pageCursor != null) {
+                addButton(gui, pageRow, Material.ARROW, previousPageTitle, message(ReportPlugin.getInstance().getMessagesConfig(),
+                        "gui.lores.previous_page_item", "Show the previous page of reports"));
+            }
+            addButton(gui, pageRow + 4, Material.MAP, message(ReportPlugin.getInstance().getMessagesConfig(),
+                    "gui.titles.report_list_page", "&7Page {page}").replace("{page}", String.valueOf(settings.previousCursors.size() + 1)),
+                    message(ReportPlugin.getInstance().getMessagesConfig(), "gui.lores.report_list_page_item", "Reports are loaded one page at a time"));
+            if (settings.nextCursor != null) {
+                addNextPageButton(gui, pageRow + 8);
+            }
         }
 
         int firstButtonSlot = inventorySize - actionButtonCount;
@@ -404,37 +522,65 @@ public class ReportGUI implements CommandExecutor, Listener {
                 "gui.lores.update_report_item", "Click to update this report"));
 
         player.openInventory(gui);
+        OpenView view = new OpenView(player, gui, null);
+        view.shown = List.copyOf(reports.subList(0, displayedReports));
+        view.paged = paged;
+        openViews.put(player.getUniqueId(), view);
     }
 
-    private List<Report> getFilteredAndSortedReports(GuiViewSettings settings) {
-        Comparator<Report> comparator = switch (settings.sortMode) {
-            case NEWEST -> Comparator.comparingLong(Report::getTimestamp).reversed();
-            case OLDEST -> Comparator.comparingLong(Report::getTimestamp);
-            case REPORTED_PLAYER -> Comparator.comparing(report -> report.getReportedPlayer().toLowerCase(Locale.ROOT));
-            case REPORTER -> Comparator.comparing(report -> report.getReporter().toLowerCase(Locale.ROOT));
-            case STATUS -> Comparator.comparing(report -> report.getStatus().getDisplayName());
-        };
+    private void addNextPageButton(Inventory gui, int slot) {
+        addButton(gui, slot, Material.ARROW, nextPageTitle, message(ReportPlugin.getInstance().getMessagesConfig(),
+                "gui.lores.next_page_item", "Show the next page of reports"));
+    }
 
-        return database.getAllReports().stream()
-                .filter(report -> switch (settings.filterMode) {
-                    case ACTIVE_ONLY -> !report.getStatus().isClosed();
-                    case CLOSED_ONLY -> report.getStatus().isClosed();
-                    case ALL -> true;
-                })
-                .sorted(comparator.thenComparing(Comparator.comparingLong(Report::getTimestamp).reversed()))
-                .toList();
+    /**
+     * One more report than fits tells whether there is a next page.
+     */
+    private int getListLimit(ReportSummary cursor) {
+        return (cursor == null ? MAX_LIST_REPORTS : PAGED_LIST_REPORTS) + 1;
     }
 
-    private void openSingleReportView(Player player, String reportId, FileConfiguration messages) {
-        Report report = database.getReportById(reportId);
-        if (report == null) {
-            player.sendMessage(message(messages, "messages.report_gui_not_found", "&cReport with ID {reportId} not found.")
-                    .replace("{reportId}", reportId));
-            return;
+    /**
+     * The list only shows summaries, the full report is loaded once one is selected or opened.
+     * Pages continue after the last report of the previous page, so later pages cost the same as the first.
+     */
+    private ReportQuery getListQuery(GuiSortMode sortMode, GuiFilterMode filterMode, ReportSummary cursor, int limit) {
+        ReportQuery.Builder query = ReportQuery.builder().after(cursor).limit(limit);
+        switch (sortMode) {
+            case NEWEST -> query.sortBy(ReportQuery.SortKey.TIMESTAMP, true);
+            case OLDEST -> query.sortBy(ReportQuery.SortKey.TIMESTAMP, false);
+            case REPORTED_PLAYER -> query.sortBy(ReportQuery.SortKey.REPORTED_PLAYER, false);
+            case REPORTER -> query.sortBy(ReportQuery.SortKey.REPORTER, false);
+            case STATUS -> query.sortBy(ReportQuery.SortKey.STATUS, false);
+        }
+        switch (filterMode) {
+            case ACTIVE_ONLY -> query.openOnly();
+            case CLOSED_ONLY -> query.closedOnly();
+            case ALL -> {
+            }
         }
+        return query.build();
+    }
+
+    private void openSingleReportView(Player player, String reportId, FileConfiguration messages) {
+        database.async().getReportById(reportId).thenAccept(report -> {
+            if (!player.isOnline()) {
+                return;
+            }
+            if (report == null) {
+                player.sendMessage(message(messages, "messages.report_gui_not_found", "&cReport with ID {reportId} not found.")
+                        .replace("{reportId}", reportId));
+                return;
+            }
+            openSingleReportView(player, report, messages);
+        });
+    }
+
+    private void openSingleReportView(Player player, Report report, FileConfiguration messages) {
+        String reportId = report.getReportId();
 
         Inventory inventory = Bukkit.createInventory(null, 9, singleReportTitlePrefix + reportId);
-        inventory.setItem(0, createReportItem(report, false, messages));
+        inventory.setItem(0, createReportItem(report, messages));
         addButton(inventory, 2, Material.BOOK, updateHistoryTitle, message(messages, "gui.lores.update_history_item", "View the update history of this report"));
         addButton(inventory, 3, Material.COMPASS, teleportToReporterTitle, message(messages, "gui.lores.teleport_to_reporter_item", "Teleport to the reporter's location"));
         addButton(inventory, 4, Material.DIAMOND_SWORD, banTitle, message(messages, "gui.lores.ban_player_item", "Ban the reported player"));
@@ -444,9 +590,154 @@ public class ReportGUI implements CommandExecutor, Listener {
         addButton(inventory, 8, Material.WRITABLE_BOOK, updateTitle, message(messages, "gui.lores.update_report_item", "Click to update this report"));
         player.openInventory(inventory);
         playerSelectedReport.put(player.getUniqueId(), reportId);
+        openViews.put(player.getUniqueId(), new OpenView(player, inventory, reportId));
+    }
+
+    /**
+     * Called by the database for every changed report, possibly on another thread. Changes are collected and
+     * applied to the open inventories once on the next tick, so a burst of reports refreshes each viewer once.
+     */
+    private void onReportChanged(ReportInvalidationBus.Change change, String reportId) {
+        itemCache.invalidate(reportId);
+        if (reportId == null) {
+            refreshAll = true;
+        } else {
+            pendingChanges.add(reportId);
+        }
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        if (plugin != null && plugin.isEnabled() && refreshScheduled.compareAndSet(false, true)) {
+            Bukkit.getScheduler().runTask(plugin, this::refreshOpenViews);
+        }
+    }
+
+    private void refreshOpenViews() {
+        // Changes arriving from now on schedule the next refresh
+        refreshScheduled.set(false);
+        boolean all = refreshAll;
+        refreshAll = false;
+        Set<String> changed = new HashSet<>(pendingChanges);
+        pendingChanges.removeAll(changed);
+
+        for (OpenView view : List.copyOf(openViews.values())) {
+            if (!view.isShowing()) {
+                openViews.remove(view.player.getUniqueId(), view);
+                continue;
+            }
+            // Any change can move a report into or out of a list page, a single report only shows itself
+            if (view.reportId == null || all || changed.contains(view.reportId)) {
+                refreshOpenView(view);
+            }
+        }
     }
 
-    private ItemStack createReportItem(Report report, boolean includeSelectionHint, FileConfiguration messages) {
+    /**
+     * Reloads what the view shows, at most one reload per view is running and changes in the meantime queue one more.
+     */
+    private void refreshOpenView(OpenView view) {
+        if (view.refreshing) {
+            view.stale = true;
+            return;
+        }
+        view.refreshing = true;
+        CompletableFuture<Void> refresh = view.reportId == null ? refreshReportList(view) : refreshSingleReport(view);
+        refresh.whenComplete((ignored, throwable) -> {
+            view.refreshing = false;
+            if (view.stale && openViews.get(view.player.getUniqueId()) == view) {
+                view.stale = false;
+                refreshOpenView(view);
+            }
+        });
+    }
+
+    private CompletableFuture<Void> refreshSingleReport(OpenView view) {
+        FileConfiguration messages = ReportPlugin.getInstance().getMessagesConfig();
+        return database.async().getReportById(view.reportId).thenAccept(report -> {
+            if (openViews.get(view.player.getUniqueId()) != view || !view.isShowing()) {
+                return;
+            }
+            if (report == null) {
+                view.player.closeInventory();
+                view.player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
+                return;
+            }
+            view.inventory.setItem(0, createReportItem(report, messages));
+        });
+    }
+
+    private CompletableFuture<Void> refreshReportList(OpenView view) {
+        GuiViewSettings settings = getGuiViewSettings(view.player.getUniqueId());
+        ReportSummary cursor = settings.pageCursor;
+        return database.async().findReportSummaries(getListQuery(settings.sortMode, settings.filterMode, cursor, getListLimit(cursor)))
+                .thenAccept(reports -> {
+                    if (openViews.get(view.player.getUniqueId()) == view && view.isShowing() && settings.pageCursor == cursor) {
+                        updateReportList(view, settings, reports);
+                    }
+                });
+    }
+
+    /**
+     * Replaces only the slots whose report changed, the inventory is rebuilt if the list needs a different size.
+     */
+    private void updateReportList(OpenView view, GuiViewSettings settings, List<ReportSummary> reports) {
+        boolean paged = settings.pageCursor != null || reports.size() > MAX_LIST_REPORTS;
+        int displayedReports = Math.min(reports.size(), paged ? PAGED_LIST_REPORTS : MAX_LIST_REPORTS);
+        int reportRows = (displayedReports + 8) / 9;
+        int inventorySize = (reportRows + (paged ? 2 : 1)) * 9;
+        if (paged != view.paged || inventorySize != view.inventory.getSize()) {
+            openReportList(view.player, settings, reports);
+            return;
+        }
+
+        FileConfiguration messages = ReportPlugin.getInstance().getMessagesConfig();
+        for (int slot = 0; slot < reportRows * 9; slot++) {
+            ReportSummary before = slot < view.shown.size() ? view.shown.get(slot) : null;
+            ReportSummary after = slot < displayedReports ? reports.get(slot) : null;
+            if (!Objects.equals(before, after)) {
+                view.inventory.setItem(slot, after == null ? null : getSummaryItem(after, messages));
+            }
+        }
+        view.shown = List.copyOf(reports.subList(0, displayedReports));
+
+        ReportSummary nextCursor = reports.size() > displayedReports ? reports.get(displayedReports - 1) : null;
+        if (paged && (nextCursor == null) != (settings.nextCursor == null)) {
+            int nextPageSlot = reportRows * 9 + 8;
+            if (nextCursor == null) {
+                view.inventory.setItem(nextPageSlot, null);
+            } else {
+                addNextPageButton(view.inventory, nextPageSlot);
+            }
+        }
+        settings.nextCursor = nextCursor;
+    }
+
+    /**
+     * The item is rendered once per version of the summary and shared by every viewer.
+     */
+    private ItemStack getSummaryItem(ReportSummary summary, FileConfiguration messages) {
+        return itemCache.getReportItem(summary.reportId(), summary, () -> createSummaryItem(summary, messages));
+    }
+
+    private ItemStack createSummaryItem(ReportSummary summary, FileConfiguration messages) {
+        ItemStack reportItem = new ItemStack(Material.PAPER);
+        ItemMeta meta = reportItem.getItemMeta();
+        if (meta == null) {
+            return reportItem;
+        }
+
+        meta.setDisplayName(ChatColor.YELLOW + singleReportTitlePrefix + summary.reportId());
+        meta.setLore(List.of(
+                message(messages, "gui.report_item.player", "&7Player: {player}").replace("{player}", summary.reportedPlayer()),
+                message(messages, "gui.report_item.reporter", "&7Reporter: {reporter}").replace("{reporter}", summary.reporter()),
+                message(messages, "gui.report_item.reason", "&7Reason: {reason}").replace("{reason}", summary.reason()),
+                message(messages, "gui.report_item.time", "&7Time: {time}").replace("{time}", formatTimestamp(summary.timestamp())),
+                message(messages, "gui.report_item.status", "&7Status: {status}").replace("{status}", summary.status().getDisplayName()),
+                message(messages, "gui.report_item.selection_hint", "&7Click to select this report")
+        ));
+        reportItem.setItemMeta(meta);
+        return reportItem;
+    }
+
+    private ItemStack createReportItem(Report report, FileConfiguration messages) {
         ItemStack reportItem = new ItemStack(Material.PAPER);
         ItemMeta meta = reportItem.getItemMeta();
         if (meta == null) {
@@ -474,9 +765,6 @@ public class ReportGUI implements CommandExecutor, Listener {
             lore.add(message(messages, "gui.report_item.resolution", "&7Resolution: {resolution}")
                     .replace("{resolution}", report.getResolutionComment()));
         }
-        if (includeSelectionHint) {
-            lore.add(message(messages, "gui.report_item.selection_hint", "&7Click to select this report"));
-        }
         meta.setLore(lore);
         reportItem.setItemMeta(meta);
         return reportItem;
@@ -498,12 +786,10 @@ public class ReportGUI implements CommandExecutor, Listener {
     }
 
     private void sendReportDetails(Player player, String reportId, FileConfiguration messages) {
-        Report report = database.getReportById(reportId);
-        if (report == null) {
-            player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-            return;
-        }
+        withReport(player, reportId, messages, report -> sendReportDetails(player, report, messages));
+    }
 
+    private void sendReportDetails(Player player, Report report, FileConfiguration messages) {
         player.sendMessage(message(messages, "messages.report_details_header", "&a---- Report Details ----"));
         player.sendMessage(message(messages, "messages.report_details_id", "&eID: {reportId}")
                 .replace("{reportId}", report.getReportId()));
@@ -544,52 +830,60 @@ public class ReportGUI implements CommandExecutor, Listener {
         return false;
     }
 
-    private boolean prepareModerationAction(Player player, UUID uuid, Map<UUID, String> targetMap, FileConfiguration messages, String messagePath) {
+    /**
+     * Loads the report asynchronously and runs the action on the main thread if it exists and the viewer is still online.
+     */
+    private void withReport(Player player, String reportId, FileConfiguration messages, Consumer<Report> action) {
+        database.async().getReportById(reportId).thenAccept(report -> {
+            if (!player.isOnline()) {
+                return;
+            }
+            if (report == null) {
+                player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
+                return;
+            }
+            action.accept(report);
+        });
+    }
+
+    private void prepareModerationAction(Player player, UUID uuid, Map<UUID, String> targetMap, FileConfiguration messages, String messagePath) {
         if (!ensureSelectedReport(player, uuid, messages)) {
-            return false;
+            return;
         }
 
         String reportId = playerSelectedReport.get(uuid);
-        Report report = database.getReportById(reportId);
-        if (report == null) {
-            player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-            return false;
-        }
-
-        Player reportedPlayer = Bukkit.getPlayerExact(report.getReportedPlayer());
-        if (reportedPlayer == null || !reportedPlayer.isOnline()) {
-            player.sendMessage(message(messages, "messages.reported_player_not_found", "&cReported player is not online."));
-            return false;
-        }
+        withReport(player, reportId, messages, report -> {
+            Player reportedPlayer = Bukkit.getPlayerExact(report.getReportedPlayer());
+            if (reportedPlayer == null || !reportedPlayer.isOnline()) {
+                player.sendMessage(message(messages, "messages.reported_player_not_found", "&cReported player is not online."));
+                return;
+            }
 
-        player.sendMessage(message(messages, messagePath, "&ePlease type the reason in chat:"));
-        targetMap.put(uuid, reportId);
-        return true;
+            player.sendMessage(message(messages, messagePath, "&ePlease type the reason in chat:"));
+            targetMap.put(uuid, reportId);
+            player.closeInventory();
+        });
     }
 
-    private boolean startBanFlow(Player player, UUID uuid, FileConfiguration messages) {
+    private void startBanFlow(Player player, UUID uuid, FileConfiguration messages) {
         if (!ensureSelectedReport(player, uuid, messages)) {
-            return false;
+            return;
         }
 
         String reportId = playerSelectedReport.get(uuid);
-        Report report = database.getReportById(reportId);
-        if (report == null) {
-            player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-            return false;
-        }
-
-        Player reportedPlayer = Bukkit.getPlayerExact(report.getReportedPlayer());
-        if (reportedPlayer == null || !reportedPlayer.isOnline()) {
-            player.sendMessage(message(messages, "messages.reported_player_not_found", "&cReported player is not online."));
-            return false;
-        }
+        withReport(player, reportId, messages, report -> {
+            Player reportedPlayer = Bukkit.getPlayerExact(report.getReportedPlayer());
+            if (reportedPlayer == null || !reportedPlayer.isOnline()) {
+                player.sendMessage(message(messages, "messages.reported_player_not_found", "&cReported player is not online."));
+                return;
+            }
 
-        BanSession banSession = new BanSession();
-        banSession.reportId = reportId;
-        playerBanSessions.put(uuid, banSession);
-        player.sendMessage(message(messages, "messages.please_type_ban_reason", "&ePlease type the ban reason in chat:"));
-        return true;
+            BanSession banSession = new BanSession();
+            banSession.reportId = reportId;
+            playerBanSessions.put(uuid, banSession);
+            player.sendMessage(message(messages, "messages.please_type_ban_reason", "&ePlease type the ban reason in chat:"));
+            player.closeInventory();
+        });
     }
 
     private void handleUpdateInput(Player player, UUID uuid, String input, FileConfiguration messages) {
@@ -658,13 +952,26 @@ public class ReportGUI implements CommandExecutor, Listener {
 
     private void showUpdateHistory(Player player, String reportId) {
         FileConfiguration messages = ReportPlugin.getInstance().getMessagesConfig();
-        Report report = database.getReportById(reportId);
-        if (report == null) {
-            player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-            return;
-        }
+        database.async().supply(() -> {
+            Report report = database.getReportById(reportId);
+            if (report == null) {
+                return null;
+            }
+            Map<String, Report> history = database.getUpdateHistory(report);
+            return history == null ? Map.<String, Report>of() : history;
+        }).thenAccept(history -> {
+            if (!player.isOnline()) {
+                return;
+            }
+            if (history == null) {
+                player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
+                return;
+            }
+            sendUpdateHistory(player, reportId, history, messages);
+        });
+    }
 
-        Map<String, Report> history = database.getUpdateHistory(report);
+    private void sendUpdateHistory(Player player, String reportId, Map<String, Report> history, FileConfiguration messages) {
         if (history.isEmpty()) {
             player.sendMessage(message(messages, "messages.update_history_empty", "&eNo update history for this report."));
             return;
@@ -700,18 +1007,14 @@ public class ReportGUI implements CommandExecutor, Listener {
     }
 
     private void handleKickReason(Player player, UUID uuid, String reason, FileConfiguration messages) {
-        String reportId = playerKickReason.get(uuid);
-        Report report = database.getReportById(reportId);
-        if (report == null) {
-            player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-            playerKickReason.remove(uuid);
-            return;
-        }
+        String reportId = playerKickReason.remove(uuid);
+        withReport(player, reportId, messages, report -> kickReportedPlayer(player, report, reason, messages));
+    }
 
+    private void kickReportedPlayer(Player player, Report report, String reason, FileConfiguration messages) {
         Player reportedPlayer = Bukkit.getPlayerExact(report.getReportedPlayer());
         if (reportedPlayer == null || !reportedPlayer.isOnline()) {
             player.sendMessage(message(messages, "messages.reported_player_not_found", "&cReported player is not online."));
-            playerKickReason.remove(uuid);
             return;
         }
 
@@ -720,7 +1023,6 @@ public class ReportGUI implements CommandExecutor, Listener {
         player.sendMessage(message(messages, "messages.kick_success", "&aPlayer {player} has been kicked for: {reason}")
                 .replace("{player}", reportedPlayer.getName())
                 .replace("{reason}", reason));
-        playerKickReason.remove(uuid);
         markReportAsPunished(report, player, "Kicked: " + reason);
     }
 
@@ -730,20 +1032,6 @@ public class ReportGUI implements CommandExecutor, Listener {
             return;
         }
 
-        Report report = database.getReportById(banSession.reportId);
-        if (report == null) {
-            player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-            playerBanSessions.remove(uuid);
-            return;
-        }
-
-        Player reportedPlayer = Bukkit.getPlayerExact(report.getReportedPlayer());
-        if (reportedPlayer == null || !reportedPlayer.isOnline()) {
-            player.sendMessage(message(messages, "messages.reported_player_not_found", "&cReported player is not online."));
-            playerBanSessions.remove(uuid);
-            return;
-        }
-
         if (banSession.reason == null) {
             banSession.reason = input;
             player.sendMessage(message(messages, "messages.enter_ban_duration",
@@ -760,33 +1048,43 @@ public class ReportGUI implements CommandExecutor, Listener {
             return;
         }
 
-        reportedPlayer.ban(banSession.reason, expiresAt, player.getName(), true);
+        playerBanSessions.remove(uuid);
+        withReport(player, banSession.reportId, messages,
+                report -> banReportedPlayer(player, report, banSession.reason, input, expiresAt, messages));
+    }
+
+    private void banReportedPlayer(Player player, Report report, String reason, String input, Instant expiresAt,
+                                   FileConfiguration messages) {
+        Player reportedPlayer = Bukkit.getPlayerExact(report.getReportedPlayer());
+        if (reportedPlayer == null || !reportedPlayer.isOnline()) {
+            player.sendMessage(message(messages, "messages.reported_player_not_found", "&cReported player is not online."));
+            return;
+        }
+
+        reportedPlayer.ban(reason, expiresAt, player.getName(), true);
         if (expiresAt == null) {
             player.sendMessage(message(messages, "messages.player_banned_permanently",
                     "&aPlayer {player} has been permanently banned for: {reason}")
                     .replace("{player}", reportedPlayer.getName())
-                    .replace("{reason}", banSession.reason));
-            markReportAsPunished(report, player, "Permanently banned: " + banSession.reason);
+                    .replace("{reason}", reason));
+            markReportAsPunished(report, player, "Permanently banned: " + reason);
         } else {
             player.sendMessage(message(messages, "messages.player_banned_temporarily",
                     "&aPlayer {player} has been banned for {duration} because: {reason}")
                     .replace("{player}", reportedPlayer.getName())
                     .replace("{duration}", input)
-                    .replace("{reason}", banSession.reason));
-            markReportAsPunished(report, player, "Temporarily banned for " + input + ": " + banSession.reason);
+                    .replace("{reason}", reason));
+            markReportAsPunished(report, player, "Temporarily banned for " + input + ": " + reason);
         }
-        playerBanSessions.remove(uuid);
     }
 
     private void applyReportUpdate(Player player, UUID uuid, UpdateSession session) {
         FileConfiguration messages = ReportPlugin.getInstance().getMessagesConfig();
-        Report report = database.getReportById(session.reportId);
-        if (report == null) {
-            player.sendMessage(message(messages, "messages.report_not_found", "&cReport not found."));
-            updateSessions.remove(uuid);
-            return;
-        }
+        updateSessions.remove(uuid);
+        withReport(player, session.reportId, messages, report -> applyReportUpdate(player, report, session, messages));
+    }
 
+    private void applyReportUpdate(Player player, Report report, UpdateSession session, FileConfiguration messages) {
         if (session.newReason != null) {
             report.setReason(session.newReason);
         }
@@ -803,27 +1101,34 @@ public class ReportGUI implements CommandExecutor, Listener {
             report.setStatus(session.newStatus);
         }
 
-        database.updateReport(report);
-        updateSessions.remove(uuid);
-        player.sendMessage(message(messages, "messages.report_updated", "&aReport updated."));
-
-        if (database.writeUpdateHistory(report, player.getName())) {
-            player.sendMessage(message(messages, "messages.update_history_recorded", "&aUpdate history recorded."));
-        } else {
-            player.sendMessage(message(messages, "messages.update_history_record_failed", "&cFailed to record update history."));
-        }
+        String updater = player.getName();
+        database.async().supply(() -> {
+            database.updateReport(report);
+            return database.writeUpdateHistory(report, updater);
+        }).thenAccept(historyWritten -> {
+            player.sendMessage(message(messages, "messages.report_updated", "&aReport updated."));
+            if (historyWritten) {
+                player.sendMessage(message(messages, "messages.update_history_recorded", "&aUpdate history recorded."));
+            } else {
+                player.sendMessage(message(messages, "messages.update_history_record_failed", "&cFailed to record update history."));
+            }
 
-        notifyStaffAboutUpdate(player, report);
-        notifyDiscordAboutUpdate(player, report);
+            notifyStaffAboutUpdate(player, report);
+            notifyDiscordAboutUpdate(player, report);
+        });
     }
 
     private void markReportAsPunished(Report report, Player actor, String resolutionComment) {
         report.setStatus(ReportStatus.PUNISHED);
         report.setResolutionComment(resolutionComment);
-        database.updateReport(report);
-        database.writeUpdateHistory(report, actor.getName());
-        notifyStaffAboutUpdate(actor, report);
-        notifyDiscordAboutUpdate(actor, report);
+        String updater = actor.getName();
+        database.async().run(() -> {
+            database.updateReport(report);
+            database.writeUpdateHistory(report, updater);
+        }).thenRun(() -> {
+            notifyStaffAboutUpdate(actor, report);
+            notifyDiscordAboutUpdate(actor, report);
+        });
     }
 
     private void notifyStaffAboutUpdate(Player actor, Report report) {
@@ -882,9 +1187,7 @@ public class ReportGUI implements CommandExecutor, Listener {
     }
 
     private String formatTimestamp(long timestamp) {
-        synchronized (DATE_FORMAT) {
-            return DATE_FORMAT.format(new Date(timestamp));
-        }
+        return DATE_FORMAT.format(Instant.ofEpochMilli(timestamp));
     }
 
     private String message(FileConfiguration messages, String path, String defaultValue) {
@@ -934,7 +1237,7 @@ public class ReportGUI implements CommandExecutor, Listener {
 
     private Location safeLocation(Report report) {
         try {
-            return Report.getLocationAsBukkitLocation(report.getLocation());
+            return report.getBukkitLocation();
         } catch (IllegalArgumentException exception) {
             return null;
         }
@@ -0,0 +1,128 @@
+package ch.framedev.reportPlugin.commands;
+
+/*
+ * ch.framedev.reportPlugin.commands
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 22:40
+ */
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.inventory.meta.SkullMeta;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Reuses the items of the report GUIs instead of building their meta and messages for every slot on every open.
+ * <p>
+ * Report items are cached by report id, player heads by player UUID. Every entry remembers the data it was
+ * rendered from, its version, and is only reused while the data is equal, so a changed report is rendered again
+ * even if its invalidation was missed. Player heads keep the skull with its owner separately, so the owner is only
+ * resolved once per player. {@link #invalidate(String)} is called for changed reports and
+ * {@link #invalidateAll()} once the messages are reloaded.
+ * <p>
+ * Returned items are shared and must not be modified, inventories store a copy of every item they are given.
+ */
+public final class ReportItemCache {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    private record Entry(Object version, ItemStack item) {
+    }
+
+    // Guarded by this, access order makes the first entry the least recently used one
+    private final Map<String, Entry> reportItems = lruMap();
+    private final Map<UUID, Entry> playerHeads = lruMap();
+    private final Map<UUID, ItemStack> skulls = lruMap();
+
+    /**
+     * @param reportId the id of the report
+     * @param version  the data the item shows, e.g. the report summary
+     * @param renderer builds the item if there is none for this version
+     * @return the cached item, or the rendered one
+     */
+    public synchronized ItemStack getReportItem(String reportId, Object version, Supplier<ItemStack> renderer) {
+        Entry entry = reportItems.get(reportId);
+        if (entry != null && entry.version().equals(version)) {
+            return entry.item();
+        }
+        ItemStack item = renderer.get();
+        reportItems.put(reportId, new Entry(version, item));
+        return item;
+    }
+
+    /**
+     * @param player   the owner of the head
+     * @param version  the data the item shows, e.g. the report statistics of the player
+     * @param decorate sets the name and lore of the head
+     * @return the cached head, or a copy of the player's skull decorated for this version
+     */
+    public synchronized ItemStack getPlayerHead(Player player, Object version, Consumer<ItemMeta> decorate) {
+        UUID uuid = player.getUniqueId();
+        Entry entry = playerHeads.get(uuid);
+        if (entry != null && entry.version().equals(version)) {
+            return entry.item();
+        }
+        ItemStack head = skulls.computeIfAbsent(uuid, ignored -> createSkull(player)).clone();
+        ItemMeta meta = head.getItemMeta();
+        if (meta != null) {
+            decorate.accept(meta);
+            head.setItemMeta(meta);
+        }
+        playerHeads.put(uuid, new Entry(version, head));
+        return head;
+    }
+
+    /**
+     * Drops the item of a changed report.
+     *
+     * @param reportId the id of the report, or null to drop every report item
+     */
+    public synchronized void invalidate(String reportId) {
+        if (reportId == null) {
+            reportItems.clear();
+        } else {
+            reportItems.remove(reportId);
+        }
+    }
+
+    /**
+     * Drops every rendered item, e.g. after the messages were reloaded. The skulls are kept, they show no messages.
+     */
+    public synchronized void invalidateAll() {
+        reportItems.clear();
+        playerHeads.clear();
+    }
+
+    public synchronized void clear() {
+        invalidateAll();
+        skulls.clear();
+    }
+
+    private static ItemStack createSkull(Player player) {
+        ItemStack skull = new ItemStack(Material.PLAYER_HEAD);
+        if (skull.getItemMeta() instanceof SkullMeta meta) {
+            meta.setOwningPlayer(player);
+            skull.setItemMeta(meta);
+        }
+        return skull;
+    }
+
+    private static <K, V> Map<K, V> lruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+}
@@ -1,8 +1,9 @@
 package ch.framedev.reportPlugin.commands;
 
 import ch.framedev.reportPlugin.database.Database;
+import ch.framedev.reportPlugin.database.ReportQuery;
 import ch.framedev.reportPlugin.utils.MessageUtils;
-import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -10,11 +11,17 @@ import org.jetbrains.annotations.NotNull;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ReportListCommand implements CommandExecutor {
 
+    private static final int MAX_CHAT_REPORTS = 10;
+
     private Database database;
+    // Keyset cursor of the next page per sender, the last report that was listed
+    private final Map<String, ReportSummary> nextCursors = new HashMap<>();
 
     public ReportListCommand(Database database) {
         this.database = database;
@@ -31,40 +38,50 @@ public class ReportListCommand implements CommandExecutor {
             return true;
         }
 
-        List<Report> reports = database.getAllReports().stream()
-                .filter(report -> !report.getStatus().isClosed())
-                .toList();
+        // "next" continues after the last listed report, anything else starts at the newest report
+        ReportSummary cursor = args.length > 0 && args[0].equalsIgnoreCase("next") ? nextCursors.get(sender.getName()) : null;
+        // One more than the chat limit is enough to know whether there is a next page
+        database.async().findReportSummaries(ReportQuery.builder()
+                        .openOnly()
+                        .sortBy(ReportQuery.SortKey.TIMESTAMP, true)
+                        .after(cursor)
+                        .limit(MAX_CHAT_REPORTS + 1)
+                        .build())
+                .thenAccept(reports -> sendReportList(sender, reports));
+        return true;
+    }
 
+    private void sendReportList(CommandSender sender, List<ReportSummary> reports) {
         if (reports.isEmpty()) {
+            nextCursors.remove(sender.getName());
             MessageUtils.send(sender, "messages.report_list_empty", "&eThere are no reports.");
-            return true;
+            return;
         }
-        if (reports.size() > 10) {
-            MessageUtils.send(sender, "messages.report_list_use_gui", "&eUse /report-gui to view reports in a GUI.");
-            return true;
+        boolean hasNext = reports.size() > MAX_CHAT_REPORTS;
+        if (hasNext) {
+            reports = reports.subList(0, MAX_CHAT_REPORTS);
+            nextCursors.put(sender.getName(), reports.getLast());
+        } else {
+            nextCursors.remove(sender.getName());
         }
 
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         MessageUtils.send(sender, "messages.report_list_header", "&a---- Report List ----");
-        for (Report report : reports) {
-            MessageUtils.send(sender, "messages.report_list_id", "&bID: {reportId}", "{reportId}", report.getReportId());
-            MessageUtils.send(sender, "messages.report_list_player", "&7Player: {player}", "{player}", report.getReportedPlayer());
-            MessageUtils.send(sender, "messages.report_list_reporter", "&7Reporter: {reporter}", "{reporter}", report.getReporter());
-            MessageUtils.send(sender, "messages.report_list_reason", "&7Reason: {reason}", "{reason}", report.getReason());
+        for (ReportSummary report : reports) {
+            MessageUtils.send(sender, "messages.report_list_id", "&bID: {reportId}", "{reportId}", report.reportId());
+            MessageUtils.send(sender, "messages.report_list_player", "&7Player: {player}", "{player}", report.reportedPlayer());
+            MessageUtils.send(sender, "messages.report_list_reporter", "&7Reporter: {reporter}", "{reporter}", report.reporter());
+            MessageUtils.send(sender, "messages.report_list_reason", "&7Reason: {reason}", "{reason}", report.reason());
             MessageUtils.send(sender, "messages.report_list_timestamp", "&7Timestamp: {timestamp}",
-                    "{timestamp}", sdf.format(new Date(report.getTimestamp())));
+                    "{timestamp}", sdf.format(new Date(report.timestamp())));
             MessageUtils.send(sender, "messages.report_list_status", "&eStatus: {status}",
-                    "{status}", report.getStatus().getDisplayName());
-            MessageUtils.send(sender, "messages.report_list_resolution", "&eResolution Comment: {resolution}",
-                    "{resolution}", report.getResolutionComment());
-            if (!report.getEvidenceUrl().isEmpty()) {
-                MessageUtils.send(sender, "messages.report_list_evidence", "&eEvidence: {evidence}",
-                        "{evidence}", report.getEvidenceUrl());
-            }
+                    "{status}", report.status().getDisplayName());
         }
         MessageUtils.send(sender, "messages.report_list_footer", "&a----------------------");
         MessageUtils.send(sender, "messages.report_list_total", "&aTotal reports: {count}",
                 "{count}", String.valueOf(reports.size()));
-        return true;
+        if (hasNext) {
+            MessageUtils.send(sender, "messages.report_list_next", "&eUse /reports-list next to see more reports.");
+        }
     }
 }
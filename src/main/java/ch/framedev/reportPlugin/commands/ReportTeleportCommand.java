@@ -1,6 +1,7 @@
 package ch.framedev.reportPlugin.commands;
 
 import ch.framedev.reportPlugin.database.Database;
+import ch.framedev.reportPlugin.database.ReportQuery;
 import ch.framedev.reportPlugin.main.ReportPlugin;
 import ch.framedev.reportPlugin.utils.Report;
 import org.bukkit.ChatColor;
@@ -15,7 +16,6 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
@@ -23,6 +23,8 @@ import java.util.Set;
 
 public class ReportTeleportCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_SUGGESTIONS = 100;
+
     private Database database;
 
     public ReportTeleportCommand(Database database) {
@@ -54,33 +56,36 @@ public class ReportTeleportCommand implements CommandExecutor, TabCompleter {
 
         if (args.length == 1) {
             String lookup = args[0];
-            Report report = database.getReportById(lookup);
-            if (report != null) {
-                teleportToReport(player, report, messages, false);
-                return true;
-            }
-
-            Report lastReport = getLatestReportForPlayer(lookup);
-            if (lastReport == null) {
-                player.sendMessage(message(messages, "messages.reporttp_report_or_player_not_found",
-                        "&cNo report found for player or report ID: {input}")
-                        .replace("{input}", lookup));
-                return true;
-            }
-
-            teleportToReport(player, lastReport, messages, true);
+            // Try the input as report id first and fall back to the latest report of the player
+            database.async().supply(() -> {
+                Report report = database.getReportById(lookup);
+                return report != null ? new LookupResult(report, false) : new LookupResult(getLatestReportForPlayer(lookup), true);
+            }).thenAccept(result -> {
+                if (!player.isOnline()) {
+                    return;
+                }
+                if (result.report() == null) {
+                    player.sendMessage(message(messages, "messages.reporttp_report_or_player_not_found",
+                            "&cNo report found for player or report ID: {input}")
+                            .replace("{input}", lookup));
+                    return;
+                }
+                teleportToReport(player, result.report(), messages, result.latestLookup());
+            });
             return true;
         }
 
-        if (args.length == 2) {
-            String reportedPlayerName = args[0];
-            String reportId = args[1];
-            Report report = database.getReportById(reportId);
+        String reportedPlayerName = args[0];
+        String reportId = args[1];
+        database.async().getReportById(reportId).thenAccept(report -> {
+            if (!player.isOnline()) {
+                return;
+            }
             if (report == null) {
                 player.sendMessage(message(messages, "messages.reporttp_report_id_not_found",
                         "&cNo report found with ID: {reportId}")
                         .replace("{reportId}", reportId));
-                return true;
+                return;
             }
 
             if (report.getReportedPlayer() == null || !report.getReportedPlayer().equalsIgnoreCase(reportedPlayerName)) {
@@ -89,14 +94,17 @@ public class ReportTeleportCommand implements CommandExecutor, TabCompleter {
                         .replace("{reportId}", reportId)
                         .replace("{actualPlayer}", report.getReportedPlayer() == null ? "unknown" : report.getReportedPlayer())
                         .replace("{expectedPlayer}", reportedPlayerName));
-                return true;
+                return;
             }
 
             teleportToReport(player, report, messages, false);
-        }
+        });
         return true;
     }
 
+    private record LookupResult(Report report, boolean latestLookup) {
+    }
+
     @Override
     public @Nullable List<String> onTabComplete(@NotNull CommandSender sender, @NotNull Command command, @NotNull String label, @NotNull String[] args) {
         if (!command.getName().equalsIgnoreCase("reporttp")) {
@@ -104,26 +112,14 @@ public class ReportTeleportCommand implements CommandExecutor, TabCompleter {
         }
 
         if (args.length == 1) {
-            String prefix = args[0].toLowerCase(Locale.ROOT);
-            Set<String> suggestions = new LinkedHashSet<>();
-
-            database.getAllReports().stream()
-                    .map(Report::getReportedPlayer)
-                    .filter(name -> name != null && name.toLowerCase(Locale.ROOT).startsWith(prefix))
-                    .forEach(suggestions::add);
-
-            database.getAllReports().stream()
-                    .map(Report::getReportId)
-                    .filter(reportId -> reportId != null && reportId.toLowerCase(Locale.ROOT).startsWith(prefix))
-                    .forEach(suggestions::add);
-
+            Set<String> suggestions = new LinkedHashSet<>(database.suggestReportedPlayers(args[0], MAX_SUGGESTIONS));
+            suggestions.addAll(database.suggestReportIds(args[0], MAX_SUGGESTIONS));
             return suggestions.stream().toList();
         }
 
         if (args.length == 2) {
             String reportedPlayerName = args[0];
-            return database.getAllReports().stream()
-                    .filter(report -> report.getReportedPlayer() != null && report.getReportedPlayer().equalsIgnoreCase(reportedPlayerName))
+            return database.findReports(ReportQuery.builder().reportedPlayer(reportedPlayerName).build()).stream()
                     .map(Report::getReportId)
                     .filter(reportId -> reportId != null && reportId.toLowerCase(Locale.ROOT).startsWith(args[1].toLowerCase(Locale.ROOT)))
                     .toList();
@@ -133,11 +129,12 @@ public class ReportTeleportCommand implements CommandExecutor, TabCompleter {
     }
 
     private Report getLatestReportForPlayer(String reportedPlayerName) {
-        return database.getAllReports().stream()
-                .filter(report -> report.getReportedPlayer() != null
-                        && report.getReportedPlayer().equalsIgnoreCase(reportedPlayerName))
-                .max(Comparator.comparingLong(Report::getTimestamp))
-                .orElse(null);
+        List<Report> reports = database.findReports(ReportQuery.builder()
+                .reportedPlayer(reportedPlayerName)
+                .sortBy(ReportQuery.SortKey.TIMESTAMP, true)
+                .limit(1)
+                .build());
+        return reports.isEmpty() ? null : reports.getFirst();
     }
 
     private void teleportToReport(Player player, Report report, FileConfiguration messages, boolean latestLookup) {
@@ -176,11 +173,11 @@ public class ReportTeleportCommand implements CommandExecutor, TabCompleter {
 
     private Location getValidReportLocation(Report report) {
         try {
-            if (report == null || report.getLocation() == null || report.getLocation().isBlank()) {
+            if (report == null || !report.hasCoordinates()) {
                 return null;
             }
 
-            Location reportLocation = Report.getLocationAsBukkitLocation(report.getLocation());
+            Location reportLocation = report.getBukkitLocation();
             World world = reportLocation.getWorld();
             if (world == null) {
                 return null;
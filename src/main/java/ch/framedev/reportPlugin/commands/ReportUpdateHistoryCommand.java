@@ -18,6 +18,8 @@ import java.util.Map;
 
 public class ReportUpdateHistoryCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_SUGGESTIONS = 100;
+
     private Database database;
 
     public ReportUpdateHistoryCommand(Database database) {
@@ -43,44 +45,59 @@ public class ReportUpdateHistoryCommand implements CommandExecutor, TabCompleter
             return true;
         }
         String reportId = args[0];
-        if (!database.reportExists(reportId)) {
-            MessageUtils.send(player, "messages.report_updatehistory_not_found", "&cNo report found with ID: {reportId}", "{reportId}", reportId);
-            return true;
-        }
+        database.async().supply(() -> {
+            Report report = database.getReportById(reportId);
+            if (report == null) {
+                return null;
+            }
+            Map<String, Report> history = database.getUpdateHistory(report);
+            return history == null ? Map.<String, Report>of() : history;
+        }).thenAccept(history -> {
+            if (!player.isOnline()) {
+                return;
+            }
+            if (history == null) {
+                MessageUtils.send(player, "messages.report_updatehistory_not_found", "&cNo report found with ID: {reportId}", "{reportId}", reportId);
+                return;
+            }
+            sendHistory(player, reportId, history);
+        });
+        return true;
+    }
+
+    private void sendHistory(Player player, String reportId, Map<String, Report> history) {
         MessageUtils.send(player, "messages.report_updatehistory_intro", "&aUpdate history for report ID: {reportId}", "{reportId}", reportId);
-        Map<String, Report> history = database.getUpdateHistory(database.getReportById(reportId));
         if (history.isEmpty()) {
             MessageUtils.send(player, "messages.update_history_empty", "&eNo update history for this report.");
-        } else {
-            MessageUtils.send(player, "messages.update_history_header", "&a---- Update History for Report {reportId} ----", "{reportId}", reportId);
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-            history.forEach((updater, rep) -> {
-                String updaterName = updater.replace("_-_", "");
-                MessageUtils.send(player, "messages.update_history_updated_by", "&eUpdated by: {updater}", "{updater}", updaterName);
-                MessageUtils.send(player, "messages.update_history_reason", "&eReason: {reason}", "{reason}", rep.getReason());
-                MessageUtils.send(player, "messages.update_history_reported_player", "&eReported Player: {player}",
-                        "{player}", rep.getReportedPlayer());
-                MessageUtils.send(player, "messages.update_history_reporter", "&eReporter: {reporter}",
-                        "{reporter}", rep.getReporter());
-                MessageUtils.send(player, "messages.update_history_status", "&eStatus: {status}",
-                        "{status}", rep.getStatus().getDisplayName());
-                MessageUtils.send(player, "messages.update_history_staff_notes", "&eStaff Notes: {notes}",
-                        "{notes}", rep.getAdditionalInfo().isEmpty() ? "N/A" : rep.getAdditionalInfo());
-                if (!rep.getEvidenceUrl().isEmpty()) {
-                    MessageUtils.send(player, "messages.update_history_evidence", "&eEvidence: {evidence}",
-                            "{evidence}", rep.getEvidenceUrl());
-                }
-                if (rep.getStatus().isClosed()) {
-                    MessageUtils.send(player, "messages.update_history_resolution", "&eResolution Comment: {resolution}",
-                            "{resolution}", rep.getResolutionComment().isEmpty() ? "N/A" : rep.getResolutionComment());
-                }
-                MessageUtils.send(player, "messages.update_history_time", "&eTime: {time}",
-                        "{time}", sdf.format(new Date(rep.getTimestamp())));
-                MessageUtils.send(player, "messages.update_history_separator", "&7-----------------------------");
-            });
-            MessageUtils.send(player, "messages.update_history_footer", "&a----------------------------------------");
+            return;
         }
-        return true;
+        MessageUtils.send(player, "messages.update_history_header", "&a---- Update History for Report {reportId} ----", "{reportId}", reportId);
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        history.forEach((updater, rep) -> {
+            String updaterName = updater.replace("_-_", "");
+            MessageUtils.send(player, "messages.update_history_updated_by", "&eUpdated by: {updater}", "{updater}", updaterName);
+            MessageUtils.send(player, "messages.update_history_reason", "&eReason: {reason}", "{reason}", rep.getReason());
+            MessageUtils.send(player, "messages.update_history_reported_player", "&eReported Player: {player}",
+                    "{player}", rep.getReportedPlayer());
+            MessageUtils.send(player, "messages.update_history_reporter", "&eReporter: {reporter}",
+                    "{reporter}", rep.getReporter());
+            MessageUtils.send(player, "messages.update_history_status", "&eStatus: {status}",
+                    "{status}", rep.getStatus().getDisplayName());
+            MessageUtils.send(player, "messages.update_history_staff_notes", "&eStaff Notes: {notes}",
+                    "{notes}", rep.getAdditionalInfo().isEmpty() ? "N/A" : rep.getAdditionalInfo());
+            if (!rep.getEvidenceUrl().isEmpty()) {
+                MessageUtils.send(player, "messages.update_history_evidence", "&eEvidence: {evidence}",
+                        "{evidence}", rep.getEvidenceUrl());
+            }
+            if (rep.getStatus().isClosed()) {
+                MessageUtils.send(player, "messages.update_history_resolution", "&eResolution Comment: {resolution}",
+                        "{resolution}", rep.getResolutionComment().isEmpty() ? "N/A" : rep.getResolutionComment());
+            }
+            MessageUtils.send(player, "messages.update_history_time", "&eTime: {time}",
+                    "{time}", sdf.format(new Date(rep.getTimestamp())));
+            MessageUtils.send(player, "messages.update_history_separator", "&7-----------------------------");
+        });
+        MessageUtils.send(player, "messages.update_history_footer", "&a----------------------------------------");
     }
 
     @Override
@@ -89,10 +106,7 @@ public class ReportUpdateHistoryCommand implements CommandExecutor, TabCompleter
             return null;
         }
         if (args.length == 1) {
-            return database.getAllReports().stream()
-                    .map(Report::getReportId)
-                    .filter(id -> id.toLowerCase().startsWith(args[0].toLowerCase()))
-                    .toList();
+            return database.suggestReportIds(args[0], MAX_SUGGESTIONS);
         }
         return List.of();
     }
@@ -0,0 +1,387 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 17:40
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that answers the checks made before a new report is accepted in constant time.
+ * <p>
+ * It counts the reports per reported player and per reporter, which answers
+ * {@link #countReports(ReportQuery)} for queries filtering only one of them, and remembers which reporter
+ * reported which player within the last {@code recentWindowMillis}, which answers
+ * {@link #hasRecentReport(String, String, long)}. Recent reports are grouped into time buckets so expired
+ * ones are dropped a whole bucket at a time.
+ * <p>
+ * The counters are built once the backend is connected and are then kept up to date by every insert, update
+ * and delete through this helper. Until then every check is forwarded to the backend.
+ * Changes made by other servers have to be applied with {@link #refresh(String)}.
+ */
+public class AdmissionDatabaseHelper extends ForwardingDatabaseHelper {
+
+    private static final int BUCKETS_PER_WINDOW = 8;
+
+    // What the counters need to know about a stored report to undo it on update or delete
+    private record Admission(String reportedKey, String reporterKey, long timestamp) {
+
+        static Admission of(Report report) {
+            return new Admission(lower(report.getReportedPlayer()), lower(report.getReporter()), report.getTimestamp());
+        }
+
+        String pairKey() {
+            return AdmissionDatabaseHelper.pairKey(reporterKey, reportedKey);
+        }
+    }
+
+    private final long recentWindowMillis;
+    private final long bucketMillis;
+
+    private final ConcurrentHashMap<String, Admission> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> reportsPerPlayer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> reportsPerReporter = new ConcurrentHashMap<>();
+    // Ids of the recent reports per reporter and reported player pair
+    private final ConcurrentHashMap<String, Set<String>> recentPairs = new ConcurrentHashMap<>();
+    // Ids of the recent reports by the start of the time bucket they were created in
+    private final ConcurrentSkipListMap<Long, Set<String>> recentBuckets = new ConcurrentSkipListMap<>();
+
+    // Serializes changes of the maps above, backend writes only hold the lock of their report
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReportLocks reportLocks = new ReportLocks();
+    private volatile boolean loaded;
+    private volatile boolean loading;
+
+    /**
+     * @param delegate           the backend to count, it is loaded on {@link #connect()}
+     * @param recentWindowMillis how long reports are remembered for {@link #hasRecentReport(String, String, long)}
+     */
+    public AdmissionDatabaseHelper(DatabaseHelper delegate, long recentWindowMillis) {
+        super(delegate);
+        this.recentWindowMillis = Math.max(0L, recentWindowMillis);
+        this.bucketMillis = Math.max(1000L, this.recentWindowMillis / BUCKETS_PER_WINDOW);
+    }
+
+    /**
+     * Rebuilds the counters from the backend. Checks are forwarded to the backend while it is loading.
+     *
+     * @return true if the counters were loaded, otherwise checks keep being forwarded to the backend
+     */
+    public boolean load() {
+        writeLock.lock();
+        try {
+            loading = true;
+            loaded = false;
+            clear();
+            try (Stream<Report> reports = delegate.streamReports(ReportQuery.builder().sortBy(ReportQuery.SortKey.UNSORTED, false).build())) {
+                reports.filter(report -> report.getReportId() != null).forEach(this::add);
+            } catch (RuntimeException ex) {
+                clear();
+                logger().log(Level.SEVERE, "Could not load the report limit counters, checking the database instead", ex);
+                return false;
+            }
+            loaded = true;
+            return true;
+        } finally {
+            loading = false;
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads a report from the backend, e.g. after it was changed by another server.
+     *
+     * @param reportId the id of the changed report, or null to reload every report
+     */
+    public void refresh(String reportId) {
+        if (reportId == null) {
+            load();
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (loaded) {
+                reload(reportId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reload(String reportId) {
+        remove(reportId);
+        Report report = delegate.getReportById(reportId);
+        if (report != null) {
+            add(report);
+        }
+    }
+
+    @Override
+    public boolean connect() {
+        if (!delegate.connect()) {
+            return false;
+        }
+        load();
+        return true;
+    }
+
+    @Override
+    public void disconnect() {
+        writeLock.lock();
+        try {
+            loaded = false;
+            clear();
+        } finally {
+            writeLock.unlock();
+        }
+        delegate.disconnect();
+    }
+
+    /**
+     * Answers queries that filter only by reported player or only by reporter from the counters.
+     */
+    @Override
+    public int countReports(ReportQuery query) {
+        if (!loaded || query.hasStatusFilter() || query.hasTimeRange()
+            || (query.getReportedPlayer() == null) == (query.getReporter() == null)) {
+            return delegate.countReports(query);
+        }
+        if (query.getReportedPlayer() != null) {
+            return reportsPerPlayer.getOrDefault(lower(query.getReportedPlayer()), 0);
+        }
+        return reportsPerReporter.getOrDefault(lower(query.getReporter()), 0);
+    }
+
+    @Override
+    public int countReportsForPlayer(String reportedPlayer) {
+        if (!loaded || reportedPlayer == null) {
+            return delegate.countReportsForPlayer(reportedPlayer);
+        }
+        return reportsPerPlayer.getOrDefault(lower(reportedPlayer), 0);
+    }
+
+    @Override
+    public boolean playerHasReport(String reportedPlayer) {
+        if (!loaded || reportedPlayer == null) {
+            return delegate.playerHasReport(reportedPlayer);
+        }
+        return reportsPerPlayer.containsKey(lower(reportedPlayer));
+    }
+
+    @Override
+    public boolean hasRecentReport(String reporter, String reportedPlayer, long sinceMillis) {
+        // Reports older than the window are no longer remembered, so longer windows are checked by the backend
+        if (!loaded || reporter == null || reportedPlayer == null || sinceMillis < System.currentTimeMillis() - recentWindowMillis) {
+            return delegate.hasRecentReport(reporter, reportedPlayer, sinceMillis);
+        }
+        Set<String> recent = recentPairs.get(pairKey(lower(reporter), lower(reportedPlayer)));
+        if (recent == null) {
+            return false;
+        }
+        for (String reportId : recent) {
+            Admission admission = byId.get(reportId);
+            if (admission != null && admission.timestamp() >= sinceMillis) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Written through {@link DatabaseHelper#insertReports(List)}, which tells whether the report was stored.
+     */
+    @Override
+    public void insertReport(Report report) {
+        if (report == null) {
+            delegate.insertReport(null);
+            return;
+        }
+        insertReports(List.of(report));
+    }
+
+    /**
+     * Reports are only counted once the backend confirmed the write, after a failed write they are read back.
+     */
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        try (ReportLocks.Held ignored = lockIfLoaded(reports.stream().filter(Objects::nonNull).map(Report::getReportId).toList())) {
+            boolean written = delegate.insertReports(reports);
+            whenLoaded(() -> {
+                for (Report report : reports) {
+                    if (report != null && report.getReportId() != null) {
+                        if (written) {
+                            remove(report.getReportId());
+                            add(report);
+                        } else {
+                            reload(report.getReportId());
+                        }
+                    }
+                }
+            });
+            return written;
+        }
+    }
+
+    /**
+     * An update may move a report to another player or reporter, so its old state is removed first.
+     */
+    @Override
+    public void updateReport(Report report) {
+        if (report == null || report.getReportId() == null) {
+            delegate.updateReport(report);
+            return;
+        }
+        try (ReportLocks.Held ignored = lockIfLoaded(List.of(report.getReportId()))) {
+            delegate.updateReport(report);
+            whenLoaded(() -> {
+                remove(report.getReportId());
+                add(report);
+            });
+        }
+    }
+
+    @Override
+    public boolean deleteReport(String reportId) {
+        if (reportId == null) {
+            return delegate.deleteReport(null);
+        }
+        try (ReportLocks.Held ignored = lockIfLoaded(List.of(reportId))) {
+            boolean deleted = delegate.deleteReport(reportId);
+            if (deleted) {
+                whenLoaded(() -> remove(reportId));
+            }
+            return deleted;
+        }
+    }
+
+    /**
+     * Orders the writes of the same reports while there is an in-memory copy to keep up to date.
+     */
+    private ReportLocks.Held lockIfLoaded(Collection<String> reportIds) {
+        return loaded || loading ? reportLocks.lock(reportIds) : ReportLocks.NONE;
+    }
+
+    /**
+     * Applies a change after its backend write returned. Nothing is locked while nothing is loaded, a write that
+     * returns while loading waits for it and is applied on top, since the load may have read the old state.
+     */
+    private void whenLoaded(Runnable change) {
+        if (!loaded && !loading) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void add(Report report) {
+        Admission admission = Admission.of(report);
+        String reportId = report.getReportId();
+        byId.put(reportId, admission);
+        increment(reportsPerPlayer, admission.reportedKey());
+        increment(reportsPerReporter, admission.reporterKey());
+        long now = System.currentTimeMillis();
+        expireBuckets(now);
+        if (admission.timestamp() >= now - recentWindowMillis) {
+            long bucket = admission.timestamp() - Math.floorMod(admission.timestamp(), bucketMillis);
+            recentBuckets.computeIfAbsent(bucket, ignored -> ConcurrentHashMap.newKeySet()).add(reportId);
+            recentPairs.computeIfAbsent(admission.pairKey(), ignored -> ConcurrentHashMap.newKeySet()).add(reportId);
+        }
+    }
+
+    private void remove(String reportId) {
+        Admission admission = byId.remove(reportId);
+        if (admission == null) {
+            return;
+        }
+        decrement(reportsPerPlayer, admission.reportedKey());
+        decrement(reportsPerReporter, admission.reporterKey());
+        removeRecent(admission.pairKey(), reportId);
+        long bucket = admission.timestamp() - Math.floorMod(admission.timestamp(), bucketMillis);
+        recentBuckets.computeIfPresent(bucket, (ignored, ids) -> {
+            ids.remove(reportId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * Forgets the recent reports of every bucket that ended before the window.
+     */
+    private void expireBuckets(long now) {
+        Map<Long, Set<String>> expired = recentBuckets.headMap(now - recentWindowMillis - bucketMillis, true);
+        for (Set<String> ids : expired.values()) {
+            for (String reportId : ids) {
+                Admission admission = byId.get(reportId);
+                if (admission != null) {
+                    removeRecent(admission.pairKey(), reportId);
+                }
+            }
+        }
+        expired.clear();
+    }
+
+    private void removeRecent(String pairKey, String reportId) {
+        recentPairs.computeIfPresent(pairKey, (ignored, ids) -> {
+            ids.remove(reportId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private void clear() {
+        byId.clear();
+        reportsPerPlayer.clear();
+        reportsPerReporter.clear();
+        recentPairs.clear();
+        recentBuckets.clear();
+    }
+
+    private static void increment(Map<String, Integer> counts, String key) {
+        if (key != null) {
+            counts.merge(key, 1, Integer::sum);
+        }
+    }
+
+    private static void decrement(Map<String, Integer> counts, String key) {
+        if (key != null) {
+            counts.computeIfPresent(key, (ignored, count) -> count <= 1 ? null : count - 1);
+        }
+    }
+
+    private static String pairKey(String reporterKey, String reportedKey) {
+        // Player names cannot contain a line break, so the pair key is unambiguous
+        return reporterKey + "\n" + reportedKey;
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(AdmissionDatabaseHelper.class.getName());
+    }
+}
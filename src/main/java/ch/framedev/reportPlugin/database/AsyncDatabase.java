@@ -0,0 +1,181 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 11:05
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+import org.bukkit.Bukkit;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Asynchronous facade over {@link Database}.
+ * <p>
+ * Every call runs on a virtual thread, so slow database round trips never block the server thread.
+ * The returned futures are completed on the main server thread, which means callbacks registered with
+ * {@code thenAccept} and similar methods can safely use the Bukkit API.
+ */
+public class AsyncDatabase {
+
+    private final ReportPlugin plugin;
+    private final Database database;
+    private final ExecutorService executor;
+
+    public AsyncDatabase(ReportPlugin plugin, Database database) {
+        this.plugin = plugin;
+        this.database = database;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ReportPlugin-db-", 0).factory());
+    }
+
+    /**
+     * Runs the given database work off the main thread.
+     *
+     * @param task the work to run, usually a call on the underlying {@link Database}
+     * @return a future completed on the main thread with the result of the task
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    T result = task.get();
+                    completeOnMainThread(() -> future.complete(result));
+                } catch (Throwable throwable) {
+                    plugin.getLogger().log(Level.SEVERE, "Asynchronous database operation failed", throwable);
+                    completeOnMainThread(() -> future.completeExceptionally(throwable));
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    /**
+     * Runs the given database work off the main thread.
+     *
+     * @param task the work to run
+     * @return a future completed on the main thread once the task has finished
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    public CompletableFuture<List<Report>> getAllReports() {
+        return supply(database::getAllReports);
+    }
+
+    public CompletableFuture<List<Report>> findReports(ReportQuery query) {
+        return supply(() -> database.findReports(query));
+    }
+
+    public CompletableFuture<List<ReportSummary>> findReportSummaries(ReportQuery query) {
+        return supply(() -> database.findReportSummaries(query));
+    }
+
+    public CompletableFuture<Integer> countReports(ReportQuery query) {
+        return supply(() -> database.countReports(query));
+    }
+
+    public CompletableFuture<Map<ReportStatus, Integer>> countReportsByStatus(ReportQuery query) {
+        return supply(() -> database.countReportsByStatus(query));
+    }
+
+    public CompletableFuture<Report> getReportById(String reportId) {
+        return supply(() -> database.getReportById(reportId));
+    }
+
+    public CompletableFuture<Map<String, Report>> getReportsByIds(Collection<String> reportIds) {
+        return supply(() -> database.getReportsByIds(reportIds));
+    }
+
+    public CompletableFuture<Report> getReportByPlayer(String reportedPlayer) {
+        return supply(() -> database.getReportByPlayer(reportedPlayer));
+    }
+
+    public CompletableFuture<Report> getReportByReporter(String reporter) {
+        return supply(() -> database.getReportByReporter(reporter));
+    }
+
+    public CompletableFuture<Boolean> reportExists(String reportId) {
+        return supply(() -> database.reportExists(reportId));
+    }
+
+    public CompletableFuture<Integer> countReportsForPlayer(String reportedPlayer) {
+        return supply(() -> database.countReportsForPlayer(reportedPlayer));
+    }
+
+    public CompletableFuture<Void> insertReport(Report report) {
+        return run(() -> database.insertReport(report));
+    }
+
+    public CompletableFuture<Void> updateReport(Report report) {
+        return run(() -> database.updateReport(report));
+    }
+
+    public CompletableFuture<Boolean> deleteReport(String reportId) {
+        return supply(() -> database.deleteReport(reportId));
+    }
+
+    public CompletableFuture<Boolean> writeUpdateHistory(Report report, String updater) {
+        return supply(() -> database.writeUpdateHistory(report, updater));
+    }
+
+    public CompletableFuture<Map<String, Report>> getUpdateHistory(Report report) {
+        return supply(() -> database.getUpdateHistory(report));
+    }
+
+    public CompletableFuture<Map<String, Report>> getUpdateHistory(Report report, int limit) {
+        return supply(() -> database.getUpdateHistory(report, limit));
+    }
+
+    public CompletableFuture<Boolean> clearUpdateHistory(Report report) {
+        return supply(() -> database.clearUpdateHistory(report));
+    }
+
+    /**
+     * Stops accepting new work and waits a short time for running operations to finish.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for pending database operations to finish.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    private void completeOnMainThread(Runnable runnable) {
+        if (Bukkit.isPrimaryThread() || !plugin.isEnabled()) {
+            // The scheduler rejects tasks from disabled plugins, complete directly while shutting down
+            runnable.run();
+            return;
+        }
+        Bukkit.getScheduler().runTask(plugin, runnable);
+    }
+}
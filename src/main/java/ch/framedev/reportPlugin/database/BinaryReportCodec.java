@@ -0,0 +1,144 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 20:20
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Versioned binary format without field names.
+ * <p>
+ * Version 1 layout: the magic byte {@code 'R'}, the version, the timestamp as 8 bytes, a 16-bit mask of the
+ * string fields that are set and every set string as a varint length followed by its UTF-8 bytes, in the order
+ * of {@link #FIELDS}. Fields are only ever appended with a new version, older versions stay readable.
+ */
+final class BinaryReportCodec implements ReportCodec {
+
+    static final String NAME = "binary";
+
+    private static final byte MAGIC = 'R';
+    private static final byte VERSION = 1;
+
+    // The string fields of version 1 in stored order
+    private static final String[] FIELDS = {
+            "reportedPlayer", "reason", "reporter", "timeAsString", "status", "resolutionComment", "reportId",
+            "serverName", "serverIp", "serverVersion", "worldName", "location", "additionalInfo", "evidenceUrl"
+    };
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Report report) {
+        String[] values = {
+                report.getReportedPlayer(), report.getReason(), report.getReporter(), report.getTimeAsString(),
+                report.getStatus().name(), report.getResolutionComment(), report.getReportId(),
+                report.getServerName(), report.getServerIp(), report.getServerVersion(), report.getWorldName(),
+                report.getLocation(), report.getAdditionalInfo(), report.getEvidenceUrl()
+        };
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(MAGIC);
+        out.write(VERSION);
+        long timestamp = report.getTimestamp();
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (timestamp >>> shift));
+        }
+        int mask = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        out.write(mask >>> 8);
+        out.write(mask);
+        for (String value : values) {
+            if (value != null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes, 0, bytes.length);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public Report decode(byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            if (in.get() != MAGIC) {
+                throw new IllegalArgumentException("Not a binary report");
+            }
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary report version " + version);
+            }
+            long timestamp = in.getLong();
+            int mask = in.getShort() & 0xFFFF;
+            String[] values = new String[FIELDS.length];
+            for (int i = 0; i < FIELDS.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    int length = readVarInt(in);
+                    // A corrupt varint can decode to a negative length, which would escape as an index exception
+                    if (length < 0 || length > in.remaining()) {
+                        throw new IllegalArgumentException("Truncated or corrupt binary report");
+                    }
+                    values[i] = new String(data, in.position(), length, StandardCharsets.UTF_8);
+                    in.position(in.position() + length);
+                }
+            }
+            Report report = new Report();
+            report.setTimestamp(timestamp);
+            report.setReportedPlayer(values[0]);
+            report.setReason(values[1]);
+            report.setReporter(values[2]);
+            report.setTimeAsString(values[3]);
+            // Also sets resolved
+            report.setStatus(values[4]);
+            report.setResolutionComment(values[5]);
+            report.setReportId(values[6]);
+            report.setServerName(values[7]);
+            report.setServerIp(values[8]);
+            report.setServerVersion(values[9]);
+            report.setWorldName(values[10]);
+            report.setLocation(values[11]);
+            report.setAdditionalInfo(values[12]);
+            report.setEvidenceUrl(values[13]);
+            return report;
+        } catch (BufferUnderflowException ex) {
+            throw new IllegalArgumentException("Truncated binary report", ex);
+        }
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed length in binary report");
+    }
+}
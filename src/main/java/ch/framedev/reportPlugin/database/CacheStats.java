@@ -0,0 +1,39 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 15:25
+ */
+
+/**
+ * Point-in-time statistics of a {@link ReportCache}.
+ *
+ * @param size      reports currently cached
+ * @param maxSize   the maximum number of cached reports
+ * @param hits      lookups answered from the cache since startup
+ * @param misses    lookups that had to read the backend since startup
+ * @param evictions reports removed because the cache was full or the entry expired
+ */
+public record CacheStats(int size,
+                         int maxSize,
+                         long hits,
+                         long misses,
+                         long evictions) {
+
+    /**
+     * @return the share of lookups answered from the cache between 0 and 1
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0D : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size + "/" + maxSize + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions;
+    }
+}
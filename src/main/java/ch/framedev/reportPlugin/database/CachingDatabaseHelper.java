@@ -0,0 +1,147 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 15:40
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decorator that keeps recently read reports in memory, see {@link ReportCache}.
+ * <p>
+ * Lookups by id are answered from the cache, everything else is forwarded to the backend.
+ * Every write through this helper invalidates the affected report after the backend has been updated,
+ * so a report is never served in a state older than the last local write.
+ */
+public class CachingDatabaseHelper extends ForwardingDatabaseHelper {
+
+    private final ReportCache cache;
+
+    /**
+     * @param delegate  the backend to cache
+     * @param maxSize   the maximum number of cached reports
+     * @param ttlMillis how long a report stays cached after it was loaded, 0 to never expire
+     */
+    public CachingDatabaseHelper(DatabaseHelper delegate, int maxSize, long ttlMillis) {
+        super(delegate);
+        this.cache = new ReportCache(maxSize, ttlMillis);
+    }
+
+    /**
+     * @return the hit, miss and eviction counters of the cache
+     */
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Drops a report from the cache, e.g. after it was changed by another server.
+     *
+     * @param reportId the id of the changed report
+     */
+    public void invalidate(String reportId) {
+        cache.invalidate(reportId);
+    }
+
+    /**
+     * Drops every cached report, e.g. after changes made by other servers may have been missed.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public Report getReportById(String reportId) {
+        if (reportId == null) {
+            return delegate.getReportById(null);
+        }
+        Report cached = cache.get(reportId);
+        if (cached != null) {
+            return cached;
+        }
+        long ticket = cache.ticket();
+        Report report = delegate.getReportById(reportId);
+        cache.put(report, ticket);
+        return report;
+    }
+
+    @Override
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        Map<String, Report> reports = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String reportId : reportIds) {
+            Report cached = cache.get(reportId);
+            if (cached != null) {
+                reports.put(reportId, cached);
+            } else {
+                missing.add(reportId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return reports;
+        }
+        long ticket = cache.ticket();
+        Map<String, Report> loaded = delegate.getReportsByIds(missing);
+        loaded.values().forEach(report -> cache.put(report, ticket));
+        reports.putAll(loaded);
+        return reports;
+    }
+
+    @Override
+    public boolean reportExists(String reportId) {
+        return reportId != null && cache.get(reportId) != null || delegate.reportExists(reportId);
+    }
+
+    @Override
+    public boolean isResolved(String reportId) {
+        Report report = getReportById(reportId);
+        return report != null && report.isResolved();
+    }
+
+    @Override
+    public void insertReport(Report report) {
+        delegate.insertReport(report);
+        if (report != null) {
+            cache.invalidate(report.getReportId());
+        }
+    }
+
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        boolean written = delegate.insertReports(reports);
+        reports.forEach(report -> cache.invalidate(report.getReportId()));
+        return written;
+    }
+
+    @Override
+    public void updateReport(Report report) {
+        delegate.updateReport(report);
+        if (report != null) {
+            cache.invalidate(report.getReportId());
+        }
+    }
+
+    @Override
+    public boolean deleteReport(String reportId) {
+        boolean deleted = delegate.deleteReport(reportId);
+        cache.invalidate(reportId);
+        return deleted;
+    }
+
+    @Override
+    public void disconnect() {
+        cache.invalidateAll();
+        delegate.disconnect();
+    }
+}
@@ -0,0 +1,83 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 14:40
+ */
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An iterator holding a database resource such as an open cursor or directory handle.
+ * It must be closed once it is no longer needed, preferably with try-with-resources.
+ *
+ * @param <T> the element type
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Releases the underlying resource. Closing an iterator twice has no effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * Wraps this iterator in a sequential stream that closes the iterator when the stream is closed.
+     *
+     * @return a stream of the remaining elements
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * @return an iterator over the given elements that holds no resource
+     */
+    static <T> CloseableIterator<T> of(Iterator<T> iterator) {
+        return of(iterator, () -> {
+        });
+    }
+
+    /**
+     * @param iterator the elements
+     * @param onClose  called once when the iterator is closed
+     * @return an iterator over the given elements that runs the action when it is closed
+     */
+    static <T> CloseableIterator<T> of(Iterator<T> iterator, Runnable onClose) {
+        return new CloseableIterator<>() {
+            private boolean closed;
+
+            @Override
+            public boolean hasNext() {
+                return !closed && iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+                if (!closed) {
+                    closed = true;
+                    onClose.run();
+                }
+            }
+        };
+    }
+
+    static <T> CloseableIterator<T> empty() {
+        return of(Collections.emptyIterator());
+    }
+}
@@ -0,0 +1,57 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 20:20
+ */
+
+/**
+ * Point-in-time statistics of a {@link ReportCodec} since startup.
+ *
+ * @param name         the name of the codec
+ * @param encodes      reports encoded
+ * @param encodedBytes total size of the encoded reports, in characters for text
+ * @param encodeNanos  total time spent encoding
+ * @param decodes      reports decoded
+ * @param decodedBytes total size of the decoded data, in characters for text
+ * @param decodeNanos  total time spent decoding
+ */
+public record CodecStats(String name,
+                         long encodes,
+                         long encodedBytes,
+                         long encodeNanos,
+                         long decodes,
+                         long decodedBytes,
+                         long decodeNanos) {
+
+    /**
+     * @return the average size of an encoded report
+     */
+    public long averageBytes() {
+        long reports = encodes + decodes;
+        return reports == 0 ? 0L : (encodedBytes + decodedBytes) / reports;
+    }
+
+    /**
+     * @return the average time to encode a report in microseconds
+     */
+    public double averageEncodeMicros() {
+        return encodes == 0 ? 0D : encodeNanos / 1000D / encodes;
+    }
+
+    /**
+     * @return the average time to decode a report in microseconds
+     */
+    public double averageDecodeMicros() {
+        return decodes == 0 ? 0D : decodeNanos / 1000D / decodes;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": encodes=" + encodes + ", decodes=" + decodes + ", avgBytes=" + averageBytes();
+    }
+}
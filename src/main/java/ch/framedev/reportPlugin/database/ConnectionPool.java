@@ -0,0 +1,385 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 10:20
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small bounded JDBC connection pool shared by the SQL backends.
+ * <p>
+ * Connections handed out by {@link #borrow()} are proxies: calling {@code close()} returns the physical
+ * connection to the pool instead of closing it. Statements created through a borrowed connection are closed
+ * when the connection is returned, so the helpers can keep using try-with-resources on the connection only.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens a new physical connection to the database.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    // Connections that were used within this time are handed out again without validation
+    private static final long VALIDATION_BYPASS_MILLIS = 500L;
+
+    private final String name;
+    private final ConnectionFactory factory;
+    private final PoolSettings settings;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Creates the pool and opens the configured minimum of idle connections.
+     *
+     * @param name     name used in log messages and statistics
+     * @param factory  opens physical connections
+     * @param settings pool limits and timeouts
+     */
+    public ConnectionPool(String name, ConnectionFactory factory, PoolSettings settings) {
+        this.name = name;
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maximumSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ReportPlugin-" + name + "-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000L, Math.min(settings.idleTimeoutMillis() / 2, 30_000L));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+        fillToMinimum();
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if none is idle and the pool is not full.
+     * The returned connection must be closed to hand it back.
+     *
+     * @return a pooled connection
+     * @throws SQLException if no connection could be acquired within the acquire timeout or opening one failed
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool " + name + " is closed.");
+        }
+        waiting.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(settings.acquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + settings.acquireTimeoutMillis() +
+                                              "ms waiting for a connection from pool " + name + ".");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from pool " + name + ".", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = new PooledConnection(open());
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowTrace = settings.leakDetectionThresholdMillis() > 0
+                    ? new Throwable("Connection borrowed from pool " + name + " here")
+                    : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            borrows.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the current pool statistics.
+     */
+    public PoolStats getStats() {
+        int idleCount = idle.size();
+        int activeCount = borrowed.size();
+        return new PoolStats(name, idleCount + activeCount, idleCount, activeCount, waiting.get(),
+                created.get(), destroyed.get(), borrows.get(), timeouts.get(), leaks.get());
+    }
+
+    public PoolSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeping thread.
+     * Connections that are still borrowed are closed as soon as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = factory.create();
+        if (connection == null) {
+            throw new SQLException("Connection factory of pool " + name + " returned no connection.");
+        }
+        created.incrementAndGet();
+        return connection;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsedAt < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            if (settings.validationQuery().isEmpty()) {
+                return pooled.physical.isValid(5);
+            }
+            try (Statement statement = pooled.physical.createStatement()) {
+                statement.execute(settings.validationQuery());
+            }
+            return true;
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        boolean healthy = pooled.resetAfterUse();
+        pooled.lastUsedAt = System.currentTimeMillis();
+        if (healthy && !closed) {
+            // LIFO keeps the most recently used connections warm and lets the others time out
+            idle.offerFirst(pooled);
+        } else {
+            destroy(pooled);
+        }
+        permits.release();
+    }
+
+    private void destroy(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+        }
+        destroyed.incrementAndGet();
+    }
+
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            for (PooledConnection pooled : idle) {
+                if (idle.size() + borrowed.size() <= settings.minimumIdle()) {
+                    break;
+                }
+                if (now - pooled.lastUsedAt > settings.idleTimeoutMillis() && idle.remove(pooled)) {
+                    destroy(pooled);
+                }
+            }
+            fillToMinimum();
+            detectLeaks(now);
+        } catch (RuntimeException ex) {
+            logger().log(Level.WARNING, "Connection pool " + name + " housekeeping failed", ex);
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && idle.size() + borrowed.size() < settings.minimumIdle() && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = new PooledConnection(open());
+                idle.offerLast(pooled);
+            } catch (SQLException ex) {
+                logger().log(Level.WARNING, "Could not open idle connection for pool " + name, ex);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks(long now) {
+        long threshold = settings.leakDetectionThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > threshold) {
+                pooled.leakReported = true;
+                leaks.incrementAndGet();
+                logger().log(Level.WARNING, "Possible connection leak in pool " + name + ": connection held for " +
+                                            (now - pooled.borrowedAt) + "ms", pooled.borrowTrace);
+            }
+        }
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(ConnectionPool.class.getName());
+    }
+
+    /**
+     * A physical connection owned by the pool together with its bookkeeping.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final Queue<Statement> statements = new ConcurrentLinkedQueue<>();
+        private volatile long lastUsedAt = System.currentTimeMillis();
+        private volatile long borrowedAt;
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+
+        private void track(Object statement) {
+            if (statement instanceof Statement s) {
+                statements.add(s);
+            }
+        }
+
+        /**
+         * Closes leftover statements and restores the default connection state.
+         *
+         * @return false if the connection is broken and should be discarded
+         */
+        private boolean resetAfterUse() {
+            Statement statement;
+            while ((statement = statements.poll()) != null) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                }
+            }
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException ex) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Invocation handler behind the connections handed out to callers.
+     * Uses no monitors so virtual threads are not pinned while a JDBC call blocks.
+     */
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String methodName = method.getName();
+            switch (methodName) {
+                case "close" -> {
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned.get() || pooled.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + name + "] " + pooled.physical;
+                }
+                default -> {
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to pool " + name + ".");
+                    }
+                }
+            }
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (methodName.equals("createStatement") || methodName.equals("prepareStatement")
+                    || methodName.equals("prepareCall")) {
+                    pooled.track(result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
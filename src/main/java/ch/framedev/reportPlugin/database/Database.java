@@ -12,10 +12,16 @@ package ch.framedev.reportPlugin.database;
  */
 
 import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 import ch.framedev.reportPlugin.main.ReportPlugin;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.stream.Stream;
 
 @SuppressWarnings("unused")
 public class Database {
@@ -23,9 +29,21 @@ public class Database {
     // The database helper instance that provides database-specific operations
     private final DatabaseHelper databaseHelper;
 
-    // The type of database being used (e.g., "mysql", "sqlite", "mongodb", "postgresql", "h2, "jsonfilesystem")
+    // The type of database being used (e.g., "mysql", "sqlite", "mongodb", "postgresql", "h2, "jsonfilesystem", "logfilesystem")
     private final String databaseType;
 
+    // Asynchronous facade used by the commands to keep database calls off the main thread
+    private final AsyncDatabase asyncDatabase;
+
+    // The optional decorators around the backend, null when disabled in the configuration
+    private final WriteBehindDatabaseHelper writeBehind;
+    private final CachingDatabaseHelper reportCache;
+    private final IndexedDatabaseHelper index;
+    private final ViewCachingDatabaseHelper viewCache;
+
+    // Notified of every report written through this database and, with Redis, of changes made on other servers
+    private final List<ReportInvalidationBus.Listener> changeListeners = new CopyOnWriteArrayList<>();
+
     /**
      * Constructs a Database instance based on the configuration provided by the ReportPlugin.
      *
@@ -38,20 +56,134 @@ public class Database {
         plugin.getLogger().info("Initializing database with type: " + databaseType);
 
         // Initialize the database helper based on the configured database type
-        switch (databaseType) {
-            case "mysql" -> this.databaseHelper = new MySQLHelper(plugin);
-            case "sqlite" -> this.databaseHelper = new SQLiteHelper(plugin);
-            case "postgresql" -> this.databaseHelper = new PostgreSQLHelper(plugin);
-            case "h2" -> this.databaseHelper = new H2StorageHelper(plugin);
-            case "mongodb" -> this.databaseHelper = new MongoDBHelper(plugin);
-            case "jsonfilesystem" -> this.databaseHelper = new JsonFileSystemHelper(plugin);
-            case "yamlfilesystem" -> this.databaseHelper = new YamlFileSystemHelper(plugin);
-            case "textfilesystem" -> this.databaseHelper = new TextFileSystemHelper(plugin);
+        DatabaseHelper backend = switch (databaseType) {
+            case "mysql" -> new MySQLHelper(plugin);
+            case "sqlite" -> new SQLiteHelper(plugin);
+            case "postgresql" -> new PostgreSQLHelper(plugin);
+            case "h2" -> new H2StorageHelper(plugin);
+            case "mongodb" -> new MongoDBHelper(plugin);
+            case "jsonfilesystem" -> new JsonFileSystemHelper(plugin);
+            case "yamlfilesystem" -> new YamlFileSystemHelper(plugin);
+            case "textfilesystem" -> new TextFileSystemHelper(plugin);
+            case "logfilesystem" -> new LogFileSystemHelper(plugin);
             default -> throw new IllegalArgumentException("Unsupported database type: " + databaseType);
+        };
+
+        // Share cached lookups between servers through Redis, works with every backend
+        RedisCachingDatabaseHelper redisCache = null;
+        if (plugin.getConfig().getBoolean("redis.enabled", false)) {
+            String redisHost = plugin.getConfig().getString("redis.host", "localhost");
+            int redisPort = plugin.getConfig().getInt("redis.port", 6379);
+            String redisPassword = plugin.getConfig().getString("redis.password", "");
+            int ttl = plugin.getConfig().getInt("redis.ttl", 300);
+            String channel = plugin.getConfig().getString("redis.invalidation-channel", "reportplugin:invalidate");
+            try {
+                redisCache = new RedisCachingDatabaseHelper(backend, new RedisManager(redisHost, redisPort, redisPassword, ReportCodecs.fromConfig(plugin.getConfig(), "redis")), ttl, channel);
+                backend = redisCache;
+                plugin.getLogger().info("Redis caching enabled (" + redisHost + ":" + redisPort + "), TTL=" + ttl + "s");
+            } catch (Exception ex) {
+                plugin.getLogger().warning("Failed to initialize Redis, continuing without cache: " + ex.getMessage());
+            }
+        }
+
+        // Queue inserts and history writes and send them to the backend in batches. Above Redis, so a queued
+        // report is only announced to other servers once the flush has written it
+        WriteBehindDatabaseHelper writeBehind = null;
+        if (plugin.getConfig().getBoolean("write-behind.enabled", true)) {
+            int flushSize = plugin.getConfig().getInt("write-behind.flush-size", 50);
+            long flushInterval = plugin.getConfig().getLong("write-behind.flush-interval-ms", 250L);
+            writeBehind = new WriteBehindDatabaseHelper(backend, flushSize, flushInterval);
+            backend = writeBehind;
+            plugin.getLogger().info("Write-behind enabled (flush size " + flushSize + ", interval " + flushInterval + "ms).");
+        }
+
+        // Answer lookups by id from memory, independent of Redis
+        CachingDatabaseHelper reportCache = null;
+        if (plugin.getConfig().getBoolean("cache.enabled", true)) {
+            int maxSize = plugin.getConfig().getInt("cache.max-size", 1000);
+            long ttlSeconds = plugin.getConfig().getLong("cache.ttl-seconds", 60L);
+            reportCache = new CachingDatabaseHelper(backend, maxSize, ttlSeconds * 1000L);
+            backend = reportCache;
+            if (redisCache != null) {
+                // Evict reports changed on other servers instead of waiting for the TTL
+                CachingDatabaseHelper cache = reportCache;
+                redisCache.getInvalidationBus().addListener((change, reportId) -> {
+                    if (reportId == null) {
+                        cache.invalidateAll();
+                    } else {
+                        cache.invalidate(reportId);
+                    }
+                });
+            }
+            plugin.getLogger().info("Report cache enabled (max size " + maxSize + ", ttl " + ttlSeconds + "s).");
+        }
+
+        // Keep every report in memory with secondary indexes, loaded on connect
+        IndexedDatabaseHelper index = null;
+        if (plugin.getConfig().getBoolean("index.enabled", false)) {
+            index = new IndexedDatabaseHelper(backend);
+            backend = index;
+            if (redisCache != null) {
+                // Reload reports changed on other servers, after the cache above has dropped them
+                IndexedDatabaseHelper reportIndex = index;
+                redisCache.getInvalidationBus().addListener((change, reportId) -> reportIndex.refresh(reportId));
+            }
+            plugin.getLogger().info("Report index enabled, reports are loaded on connect.");
+        }
+
+        // Keep the sorted report lists of the GUI and /reports-list in memory, shared by every viewer
+        ViewCachingDatabaseHelper viewCache = null;
+        if (plugin.getConfig().getBoolean("view-cache.enabled", false)) {
+            int maxViews = plugin.getConfig().getInt("view-cache.max-views", 16);
+            viewCache = new ViewCachingDatabaseHelper(backend, maxViews);
+            backend = viewCache;
+            if (redisCache != null) {
+                ViewCachingDatabaseHelper views = viewCache;
+                redisCache.getInvalidationBus().addListener((change, reportId) -> views.refresh(reportId));
+            }
+            plugin.getLogger().info("Report view cache enabled (max " + maxViews + " views).");
+        }
+
+        // Count reports per player and reporter so the checks of /report run in constant time
+        if (plugin.getConfig().getBoolean("admission-index.enabled", true)) {
+            long duplicateWindowSeconds = plugin.getConfig().getLong("report-settings.duplicate-window-seconds", 300L);
+            AdmissionDatabaseHelper admission = new AdmissionDatabaseHelper(backend, duplicateWindowSeconds * 1000L);
+            backend = admission;
+            if (redisCache != null) {
+                redisCache.getInvalidationBus().addListener((change, reportId) -> admission.refresh(reportId));
+            }
+            plugin.getLogger().info("Report limit counters enabled, reports are counted on connect.");
+        }
+        if (redisCache != null) {
+            redisCache.getInvalidationBus().addListener((change, reportId) -> {
+                if (reportId == null || change == ReportInvalidationBus.Change.HISTORY_CLEARED) {
+                    // The next history entry of the report is a keyframe, not a delta against a deleted one
+                    UpdateHistoryCodec.forgetEverywhere(reportId);
+                }
+                if (change != ReportInvalidationBus.Change.HISTORY_CLEARED) {
+                    fireChange(change, reportId);
+                }
+            });
         }
+        this.databaseHelper = backend;
+        this.writeBehind = writeBehind;
+        this.reportCache = reportCache;
+        this.index = index;
+        this.viewCache = viewCache;
+        this.asyncDatabase = new AsyncDatabase(plugin, this);
         plugin.getLogger().info("Database initialized successfully using " + databaseType.toUpperCase() + ".");
     }
 
+    /**
+     * Returns the asynchronous facade of this database.
+     * Its futures are completed on the main server thread.
+     *
+     * @return the AsyncDatabase instance.
+     */
+    public AsyncDatabase async() {
+        return asyncDatabase;
+    }
+
     /**
      * Connects to the database using the underlying DatabaseHelper.
      *
@@ -61,7 +193,11 @@ public class Database {
         return databaseHelper.connect();
     }
 
+    /**
+     * Waits for running asynchronous operations, flushes queued writes and disconnects from the database.
+     */
     public void disconnect() {
+        asyncDatabase.shutdown();
         databaseHelper.disconnect();
     }
 
@@ -88,6 +224,7 @@ public class Database {
      */
     public void insertReport(Report report) {
         databaseHelper.insertReport(report);
+        fireChange(ReportInvalidationBus.Change.INSERT, report.getReportId());
     }
 
     /**
@@ -119,6 +256,58 @@ public class Database {
         return databaseHelper.getAllReports();
     }
 
+    /**
+     * Retrieves all reports matching the given query.
+     *
+     * @param query the filter, sort order and paging to apply.
+     * @return the matching reports in query order.
+     */
+    public List<Report> findReports(ReportQuery query) {
+        return databaseHelper.findReports(query);
+    }
+
+    /**
+     * Retrieves the list view fields of all reports matching the given query without loading the full reports.
+     *
+     * @param query the filter, sort order and paging to apply.
+     * @return the summaries of the matching reports in query order.
+     */
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        return databaseHelper.findReportSummaries(query);
+    }
+
+    /**
+     * Streams the reports matching the given query from a cursor instead of loading them all at once.
+     * The stream holds a database resource and must be closed, e.g. with try-with-resources.
+     * Use {@link ReportQuery.SortKey#UNSORTED} when the order does not matter.
+     *
+     * @param query the filter, sort order and paging to apply.
+     * @return the matching reports in query order.
+     */
+    public Stream<Report> streamReports(ReportQuery query) {
+        return databaseHelper.streamReports(query);
+    }
+
+    /**
+     * Counts the reports matching the filter criteria of the given query.
+     *
+     * @param query the filter criteria, sort order and paging are ignored.
+     * @return the number of matching reports.
+     */
+    public int countReports(ReportQuery query) {
+        return databaseHelper.countReports(query);
+    }
+
+    /**
+     * Counts the reports matching the filter criteria of the given query grouped by status.
+     *
+     * @param query the filter criteria, sort order and paging are ignored.
+     * @return the number of reports per status.
+     */
+    public Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        return databaseHelper.countReportsByStatus(query);
+    }
+
     /**
      * Retrieves a report from the database based on the reported player's name.
      *
@@ -149,6 +338,50 @@ public class Database {
         return databaseHelper.getReportById(reportId);
     }
 
+    /**
+     * Retrieves several reports at once, using a single query where the backend supports it.
+     *
+     * @param reportIds the unique identifiers of the reports.
+     * @return the found reports by ID, IDs without a report are absent.
+     */
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        return databaseHelper.getReportsByIds(reportIds);
+    }
+
+    /**
+     * Checks whether the reporter reported the player since the given time.
+     *
+     * @param reporter       the name of the player who reported.
+     * @param reportedPlayer the name of the player who was reported.
+     * @param sinceMillis    the inclusive lower timestamp bound in epoch millis.
+     * @return true if such a report exists, otherwise false.
+     */
+    public boolean hasRecentReport(String reporter, String reportedPlayer, long sinceMillis) {
+        return databaseHelper.hasRecentReport(reporter, reportedPlayer, sinceMillis);
+    }
+
+    /**
+     * Suggests report IDs starting with the given prefix, e.g. for tab completion.
+     *
+     * @param prefix the typed prefix, matched case-insensitively.
+     * @param limit  the maximum number of suggestions.
+     * @return the matching report IDs.
+     */
+    public List<String> suggestReportIds(String prefix, int limit) {
+        return databaseHelper.suggestReportIds(prefix, limit);
+    }
+
+    /**
+     * Suggests the names of reported players starting with the given prefix, e.g. for tab completion.
+     *
+     * @param prefix the typed prefix, matched case-insensitively.
+     * @param limit  the maximum number of suggestions.
+     * @return the matching player names.
+     */
+    public List<String> suggestReportedPlayers(String prefix, int limit) {
+        return databaseHelper.suggestReportedPlayers(prefix, limit);
+    }
+
     /**
      * Updates an existing report in the database.
      *
@@ -156,6 +389,7 @@ public class Database {
      */
     public void updateReport(Report report) {
         databaseHelper.updateReport(report);
+        fireChange(ReportInvalidationBus.Change.UPDATE, report.getReportId());
     }
 
     /**
@@ -165,7 +399,31 @@ public class Database {
      * @return true if the report was successfully deleted, otherwise false.
      */
     public boolean deleteReport(String reportId) {
-        return databaseHelper.deleteReport(reportId);
+        boolean deleted = databaseHelper.deleteReport(reportId);
+        if (deleted) {
+            fireChange(ReportInvalidationBus.Change.DELETE, reportId);
+        }
+        return deleted;
+    }
+
+    /**
+     * Registers a listener that is told about every inserted, updated and deleted report.
+     * It is called on the thread that made the change, changes made on other servers are only
+     * reported when Redis is enabled and arrive on its subscriber thread.
+     *
+     * @param listener the listener to notify.
+     */
+    public void addChangeListener(ReportInvalidationBus.Listener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener registered with {@link #addChangeListener(ReportInvalidationBus.Listener)}.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeChangeListener(ReportInvalidationBus.Listener listener) {
+        changeListeners.remove(listener);
     }
 
     /**
@@ -195,7 +453,82 @@ public class Database {
         return databaseHelper.getUpdateHistory(report);
     }
 
+    /**
+     * Returns the newest entries of the update history of a report.
+     *
+     * @param report the report.
+     * @param limit  the maximum number of entries.
+     * @return the newest entries in the order they were written.
+     */
+    public Map<String, Report> getUpdateHistory(Report report, int limit) {
+        return databaseHelper.getUpdateHistory(report, limit);
+    }
+
     public boolean clearUpdateHistory(Report report) {
         return databaseHelper.clearUpdateHistory(report);
     }
+
+    /**
+     * Returns the connection pool statistics of the underlying backend.
+     *
+     * @return the pool statistics or null if the backend is not pooled.
+     */
+    public PoolStats getPoolStats() {
+        return databaseHelper.getPoolStats();
+    }
+
+    /**
+     * Returns the number of writes waiting in the write-behind queue.
+     *
+     * @return the number of queued writes or -1 if write-behind is disabled.
+     */
+    public int getPendingWrites() {
+        return writeBehind != null ? writeBehind.getPendingWrites() : -1;
+    }
+
+    /**
+     * Returns the statistics of the in-memory report cache.
+     *
+     * @return the cache statistics or null if the cache is disabled.
+     */
+    public CacheStats getCacheStats() {
+        return reportCache != null ? reportCache.getCacheStats() : null;
+    }
+
+    /**
+     * Returns the size and estimated memory use of the in-memory report index.
+     *
+     * @return the index statistics or null if the index is disabled.
+     */
+    public IndexStats getIndexStats() {
+        return index != null ? index.getIndexStats() : null;
+    }
+
+    /**
+     * Returns the number of cached report views and how often they were used.
+     *
+     * @return the view cache statistics, or null if the view cache is disabled.
+     */
+    public ViewCacheStats getViewCacheStats() {
+        return viewCache != null ? viewCache.getViewCacheStats() : null;
+    }
+
+    /**
+     * Returns the payload size and encode/decode time of every report codec used since startup.
+     *
+     * @return the codec statistics, empty if no report was serialized yet.
+     */
+    public List<CodecStats> getCodecStats() {
+        return ReportCodecs.getStats();
+    }
+
+    private void fireChange(ReportInvalidationBus.Change change, String reportId) {
+        for (ReportInvalidationBus.Listener listener : changeListeners) {
+            try {
+                listener.onChange(change, reportId);
+            } catch (RuntimeException ex) {
+                ReportPlugin.getInstance().getLogger().log(Level.WARNING, "Report change listener failed", ex);
+            }
+        }
+    }
 }
@@ -12,9 +12,17 @@ package ch.framedev.reportPlugin.database;
  */
 
 import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
 
 public interface DatabaseHelper {
 
@@ -23,12 +31,40 @@ public interface DatabaseHelper {
      * @param report the Report object to insert
      */
     void insertReport(Report report);
+    /**
+     * Insert several new reports at once
+     * Backends that support batched writes should override this, the default inserts them one by one
+     * @param reports the reports to insert
+     * @return false if nothing was written and the reports should be retried one by one
+     */
+    default boolean insertReports(List<Report> reports) {
+        for (Report report : reports) {
+            insertReport(report);
+        }
+        return true;
+    }
     /**
      * Retrieve a report by its ID
      * @param reportId the ID of the report
      * @return the Report object if found, null otherwise
      */
     Report getReportById(String reportId);
+    /**
+     * Retrieve several reports by their IDs at once
+     * Backends and caches that can read in batches should override this, the default looks them up one by one
+     * @param reportIds the IDs of the reports
+     * @return the found reports by ID, IDs without a report are absent
+     */
+    default Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        Map<String, Report> reports = new HashMap<>();
+        for (String reportId : reportIds) {
+            Report report = getReportById(reportId);
+            if (report != null) {
+                reports.put(reportId, report);
+            }
+        }
+        return reports;
+    }
     /**
      * Retrieve a report by the reported player's name
      * @param reportedPlayer the name of the reported player
@@ -97,6 +133,193 @@ public interface DatabaseHelper {
     void disconnect();
 
     boolean writeToUpdateHistory(Report report, String updater);
+
+    /**
+     * Write several update history entries at once
+     * Backends that support batched writes should override this, the default writes them one by one
+     * @param entries the entries to write in order
+     * @return false if nothing was written and the entries should be retried one by one
+     */
+    default boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        for (UpdateHistoryEntry entry : entries) {
+            writeToUpdateHistory(entry.report(), entry.updater());
+        }
+        return true;
+    }
+    /**
+     * Retrieve the update history of a report
+     * @param report the report
+     * @return every entry by key, oldest first in the order they were written
+     */
     Map<String, Report> getUpdateHistory(Report report);
+
+    /**
+     * Retrieve the newest entries of the update history of a report
+     * Backends that can read the history from its end should override this, the default reads the whole history
+     * @param report the report
+     * @param limit the maximum number of entries
+     * @return the newest entries by key in the order they were written
+     */
+    default Map<String, Report> getUpdateHistory(Report report, int limit) {
+        return newest(getUpdateHistory(report), limit);
+    }
+
+    /**
+     * Keeps the last {@code limit} entries of an update history
+     */
+    static Map<String, Report> newest(Map<String, Report> history, int limit) {
+        if (history == null || history.size() <= limit) {
+            return history;
+        }
+        Map<String, Report> newest = new LinkedHashMap<>();
+        int skip = history.size() - Math.max(0, limit);
+        for (Map.Entry<String, Report> entry : history.entrySet()) {
+            if (skip-- <= 0) {
+                newest.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return newest;
+    }
     boolean clearUpdateHistory(Report report);
+
+    /**
+     * Find all reports matching the query
+     * Backends that can evaluate the query natively should override this, the default loads every report
+     * @param query the filter, sort order and paging to apply
+     * @return the matching reports in query order
+     */
+    default List<Report> findReports(ReportQuery query) {
+        return query.apply(getAllReports());
+    }
+
+    /**
+     * Find the list view fields of all reports matching the query
+     * Backends that can read single columns should override this, the default maps {@link #findReports(ReportQuery)}
+     * @param query the filter, sort order and paging to apply
+     * @return the summaries of the matching reports in query order
+     */
+    default List<ReportSummary> findReportSummaries(ReportQuery query) {
+        return findReports(query).stream().map(ReportSummary::of).toList();
+    }
+
+    /**
+     * Iterate over the reports matching the query without loading them all at once
+     * Backends should override this to read from a cursor, the default iterates over {@link #findReports(ReportQuery)}
+     * Use {@link ReportQuery.SortKey#UNSORTED} when the order does not matter, sorted queries may have to
+     * buffer the matches on backends that cannot sort natively
+     * The iterator holds the underlying cursor or connection and must be closed
+     * @param query the filter, sort order and paging to apply
+     * @return the matching reports in query order
+     */
+    default CloseableIterator<Report> iterateReports(ReportQuery query) {
+        return CloseableIterator.of(findReports(query).iterator());
+    }
+
+    /**
+     * Stream the reports matching the query, see {@link #iterateReports(ReportQuery)}
+     * The stream must be closed, e.g. with try-with-resources
+     * @param query the filter, sort order and paging to apply
+     * @return the matching reports in query order
+     */
+    default Stream<Report> streamReports(ReportQuery query) {
+        return iterateReports(query).stream();
+    }
+
+    /**
+     * Count the reports matching the filter criteria of the query, sort order and paging are ignored
+     * Backends that can count natively should override this, the default streams every matching report
+     * @param query the filter criteria
+     * @return the number of matching reports
+     */
+    default int countReports(ReportQuery query) {
+        try (Stream<Report> reports = streamReports(query.filterOnly())) {
+            return (int) reports.count();
+        }
+    }
+
+    /**
+     * Count the reports matching the filter criteria of the query grouped by status in a single query
+     * Backends that can group natively should override this, the default streams every matching report
+     * @param query the filter criteria, use {@link ReportQuery#all()} to count every report
+     * @return the number of reports per status, every status is present
+     */
+    default Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        Map<ReportStatus, Integer> counts = ReportQuery.emptyStatusCounts();
+        try (Stream<Report> reports = streamReports(query.filterOnly())) {
+            reports.forEach(report -> counts.merge(report.getStatus(), 1, Integer::sum));
+        }
+        return counts;
+    }
+
+    /**
+     * Check whether the reporter reported the player since the given time, e.g. for the duplicate report cooldown
+     * Indexes that track recent reports should override this, the default runs a query limited to one report
+     * @param reporter the name of the reporter, matched case-insensitively
+     * @param reportedPlayer the name of the reported player, matched case-insensitively
+     * @param sinceMillis the inclusive lower timestamp bound in epoch millis
+     * @return true if such a report exists
+     */
+    default boolean hasRecentReport(String reporter, String reportedPlayer, long sinceMillis) {
+        return !findReports(recentReportQuery(reporter, reportedPlayer, sinceMillis)).isEmpty();
+    }
+
+    /**
+     * The query behind {@link #hasRecentReport(String, String, long)}
+     */
+    static ReportQuery recentReportQuery(String reporter, String reportedPlayer, long sinceMillis) {
+        return ReportQuery.builder()
+                .reporter(reporter)
+                .reportedPlayer(reportedPlayer)
+                .from(sinceMillis)
+                .sortBy(ReportQuery.SortKey.UNSORTED, false)
+                .limit(1)
+                .build();
+    }
+
+    /**
+     * Suggest report ids starting with the prefix, e.g. for tab completion
+     * Indexes that keep the ids sorted should override this, the default streams every report
+     * @param prefix the typed prefix, matched case-insensitively
+     * @param limit the maximum number of suggestions
+     * @return the matching report ids
+     */
+    default List<String> suggestReportIds(String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        try (Stream<Report> reports = streamReports(ReportQuery.builder().sortBy(ReportQuery.SortKey.UNSORTED, false).build())) {
+            return reports.map(Report::getReportId)
+                    .filter(reportId -> reportId != null && reportId.toLowerCase(Locale.ROOT).startsWith(lowerPrefix))
+                    .limit(limit)
+                    .toList();
+        }
+    }
+
+    /**
+     * Suggest the names of reported players starting with the prefix, e.g. for tab completion
+     * Indexes that keep the names sorted should override this, the default streams every report
+     * @param prefix the typed prefix, matched case-insensitively
+     * @param limit the maximum number of suggestions
+     * @return the matching player names, each name only once
+     */
+    default List<String> suggestReportedPlayers(String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        Map<String, String> names = new LinkedHashMap<>();
+        try (Stream<Report> reports = streamReports(ReportQuery.builder().sortBy(ReportQuery.SortKey.UNSORTED, false).build())) {
+            Iterator<Report> iterator = reports.iterator();
+            while (iterator.hasNext() && names.size() < limit) {
+                String name = iterator.next().getReportedPlayer();
+                if (name != null && name.toLowerCase(Locale.ROOT).startsWith(lowerPrefix)) {
+                    names.putIfAbsent(name.toLowerCase(Locale.ROOT), name);
+                }
+            }
+        }
+        return List.copyOf(names.values());
+    }
+
+    /**
+     * Get the statistics of the connection pool used by this backend
+     * @return the pool statistics or null if the backend does not use a connection pool
+     */
+    default PoolStats getPoolStats() {
+        return null;
+    }
 }
@@ -0,0 +1,194 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 15:20
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for decorators that add behaviour on top of another {@link DatabaseHelper}.
+ * Every method is forwarded to the wrapped backend, subclasses override the ones they change.
+ * Default methods are forwarded as well so the native implementations of the backend are used.
+ */
+public abstract class ForwardingDatabaseHelper implements DatabaseHelper {
+
+    protected final DatabaseHelper delegate;
+
+    protected ForwardingDatabaseHelper(DatabaseHelper delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the backend this helper forwards to
+     */
+    public DatabaseHelper getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void insertReport(Report report) {
+        delegate.insertReport(report);
+    }
+
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        return delegate.insertReports(reports);
+    }
+
+    @Override
+    public Report getReportById(String reportId) {
+        return delegate.getReportById(reportId);
+    }
+
+    @Override
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        return delegate.getReportsByIds(reportIds);
+    }
+
+    @Override
+    public Report getReportByReportedPlayer(String reportedPlayer) {
+        return delegate.getReportByReportedPlayer(reportedPlayer);
+    }
+
+    @Override
+    public Report getReportByReporter(String reporter) {
+        return delegate.getReportByReporter(reporter);
+    }
+
+    @Override
+    public List<Report> getAllReports() {
+        return delegate.getAllReports();
+    }
+
+    @Override
+    public void updateReport(Report report) {
+        delegate.updateReport(report);
+    }
+
+    @Override
+    public boolean deleteReport(String reportId) {
+        return delegate.deleteReport(reportId);
+    }
+
+    @Override
+    public void createTable() {
+        delegate.createTable();
+    }
+
+    @Override
+    public Report getReportByPlayer(String reportedPlayer) {
+        return delegate.getReportByPlayer(reportedPlayer);
+    }
+
+    @Override
+    public boolean reportExists(String reportId) {
+        return delegate.reportExists(reportId);
+    }
+
+    @Override
+    public boolean playerHasReport(String reportedPlayer) {
+        return delegate.playerHasReport(reportedPlayer);
+    }
+
+    @Override
+    public int countReportsForPlayer(String reportedPlayer) {
+        return delegate.countReportsForPlayer(reportedPlayer);
+    }
+
+    @Override
+    public boolean isResolved(String reportId) {
+        return delegate.isResolved(reportId);
+    }
+
+    @Override
+    public boolean connect() {
+        return delegate.connect();
+    }
+
+    @Override
+    public void disconnect() {
+        delegate.disconnect();
+    }
+
+    @Override
+    public boolean writeToUpdateHistory(Report report, String updater) {
+        return delegate.writeToUpdateHistory(report, updater);
+    }
+
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        return delegate.writeToUpdateHistory(entries);
+    }
+
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report) {
+        return delegate.getUpdateHistory(report);
+    }
+
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report, int limit) {
+        return delegate.getUpdateHistory(report, limit);
+    }
+
+    @Override
+    public boolean clearUpdateHistory(Report report) {
+        return delegate.clearUpdateHistory(report);
+    }
+
+    @Override
+    public List<Report> findReports(ReportQuery query) {
+        return delegate.findReports(query);
+    }
+
+    @Override
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        return delegate.findReportSummaries(query);
+    }
+
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        return delegate.iterateReports(query);
+    }
+
+    @Override
+    public int countReports(ReportQuery query) {
+        return delegate.countReports(query);
+    }
+
+    @Override
+    public Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        return delegate.countReportsByStatus(query);
+    }
+
+    @Override
+    public boolean hasRecentReport(String reporter, String reportedPlayer, long sinceMillis) {
+        return delegate.hasRecentReport(reporter, reportedPlayer, sinceMillis);
+    }
+
+    @Override
+    public List<String> suggestReportIds(String prefix, int limit) {
+        return delegate.suggestReportIds(prefix, limit);
+    }
+
+    @Override
+    public List<String> suggestReportedPlayers(String prefix, int limit) {
+        return delegate.suggestReportedPlayers(prefix, limit);
+    }
+
+    @Override
+    public PoolStats getPoolStats() {
+        return delegate.getPoolStats();
+    }
+}
@@ -12,6 +12,9 @@ package ch.framedev.reportPlugin.database;
 import ch.framedev.reportPlugin.main.ReportPlugin;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 @SuppressWarnings("unused")
@@ -19,10 +22,19 @@ public class H2Storage {
 
     private String path;
     private String databaseName;
+    private final PoolSettings poolSettings;
+    // Created on first use, written under poolLock and read without it
+    private volatile ConnectionPool pool;
+    private final ReentrantLock poolLock = new ReentrantLock();
 
     public H2Storage(String path, String databaseName) {
+        this(path, databaseName, PoolSettings.embeddedDefaults(4));
+    }
+
+    public H2Storage(String path, String databaseName, PoolSettings poolSettings) {
         this.path = path;
         this.databaseName = databaseName;
+        this.poolSettings = poolSettings;
     }
 
     public String getPath() {
@@ -46,26 +58,64 @@ public class H2Storage {
     }
 
     /**
-     * Establishes and returns a connection to the H2 database.
+     * Borrows a connection to the H2 database from the connection pool.
+     * Closing the returned connection hands it back to the pool.
      *
      * @return A Connection object if the connection is successful, null otherwise.
      */
     public Connection connect() {
         try {
-            Class.forName("org.h2.Driver");
-            return java.sql.DriverManager.getConnection(getDatabaseUrl(), "sa", "");
+            return getPool().borrow();
         } catch (ClassNotFoundException e) {
             System.err.println("H2 JDBC driver not found.");
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "H2 JDBC driver not found. Please ensure the H2 JDBC library is included in your project dependencies.", e);
-        } catch (java.sql.SQLException e) {
+        } catch (SQLException e) {
             System.err.println("Failed to connect to H2 database.");
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to connect to H2 database at " + getDatabaseUrl(), e);
         }
         return null;
     }
 
+    /**
+     * Returns the connection pool and creates it on first use.
+     */
+    private ConnectionPool getPool() throws ClassNotFoundException {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        poolLock.lock();
+        try {
+            if (pool == null) {
+                Class.forName("org.h2.Driver");
+                pool = new ConnectionPool("h2", () -> DriverManager.getConnection(getDatabaseUrl(), "sa", ""), poolSettings);
+            }
+            return pool;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the statistics of the connection pool or null if no connection was opened yet.
+     */
+    public PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Closes all pooled connections.
+     */
     public void disconnect() {
-        // H2 database connections are typically closed after each operation.
-        // If you maintain a persistent connection, implement the logic to close it here.
+        poolLock.lock();
+        try {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        } finally {
+            poolLock.unlock();
+        }
     }
 }
@@ -0,0 +1,32 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 17:05
+ */
+
+/**
+ * Point-in-time statistics of an {@link IndexedDatabaseHelper}.
+ *
+ * @param loaded          whether the index is loaded and answers reads
+ * @param reports         reports held in memory
+ * @param reportedPlayers distinct reported players in the player index
+ * @param reporters       distinct reporters in the reporter index
+ * @param estimatedBytes  rough estimate of the heap used by the reports and their index entries
+ */
+public record IndexStats(boolean loaded,
+                         int reports,
+                         int reportedPlayers,
+                         int reporters,
+                         long estimatedBytes) {
+
+    @Override
+    public String toString() {
+        return "loaded=" + loaded + ", reports=" + reports + ", reportedPlayers=" + reportedPlayers +
+               ", reporters=" + reporters + ", estimatedBytes=" + estimatedBytes;
+    }
+}
@@ -0,0 +1,673 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 17:10
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportSnapshot;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that keeps every report of the backend in memory and answers reads from secondary indexes.
+ * <p>
+ * The index is loaded once the backend is connected and is then kept up to date by every write through this
+ * helper, so lookups by id, reported player, reporter and status as well as newest-first listings no longer
+ * scan the backend. Until it is loaded, or if loading failed, every read is forwarded to the backend.
+ * <p>
+ * Reads are lock-free. Writes of the same report hold its lock until the index is updated, so they are indexed
+ * in the order the backend made them, while writes of different reports reach the backend in parallel.
+ * Reports are stored as immutable snapshots, so callers that modify a returned report never change the indexed copy.
+ * Changes made by other servers have to be applied with {@link #refresh(String)}.
+ */
+public class IndexedDatabaseHelper extends ForwardingDatabaseHelper {
+
+    // Rough heap cost of one report besides its snapshot: the entry, its keys and the nodes of every index
+    private static final long ENTRY_OVERHEAD_BYTES = 480L;
+
+    private record TimeKey(long timestamp, String reportId) {
+    }
+
+    // Same order as the TIMESTAMP comparator of a descending ReportQuery
+    private static final Comparator<TimeKey> NEWEST_FIRST = Comparator.comparingLong(TimeKey::timestamp).reversed()
+            .thenComparing(TimeKey::reportId);
+
+    private record Entry(String reportId,
+                         ReportSnapshot snapshot,
+                         String reportedPlayer,
+                         String reportedKey,
+                         String reporterKey,
+                         ReportStatus status,
+                         long timestamp) {
+
+        static Entry of(Report report) {
+            return new Entry(report.getReportId(), report.snapshot(), report.getReportedPlayer(),
+                    lower(report.getReportedPlayer()), lower(report.getReporter()), report.getStatus(), report.getTimestamp());
+        }
+
+        Report report() {
+            return snapshot.toReport();
+        }
+
+        ReportSummary summary() {
+            return ReportSummary.of(snapshot);
+        }
+
+        TimeKey timeKey() {
+            return new TimeKey(timestamp, reportId);
+        }
+
+        /**
+         * Same criteria as {@link ReportQuery#matches(Report)} without deserializing the report.
+         */
+        boolean matches(ReportQuery query) {
+            if (query.getReportedPlayer() != null && !lower(query.getReportedPlayer()).equals(reportedKey)) {
+                return false;
+            }
+            if (query.getReporter() != null && !lower(query.getReporter()).equals(reporterKey)) {
+                return false;
+            }
+            if (query.hasStatusFilter() && !query.getStatuses().contains(status)) {
+                return false;
+            }
+            if (query.getFrom() != null && timestamp < query.getFrom()) {
+                return false;
+            }
+            return query.getTo() == null || timestamp < query.getTo();
+        }
+
+        long estimatedBytes() {
+            return ENTRY_OVERHEAD_BYTES + snapshot.estimatedBytes() + reportId.length()
+                   + (reportedKey == null ? 0 : reportedKey.length()) + (reporterKey == null ? 0 : reporterKey.length());
+        }
+    }
+
+    private final ConcurrentSkipListMap<String, Entry> byId = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, Set<String>> byReportedPlayer = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Set<String>> byReporter = new ConcurrentHashMap<>();
+    private final Map<ReportStatus, Set<String>> byStatus = new EnumMap<>(ReportStatus.class);
+    private final ConcurrentSkipListMap<TimeKey, Entry> byTime = new ConcurrentSkipListMap<>(NEWEST_FIRST);
+
+    // Serializes changes of the maps above, backend writes only hold the lock of their report
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReportLocks reportLocks = new ReportLocks();
+    private volatile boolean loaded;
+    private volatile boolean loading;
+    private volatile long estimatedBytes;
+
+    /**
+     * @param delegate the backend to index, it is loaded on {@link #connect()}
+     */
+    public IndexedDatabaseHelper(DatabaseHelper delegate) {
+        super(delegate);
+        for (ReportStatus status : ReportStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * @return the size and estimated memory use of the index
+     */
+    public IndexStats getIndexStats() {
+        return new IndexStats(loaded, byId.size(), byReportedPlayer.size(), byReporter.size(), estimatedBytes);
+    }
+
+    /**
+     * Rebuilds the index from the backend. Reads are forwarded to the backend while it is loading.
+     *
+     * @return true if the index was loaded, otherwise reads keep being forwarded to the backend
+     */
+    public boolean load() {
+        writeLock.lock();
+        try {
+            loading = true;
+            loaded = false;
+            clear();
+            long start = System.nanoTime();
+            try (Stream<Report> reports = delegate.streamReports(ReportQuery.builder().sortBy(ReportQuery.SortKey.UNSORTED, false).build())) {
+                reports.filter(report -> report.getReportId() != null).forEach(this::index);
+            } catch (RuntimeException ex) {
+                clear();
+                logger().log(Level.SEVERE, "Could not load the report index, reading from the database instead", ex);
+                return false;
+            }
+            loaded = true;
+            logger().info("Loaded " + byId.size() + " reports into the index in " + (System.nanoTime() - start) / 1_000_000L
+                          + "ms (~" + estimatedBytes / 1024L + " KiB).");
+            return true;
+        } finally {
+            loading = false;
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Reloads a report from the backend, e.g. after it was changed by another server.
+     *
+     * @param reportId the id of the changed report, or null to reload every report
+     */
+    public void refresh(String reportId) {
+        if (reportId == null) {
+            load();
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (loaded) {
+                reload(reportId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reload(String reportId) {
+        Report report = delegate.getReportById(reportId);
+        if (report == null) {
+            unindex(reportId);
+        } else {
+            index(report);
+        }
+    }
+
+    @Override
+    public boolean connect() {
+        if (!delegate.connect()) {
+            return false;
+        }
+        load();
+        return true;
+    }
+
+    @Override
+    public void disconnect() {
+        writeLock.lock();
+        try {
+            loaded = false;
+            clear();
+        } finally {
+            writeLock.unlock();
+        }
+        delegate.disconnect();
+    }
+
+    @Override
+    public Report getReportById(String reportId) {
+        if (!loaded || reportId == null) {
+            return delegate.getReportById(reportId);
+        }
+        Entry entry = byId.get(reportId);
+        return entry == null ? null : entry.report();
+    }
+
+    @Override
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        if (!loaded) {
+            return delegate.getReportsByIds(reportIds);
+        }
+        Map<String, Report> reports = new HashMap<>();
+        for (String reportId : reportIds) {
+            Entry entry = reportId == null ? null : byId.get(reportId);
+            if (entry != null) {
+                reports.put(reportId, entry.report());
+            }
+        }
+        return reports;
+    }
+
+    @Override
+    public Report getReportByPlayer(String reportedPlayer) {
+        if (!loaded || reportedPlayer == null) {
+            return delegate.getReportByPlayer(reportedPlayer);
+        }
+        return oldest(byReportedPlayer.get(lower(reportedPlayer)));
+    }
+
+    @Override
+    public Report getReportByReportedPlayer(String reportedPlayer) {
+        return getReportByPlayer(reportedPlayer);
+    }
+
+    @Override
+    public Report getReportByReporter(String reporter) {
+        if (!loaded || reporter == null) {
+            return delegate.getReportByReporter(reporter);
+        }
+        return oldest(byReporter.get(lower(reporter)));
+    }
+
+    /**
+     * @return every report, oldest first
+     */
+    @Override
+    public List<Report> getAllReports() {
+        if (!loaded) {
+            return delegate.getAllReports();
+        }
+        return byTime.descendingMap().values().stream().map(Entry::report).toList();
+    }
+
+    @Override
+    public boolean reportExists(String reportId) {
+        if (!loaded || reportId == null) {
+            return delegate.reportExists(reportId);
+        }
+        return byId.containsKey(reportId);
+    }
+
+    @Override
+    public boolean playerHasReport(String reportedPlayer) {
+        if (!loaded || reportedPlayer == null) {
+            return delegate.playerHasReport(reportedPlayer);
+        }
+        return byReportedPlayer.containsKey(lower(reportedPlayer));
+    }
+
+    @Override
+    public int countReportsForPlayer(String reportedPlayer) {
+        if (!loaded || reportedPlayer == null) {
+            return delegate.countReportsForPlayer(reportedPlayer);
+        }
+        return byReportedPlayer.getOrDefault(lower(reportedPlayer), Set.of()).size();
+    }
+
+    @Override
+    public boolean isResolved(String reportId) {
+        if (!loaded || reportId == null) {
+            return delegate.isResolved(reportId);
+        }
+        Entry entry = byId.get(reportId);
+        return entry != null && entry.status().isClosed();
+    }
+
+    @Override
+    public List<Report> findReports(ReportQuery query) {
+        if (!loaded) {
+            return delegate.findReports(query);
+        }
+        try (Stream<Report> reports = select(query)) {
+            return reports.toList();
+        }
+    }
+
+    /**
+     * Built from the indexed snapshots without creating a report per row.
+     */
+    @Override
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        if (!loaded) {
+            return delegate.findReportSummaries(query);
+        }
+        try (Stream<ReportSummary> summaries = select(query, Entry::summary, query.summaryComparator())) {
+            return summaries.toList();
+        }
+    }
+
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        if (!loaded) {
+            return delegate.iterateReports(query);
+        }
+        return CloseableIterator.of(select(query).iterator());
+    }
+
+    @Override
+    public int countReports(ReportQuery query) {
+        if (!loaded) {
+            return delegate.countReports(query);
+        }
+        if (onlyFiltersStatus(query)) {
+            if (!query.hasStatusFilter()) {
+                return byId.size();
+            }
+            return query.getStatuses().stream().mapToInt(status -> byStatus.get(status).size()).sum();
+        }
+        return (int) candidates(query).filter(entry -> entry.matches(query)).count();
+    }
+
+    @Override
+    public Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        if (!loaded) {
+            return delegate.countReportsByStatus(query);
+        }
+        Map<ReportStatus, Integer> counts = ReportQuery.emptyStatusCounts();
+        if (onlyFiltersStatus(query)) {
+            for (ReportStatus status : ReportStatus.values()) {
+                if (!query.hasStatusFilter() || query.getStatuses().contains(status)) {
+                    counts.put(status, byStatus.get(status).size());
+                }
+            }
+            return counts;
+        }
+        candidates(query).filter(entry -> entry.matches(query))
+                .forEach(entry -> counts.merge(entry.status(), 1, Integer::sum));
+        return counts;
+    }
+
+    @Override
+    public boolean hasRecentReport(String reporter, String reportedPlayer, long sinceMillis) {
+        if (!loaded) {
+            return delegate.hasRecentReport(reporter, reportedPlayer, sinceMillis);
+        }
+        try (Stream<Report> reports = select(DatabaseHelper.recentReportQuery(reporter, reportedPlayer, sinceMillis))) {
+            return reports.findAny().isPresent();
+        }
+    }
+
+    /**
+     * Report ids are generated as lower-case UUIDs, so the lower-cased prefix is looked up in the sorted ids.
+     */
+    @Override
+    public List<String> suggestReportIds(String prefix, int limit) {
+        if (!loaded) {
+            return delegate.suggestReportIds(prefix, limit);
+        }
+        String lowerPrefix = lower(prefix);
+        return byId.subMap(lowerPrefix, true, lowerPrefix + Character.MAX_VALUE, true).keySet().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<String> suggestReportedPlayers(String prefix, int limit) {
+        if (!loaded) {
+            return delegate.suggestReportedPlayers(prefix, limit);
+        }
+        String lowerPrefix = lower(prefix);
+        return byReportedPlayer.subMap(lowerPrefix, true, lowerPrefix + Character.MAX_VALUE, true).values().stream()
+                .map(ids -> ids.stream().map(byId::get).filter(Objects::nonNull).findFirst().orElse(null))
+                .filter(Objects::nonNull)
+                .map(Entry::reportedPlayer)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Written through {@link DatabaseHelper#insertReports(List)}, which tells whether the report was stored.
+     */
+    @Override
+    public void insertReport(Report report) {
+        if (report == null) {
+            delegate.insertReport(null);
+            return;
+        }
+        insertReports(List.of(report));
+    }
+
+    /**
+     * Reports are only indexed once the backend confirmed the write, after a failed write they are read back.
+     */
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        try (ReportLocks.Held ignored = lockIfLoaded(reports.stream().filter(Objects::nonNull).map(Report::getReportId).toList())) {
+            boolean written = delegate.insertReports(reports);
+            whenLoaded(() -> {
+                for (Report report : reports) {
+                    if (report != null && report.getReportId() != null) {
+                        if (written) {
+                            index(report);
+                        } else {
+                            reload(report.getReportId());
+                        }
+                    }
+                }
+            });
+            return written;
+        }
+    }
+
+    @Override
+    public void updateReport(Report report) {
+        if (report == null || report.getReportId() == null) {
+            delegate.updateReport(report);
+            return;
+        }
+        try (ReportLocks.Held ignored = lockIfLoaded(List.of(report.getReportId()))) {
+            delegate.updateReport(report);
+            whenLoaded(() -> index(report));
+        }
+    }
+
+    @Override
+    public boolean deleteReport(String reportId) {
+        if (reportId == null) {
+            return delegate.deleteReport(null);
+        }
+        try (ReportLocks.Held ignored = lockIfLoaded(List.of(reportId))) {
+            boolean deleted = delegate.deleteReport(reportId);
+            if (deleted) {
+                whenLoaded(() -> unindex(reportId));
+            }
+            return deleted;
+        }
+    }
+
+    /**
+     * Orders the writes of the same reports while there is an in-memory copy to keep up to date.
+     */
+    private ReportLocks.Held lockIfLoaded(Collection<String> reportIds) {
+        return loaded || loading ? reportLocks.lock(reportIds) : ReportLocks.NONE;
+    }
+
+    /**
+     * Applies a change after its backend write returned. Nothing is locked while nothing is loaded, a write that
+     * returns while loading waits for it and is applied on top, since the load may have read the old state.
+     */
+    private void whenLoaded(Runnable change) {
+        if (!loaded && !loading) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Newest-first queries without a player filter walk the timestamp index and stop once the page is full,
+     * every other query filters the smallest matching index and sorts only the matches.
+     */
+    private Stream<Report> select(ReportQuery query) {
+        return select(query, Entry::report, query.comparator());
+    }
+
+    private <T> Stream<T> select(ReportQuery query, Function<Entry, T> mapper, Comparator<T> comparator) {
+        boolean newestFirst = query.getSortKey() == ReportQuery.SortKey.TIMESTAMP && query.isDescending()
+                              && query.getReportedPlayer() == null && query.getReporter() == null;
+        if (newestFirst || query.getSortKey() == ReportQuery.SortKey.UNSORTED) {
+            // Already in query order, so only the requested page is deserialized
+            Stream<Entry> source = newestFirst ? pageRange(query).values().stream() : candidates(query);
+            Stream<Entry> matches = source.filter(entry -> entry.matches(query)).skip(query.getOffset());
+            return (query.getLimit() > 0 ? matches.limit(query.getLimit()) : matches).map(mapper);
+        }
+        Stream<T> rows = candidates(query).filter(entry -> entry.matches(query) && query.isAfterCursor(entry.summary()))
+                .map(mapper)
+                .sorted(comparator)
+                .skip(query.getOffset());
+        return query.getLimit() > 0 ? rows.limit(query.getLimit()) : rows;
+    }
+
+    /**
+     * @return the entries of the smallest index covering the query, they still have to be matched
+     */
+    private Stream<Entry> candidates(ReportQuery query) {
+        Set<String> ids = null;
+        if (query.getReportedPlayer() != null) {
+            ids = byReportedPlayer.getOrDefault(lower(query.getReportedPlayer()), Set.of());
+        }
+        if (query.getReporter() != null) {
+            Set<String> byReporterIds = byReporter.getOrDefault(lower(query.getReporter()), Set.of());
+            if (ids == null || byReporterIds.size() < ids.size()) {
+                ids = byReporterIds;
+            }
+        }
+        if (ids != null) {
+            return ids.stream().map(byId::get).filter(Objects::nonNull);
+        }
+        if (query.hasTimeRange()) {
+            return timeRange(query).values().stream();
+        }
+        if (query.hasStatusFilter()) {
+            return query.getStatuses().stream().flatMap(status -> byStatus.get(status).stream())
+                    .map(byId::get)
+                    .filter(Objects::nonNull);
+        }
+        return byId.values().stream();
+    }
+
+    /**
+     * @return the entries inside the time range of the query, newest first
+     */
+    private NavigableMap<TimeKey, Entry> timeRange(ReportQuery query) {
+        Long from = query.getFrom();
+        Long to = query.getTo();
+        if (to != null && (to == Long.MIN_VALUE || from != null && from >= to)) {
+            return Collections.emptyNavigableMap();
+        }
+        NavigableMap<TimeKey, Entry> range = byTime;
+        // The empty id sorts before every id, so the key is the first entry of its timestamp
+        if (to != null) {
+            range = range.tailMap(new TimeKey(to - 1, ""), true);
+        }
+        if (from != null && from != Long.MIN_VALUE) {
+            range = range.headMap(new TimeKey(from - 1, ""), false);
+        }
+        return range;
+    }
+
+    /**
+     * @return the entries inside the time range of the query after its cursor, newest first
+     */
+    private NavigableMap<TimeKey, Entry> pageRange(ReportQuery query) {
+        NavigableMap<TimeKey, Entry> range = timeRange(query);
+        if (query.hasCursor()) {
+            // The time index has the order of newest first queries, so the cursor is a position in it
+            ReportSummary after = query.getAfter();
+            range = range.tailMap(new TimeKey(after.timestamp(), after.reportId() == null ? "" : after.reportId()), false);
+        }
+        return range;
+    }
+
+    private static boolean onlyFiltersStatus(ReportQuery query) {
+        return query.getReportedPlayer() == null && query.getReporter() == null && !query.hasTimeRange();
+    }
+
+    private Report oldest(Set<String> ids) {
+        if (ids == null) {
+            return null;
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull)
+                .max(Comparator.comparing(Entry::timeKey, NEWEST_FIRST))
+                .map(Entry::report)
+                .orElse(null);
+    }
+
+    /**
+     * Adds or replaces a report. New index entries are added before stale ones are removed, except for the
+     * status and timestamp indexes, where a report briefly missing is better than being listed twice.
+     */
+    private void index(Report report) {
+        Entry entry = Entry.of(report);
+        String reportId = entry.reportId();
+        Entry previous = byId.get(reportId);
+        if (previous != null) {
+            if (previous.status() != entry.status()) {
+                byStatus.get(previous.status()).remove(reportId);
+            }
+            if (!previous.timeKey().equals(entry.timeKey())) {
+                byTime.remove(previous.timeKey());
+            }
+        }
+        byId.put(reportId, entry);
+        byTime.put(entry.timeKey(), entry);
+        byStatus.get(entry.status()).add(reportId);
+        add(byReportedPlayer, entry.reportedKey(), reportId);
+        add(byReporter, entry.reporterKey(), reportId);
+        long bytes = estimatedBytes + entry.estimatedBytes();
+        if (previous != null) {
+            if (!Objects.equals(previous.reportedKey(), entry.reportedKey())) {
+                remove(byReportedPlayer, previous.reportedKey(), reportId);
+            }
+            if (!Objects.equals(previous.reporterKey(), entry.reporterKey())) {
+                remove(byReporter, previous.reporterKey(), reportId);
+            }
+            bytes -= previous.estimatedBytes();
+        }
+        estimatedBytes = bytes;
+    }
+
+    private void unindex(String reportId) {
+        Entry previous = byId.remove(reportId);
+        if (previous == null) {
+            return;
+        }
+        byTime.remove(previous.timeKey());
+        byStatus.get(previous.status()).remove(reportId);
+        remove(byReportedPlayer, previous.reportedKey(), reportId);
+        remove(byReporter, previous.reporterKey(), reportId);
+        estimatedBytes = estimatedBytes - previous.estimatedBytes();
+    }
+
+    private void clear() {
+        byId.clear();
+        byTime.clear();
+        byReportedPlayer.clear();
+        byReporter.clear();
+        byStatus.values().forEach(Set::clear);
+        estimatedBytes = 0L;
+    }
+
+    private static void add(Map<String, Set<String>> index, String key, String reportId) {
+        if (key != null) {
+            index.computeIfAbsent(key, ignored -> ConcurrentHashMap.newKeySet()).add(reportId);
+        }
+    }
+
+    private static void remove(Map<String, Set<String>> index, String key, String reportId) {
+        if (key != null) {
+            index.computeIfPresent(key, (ignored, ids) -> {
+                ids.remove(reportId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(IndexedDatabaseHelper.class.getName());
+    }
+}
@@ -2,20 +2,29 @@ package ch.framedev.reportPlugin.database;
 
 import ch.framedev.reportPlugin.main.ReportPlugin;
 import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.logging.Level;
+import java.util.stream.Stream;
 
 public class JsonFileSystemHelper implements DatabaseHelper {
 
     private final ReportPlugin plugin;
     private final File reportsDir;
-    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    // Only reads history files of the previous format
+    private final Gson gson = new Gson();
+    // Player, reporter, reason, status and timestamp of every report, so lookups only read the matching files
+    private final ReportManifest manifest;
+    private final ParallelReportLoader loader;
+    // Append-only update history, one JSON Lines file per report
+    private final JsonLinesHistoryStore history;
 
     /**
      * Initializes the FileSystemHelper with the specified ReportPlugin instance.
@@ -29,6 +38,20 @@ public class JsonFileSystemHelper implements DatabaseHelper {
         if (!reportsDir.exists() && !reportsDir.mkdirs()) {
             plugin.getLogger().log(Level.SEVERE, "Could not create reports directory: " + reportsDir.getAbsolutePath());
         }
+        this.manifest = new ReportManifest(reportsDir.toPath(), "report-index");
+        this.history = new JsonLinesHistoryStore(new File(reportsDir, HISTORY_DIR_NAME), new JsonLinesHistoryStore.LegacyHistory() {
+            @Override
+            public File file(String reportId) {
+                return legacyHistoryFile(reportId);
+            }
+
+            @Override
+            public Map<String, Report> read(File file) throws IOException {
+                return readHistoryFile(file);
+            }
+        }, new UpdateHistoryCodec(plugin.getConfig().getInt("update-history.keyframe-interval", 10)));
+        // The codec is thread-safe, so every worker can share the same parser
+        this.loader = new ParallelReportLoader("ReportPlugin-json-loader", plugin.getConfig().getInt("file-loader.threads", 0), () -> this::readReportFile);
         plugin.getLogger().info("FileSystemHelper initialized. Reports directory: " + reportsDir.getAbsolutePath());
     }
 
@@ -41,9 +64,8 @@ public class JsonFileSystemHelper implements DatabaseHelper {
     private void writeReportFile(File target, Report report) throws IOException {
         // Write to a temp file then move into place for atomic-ish replace
         File tmp = File.createTempFile("report_", ".json", reportsDir);
-        try (Writer w = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
-            gson.toJson(report, w);
-        }
+        // Compact JSON without pretty printing, files written before are read the same way
+        Files.write(tmp.toPath(), ReportCodecs.json().encode(report));
         try {
             Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (AtomicMoveNotSupportedException e) {
@@ -53,33 +75,104 @@ public class JsonFileSystemHelper implements DatabaseHelper {
     }
 
     private Report readReportFile(File file) throws IOException {
-        try (Reader r = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
-            return gson.fromJson(r, Report.class);
+        return ReportCodecs.json().decode(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * @return the ids of the report files, taken from their names without reading them
+     */
+    private Set<String> listReportIds() {
+        Set<String> ids = new HashSet<>();
+        String[] names = reportsDir.list((dir, name) -> name.startsWith("report_") && name.endsWith(".json"));
+        if (names != null) {
+            for (String name : names) {
+                ids.add(name.substring("report_".length(), name.length() - ".json".length()));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Loads the index manifest, or rebuilds it from the report files if it is missing or out of date.
+     */
+    private void loadManifest() {
+        Set<String> reportIds = listReportIds();
+        // Reports named by the journal of an unclean shutdown are read back from their files
+        if (manifest.load(reportIds, reportId -> {
+            Report report = getReportById(reportId);
+            return report == null ? null : ReportManifest.Entry.of(report);
+        })) {
+            return;
         }
+        plugin.getLogger().info("Rebuilding report index from " + reportIds.size() + " report files...");
+        List<String> ids = new ArrayList<>(reportIds);
+        List<File> files = new ArrayList<>(ids.size());
+        for (String reportId : ids) {
+            files.add(fileForReportId(reportId));
+        }
+        Map<File, Report> reports = loader.load(files);
+        Map<String, ReportManifest.Entry> entries = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Report report = reports.get(files.get(i));
+            if (report != null) {
+                entries.put(ids.get(i), ReportManifest.Entry.of(report));
+            }
+        }
+        manifest.rebuild(entries);
+    }
+
+    /**
+     * Reads the files of the given reports, skipping entries of the manifest the file no longer matches.
+     */
+    private Stream<Report> readReports(Collection<String> reportIds, Predicate<Report> filter) {
+        return reportIds.stream()
+                .map(this::getReportById)
+                .filter(r -> r != null && filter.test(r));
     }
 
     // ---- CRUD ---------------------------------------------------------------
 
     @Override
     public void insertReport(Report report) {
+        saveReport(report);
+    }
+
+    /**
+     * Writes every report, false if any of them could not be written.
+     */
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        boolean written = true;
+        for (Report report : reports) {
+            written &= saveReport(report);
+        }
+        return written;
+    }
+
+    private boolean saveReport(Report report) {
         if (report == null) {
             plugin.getLogger().log(Level.SEVERE, "insertReport called with null report");
-            return;
+            return false;
         }
         String reportId = report.getReportId();
         if (reportId == null || reportId.isEmpty()) {
             plugin.getLogger().log(Level.SEVERE, "Report has no reportId; cannot save.");
-            return;
+            return false;
         }
         if (!reportsDir.exists() && !reportsDir.mkdirs()) {
             plugin.getLogger().log(Level.SEVERE, "Could not create reports directory!");
-            return;
+            return false;
         }
         File out = fileForReportId(reportId);
+        // Recorded before the file is written, so the manifest never misses a report after a crash
+        ReportManifest.Entry previous = manifest.put(reportId, ReportManifest.Entry.of(report));
         try {
             writeReportFile(out, report);
+            return true;
         } catch (Exception e) {
+            manifest.restore(reportId, previous);
             plugin.getLogger().log(Level.SEVERE, "Could not save report " + reportId + " (player " + report.getReportedPlayer() + ")", e);
+            return false;
         }
     }
 
@@ -98,6 +191,11 @@ public class JsonFileSystemHelper implements DatabaseHelper {
 
     @Override
     public Report getReportByReportedPlayer(String reportedPlayer) {
+        if (manifest.isLoaded()) {
+            try (Stream<Report> reports = readReports(manifest.idsForPlayer(reportedPlayer), r -> Objects.equals(r.getReportedPlayer(), reportedPlayer))) {
+                return reports.findFirst().orElse(null);
+            }
+        }
         // Return the first match (or you could choose newest)
         for (Report r : getAllReports()) {
             if (Objects.equals(r.getReportedPlayer(), reportedPlayer)) return r;
@@ -107,29 +205,74 @@ public class JsonFileSystemHelper implements DatabaseHelper {
 
     @Override
     public Report getReportByReporter(String reporter) {
+        if (manifest.isLoaded()) {
+            try (Stream<Report> reports = readReports(manifest.idsForReporter(reporter), r -> Objects.equals(r.getReporter(), reporter))) {
+                return reports.findFirst().orElse(null);
+            }
+        }
         for (Report r : getAllReports()) {
             if (Objects.equals(r.getReporter(), reporter)) return r;
         }
         return null;
     }
 
+    /**
+     * Reads and parses the report files in parallel.
+     */
     @Override
     public List<Report> getAllReports() {
+        return loader.loadAll(reportsDir, ".json");
+    }
+
+    /**
+     * Reads the report files lazily, only the matching reports are kept in memory.
+     */
+    @Override
+    public List<Report> findReports(ReportQuery query) {
         List<Report> reports = new ArrayList<>();
-        if (!reportsDir.exists()) return reports;
+        try (CloseableIterator<Report> iterator = iterateReports(query)) {
+            iterator.forEachRemaining(reports::add);
+        }
+        return reports;
+    }
+
+    /**
+     * With the manifest loaded the query is evaluated against it and only the files of the matching reports are read.
+     */
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        if (manifest.isLoaded()) {
+            Stream<Report> reports = readReports(manifest.select(query), query::matches);
+            return CloseableIterator.of(reports.iterator(), reports::close);
+        }
+        return ReportFileIterator.query(reportsDir, ".json", this::readReportFile, query);
+    }
 
-        File[] files = reportsDir.listFiles((dir, name) -> name.endsWith(".json"));
-        if (files == null) return reports;
+    @Override
+    public int countReports(ReportQuery query) {
+        if (manifest.isLoaded()) {
+            return manifest.count(query);
+        }
+        return DatabaseHelper.super.countReports(query);
+    }
 
-        for (File f : files) {
-            try {
-                Report report = readReportFile(f);
-                if (report != null) reports.add(report);
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.SEVERE, "Could not read report file: " + f.getName(), e);
-            }
+    @Override
+    public Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        if (manifest.isLoaded()) {
+            return manifest.countByStatus(query);
         }
-        return reports;
+        return DatabaseHelper.super.countReportsByStatus(query);
+    }
+
+    /**
+     * With the manifest loaded the summaries are taken from it without reading any report file.
+     */
+    @Override
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        if (manifest.isLoaded()) {
+            return manifest.summaries(query);
+        }
+        return DatabaseHelper.super.findReportSummaries(query);
     }
 
     @Override
@@ -146,6 +289,7 @@ public class JsonFileSystemHelper implements DatabaseHelper {
             plugin.getLogger().log(Level.SEVERE, "Could not delete report file: " + f.getAbsolutePath());
             return false;
         }
+        manifest.remove(reportId);
         return true;
     }
 
@@ -169,7 +313,6 @@ public class JsonFileSystemHelper implements DatabaseHelper {
 
     @Override
     public boolean playerHasReport(String reportedPlayer) {
-        // Simple scan — you could add an index if this grows large
         return getReportByReportedPlayer(reportedPlayer) != null;
     }
 
@@ -181,6 +324,11 @@ public class JsonFileSystemHelper implements DatabaseHelper {
 
     @Override
     public int countReportsForPlayer(String reportedPlayer) {
+        if (manifest.isLoaded()) {
+            try (Stream<Report> reports = readReports(manifest.idsForPlayer(reportedPlayer), r -> Objects.equals(r.getReportedPlayer(), reportedPlayer))) {
+                return (int) reports.count();
+            }
+        }
         int count = 0;
         for (Report r : getAllReports()) {
             if (Objects.equals(r.getReportedPlayer(), reportedPlayer)) count++;
@@ -190,26 +338,23 @@ public class JsonFileSystemHelper implements DatabaseHelper {
 
     @Override
     public boolean connect() {
-        // Always "connected" for filesystem
+        // Always "connected" for filesystem, only the index manifest has to be loaded
+        createTable();
+        loadManifest();
         return true;
     }
 
     @Override
     public void disconnect() {
-        // Nothing to do for filesystem
+        // Stores the manifest snapshot so the next start does not replay the journal
+        manifest.close();
     }
 
     private static final String HISTORY_DIR_NAME = "history";
-    private File getHistoryDir() {
-        File historyDir = new File(reportsDir, HISTORY_DIR_NAME);
-        if (!historyDir.exists() && !historyDir.mkdirs()) {
-            plugin.getLogger().log(Level.SEVERE, "Could not create history directory: " + historyDir.getAbsolutePath());
-        }
-        return historyDir;
-    }
 
-    private File historyFileForReportId(String reportId) {
-        return new File(getHistoryDir(), "history_" + reportId + ".json");
+    // Pretty-printed history map of the previous format, converted by the history store on first access
+    private File legacyHistoryFile(String reportId) {
+        return new File(new File(reportsDir, HISTORY_DIR_NAME), "history_" + reportId + ".json");
     }
 
     private Map<String, Report> readHistoryFile(File file) throws IOException {
@@ -222,33 +367,15 @@ public class JsonFileSystemHelper implements DatabaseHelper {
         }
     }
 
-    private void writeHistoryFile(File target, Map<String, Report> history) throws IOException {
-        // Schreibe in eine temporäre Datei und verschiebe sie dann atomar
-        File tmp = File.createTempFile("history_", ".json", getHistoryDir());
-        try (Writer w = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
-            gson.toJson(history, w);
-        }
-        try {
-            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-        } catch (AtomicMoveNotSupportedException e) {
-            // Fallback, falls das Dateisystem keinen atomaren Move unterstützt
-            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
-        }
-    }
-
     @Override
     public boolean writeToUpdateHistory(Report report, String updater) {
         if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
             plugin.getLogger().log(Level.SEVERE, "writeToUpdateHistory called with invalid report");
             return false;
         }
-        File historyFile = historyFileForReportId(report.getReportId());
         try {
-            Map<String, Report> history = readHistoryFile(historyFile);
-            // Nutze Updater und Zeitstempel als eindeutigen Schlüssel
-            String key = updater + "_-_" + System.currentTimeMillis();
-            history.put(key, report);
-            writeHistoryFile(historyFile, history);
+            // Updater and timestamp as the unique key
+            history.append(report.getReportId(), JsonLinesHistoryStore.key(updater, System.currentTimeMillis()), report);
             return true;
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Could not write update history for report " + report.getReportId(), e);
@@ -256,15 +383,45 @@ public class JsonFileSystemHelper implements DatabaseHelper {
         }
     }
 
+    /**
+     * Appends the entries of every report with one write per history file.
+     */
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        try {
+            history.appendAll(entries);
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write " + entries.size() + " update history entries", e);
+            return false;
+        }
+    }
+
     @Override
     public Map<String, Report> getUpdateHistory(Report report) {
         if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
             plugin.getLogger().log(Level.SEVERE, "getUpdateHistory called with invalid report");
             return Map.of();
         }
-        File historyFile = historyFileForReportId(report.getReportId());
         try {
-            return readHistoryFile(historyFile);
+            return history.read(report.getReportId());
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read update history for report " + report.getReportId(), e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Reads the history file from its end, older entries are not parsed.
+     */
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report, int limit) {
+        if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
+            plugin.getLogger().log(Level.SEVERE, "getUpdateHistory called with invalid report");
+            return Map.of();
+        }
+        try {
+            return history.readNewest(report.getReportId(), limit);
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Could not read update history for report " + report.getReportId(), e);
             return Map.of();
@@ -277,11 +434,6 @@ public class JsonFileSystemHelper implements DatabaseHelper {
             plugin.getLogger().log(Level.SEVERE, "clearUpdateHistory called with invalid report");
             return false;
         }
-        File historyFile = historyFileForReportId(report.getReportId());
-        if (historyFile.exists() && !historyFile.delete()) {
-            plugin.getLogger().log(Level.SEVERE, "Could not delete history file: " + historyFile.getAbsolutePath());
-            return false;
-        }
-        return true;
+        return history.clear(report.getReportId());
     }
-}
\ No newline at end of file
+}
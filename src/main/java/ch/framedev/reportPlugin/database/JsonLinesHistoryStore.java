@@ -0,0 +1,402 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 19:25
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Update history of the file backends, stored as one append-only JSON Lines file per report.
+ * <p>
+ * Every entry is a single line holding its key and the report encoded by {@link UpdateHistoryCodec}, a keyframe or
+ * the fields changed since one, so writing an entry appends one short line instead of rewriting the whole history.
+ * {@link #readNewest(String, int)} reads the file backwards from its end and parses only the requested entries and
+ * the keyframes they need. A line torn by a crash is skipped when reading and terminated before the next append.
+ * <p>
+ * History files of the previous format are converted the first time the history of their report is accessed.
+ */
+final class JsonLinesHistoryStore {
+
+    /**
+     * Reads the history file a backend wrote before this store existed.
+     */
+    interface LegacyHistory {
+        /**
+         * @return the legacy history file of the report, it may not exist
+         */
+        File file(String reportId);
+
+        /**
+         * @return the entries of the file in the order they were written
+         */
+        Map<String, Report> read(File file) throws IOException;
+    }
+
+    // A line of the history file, lines of the previous format hold the plain report
+    private record Line(String key, JsonObject report) {
+
+        UpdateHistoryCodec.Encoded encoded() {
+            return UpdateHistoryCodec.Encoded.of(report);
+        }
+    }
+
+    // Removed fields of deltas are written as null
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+    private static final int LOCK_STRIPES = 64;
+    private static final int READ_BLOCK_BYTES = 8 * 1024;
+
+    private final File historyDir;
+    private final LegacyHistory legacy;
+    private final UpdateHistoryCodec codec;
+    // Appends to the same file must not interleave, reports share a lock by the hash of their id
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * @param historyDir the directory of the history files
+     * @param legacy     the previous history format of the backend, or null if there is none
+     * @param codec      encodes the appended entries
+     */
+    JsonLinesHistoryStore(File historyDir, LegacyHistory legacy, UpdateHistoryCodec codec) {
+        this.historyDir = historyDir;
+        this.legacy = legacy;
+        this.codec = codec;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private File fileForReportId(String reportId) {
+        return new File(historyDir, "history_" + reportId + ".jsonl");
+    }
+
+    private ReentrantLock lockFor(String reportId) {
+        return locks[Math.floorMod(reportId.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * Appends one entry to the history of the report.
+     */
+    void append(String reportId, String key, Report report) throws IOException {
+        UpdateHistoryCodec.Batch batch = codec.batch();
+        append(reportId, List.of(new Line(key, batch.encode(report).toJsonObject())), batch);
+    }
+
+    /**
+     * Appends the entries to the histories of their reports, opening every file once.
+     *
+     * @param entries the entries in the order they were made
+     */
+    void appendAll(List<UpdateHistoryEntry> entries) throws IOException {
+        Map<String, List<UpdateHistoryEntry>> byReport = new LinkedHashMap<>();
+        for (UpdateHistoryEntry entry : entries) {
+            byReport.computeIfAbsent(entry.report().getReportId(), ignored -> new ArrayList<>()).add(entry);
+        }
+        // Every file is a separate write, so the keyframes of a report are remembered once its file was written
+        for (Map.Entry<String, List<UpdateHistoryEntry>> reportEntries : byReport.entrySet()) {
+            UpdateHistoryCodec.Batch batch = codec.batch();
+            List<Line> lines = new ArrayList<>(reportEntries.getValue().size());
+            for (UpdateHistoryEntry entry : reportEntries.getValue()) {
+                lines.add(new Line(key(entry.updater(), entry.timestamp()), batch.encode(entry.report()).toJsonObject()));
+            }
+            append(reportEntries.getKey(), lines, batch);
+        }
+    }
+
+    private void append(String reportId, List<Line> lines, UpdateHistoryCodec.Batch batch) throws IOException {
+        try {
+            append(reportId, lines);
+        } catch (IOException | RuntimeException ex) {
+            batch.discard();
+            throw ex;
+        }
+        batch.commit();
+    }
+
+    /**
+     * @return the key the file backends store an entry under
+     */
+    static String key(String updater, long timestamp) {
+        return updater + "_-_" + timestamp;
+    }
+
+    private void append(String reportId, List<Line> lines) throws IOException {
+        StringBuilder data = new StringBuilder();
+        for (Line line : lines) {
+            data.append(GSON.toJson(line)).append('\n');
+        }
+        byte[] bytes = data.toString().getBytes(StandardCharsets.UTF_8);
+        ReentrantLock lock = lockFor(reportId);
+        lock.lock();
+        try {
+            migrate(reportId);
+            if (!historyDir.exists() && !historyDir.mkdirs()) {
+                throw new IOException("Could not create history directory: " + historyDir.getAbsolutePath());
+            }
+            try (RandomAccessFile file = new RandomAccessFile(fileForReportId(reportId), "rw")) {
+                long length = file.length();
+                if (length > 0) {
+                    file.seek(length - 1);
+                    if (file.read() != '\n') {
+                        // Terminate a line torn by a crash, so it does not swallow the new entry
+                        file.write('\n');
+                    }
+                }
+                file.seek(file.length());
+                file.write(bytes);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return every entry of the history by key in the order they were written
+     */
+    Map<String, Report> read(String reportId) throws IOException {
+        List<Line> lines = new ArrayList<>();
+        ReentrantLock lock = lockFor(reportId);
+        lock.lock();
+        try {
+            migrate(reportId);
+            File file = fileForReportId(reportId);
+            if (!file.exists()) {
+                return new LinkedHashMap<>();
+            }
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String text;
+                while ((text = reader.readLine()) != null) {
+                    Line line = parse(text);
+                    if (line != null) {
+                        lines.add(line);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return decode(lines, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads the file backwards from its end, only the returned entries and the keyframes they need are parsed.
+     *
+     * @param limit the maximum number of entries
+     * @return the newest entries of the history by key in the order they were written
+     */
+    Map<String, Report> readNewest(String reportId, int limit) throws IOException {
+        NewestLines newest = new NewestLines(limit);
+        ReentrantLock lock = lockFor(reportId);
+        lock.lock();
+        try {
+            migrate(reportId);
+            File historyFile = fileForReportId(reportId);
+            if (limit <= 0 || !historyFile.exists()) {
+                return new LinkedHashMap<>();
+            }
+            try (RandomAccessFile file = new RandomAccessFile(historyFile, "r")) {
+                long end = file.length();
+                // Bytes of the line that continues before the current block, stored in reverse
+                ByteArrayOutputStream partial = new ByteArrayOutputStream();
+                byte[] block = new byte[READ_BLOCK_BYTES];
+                while (end > 0 && !newest.isDone()) {
+                    int size = (int) Math.min(block.length, end);
+                    end -= size;
+                    file.seek(end);
+                    file.readFully(block, 0, size);
+                    for (int i = size - 1; i >= 0 && !newest.isDone(); i--) {
+                        if (block[i] == '\n') {
+                            newest.addFirst(partial);
+                        } else {
+                            partial.write(block[i]);
+                        }
+                    }
+                }
+                if (end == 0 && !newest.isDone()) {
+                    newest.addFirst(partial);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return decode(new ArrayList<>(newest.lines), limit);
+    }
+
+    // The lines read backwards from the end of a file, done once there are enough and every delta has its keyframe
+    private static final class NewestLines {
+
+        private final int limit;
+        private final Deque<Line> lines = new ArrayDeque<>();
+        private final Set<String> keyframeIds = new HashSet<>();
+        private final Set<String> missingKeyframeIds = new HashSet<>();
+
+        private NewestLines(int limit) {
+            this.limit = limit;
+        }
+
+        private boolean isDone() {
+            return lines.size() >= limit && missingKeyframeIds.isEmpty();
+        }
+
+        private void addFirst(ByteArrayOutputStream partial) {
+            byte[] reversed = partial.toByteArray();
+            partial.reset();
+            if (reversed.length == 0) {
+                return;
+            }
+            byte[] bytes = new byte[reversed.length];
+            for (int i = 0; i < reversed.length; i++) {
+                bytes[i] = reversed[reversed.length - 1 - i];
+            }
+            Line line = parse(new String(bytes, StandardCharsets.UTF_8));
+            if (line == null) {
+                return;
+            }
+            UpdateHistoryCodec.Encoded encoded;
+            try {
+                encoded = line.encoded();
+            } catch (RuntimeException ex) {
+                return;
+            }
+            if (encoded.isKeyframe()) {
+                if (encoded.keyframeId() != null) {
+                    keyframeIds.add(encoded.keyframeId());
+                    missingKeyframeIds.remove(encoded.keyframeId());
+                }
+            } else if (lines.size() < limit && !keyframeIds.contains(encoded.baseId())) {
+                // Only deltas that are returned need their keyframe
+                missingKeyframeIds.add(encoded.baseId());
+            }
+            lines.addFirst(line);
+        }
+    }
+
+    /**
+     * Deletes the history of the report.
+     *
+     * @return false if a history file could not be deleted
+     */
+    boolean clear(String reportId) {
+        ReentrantLock lock = lockFor(reportId);
+        lock.lock();
+        try {
+            codec.forget(reportId);
+            boolean cleared = true;
+            File legacyFile = legacy == null ? null : legacy.file(reportId);
+            if (legacyFile != null && legacyFile.exists() && !legacyFile.delete()) {
+                logger().severe("Could not delete history file: " + legacyFile.getAbsolutePath());
+                cleared = false;
+            }
+            File file = fileForReportId(reportId);
+            if (file.exists() && !file.delete()) {
+                logger().severe("Could not delete history file: " + file.getAbsolutePath());
+                cleared = false;
+            }
+            return cleared;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Converts the legacy history file of the report, called while holding its lock.
+     * The new file is written completely before the legacy one is deleted, an interrupted conversion is redone.
+     */
+    private void migrate(String reportId) throws IOException {
+        if (legacy == null) {
+            return;
+        }
+        File legacyFile = legacy.file(reportId);
+        if (legacyFile == null || !legacyFile.exists()) {
+            return;
+        }
+        Map<String, Report> entries = legacy.read(legacyFile);
+        StringBuilder data = new StringBuilder();
+        // Entries of the previous format are plain reports, which are read as keyframes
+        entries.forEach((key, report) -> data.append(GSON.toJson(new Line(key, GSON.toJsonTree(report).getAsJsonObject()))).append('\n'));
+        if (!historyDir.exists() && !historyDir.mkdirs()) {
+            throw new IOException("Could not create history directory: " + historyDir.getAbsolutePath());
+        }
+        // Entries appended after an interrupted conversion follow the converted ones
+        File file = fileForReportId(reportId);
+        byte[] appended = file.exists() ? Files.readAllBytes(file.toPath()) : new byte[0];
+        File tmp = File.createTempFile("history_", ".tmp", historyDir);
+        try {
+            Files.write(tmp.toPath(), data.toString().getBytes(StandardCharsets.UTF_8));
+            Files.write(tmp.toPath(), appended, StandardOpenOption.APPEND);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp.toPath());
+        }
+        if (!legacyFile.delete()) {
+            logger().warning("Could not delete converted history file: " + legacyFile.getAbsolutePath());
+        }
+    }
+
+    private static Line parse(String text) {
+        if (text.isBlank()) {
+            return null;
+        }
+        try {
+            return GSON.fromJson(text, Line.class);
+        } catch (JsonParseException ex) {
+            // A line torn by a crash
+            logger().warning("Skipping damaged update history line");
+            return null;
+        }
+    }
+
+    /**
+     * @param limit the maximum number of entries to return, the newest are kept
+     */
+    private static Map<String, Report> decode(List<Line> lines, int limit) {
+        List<Map.Entry<String, UpdateHistoryCodec.Encoded>> entries = new ArrayList<>(lines.size());
+        for (Line line : lines) {
+            if (line.key() == null || line.report() == null) {
+                continue;
+            }
+            try {
+                entries.add(Map.entry(line.key(), line.encoded()));
+            } catch (RuntimeException ex) {
+                logger().warning("Skipping damaged update history line");
+            }
+        }
+        Map<String, Report> history = UpdateHistoryCodec.decode(entries);
+        return history.size() > limit ? DatabaseHelper.newest(history, limit) : history;
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(JsonLinesHistoryStore.class.getName());
+    }
+}
@@ -0,0 +1,67 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 20:20
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact JSON through the shared {@link Report.GsonAdapter}, the format every backend used so far.
+ * Its text form is the plain JSON, so existing rows and files are read unchanged.
+ */
+final class JsonReportCodec implements ReportCodec {
+
+    static final String NAME = "json";
+
+    private static final Report.GsonAdapter ADAPTER = new Report.GsonAdapter();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Report report) {
+        return encodeToString(report).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Report decode(byte[] data) {
+        return decodeFromString(new String(data, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String encodeToString(Report report) {
+        StringWriter out = new StringWriter(512);
+        try (JsonWriter writer = new JsonWriter(out)) {
+            ADAPTER.write(writer, report);
+        } catch (IOException ex) {
+            // A StringWriter does not fail
+            throw new IllegalStateException(ex);
+        }
+        return out.toString();
+    }
+
+    @Override
+    public Report decodeFromString(String data) {
+        try (JsonReader reader = new JsonReader(new StringReader(data))) {
+            return ADAPTER.read(reader);
+        } catch (IOException | JsonParseException | IllegalStateException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Unreadable report JSON", ex);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 18:20
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * File backend storing every report and history entry as a record in an append-only {@link ReportLog}
+ * instead of one file per report. Updates append a new version, concurrent writes share one sync,
+ * and a background task compacts segments that mostly hold superseded or deleted versions.
+ */
+public class LogFileSystemHelper implements DatabaseHelper {
+
+    private final ReportPlugin plugin;
+    private final File logDir;
+    private final ReportCodec codec;
+    private final ReportLog log;
+    private final UpdateHistoryCodec historyCodec;
+    private final long compactionIntervalSeconds;
+    private final double compactionGarbageRatio;
+    private ScheduledExecutorService compactor;
+
+    /**
+     * Reads the segment size, sync and compaction settings from the "logfilesystem" section of the config.
+     *
+     * @param plugin The ReportPlugin instance for logging and configuration access.
+     */
+    public LogFileSystemHelper(ReportPlugin plugin) {
+        this.plugin = plugin;
+        this.logDir = new File(plugin.getDataFolder(), "reportlog");
+        long segmentBytes = plugin.getConfig().getLong("logfilesystem.segment-size-mb", 16L) * 1024L * 1024L;
+        boolean sync = plugin.getConfig().getBoolean("logfilesystem.sync", true);
+        this.compactionIntervalSeconds = plugin.getConfig().getLong("logfilesystem.compaction-interval-seconds", 300L);
+        this.compactionGarbageRatio = plugin.getConfig().getDouble("logfilesystem.compaction-garbage-ratio", 0.5D);
+        this.log = new ReportLog(logDir.toPath(), segmentBytes, sync);
+        this.codec = ReportCodecs.fromConfig(plugin.getConfig(), "logfilesystem");
+        this.historyCodec = new UpdateHistoryCodec(plugin.getConfig().getInt("update-history.keyframe-interval", 10));
+    }
+
+    // ---- Helpers ------------------------------------------------------------
+
+    private Report parse(String json) {
+        if (json == null) return null;
+        try {
+            return ReportCodecs.decode(json);
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not parse report from the report log", e);
+            return null;
+        }
+    }
+
+    private static boolean invalid(Report report) {
+        return report == null || report.getReportId() == null || report.getReportId().isEmpty();
+    }
+
+    /**
+     * Parses the reports lazily in the order they are stored in the log.
+     */
+    private Stream<Report> reports() {
+        Iterator<String> values = log.values();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(values, Spliterator.ORDERED), false)
+                .map(this::parse)
+                .filter(Objects::nonNull);
+    }
+
+    // ---- CRUD ---------------------------------------------------------------
+
+    @Override
+    public void insertReport(Report report) {
+        if (invalid(report)) {
+            plugin.getLogger().log(Level.SEVERE, "Report has no reportId; cannot save.");
+            return;
+        }
+        if (!log.put(report.getReportId(), codec.encodeToString(report))) {
+            plugin.getLogger().log(Level.SEVERE, "Could not save report " + report.getReportId() + " (player " + report.getReportedPlayer() + ")");
+        }
+    }
+
+    /**
+     * Appends every report as part of the same group commit.
+     */
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (Report report : reports) {
+            if (invalid(report)) {
+                plugin.getLogger().log(Level.SEVERE, "Report has no reportId; cannot save.");
+                continue;
+            }
+            values.put(report.getReportId(), codec.encodeToString(report));
+        }
+        return log.putAll(values);
+    }
+
+    @Override
+    public Report getReportById(String reportId) {
+        if (reportId == null || reportId.isEmpty()) return null;
+        return parse(log.get(reportId));
+    }
+
+    @Override
+    public Report getReportByReportedPlayer(String reportedPlayer) {
+        try (Stream<Report> reports = reports()) {
+            return reports.filter(r -> Objects.equals(r.getReportedPlayer(), reportedPlayer)).findFirst().orElse(null);
+        }
+    }
+
+    @Override
+    public Report getReportByReporter(String reporter) {
+        try (Stream<Report> reports = reports()) {
+            return reports.filter(r -> Objects.equals(r.getReporter(), reporter)).findFirst().orElse(null);
+        }
+    }
+
+    @Override
+    public List<Report> getAllReports() {
+        try (Stream<Report> reports = reports()) {
+            return new ArrayList<>(reports.toList());
+        }
+    }
+
+    @Override
+    public List<Report> findReports(ReportQuery query) {
+        List<Report> reports = new ArrayList<>();
+        try (CloseableIterator<Report> iterator = iterateReports(query)) {
+            iterator.forEachRemaining(reports::add);
+        }
+        return reports;
+    }
+
+    /**
+     * Unsorted queries are evaluated lazily while the log is read, sorted queries keep only the matches in memory.
+     */
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        if (query.getSortKey() == ReportQuery.SortKey.UNSORTED) {
+            Stream<Report> matches = reports().filter(query::matches).skip(query.getOffset());
+            if (query.getLimit() > 0) {
+                matches = matches.limit(query.getLimit());
+            }
+            return CloseableIterator.of(matches.iterator(), matches::close);
+        }
+        try (Stream<Report> matches = reports().filter(query::matches)) {
+            return CloseableIterator.of(query.apply(matches.toList()).iterator());
+        }
+    }
+
+    @Override
+    public void updateReport(Report report) {
+        // Appends a new version, the old one is dropped by compaction
+        insertReport(report);
+    }
+
+    @Override
+    public boolean deleteReport(String reportId) {
+        if (reportId == null || reportId.isEmpty()) return false;
+        if (!log.contains(reportId)) return true;
+        if (!log.delete(reportId)) {
+            plugin.getLogger().log(Level.SEVERE, "Could not delete report " + reportId + " from the report log");
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void createTable() {
+        // Not needed for the log backend, the segments are created on connect
+    }
+
+    @Override
+    public Report getReportByPlayer(String reportedPlayer) {
+        return getReportByReportedPlayer(reportedPlayer);
+    }
+
+    @Override
+    public boolean reportExists(String reportId) {
+        return reportId != null && !reportId.isEmpty() && log.contains(reportId);
+    }
+
+    @Override
+    public boolean playerHasReport(String reportedPlayer) {
+        return getReportByReportedPlayer(reportedPlayer) != null;
+    }
+
+    @Override
+    public boolean isResolved(String reportId) {
+        Report r = getReportById(reportId);
+        return r != null && r.isResolved();
+    }
+
+    @Override
+    public int countReportsForPlayer(String reportedPlayer) {
+        try (Stream<Report> reports = reports()) {
+            return (int) reports.filter(r -> Objects.equals(r.getReportedPlayer(), reportedPlayer)).count();
+        }
+    }
+
+    /**
+     * Replays the segments and starts the compaction task.
+     */
+    @Override
+    public boolean connect() {
+        try {
+            log.open();
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not open the report log in " + logDir.getAbsolutePath(), e);
+            return false;
+        }
+        long[] stats = log.stats();
+        plugin.getLogger().info("Report log opened with " + log.size() + " reports in " + stats[0] + " segments. Directory: " + logDir.getAbsolutePath());
+        if (compactionIntervalSeconds > 0 && compactor == null) {
+            compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ReportPlugin-log-compaction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            compactor.scheduleWithFixedDelay(this::compact, compactionIntervalSeconds, compactionIntervalSeconds, TimeUnit.SECONDS);
+        }
+        return true;
+    }
+
+    @Override
+    public void disconnect() {
+        if (compactor != null) {
+            compactor.shutdownNow();
+            try {
+                compactor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            compactor = null;
+        }
+        log.close();
+    }
+
+    private void compact() {
+        try {
+            int compacted = log.compact(compactionGarbageRatio);
+            if (compacted > 0) {
+                long[] stats = log.stats();
+                plugin.getLogger().fine("Compacted " + compacted + " report log segments, " + stats[0] + " segments with " + stats[2] + " of " + stats[1] + " bytes live");
+            }
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not compact the report log", e);
+        }
+    }
+
+    // ---- Update history -----------------------------------------------------
+
+    @Override
+    public boolean writeToUpdateHistory(Report report, String updater) {
+        if (invalid(report)) {
+            plugin.getLogger().log(Level.SEVERE, "writeToUpdateHistory called with invalid report");
+            return false;
+        }
+        // Updater and timestamp as the unique key, like the other file backends
+        String key = updater + "_-_" + System.currentTimeMillis();
+        UpdateHistoryCodec.Batch batch = historyCodec.batch();
+        if (!log.addHistory(report.getReportId(), key, batch.encode(report).toJson())) {
+            batch.discard();
+            plugin.getLogger().log(Level.SEVERE, "Could not write update history for report " + report.getReportId());
+            return false;
+        }
+        batch.commit();
+        return true;
+    }
+
+    /**
+     * Appends every entry as part of the same group commit.
+     */
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        UpdateHistoryCodec.Batch batch = historyCodec.batch();
+        List<String[]> records = new ArrayList<>(entries.size());
+        for (UpdateHistoryEntry entry : entries) {
+            if (invalid(entry.report())) {
+                plugin.getLogger().log(Level.SEVERE, "writeToUpdateHistory called with invalid report");
+                continue;
+            }
+            records.add(new String[]{entry.report().getReportId(), entry.updater() + "_-_" + entry.timestamp(), batch.encode(entry.report()).toJson()});
+        }
+        if (!log.addHistory(records)) {
+            batch.discard();
+            return false;
+        }
+        batch.commit();
+        return true;
+    }
+
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report) {
+        if (invalid(report)) {
+            plugin.getLogger().log(Level.SEVERE, "getUpdateHistory called with invalid report");
+            return Map.of();
+        }
+        return UpdateHistoryCodec.decode(encoded(log.history(report.getReportId())), report);
+    }
+
+    /**
+     * Only the newest entries are read from the log, further back until every delta among them has its keyframe.
+     */
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report, int limit) {
+        if (invalid(report)) {
+            plugin.getLogger().log(Level.SEVERE, "getUpdateHistory called with invalid report");
+            return Map.of();
+        }
+        List<Map.Entry<String, UpdateHistoryCodec.Encoded>> entries;
+        int read = limit;
+        while (true) {
+            Map<String, String> stored = log.history(report.getReportId(), read);
+            entries = encoded(stored);
+            if (stored.size() < read || read == Integer.MAX_VALUE
+                    || UpdateHistoryCodec.isComplete(entries.stream().map(Map.Entry::getValue).toList())) {
+                break;
+            }
+            read = read > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : read * 2;
+        }
+        return DatabaseHelper.newest(UpdateHistoryCodec.decode(entries, report), limit);
+    }
+
+    private List<Map.Entry<String, UpdateHistoryCodec.Encoded>> encoded(Map<String, String> stored) {
+        List<Map.Entry<String, UpdateHistoryCodec.Encoded>> entries = new ArrayList<>(stored.size());
+        stored.forEach((key, json) -> {
+            try {
+                entries.add(Map.entry(key, UpdateHistoryCodec.Encoded.parse(json)));
+            } catch (RuntimeException ex) {
+                plugin.getLogger().log(Level.WARNING, "Skipping damaged update history entry " + key, ex);
+            }
+        });
+        return entries;
+    }
+
+    @Override
+    public boolean clearUpdateHistory(Report report) {
+        if (invalid(report)) {
+            plugin.getLogger().log(Level.SEVERE, "clearUpdateHistory called with invalid report");
+            return false;
+        }
+        historyCodec.forget(report.getReportId());
+        if (!log.clearHistory(report.getReportId())) {
+            plugin.getLogger().log(Level.SEVERE, "Could not clear update history for report " + report.getReportId());
+            return false;
+        }
+        return true;
+    }
+}
@@ -13,16 +13,42 @@ package ch.framedev.reportPlugin.database;
 
 import ch.framedev.reportPlugin.main.ReportPlugin;
 import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Collation;
+import com.mongodb.client.model.CollationStrength;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 
 public class MongoDBHelper implements DatabaseHelper {
 
     private final MongoDB mongoDb;
+    private final UpdateHistoryCodec historyCodec;
+
+    // Case-insensitive comparison for player names in filters and sorting
+    private static final Collation CASE_INSENSITIVE = Collation.builder()
+            .locale("en")
+            .collationStrength(CollationStrength.SECONDARY)
+            .build();
+
+    // Documents fetched per round trip when streaming reports
+    private static final int STREAM_BATCH_SIZE = 500;
 
     /**
      * Initializes the MongoDBHelper with the specified ReportPlugin instance.
@@ -37,6 +63,7 @@ public class MongoDBHelper implements DatabaseHelper {
         String password = plugin.getConfig().getString("mongodb.password", "password");
         int port = plugin.getConfig().getInt("mongodb.port", 27017);
         this.mongoDb = new MongoDB(host, database, username, password, port);
+        this.historyCodec = new UpdateHistoryCodec(plugin.getConfig().getInt("update-history.keyframe-interval", 10));
         plugin.getLogger().info("Connecting to MongoDB at " + host + ":" + port + " with database " + database);
         this.mongoDb.connect();
         createTable();
@@ -56,6 +83,17 @@ public class MongoDBHelper implements DatabaseHelper {
         getReportsCollection().insertOne(report.toDocument());
     }
 
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        try {
+            getReportsCollection().insertMany(reports.stream().map(Report::toDocument).toList());
+            return true;
+        } catch (RuntimeException ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error inserting " + reports.size() + " reports", ex);
+            return false;
+        }
+    }
+
     @Override
     public Report getReportById(String reportId) {
         return getReportsCollection().find(new Document("reportId", reportId))
@@ -63,6 +101,15 @@ public class MongoDBHelper implements DatabaseHelper {
                 .first();
     }
 
+    @Override
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        Map<String, Report> reports = new HashMap<>();
+        getReportsCollection().find(Filters.in("reportId", reportIds))
+                .map(Report::new)
+                .forEach(report -> reports.put(report.getReportId(), report));
+        return reports;
+    }
+
     @Override
     public Report getReportByReportedPlayer(String reportedPlayer) {
         return getReportsCollection().find(new Document("reportedPlayer", reportedPlayer))
@@ -84,6 +131,167 @@ public class MongoDBHelper implements DatabaseHelper {
                 .into(new ArrayList<>());
     }
 
+    @Override
+    public List<Report> findReports(ReportQuery query) {
+        return find(query).map(Report::new).into(new ArrayList<>());
+    }
+
+    /**
+     * Only the summary fields are sent by the server, the resolved flag is needed for documents without a status.
+     */
+    @Override
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        return find(query)
+                .projection(Projections.fields(Projections.include("reportId", "reportedPlayer", "reporter", "reason",
+                        "status", "resolved", "timestamp"), Projections.excludeId()))
+                .map(MongoDBHelper::toSummary)
+                .into(new ArrayList<>());
+    }
+
+    private static ReportSummary toSummary(Document document) {
+        String status = document.getString("status");
+        Long timestamp = document.getLong("timestamp");
+        return new ReportSummary(document.getString("reportId"), document.getString("reportedPlayer"),
+                document.getString("reporter"), document.getString("reason"),
+                status == null || status.isBlank()
+                        ? ReportStatus.fromResolved(document.getBoolean("resolved", false))
+                        : ReportStatus.fromStorage(status),
+                timestamp == null ? 0L : timestamp);
+    }
+
+    /**
+     * Reads the matching reports through a server-side cursor that fetches them in batches.
+     */
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        MongoCursor<Report> cursor = find(query).batchSize(STREAM_BATCH_SIZE).map(Report::new).iterator();
+        return CloseableIterator.of(cursor, cursor::close);
+    }
+
+    private FindIterable<Document> find(ReportQuery query) {
+        Bson filter = query.hasCursor() ? Filters.and(toFilter(query), toKeyset(query)) : toFilter(query);
+        var iterable = getReportsCollection().find(filter)
+                .collation(CASE_INSENSITIVE)
+                .skip(query.getOffset());
+        if (query.getSortKey() != ReportQuery.SortKey.UNSORTED) {
+            iterable = iterable.sort(toSort(query));
+        }
+        if (query.getLimit() > 0) {
+            iterable = iterable.limit(query.getLimit());
+        }
+        return iterable;
+    }
+
+    @Override
+    public int countReports(ReportQuery query) {
+        return (int) getReportsCollection().countDocuments(toFilter(query), new CountOptions().collation(CASE_INSENSITIVE));
+    }
+
+    @Override
+    public Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        Map<ReportStatus, Integer> counts = ReportQuery.emptyStatusCounts();
+        // Documents written before the status field existed are grouped by their resolved flag
+        List<Bson> pipeline = List.of(
+                Aggregates.match(toFilter(query)),
+                Aggregates.group(new Document("status", "$status").append("resolved", "$resolved"),
+                        Accumulators.sum("count", 1)));
+        for (Document group : getReportsCollection().aggregate(pipeline).collation(CASE_INSENSITIVE)) {
+            Document id = (Document) group.get("_id");
+            String status = id.getString("status");
+            ReportStatus key = status != null
+                    ? ReportStatus.fromStorage(status)
+                    : ReportStatus.fromResolved(Boolean.TRUE.equals(id.getBoolean("resolved")));
+            counts.merge(key, ((Number) group.get("count")).intValue(), Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Translates the filter criteria of the query into a MongoDB filter.
+     * Player names are compared with the case-insensitive collation of the find operation.
+     */
+    private Bson toFilter(ReportQuery query) {
+        List<Bson> filters = new ArrayList<>();
+        if (query.getReportedPlayer() != null) {
+            filters.add(Filters.eq("reportedPlayer", query.getReportedPlayer()));
+        }
+        if (query.getReporter() != null) {
+            filters.add(Filters.eq("reporter", query.getReporter()));
+        }
+        if (query.hasStatusFilter()) {
+            List<String> names = query.getStatuses().stream().map(ReportStatus::name).toList();
+            List<Bson> statusFilters = new ArrayList<>();
+            statusFilters.add(Filters.in("status", names));
+            // Documents written before the status field existed only know the resolved flag
+            if (query.getStatuses().contains(ReportStatus.OPEN)) {
+                statusFilters.add(Filters.and(Filters.exists("status", false), Filters.ne("resolved", true)));
+            }
+            if (query.getStatuses().contains(ReportStatus.RESOLVED)) {
+                statusFilters.add(Filters.and(Filters.exists("status", false), Filters.eq("resolved", true)));
+            }
+            filters.add(Filters.or(statusFilters.toArray(new Bson[0])));
+        }
+        if (query.getFrom() != null) {
+            filters.add(Filters.gte("timestamp", query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            filters.add(Filters.lt("timestamp", query.getTo()));
+        }
+        return filters.isEmpty() ? new Document() : Filters.and(filters);
+    }
+
+    /**
+     * Matches the documents after the cursor in the order of {@link #toSort(ReportQuery)}, so the server
+     * seeks to the cursor in the index instead of skipping the previous pages.
+     */
+    private Bson toKeyset(ReportQuery query) {
+        ReportSummary after = query.getAfter();
+        String reportId = after.reportId() == null ? "" : after.reportId();
+        Bson newer = Filters.or(Filters.lt("timestamp", after.timestamp()),
+                Filters.and(Filters.eq("timestamp", after.timestamp()), Filters.gt("reportId", reportId)));
+        String field;
+        Object value;
+        switch (query.getSortKey()) {
+            case TIMESTAMP -> {
+                if (query.isDescending()) {
+                    return newer;
+                }
+                return Filters.or(Filters.gt("timestamp", after.timestamp()),
+                        Filters.and(Filters.eq("timestamp", after.timestamp()), Filters.gt("reportId", reportId)));
+            }
+            case REPORTED_PLAYER -> {
+                field = "reportedPlayer";
+                value = after.reportedPlayer();
+            }
+            case REPORTER -> {
+                field = "reporter";
+                value = after.reporter();
+            }
+            case STATUS -> {
+                field = "status";
+                value = after.status().name();
+            }
+            default -> throw new IllegalArgumentException("Unsorted queries have no cursor");
+        }
+        Bson beyond = query.isDescending() ? Filters.lt(field, value) : Filters.gt(field, value);
+        return Filters.or(beyond, Filters.and(Filters.eq(field, value), newer));
+    }
+
+    private Bson toSort(ReportQuery query) {
+        String field = switch (query.getSortKey()) {
+            case TIMESTAMP -> "timestamp";
+            case REPORTED_PLAYER -> "reportedPlayer";
+            case REPORTER -> "reporter";
+            case STATUS -> "status";
+            case UNSORTED -> throw new IllegalArgumentException("Unsorted queries have no sort document");
+        };
+        Bson primary = query.isDescending() ? Sorts.descending(field) : Sorts.ascending(field);
+        if (query.getSortKey() == ReportQuery.SortKey.TIMESTAMP) {
+            return Sorts.orderBy(primary, Sorts.ascending("reportId"));
+        }
+        return Sorts.orderBy(primary, Sorts.descending("timestamp"), Sorts.ascending("reportId"));
+    }
+
     @Override
     public void updateReport(Report report) {
         Document query = new Document("reportId", report.getReportId());
@@ -137,28 +345,72 @@ public class MongoDBHelper implements DatabaseHelper {
 
     @Override
     public boolean writeToUpdateHistory(Report report, String updater) {
+        UpdateHistoryCodec.Batch batch = historyCodec.batch();
+        try {
+            getUpdateHistoryCollection().insertOne(toHistoryDocument(batch, report, updater, System.currentTimeMillis()));
+        } catch (RuntimeException ex) {
+            batch.discard();
+            throw ex;
+        }
+        batch.commit();
+        return true;
+    }
+
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        UpdateHistoryCodec.Batch batch = historyCodec.batch();
+        List<Document> documents = new ArrayList<>(entries.size());
+        for (UpdateHistoryEntry entry : entries) {
+            documents.add(toHistoryDocument(batch, entry.report(), entry.updater(), entry.timestamp()));
+        }
+        try {
+            getUpdateHistoryCollection().insertMany(documents);
+        } catch (RuntimeException ex) {
+            batch.discard();
+            throw ex;
+        }
+        batch.commit();
+        return true;
+    }
+
+    // Keyframes hold the full report document, deltas the changed fields as JSON and the id of their keyframe
+    private Document toHistoryDocument(UpdateHistoryCodec.Batch batch, Report report, String updater, long timestamp) {
+        UpdateHistoryCodec.Encoded encoded = batch.encode(report);
         Document historyEntry = new Document()
                 .append("reportId", report.getReportId())
                 .append("updater", updater)
-                .append("timestamp", System.currentTimeMillis())
-                .append("reportData", report.toDocument());
-        getUpdateHistoryCollection().insertOne(historyEntry);
-        return true;
+                .append("timestamp", timestamp);
+        if (encoded.isKeyframe()) {
+            return historyEntry
+                    .append("keyframeId", encoded.keyframeId())
+                    .append("reportData", report.toDocument());
+        }
+        return historyEntry
+                .append("baseId", encoded.baseId())
+                .append("reportDelta", encoded.deltaJson());
     }
 
     @Override
     public Map<String, Report> getUpdateHistory(Report report) {
-        Map<String, Report> history = new java.util.HashMap<>();
+        List<Map.Entry<String, UpdateHistoryCodec.Encoded>> entries = new ArrayList<>();
         getUpdateHistoryCollection().find(new Document("reportId", report.getReportId()))
-                .forEach(doc -> history.put(
-                        doc.getString("updater") + " at " + doc.getLong("timestamp"),
-                        new Report((Document) doc.get("reportData"))
-                ));
-        return history;
+                .sort(Sorts.ascending("timestamp"))
+                .forEach(doc -> {
+                    String key = doc.getString("updater") + " at " + doc.getLong("timestamp");
+                    String baseId = doc.getString("baseId");
+                    if (baseId != null) {
+                        entries.add(Map.entry(key, UpdateHistoryCodec.Encoded.delta(baseId, doc.getString("reportDelta"))));
+                    } else {
+                        Report keyframe = new Report((Document) doc.get("reportData"));
+                        entries.add(Map.entry(key, UpdateHistoryCodec.Encoded.keyframe(doc.getString("keyframeId"), keyframe)));
+                    }
+                });
+        return UpdateHistoryCodec.decode(entries, report);
     }
 
     @Override
     public boolean clearUpdateHistory(Report report) {
+        historyCodec.forget(report.getReportId());
         Document query = new Document("reportId", report.getReportId());
         long count = getUpdateHistoryCollection().deleteMany(query).getDeletedCount();
         return count > 0;
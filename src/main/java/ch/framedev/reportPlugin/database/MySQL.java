@@ -14,6 +14,9 @@ package ch.framedev.reportPlugin.database;
 import ch.framedev.reportPlugin.main.ReportPlugin;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 @SuppressWarnings("unused")
@@ -24,13 +27,22 @@ public class MySQL {
     private String username;
     private String password;
     private int port;
+    private final PoolSettings poolSettings;
+    // Created on first use, written under poolLock and read without it
+    private volatile ConnectionPool pool;
+    private final ReentrantLock poolLock = new ReentrantLock();
 
     public MySQL(String host, String database, String username, String password, int port) {
+        this(host, database, username, password, port, PoolSettings.networkDefaults());
+    }
+
+    public MySQL(String host, String database, String username, String password, int port, PoolSettings poolSettings) {
         this.host = host;
         this.database = database;
         this.username = username;
         this.password = password;
         this.port = port;
+        this.poolSettings = poolSettings;
     }
 
     // Getters and setters for the fields
@@ -85,21 +97,64 @@ public class MySQL {
     }
 
     /**
-     * Establishes a connection to the MySQL database.
+     * Borrows a connection to the MySQL database from the connection pool.
+     * Closing the returned connection hands it back to the pool.
      *
      * @return A Connection object if successful, null otherwise.
      */
     public Connection connect() {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            return java.sql.DriverManager.getConnection(getConnectionUrl(), username, password);
+            return getPool().borrow();
         } catch (ClassNotFoundException e) {
             System.err.println("MySQL JDBC Driver not found.");
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "MySQL JDBC Driver not found. Please ensure the MySQL JDBC library is included in your project dependencies.", e);
-        } catch (java.sql.SQLException e) {
+        } catch (SQLException e) {
             System.err.println("Failed to connect to MySQL database.");
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to connect to MySQL database at " + getConnectionUrl(), e);
         }
         return null;
     }
+
+    /**
+     * Returns the connection pool and creates it on first use.
+     */
+    private ConnectionPool getPool() throws ClassNotFoundException {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        poolLock.lock();
+        try {
+            if (pool == null) {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+                pool = new ConnectionPool("mysql", () -> DriverManager.getConnection(getConnectionUrl(), username, password), poolSettings);
+            }
+            return pool;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the statistics of the connection pool or null if no connection was opened yet.
+     */
+    public PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Closes all pooled connections.
+     */
+    public void close() {
+        poolLock.lock();
+        try {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        } finally {
+            poolLock.unlock();
+        }
+    }
 }
@@ -10,20 +10,25 @@ package ch.framedev.reportPlugin.database;
  */
 
 import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 import ch.framedev.reportPlugin.main.ReportPlugin;
-import com.google.gson.Gson;
 
 import java.sql.Connection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.logging.Level;
 
 public class MySQLHelper implements DatabaseHelper {
 
     private final MySQL mySQL;
-    private final RedisManager redis;
-    private final int cacheTtlSeconds;
+    private final SchemaMigrator schemaMigrator;
+    private final ReportCodec codec;
+    private final UpdateHistoryCodec historyCodec;
 
     public MySQLHelper(ReportPlugin plugin) {
         String host = plugin.getConfig().getString("mysql.host", "localhost");
@@ -31,87 +36,73 @@ public class MySQLHelper implements DatabaseHelper {
         String username = plugin.getConfig().getString("mysql.username", "root");
         String password = plugin.getConfig().getString("mysql.password", "password");
         int port = plugin.getConfig().getInt("mysql.port", 3306);
-        this.mySQL = new MySQL(host, database, username, password, port);
-
-        boolean redisEnabled = plugin.getConfig().getBoolean("redis.enabled", false);
-        RedisManager tmpRedis = null;
-        int ttl = plugin.getConfig().getInt("redis.ttl", 300);
-        if (redisEnabled) {
-            String rHost = plugin.getConfig().getString("redis.host", "localhost");
-            int rPort = plugin.getConfig().getInt("redis.port", 6379);
-            String rPass = plugin.getConfig().getString("redis.password", "");
-            try {
-                tmpRedis = new RedisManager(rHost, rPort, rPass);
-                plugin.getLogger().info("Redis caching enabled (" + rHost + ":" + rPort + "), TTL=" + ttl + "s");
-            } catch (Exception ex) {
-                plugin.getLogger().warning("Failed to initialize Redis, continuing without cache: " + ex.getMessage());
-            }
-        }
-        this.redis = tmpRedis;
-        this.cacheTtlSeconds = ttl;
+        PoolSettings poolSettings = PoolSettings.fromConfig(plugin.getConfig(), "mysql", PoolSettings.networkDefaults());
+        this.mySQL = new MySQL(host, database, username, password, port, poolSettings);
+        this.schemaMigrator = new SchemaMigrator("MySQL", SqlDialect.MYSQL, mySQL::connect);
+        this.codec = ReportCodecs.fromConfig(plugin.getConfig(), "mysql");
+        this.historyCodec = new UpdateHistoryCodec(plugin.getConfig().getInt("update-history.keyframe-interval", 10));
 
         plugin.getLogger().info("Connecting to MySQL database at " + host + ":" + port + " with database " + database);
         plugin.getLogger().info("Using username: " + username);
         plugin.getLogger().info("Using password: " + (password.isEmpty() ? "not set" : "********") + " (hidden for security reasons)");
-        plugin.getLogger().info("Redis caching is " + (redisEnabled ? "enabled" : "disabled") + ".");
         plugin.getLogger().info("MySQL connection established successfully.");
         plugin.getLogger().info("Creating reports table...");
         createTable();
         plugin.getLogger().info("MySQL database initialized successfully.");
     }
 
-    private String keyById(String id) {
-        return "report:id:" + id;
-    }
-
-    private String keyByPlayer(String player) {
-        return "report:player:" + player;
+    /**
+     * Creates the reports table if it does not already exist and upgrades it to the current
+     * schema version, see {@link SchemaMigrator}. The update history table is created here once
+     * instead of before every history access.
+     */
+    @Override
+    public void createTable() {
+        schemaMigrator.migrate();
+        createUpdateHistoryTable();
     }
 
     @Override
-    public void createTable() {
-        try {
-            try (Connection connection = mySQL.connect()) {
-                if (connection != null) {
-                    String sql = "CREATE TABLE IF NOT EXISTS reports (" +
-                            "id INT AUTO_INCREMENT PRIMARY KEY, " +
-                            "report_id VARCHAR(255) NOT NULL UNIQUE, " +
-                            "reported_player VARCHAR(255) NOT NULL, " +
-                            "reporter VARCHAR(255) NOT NULL, " +
-                            "data TEXT NOT NULL" +
-                            ")";
-                    connection.createStatement().executeUpdate(sql);
-                } else {
-                    System.err.println("Failed to connect to the database.");
-                }
+    public void insertReport(Report report) {
+        try (Connection connection = mySQL.connect()) {
+            if (connection != null) {
+                var preparedStatement = connection.prepareStatement(ReportTable.INSERT_SQL);
+                ReportTable.bindInsert(preparedStatement, report, codec);
+                preparedStatement.executeUpdate();
+            } else {
+                System.err.println("Failed to connect to the database.");
             }
         } catch (Exception ex) {
-            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "An error occurred while creating the reports table.", ex);
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "An error occurred while inserting a report.", ex);
         }
     }
 
+    /**
+     * Inserts several reports in a single transaction using a JDBC batch.
+     *
+     * @param reports The reports to insert.
+     * @return false if the batch was rolled back.
+     */
     @Override
-    public void insertReport(Report report) {
+    public boolean insertReports(List<Report> reports) {
         try (Connection connection = mySQL.connect()) {
             if (connection != null) {
-                String sql = "INSERT INTO reports (report_id, reported_player, reporter, data) VALUES (?, ?, ?, ?)";
-                var preparedStatement = connection.prepareStatement(sql);
-                preparedStatement.setString(1, report.getReportId());
-                preparedStatement.setString(2, report.getReportedPlayer());
-                preparedStatement.setString(3, report.getReporter());
-                preparedStatement.setString(4, report.toJson());
-                preparedStatement.executeUpdate();
-
-                if (redis != null) {
-                    redis.setObject(keyById(report.getReportId()), report, cacheTtlSeconds);
-                    redis.setObject(keyByPlayer(report.getReportedPlayer()), report, cacheTtlSeconds);
+                connection.setAutoCommit(false);
+                var preparedStatement = connection.prepareStatement(ReportTable.INSERT_SQL);
+                for (Report report : reports) {
+                    ReportTable.bindInsert(preparedStatement, report, codec);
+                    preparedStatement.addBatch();
                 }
+                preparedStatement.executeBatch();
+                connection.commit();
+                return true;
             } else {
                 System.err.println("Failed to connect to the database.");
             }
         } catch (Exception ex) {
-            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "An error occurred while inserting a report.", ex);
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error inserting " + reports.size() + " reports", ex);
         }
+        return false;
     }
 
     public boolean reportExists(String reportId) {
@@ -181,7 +172,7 @@ public class MySQLHelper implements DatabaseHelper {
                 List<Report> reports = new java.util.ArrayList<>();
                 while (resultSet.next()) {
                     String data = resultSet.getString("data");
-                    reports.add(new Gson().fromJson(data, Report.class));
+                    reports.add(ReportCodecs.decode(data));
                 }
                 return reports;
             } else {
@@ -194,14 +185,6 @@ public class MySQLHelper implements DatabaseHelper {
     }
 
     public Report getReportByPlayer(String reportedPlayer) {
-        if (redis != null) {
-            try {
-                Optional<Report> cached = redis.getObject(keyByPlayer(reportedPlayer), Report.class);
-                if (cached.isPresent()) return cached.get();
-            } catch (Exception ignored) {
-            }
-        }
-
         try (Connection connection = mySQL.connect()) {
             if (connection != null) {
                 String sql = "SELECT * FROM reports WHERE reported_player = ?";
@@ -210,9 +193,7 @@ public class MySQLHelper implements DatabaseHelper {
                 var resultSet = preparedStatement.executeQuery();
                 if (resultSet.next()) {
                     String data = resultSet.getString("data");
-                    Report r = new Gson().fromJson(data, Report.class);
-                    if (redis != null) redis.setObject(keyByPlayer(reportedPlayer), r, cacheTtlSeconds);
-                    return r;
+                    return ReportCodecs.decode(data);
                 }
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -232,7 +213,7 @@ public class MySQLHelper implements DatabaseHelper {
                 var resultSet = preparedStatement.executeQuery();
                 if (resultSet.next()) {
                     String data = resultSet.getString("data");
-                    return new Gson().fromJson(data, Report.class);
+                    return ReportCodecs.decode(data);
                 }
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -244,14 +225,6 @@ public class MySQLHelper implements DatabaseHelper {
     }
 
     public Report getReportById(String reportId) {
-        if (redis != null) {
-            try {
-                Optional<Report> cached = redis.getObject(keyById(reportId), Report.class);
-                if (cached.isPresent()) return cached.get();
-            } catch (Exception ignored) {
-            }
-        }
-
         try (Connection connection = mySQL.connect()) {
             if (connection != null) {
                 String sql = "SELECT * FROM reports WHERE report_id = ?";
@@ -260,9 +233,7 @@ public class MySQLHelper implements DatabaseHelper {
                 var resultSet = preparedStatement.executeQuery();
                 if (resultSet.next()) {
                     String data = resultSet.getString("data");
-                    Report r = new Gson().fromJson(data, Report.class);
-                    if (redis != null) redis.setObject(keyById(reportId), r, cacheTtlSeconds);
-                    return r;
+                    return ReportCodecs.decode(data);
                 }
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -273,6 +244,20 @@ public class MySQLHelper implements DatabaseHelper {
         return null;
     }
 
+    @Override
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        try (Connection connection = mySQL.connect()) {
+            if (connection != null) {
+                return ReportTable.selectByIds(connection, reportIds);
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "An error occurred while retrieving reports by ID.", ex);
+        }
+        return new HashMap<>();
+    }
+
     @Override
     public Report getReportByReportedPlayer(String reportedPlayer) {
         return getReportByPlayer(reportedPlayer);
@@ -281,18 +266,9 @@ public class MySQLHelper implements DatabaseHelper {
     public void updateReport(Report report) {
         try (Connection connection = mySQL.connect()) {
             if (connection != null) {
-                String sql = "UPDATE reports SET reported_player = ?, reporter = ?, data = ? WHERE report_id = ?";
-                var preparedStatement = connection.prepareStatement(sql);
-                preparedStatement.setString(1, report.getReportedPlayer());
-                preparedStatement.setString(2, report.getReporter());
-                preparedStatement.setString(3, report.toJson());
-                preparedStatement.setString(4, report.getReportId());
+                var preparedStatement = connection.prepareStatement(ReportTable.UPDATE_SQL);
+                ReportTable.bindUpdate(preparedStatement, report, codec);
                 preparedStatement.executeUpdate();
-
-                if (redis != null) {
-                    redis.setObject(keyById(report.getReportId()), report, cacheTtlSeconds);
-                    redis.setObject(keyByPlayer(report.getReportedPlayer()), report, cacheTtlSeconds);
-                }
             } else {
                 System.err.println("Failed to connect to the database.");
             }
@@ -308,10 +284,6 @@ public class MySQLHelper implements DatabaseHelper {
                 var preparedStatement = connection.prepareStatement(sql);
                 preparedStatement.setString(1, reportId);
                 int count = preparedStatement.executeUpdate();
-                if (count > 0 && redis != null) {
-                    // try to remove both id and player keys (player may be unknown here)
-                    redis.del(keyById(reportId));
-                }
                 return count > 0;
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -322,6 +294,121 @@ public class MySQLHelper implements DatabaseHelper {
         return false;
     }
 
+    @Override
+    public List<Report> findReports(ReportQuery query) {
+        SqlReportQuery sqlQuery = SqlReportQuery.select(query, "data", schemaMigrator.isStructured());
+        try (Connection connection = mySQL.connect()) {
+            if (connection != null) {
+                var preparedStatement = sqlQuery.prepare(connection);
+                var resultSet = preparedStatement.executeQuery();
+                List<Report> reports = new java.util.ArrayList<>();
+                while (resultSet.next()) {
+                    reports.add(ReportCodecs.decode(resultSet.getString("data")));
+                }
+                return sqlQuery.finish(reports);
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error finding reports for " + query, ex);
+        }
+        return java.util.Collections.emptyList();
+    }
+
+    /**
+     * Reads only the summary columns once they are backfilled, otherwise the summaries are built from {@code data}.
+     */
+    @Override
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        if (!schemaMigrator.isSummarized()) {
+            return DatabaseHelper.super.findReportSummaries(query);
+        }
+        SqlReportQuery sqlQuery = SqlReportQuery.select(query, ReportTable.SUMMARY_COLUMNS, true);
+        try (Connection connection = mySQL.connect()) {
+            if (connection != null) {
+                var preparedStatement = sqlQuery.prepare(connection);
+                var resultSet = preparedStatement.executeQuery();
+                List<ReportSummary> summaries = new java.util.ArrayList<>();
+                while (resultSet.next()) {
+                    summaries.add(ReportTable.readSummary(resultSet));
+                }
+                return summaries;
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error finding report summaries for " + query, ex);
+        }
+        return java.util.Collections.emptyList();
+    }
+
+    /**
+     * Reads the matching reports through a cursor that holds a pooled connection until it is closed.
+     * Until the backfill has finished, sorted queries filtering on status or timestamp are buffered instead.
+     */
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        SqlReportQuery sqlQuery = SqlReportQuery.select(query, "data", schemaMigrator.isStructured());
+        if (!sqlQuery.isStreamable()) {
+            return DatabaseHelper.super.iterateReports(query);
+        }
+        Connection connection = mySQL.connect();
+        if (connection == null) {
+            System.err.println("Failed to connect to the database.");
+            return CloseableIterator.empty();
+        }
+        try {
+            return SqlReportCursor.open(connection, SqlDialect.MYSQL, sqlQuery);
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error streaming reports for " + query, ex);
+        }
+        return CloseableIterator.empty();
+    }
+
+    @Override
+    public int countReports(ReportQuery query) {
+        if (!schemaMigrator.isStructured()) {
+            // Status and timestamp can not be counted by the database until the backfill has finished, count while streaming
+            return DatabaseHelper.super.countReports(query);
+        }
+        try (Connection connection = mySQL.connect()) {
+            if (connection != null) {
+                var preparedStatement = SqlReportQuery.count(query).prepare(connection);
+                var resultSet = preparedStatement.executeQuery();
+                if (resultSet.next()) {
+                    return resultSet.getInt(1);
+                }
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error counting reports for " + query, ex);
+        }
+        return 0;
+    }
+
+    @Override
+    public Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        if (!schemaMigrator.isStructured()) {
+            return DatabaseHelper.super.countReportsByStatus(query);
+        }
+        Map<ReportStatus, Integer> counts = ReportQuery.emptyStatusCounts();
+        try (Connection connection = mySQL.connect()) {
+            if (connection != null) {
+                var preparedStatement = SqlReportQuery.countByStatus(query).prepare(connection);
+                var resultSet = preparedStatement.executeQuery();
+                while (resultSet.next()) {
+                    counts.merge(ReportStatus.fromStorage(resultSet.getString(1)), resultSet.getInt(2), Integer::sum);
+                }
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error counting reports by status for " + query, ex);
+        }
+        return counts;
+    }
+
     @Override
     public boolean connect() {
         try (Connection connection = mySQL.connect()) {
@@ -334,13 +421,13 @@ public class MySQLHelper implements DatabaseHelper {
 
     @Override
     public void disconnect() {
-        if (redis != null) {
-            try {
-                redis.close();
-            } catch (Exception ignored) {
-            }
-        }
-        // MySQL connections are closed per-operation by design.
+        schemaMigrator.stop();
+        mySQL.close();
+    }
+
+    @Override
+    public PoolStats getPoolStats() {
+        return mySQL.getPoolStats();
     }
 
     private void createUpdateHistoryTable() {
@@ -365,40 +452,69 @@ public class MySQLHelper implements DatabaseHelper {
 
     @Override
     public boolean writeToUpdateHistory(Report report, String updater) {
-        createUpdateHistoryTable();
+        UpdateHistoryCodec.Batch batch = historyCodec.batch();
         try (Connection connection = mySQL.connect()) {
             if (connection != null) {
                 String sql = "INSERT INTO report_update_history (report_id, updater, data) VALUES (?, ?, ?)";
                 var preparedStatement = connection.prepareStatement(sql);
                 preparedStatement.setString(1, report.getReportId());
                 preparedStatement.setString(2, updater);
-                preparedStatement.setString(3, report.toJson());
+                preparedStatement.setString(3, batch.encode(report).toJson());
                 preparedStatement.executeUpdate();
+                batch.commit();
                 return true;
             } else {
                 System.err.println("Failed to connect to the database.");
             }
         } catch (Exception ex) {
+            batch.discard();
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "An error occurred while writing to update history.", ex);
         }
         return false;
     }
 
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        UpdateHistoryCodec.Batch batch = historyCodec.batch();
+        try (Connection connection = mySQL.connect()) {
+            if (connection != null) {
+                connection.setAutoCommit(false);
+                String sql = "INSERT INTO report_update_history (report_id, updater, update_time, data) VALUES (?, ?, ?, ?)";
+                var preparedStatement = connection.prepareStatement(sql);
+                for (UpdateHistoryEntry entry : entries) {
+                    preparedStatement.setString(1, entry.report().getReportId());
+                    preparedStatement.setString(2, entry.updater());
+                    preparedStatement.setTimestamp(3, new java.sql.Timestamp(entry.timestamp()));
+                    preparedStatement.setString(4, batch.encode(entry.report()).toJson());
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                connection.commit();
+                batch.commit();
+                return true;
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            batch.discard();
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error writing " + entries.size() + " update history entries", ex);
+        }
+        return false;
+    }
+
     @Override
     public Map<String, Report> getUpdateHistory(Report report) {
-        createUpdateHistoryTable();
-        Map<String, Report> history = new java.util.HashMap<>();
+        List<Map.Entry<String, String>> entries = new ArrayList<>();
         try (Connection connection = mySQL.connect()) {
             if (connection != null) {
-                String sql = "SELECT * FROM report_update_history WHERE report_id = ? ORDER BY update_time DESC";
+                String sql = "SELECT * FROM report_update_history WHERE report_id = ? ORDER BY id";
                 var preparedStatement = connection.prepareStatement(sql);
                 preparedStatement.setString(1, report.getReportId());
                 var resultSet = preparedStatement.executeQuery();
                 while (resultSet.next()) {
                     String updater = resultSet.getString("updater");
                     String data = resultSet.getString("data");
-                    Report updatedReport = new Gson().fromJson(data, Report.class);
-                    history.put(updater + " at " + resultSet.getTimestamp("update_time"), updatedReport);
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(updater + " at " + resultSet.getTimestamp("update_time"), data));
                 }
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -406,7 +522,7 @@ public class MySQLHelper implements DatabaseHelper {
         } catch (Exception ex) {
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "An error occurred while retrieving update history.", ex);
         }
-        return history;
+        return UpdateHistoryCodec.decodeJson(entries, report);
     }
 
     @Override
@@ -417,7 +533,7 @@ public class MySQLHelper implements DatabaseHelper {
 
     @Override
     public boolean clearUpdateHistory(Report report) {
-        createUpdateHistoryTable();
+        historyCodec.forget(report.getReportId());
         try (Connection connection = mySQL.connect()) {
             if (connection != null) {
                 String sql = "DELETE FROM report_update_history WHERE report_id = ?";
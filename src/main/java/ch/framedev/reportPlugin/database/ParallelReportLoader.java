@@ -0,0 +1,161 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 19:05
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads and parses report files on a bounded pool of worker threads for full directory scans,
+ * e.g. {@code getAllReports} or rebuilding an index on startup.
+ * <p>
+ * The files are split into one chunk per task, every worker parses its chunks with its own parser from
+ * {@code parserFactory}, and the results are merged in the order the files were listed. Small directories
+ * are read on the calling thread. Idle workers exit after a few seconds, so the pool needs no shutdown and costs
+ * nothing between scans.
+ */
+final class ParallelReportLoader {
+
+    // Directories smaller than this are not worth handing to the pool
+    private static final int MIN_PARALLEL_FILES = 64;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int threads;
+    private final ThreadPoolExecutor pool;
+    private final ThreadLocal<ReportFileIterator.Reader> parser;
+
+    /**
+     * @param name          the prefix of the worker thread names
+     * @param threads       the maximum number of worker threads, 0 to use one per available processor
+     * @param parserFactory creates the parser of a worker, called once per worker thread
+     */
+    ParallelReportLoader(String name, int threads, Supplier<ReportFileIterator.Reader> parserFactory) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(this.threads, this.threads, 10L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pool.allowCoreThreadTimeOut(true);
+        this.parser = ThreadLocal.withInitial(parserFactory);
+    }
+
+    /**
+     * Reads every report file of the directory.
+     *
+     * @param reportsDir the directory holding one file per report
+     * @param extension  the file extension including the dot, e.g. ".json"
+     * @return the parsed reports in directory order, files that could not be read are skipped
+     */
+    List<Report> loadAll(File reportsDir, String extension) {
+        List<File> files = new ArrayList<>();
+        if (!reportsDir.isDirectory()) {
+            return new ArrayList<>();
+        }
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(reportsDir.toPath(), "*" + extension)) {
+            for (Path path : directory) {
+                files.add(path.toFile());
+            }
+        } catch (IOException ex) {
+            logger().log(Level.SEVERE, "Could not list report files in " + reportsDir.getAbsolutePath(), ex);
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(load(files).values());
+    }
+
+    /**
+     * Reads the given report files.
+     *
+     * @param files the files to read
+     * @return the parsed report of every readable file, in the order of {@code files}
+     */
+    Map<File, Report> load(List<File> files) {
+        Map<File, Report> reports = new LinkedHashMap<>();
+        if (files.size() < MIN_PARALLEL_FILES || threads == 1) {
+            for (File file : files) {
+                put(reports, file, read(file));
+            }
+            return reports;
+        }
+        int chunkSize = Math.max(1, (files.size() + threads * CHUNKS_PER_THREAD - 1) / (threads * CHUNKS_PER_THREAD));
+        List<List<File>> chunks = new ArrayList<>();
+        List<Future<Report[]>> results = new ArrayList<>();
+        for (int start = 0; start < files.size(); start += chunkSize) {
+            List<File> chunk = files.subList(start, Math.min(files.size(), start + chunkSize));
+            chunks.add(chunk);
+            results.add(pool.submit(() -> {
+                Report[] parsed = new Report[chunk.size()];
+                for (int i = 0; i < parsed.length; i++) {
+                    parsed[i] = read(chunk.get(i));
+                }
+                return parsed;
+            }));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            List<File> chunk = chunks.get(i);
+            Report[] parsed;
+            try {
+                parsed = results.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.forEach(result -> result.cancel(true));
+                return reports;
+            } catch (ExecutionException e) {
+                logger().log(Level.SEVERE, "Could not read report files", e.getCause());
+                continue;
+            }
+            for (int j = 0; j < parsed.length; j++) {
+                put(reports, chunk.get(j), parsed[j]);
+            }
+        }
+        return reports;
+    }
+
+    private Report read(File file) {
+        try {
+            return parser.get().read(file);
+        } catch (Exception ex) {
+            // The file may have been deleted or replaced since the directory was listed
+            logger().log(Level.SEVERE, "Could not read report file: " + file.getName(), ex);
+            return null;
+        }
+    }
+
+    private static void put(Map<File, Report> reports, File file, Report report) {
+        if (report != null) {
+            reports.put(file, report);
+        }
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(ParallelReportLoader.class.getName());
+    }
+}
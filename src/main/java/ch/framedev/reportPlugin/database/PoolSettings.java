@@ -0,0 +1,74 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 10:12
+ */
+
+import org.bukkit.configuration.file.FileConfiguration;
+
+/**
+ * Settings for a {@link ConnectionPool}.
+ * Loaded from the {@code pool} subsection of a database section in the config (e.g. {@code mysql.pool}).
+ *
+ * @param minimumIdle                  connections kept open even when the pool is idle
+ * @param maximumSize                  upper bound of open connections (idle and borrowed)
+ * @param idleTimeoutMillis            idle connections above {@code minimumIdle} are closed after this time
+ * @param acquireTimeoutMillis         how long a caller waits for a free connection before failing
+ * @param leakDetectionThresholdMillis a borrowed connection held longer than this is logged as a leak (0 disables)
+ * @param validationQuery              query used to validate idle connections, empty to use {@code Connection#isValid}
+ */
+public record PoolSettings(int minimumIdle,
+                           int maximumSize,
+                           long idleTimeoutMillis,
+                           long acquireTimeoutMillis,
+                           long leakDetectionThresholdMillis,
+                           String validationQuery) {
+
+    public PoolSettings {
+        maximumSize = Math.max(1, maximumSize);
+        minimumIdle = Math.max(0, Math.min(minimumIdle, maximumSize));
+        idleTimeoutMillis = Math.max(1000L, idleTimeoutMillis);
+        acquireTimeoutMillis = Math.max(0L, acquireTimeoutMillis);
+        leakDetectionThresholdMillis = Math.max(0L, leakDetectionThresholdMillis);
+        validationQuery = validationQuery == null ? "" : validationQuery.trim();
+    }
+
+    /**
+     * Default settings for servers reached over the network (MySQL, PostgreSQL).
+     */
+    public static PoolSettings networkDefaults() {
+        return new PoolSettings(2, 10, 600_000L, 5_000L, 0L, "SELECT 1");
+    }
+
+    /**
+     * Default settings for embedded file databases (SQLite, H2).
+     * SQLite only allows a single writer, so it should not get more than one connection.
+     */
+    public static PoolSettings embeddedDefaults(int maximumSize) {
+        return new PoolSettings(1, maximumSize, 600_000L, 5_000L, 0L, "");
+    }
+
+    /**
+     * Reads the pool settings below {@code <section>.pool} and falls back to the given defaults.
+     *
+     * @param config   the plugin configuration
+     * @param section  the database section, e.g. "mysql" or "h2Storage"
+     * @param defaults the defaults used for missing values
+     * @return the resolved settings
+     */
+    public static PoolSettings fromConfig(FileConfiguration config, String section, PoolSettings defaults) {
+        String prefix = section + ".pool.";
+        return new PoolSettings(
+                config.getInt(prefix + "minimum-idle", defaults.minimumIdle()),
+                config.getInt(prefix + "maximum-size", defaults.maximumSize()),
+                config.getLong(prefix + "idle-timeout-seconds", defaults.idleTimeoutMillis() / 1000L) * 1000L,
+                config.getLong(prefix + "acquire-timeout-ms", defaults.acquireTimeoutMillis()),
+                config.getLong(prefix + "leak-detection-threshold-ms", defaults.leakDetectionThresholdMillis()),
+                config.getString(prefix + "validation-query", defaults.validationQuery()));
+    }
+}
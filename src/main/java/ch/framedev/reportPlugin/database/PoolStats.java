@@ -0,0 +1,43 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 10:14
+ */
+
+/**
+ * Point-in-time statistics of a {@link ConnectionPool}.
+ *
+ * @param name      the pool name (usually the database type)
+ * @param total     open physical connections
+ * @param idle      connections waiting in the pool
+ * @param active    connections currently borrowed
+ * @param waiting   callers currently waiting for a connection
+ * @param created   physical connections opened since startup
+ * @param destroyed physical connections closed since startup
+ * @param borrows   successful borrows since startup
+ * @param timeouts  borrows that failed because of the acquire timeout
+ * @param leaks     borrowed connections reported by the leak detection
+ */
+public record PoolStats(String name,
+                        int total,
+                        int idle,
+                        int active,
+                        int waiting,
+                        long created,
+                        long destroyed,
+                        long borrows,
+                        long timeouts,
+                        long leaks) {
+
+    @Override
+    public String toString() {
+        return name + ": total=" + total + ", idle=" + idle + ", active=" + active + ", waiting=" + waiting +
+               ", created=" + created + ", destroyed=" + destroyed + ", borrows=" + borrows +
+               ", timeouts=" + timeouts + ", leaks=" + leaks;
+    }
+}
@@ -5,18 +5,67 @@ import ch.framedev.reportPlugin.main.ReportPlugin;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
-public record PostgreSQL(String host, int port, String databaseName, String username, String password) {
+public class PostgreSQL {
+
+    private final String host;
+    private final int port;
+    private final String databaseName;
+    private final String username;
+    private final String password;
+    private final PoolSettings poolSettings;
+    // Created on first use, written under poolLock and read without it
+    private volatile ConnectionPool pool;
+    private final ReentrantLock poolLock = new ReentrantLock();
+
+    public PostgreSQL(String host, int port, String databaseName, String username, String password) {
+        this(host, port, databaseName, username, password, PoolSettings.networkDefaults());
+    }
+
+    public PostgreSQL(String host, int port, String databaseName, String username, String password, PoolSettings poolSettings) {
+        this.host = host;
+        this.port = port;
+        this.databaseName = databaseName;
+        this.username = username;
+        this.password = password;
+        this.poolSettings = poolSettings;
+    }
+
+    public String host() {
+        return host;
+    }
+
+    public int port() {
+        return port;
+    }
+
+    public String databaseName() {
+        return databaseName;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public String password() {
+        return password;
+    }
 
     public String getDatabaseUrl() {
         return "jdbc:postgresql://" + host + ":" + port + "/" + databaseName;
     }
 
+    /**
+     * Borrows a connection to the PostgreSQL database from the connection pool.
+     * Closing the returned connection hands it back to the pool.
+     *
+     * @return A Connection object if successful, null otherwise.
+     */
     public Connection connect() {
         try {
-            Class.forName("org.postgresql.Driver");
-            return DriverManager.getConnection(getDatabaseUrl(), username, password);
+            return getPool().borrow();
         } catch (ClassNotFoundException e) {
             System.err.println("PostgreSQL JDBC driver not found.");
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "PostgreSQL JDBC driver not found. Please ensure the PostgreSQL JDBC library is included in your dependencies.", e);
@@ -26,4 +75,47 @@ public record PostgreSQL(String host, int port, String databaseName, String user
         }
         return null;
     }
+
+    /**
+     * Returns the connection pool and creates it on first use.
+     */
+    private ConnectionPool getPool() throws ClassNotFoundException {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        poolLock.lock();
+        try {
+            if (pool == null) {
+                Class.forName("org.postgresql.Driver");
+                pool = new ConnectionPool("postgresql", () -> DriverManager.getConnection(getDatabaseUrl(), username, password), poolSettings);
+            }
+            return pool;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the statistics of the connection pool or null if no connection was opened yet.
+     */
+    public PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Closes all pooled connections.
+     */
+    public void close() {
+        poolLock.lock();
+        try {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        } finally {
+            poolLock.unlock();
+        }
+    }
 }
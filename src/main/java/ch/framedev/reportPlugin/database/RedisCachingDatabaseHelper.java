@@ -0,0 +1,326 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 16:00
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Decorator that caches report lookups of any backend in Redis, shared by every server using the same Redis.
+ * <p>
+ * Lookups by id are cached under {@code report:id:<id>} and lookups by reported player under
+ * {@code report:player:<name>}. Every key derived from a report is recorded in the reverse index
+ * {@code report:keys:<id>}, so an update or delete removes all of them in one atomic script, including
+ * the player key of a player the report no longer belongs to.
+ * <p>
+ * Every local write is announced on the {@link ReportInvalidationBus} once the backend returned, so other
+ * servers evict their in-memory caches immediately. The decorator must sit below any write-behind queue,
+ * otherwise a report is announced before other servers can read it. A lookup that raced with a local write, or with a remote write whose
+ * announcement already arrived, is not cached. The guard is local to this server: a lookup that read the
+ * backend just before another server wrote and invalidated the report, and only caches after that, can
+ * still leave the old state in Redis until the report changes again or the entry expires after
+ * {@code ttlSeconds}.
+ */
+public class RedisCachingDatabaseHelper extends ForwardingDatabaseHelper {
+
+    private final RedisManager redis;
+    private final int ttlSeconds;
+    private final ReportInvalidationBus invalidationBus;
+
+    // Incremented before and after every write, lookups only cache what they read if no write happened in between
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * @param delegate   the backend to cache
+     * @param redis      the Redis connection, closed on {@link #disconnect()}
+     * @param ttlSeconds how long cached reports are kept, 0 to keep them until they are invalidated
+     * @param channel    the pub/sub channel changes are announced on
+     */
+    public RedisCachingDatabaseHelper(DatabaseHelper delegate, RedisManager redis, int ttlSeconds, String channel) {
+        super(delegate);
+        this.redis = redis;
+        this.ttlSeconds = Math.max(0, ttlSeconds);
+        this.invalidationBus = new ReportInvalidationBus(redis, channel);
+        // The writing server already removed the shared Redis keys, only lookups in flight have to be discarded
+        invalidationBus.addListener((change, reportId) -> writes.incrementAndGet());
+        invalidationBus.start();
+    }
+
+    /**
+     * @return the bus other caches can listen on for changes made by other servers
+     */
+    public ReportInvalidationBus getInvalidationBus() {
+        return invalidationBus;
+    }
+
+    static String keyById(String reportId) {
+        return "report:id:" + reportId;
+    }
+
+    static String keyByPlayer(String player) {
+        return "report:player:" + player.toLowerCase(Locale.ROOT);
+    }
+
+    static String indexKey(String reportId) {
+        return "report:keys:" + reportId;
+    }
+
+    @Override
+    public Report getReportById(String reportId) {
+        if (reportId == null) {
+            return delegate.getReportById(null);
+        }
+        Report cached = cached(keyById(reportId));
+        if (cached != null) {
+            return cached;
+        }
+        long ticket = writes.get();
+        Report report = delegate.getReportById(reportId);
+        cache(keyById(reportId), report, ticket);
+        return report;
+    }
+
+    /**
+     * Reads the cached reports with one MGET, loads the rest from the backend in one batch
+     * and caches them in one pipelined round trip.
+     */
+    @Override
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        List<String> keys = new ArrayList<>(reportIds.size());
+        for (String reportId : reportIds) {
+            keys.add(keyById(reportId));
+        }
+        Map<String, String> cached = redis.getAll(keys);
+        Map<String, Report> reports = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String reportId : reportIds) {
+            Report report = parse(cached.get(keyById(reportId)));
+            if (report != null) {
+                reports.put(reportId, report);
+            } else {
+                missing.add(reportId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return reports;
+        }
+        long ticket = writes.get();
+        Map<String, Report> loaded = delegate.getReportsByIds(missing);
+        if (writes.get() == ticket) {
+            List<RedisManager.IndexedValue> values = new ArrayList<>(loaded.size());
+            for (Report report : loaded.values()) {
+                values.add(new RedisManager.IndexedValue(keyById(report.getReportId()), redis.getReportCodec().encodeToString(report), indexKey(report.getReportId())));
+            }
+            redis.setIndexed(values, ttlSeconds);
+            if (writes.get() != ticket) {
+                Map<String, List<String>> keysByIndex = new HashMap<>();
+                for (Report report : loaded.values()) {
+                    keysByIndex.put(indexKey(report.getReportId()), List.of(keyById(report.getReportId())));
+                }
+                redis.deleteIndexed(keysByIndex);
+            }
+        }
+        reports.putAll(loaded);
+        return reports;
+    }
+
+    @Override
+    public Report getReportByPlayer(String reportedPlayer) {
+        if (reportedPlayer == null) {
+            return delegate.getReportByPlayer(null);
+        }
+        Report cached = cached(keyByPlayer(reportedPlayer));
+        if (cached != null) {
+            return cached;
+        }
+        long ticket = writes.get();
+        Report report = delegate.getReportByPlayer(reportedPlayer);
+        cache(keyByPlayer(reportedPlayer), report, ticket);
+        return report;
+    }
+
+    @Override
+    public Report getReportByReportedPlayer(String reportedPlayer) {
+        return getReportByPlayer(reportedPlayer);
+    }
+
+    @Override
+    public void insertReport(Report report) {
+        writes.incrementAndGet();
+        try {
+            delegate.insertReport(report);
+        } finally {
+            writes.incrementAndGet();
+        }
+        invalidate(report, ReportInvalidationBus.Change.INSERT);
+    }
+
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        writes.incrementAndGet();
+        boolean written;
+        try {
+            written = delegate.insertReports(reports);
+        } finally {
+            writes.incrementAndGet();
+        }
+        Map<String, List<String>> keysByIndex = new HashMap<>();
+        for (Report report : reports) {
+            if (report != null && report.getReportId() != null) {
+                keysByIndex.put(indexKey(report.getReportId()), derivedKeys(report));
+            }
+        }
+        if (!redis.deleteIndexed(keysByIndex)) {
+            logger().warning("Could not invalidate the Redis cache of " + keysByIndex.size() + " reports, they expire after " + ttlSeconds + "s.");
+        }
+        if (!written) {
+            // Nothing was stored, the reports are announced once the retry has written them
+            return false;
+        }
+        for (Report report : reports) {
+            if (report != null && report.getReportId() != null) {
+                invalidationBus.publish(ReportInvalidationBus.Change.INSERT, report.getReportId());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void updateReport(Report report) {
+        writes.incrementAndGet();
+        try {
+            delegate.updateReport(report);
+        } finally {
+            writes.incrementAndGet();
+        }
+        invalidate(report, ReportInvalidationBus.Change.UPDATE);
+    }
+
+    @Override
+    public boolean deleteReport(String reportId) {
+        writes.incrementAndGet();
+        boolean deleted;
+        try {
+            deleted = delegate.deleteReport(reportId);
+        } finally {
+            writes.incrementAndGet();
+        }
+        if (reportId != null) {
+            invalidate(reportId);
+            invalidationBus.publish(ReportInvalidationBus.Change.DELETE, reportId);
+        }
+        return deleted;
+    }
+
+    /**
+     * Other servers forget their keyframe of the report, so they do not write deltas against a deleted one.
+     */
+    @Override
+    public boolean clearUpdateHistory(Report report) {
+        boolean cleared = delegate.clearUpdateHistory(report);
+        if (report != null && report.getReportId() != null) {
+            invalidationBus.publish(ReportInvalidationBus.Change.HISTORY_CLEARED, report.getReportId());
+        }
+        return cleared;
+    }
+
+    @Override
+    public void disconnect() {
+        invalidationBus.stop();
+        try {
+            delegate.disconnect();
+        } finally {
+            redis.close();
+        }
+    }
+
+    /**
+     * Removes a report and every key derived from it, e.g. after it was changed by another server.
+     *
+     * @param reportId the id of the changed report
+     */
+    public void invalidate(String reportId) {
+        if (!redis.deleteIndexed(indexKey(reportId), keyById(reportId))) {
+            logger().warning("Could not invalidate the Redis cache of report " + reportId + ", it expires after " + ttlSeconds + "s.");
+        }
+    }
+
+    private void invalidate(Report report, ReportInvalidationBus.Change change) {
+        if (report == null || report.getReportId() == null) {
+            return;
+        }
+        if (!redis.deleteIndexed(indexKey(report.getReportId()), derivedKeys(report).toArray(new String[0]))) {
+            logger().warning("Could not invalidate the Redis cache of report " + report.getReportId() + ", it expires after " + ttlSeconds + "s.");
+        }
+        invalidationBus.publish(change, report.getReportId());
+    }
+
+    /**
+     * The player key of the new state is removed as well, it may hold another report of that player
+     * that was cached before this one existed.
+     */
+    private List<String> derivedKeys(Report report) {
+        return report.getReportedPlayer() == null
+                ? List.of(keyById(report.getReportId()))
+                : List.of(keyById(report.getReportId()), keyByPlayer(report.getReportedPlayer()));
+    }
+
+    private Report cached(String key) {
+        Optional<String> json = redis.get(key);
+        if (json.isEmpty()) {
+            return null;
+        }
+        Report report = parse(json.get());
+        if (report == null) {
+            redis.del(key);
+        }
+        return report;
+    }
+
+    private Report parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return ReportCodecs.decode(json);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * A write that completes between the check and the set invalidates after it, or is seen by the second check
+     * and the key is removed again.
+     */
+    private void cache(String key, Report report, long ticket) {
+        if (report == null || report.getReportId() == null || writes.get() != ticket) {
+            return;
+        }
+        redis.setIndexed(key, redis.getReportCodec().encodeToString(report), ttlSeconds, indexKey(report.getReportId()));
+        if (writes.get() != ticket) {
+            redis.deleteIndexed(indexKey(report.getReportId()), key);
+        }
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(RedisCachingDatabaseHelper.class.getName());
+    }
+}
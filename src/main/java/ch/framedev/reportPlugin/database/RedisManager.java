@@ -1,18 +1,51 @@
 package ch.framedev.reportPlugin.database;
 
-import com.google.gson.Gson;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Transaction;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class RedisManager {
 
+    /**
+     * A value for {@link #setIndexed(Collection, int)}.
+     *
+     * @param key      the key to set
+     * @param value    the value
+     * @param indexKey the set the key is recorded in
+     */
+    public record IndexedValue(String key, String value, String indexKey) {
+    }
+
+    // Deletes every key listed in the index set KEYS[1], the set itself and the remaining KEYS in one step
+    private static final String DELETE_INDEXED_SCRIPT =
+            "local derived = redis.call('SMEMBERS', KEYS[1]) " +
+            "for i = 1, #derived do redis.call('DEL', derived[i]) end " +
+            "redis.call('DEL', unpack(KEYS)) " +
+            "return #derived";
+
     private final JedisPool pool;
-    private final Gson gson = new Gson();
+    private final ReportCodec reportCodec;
 
     public RedisManager(String host, int port, String password) {
+        this(host, port, password, ReportCodecs.json());
+    }
+
+    /**
+     * @param reportCodec the codec reports are cached with, see {@link #getReportCodec()}
+     */
+    public RedisManager(String host, int port, String password, ReportCodec reportCodec) {
+        this.reportCodec = reportCodec;
         JedisPoolConfig config = new JedisPoolConfig();
         config.setMaxTotal(10);
         if (password == null || password.isEmpty()) {
@@ -22,6 +55,13 @@ public class RedisManager {
         }
     }
 
+    /**
+     * @return the codec reports are stored with, selected with {@code redis.codec}
+     */
+    public ReportCodec getReportCodec() {
+        return reportCodec;
+    }
+
     public Optional<String> get(String key) {
         try (Jedis jedis = pool.getResource()) {
             String val = jedis.get(key);
@@ -45,14 +85,152 @@ public class RedisManager {
         }
     }
 
-    public <T> Optional<T> getObject(String key, Class<T> clazz) {
-        return get(key).map(json -> gson.fromJson(json, clazz));
+    /**
+     * Reads several keys with a single MGET.
+     *
+     * @return the values of the keys that exist, empty if Redis could not be reached
+     */
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        if (keys.isEmpty()) {
+            return values;
+        }
+        String[] keyArray = keys.toArray(new String[0]);
+        try (Jedis jedis = pool.getResource()) {
+            List<String> results = jedis.mget(keyArray);
+            for (int i = 0; i < keyArray.length && i < results.size(); i++) {
+                if (results.get(i) != null) {
+                    values.put(keyArray[i], results.get(i));
+                }
+            }
+        } catch (Exception e) {
+            return new HashMap<>();
+        }
+        return values;
+    }
+
+    /**
+     * Stores a value and adds its key to an index set in a single MULTI transaction,
+     * so {@link #deleteIndexed(String, String...)} can find it later.
+     * The index expires together with the newest key it lists.
+     *
+     * @param key        the key to set
+     * @param value      the value
+     * @param ttlSeconds the time to live of the key and the index, 0 for none
+     * @param indexKey   the set the key is recorded in
+     * @return false if Redis could not be reached
+     */
+    public boolean setIndexed(String key, String value, int ttlSeconds, String indexKey) {
+        try (Jedis jedis = pool.getResource(); Transaction transaction = jedis.multi()) {
+            if (ttlSeconds > 0) {
+                transaction.setex(key, ttlSeconds, value);
+            } else {
+                transaction.set(key, value);
+            }
+            transaction.sadd(indexKey, key);
+            if (ttlSeconds > 0) {
+                transaction.expire(indexKey, ttlSeconds);
+            }
+            return transaction.exec() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stores several values and records each key in its index set in one pipelined round trip.
+     * Each key is added to its index before it is written, so a key is never left without an index entry
+     * if the connection drops halfway.
+     *
+     * @return false if Redis could not be reached
+     */
+    public boolean setIndexed(Collection<IndexedValue> values, int ttlSeconds) {
+        if (values.isEmpty()) {
+            return true;
+        }
+        try (Jedis jedis = pool.getResource(); Pipeline pipeline = jedis.pipelined()) {
+            for (IndexedValue value : values) {
+                pipeline.sadd(value.indexKey(), value.key());
+                if (ttlSeconds > 0) {
+                    pipeline.expire(value.indexKey(), ttlSeconds);
+                    pipeline.setex(value.key(), ttlSeconds, value.value());
+                } else {
+                    pipeline.set(value.key(), value.value());
+                }
+            }
+            pipeline.sync();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs {@link #deleteIndexed(String, String...)} for several index sets in one pipelined round trip.
+     * Each index is still deleted atomically together with its keys.
+     *
+     * @param keysByIndex the further keys to delete for each index set
+     * @return false if Redis could not be reached
+     */
+    public boolean deleteIndexed(Map<String, List<String>> keysByIndex) {
+        if (keysByIndex.isEmpty()) {
+            return true;
+        }
+        try (Jedis jedis = pool.getResource(); Pipeline pipeline = jedis.pipelined()) {
+            for (Map.Entry<String, List<String>> entry : keysByIndex.entrySet()) {
+                List<String> scriptKeys = new ArrayList<>(entry.getValue().size() + 1);
+                scriptKeys.add(entry.getKey());
+                scriptKeys.addAll(entry.getValue());
+                pipeline.eval(DELETE_INDEXED_SCRIPT, scriptKeys, List.of());
+            }
+            pipeline.sync();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Atomically deletes every key recorded in the index set, the index itself and the given keys.
+     *
+     * @param indexKey the index set written by {@link #setIndexed(String, String, int, String)}
+     * @param keys     further keys to delete
+     * @return false if Redis could not be reached
+     */
+    public boolean deleteIndexed(String indexKey, String... keys) {
+        List<String> scriptKeys = new ArrayList<>(keys.length + 1);
+        scriptKeys.add(indexKey);
+        scriptKeys.addAll(Arrays.asList(keys));
+        try (Jedis jedis = pool.getResource()) {
+            jedis.eval(DELETE_INDEXED_SCRIPT, scriptKeys, List.of());
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Publishes a message to every subscriber of the channel.
+     *
+     * @return false if Redis could not be reached
+     */
+    public boolean publish(String channel, String message) {
+        try (Jedis jedis = pool.getResource()) {
+            jedis.publish(channel, message);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
     }
 
-    @SuppressWarnings("UnusedReturnValue")
-    public boolean setObject(String key, Object obj, int ttlSeconds) {
-        String json = gson.toJson(obj);
-        return set(key, json, ttlSeconds);
+    /**
+     * Subscribes to a channel on a dedicated connection. Blocks until the listener unsubscribes
+     * or the connection is lost, in which case the exception is thrown to the caller.
+     */
+    public void subscribe(JedisPubSub listener, String channel) {
+        try (Jedis jedis = pool.getResource()) {
+            jedis.subscribe(listener, channel);
+        }
     }
 
     public void del(String key) {
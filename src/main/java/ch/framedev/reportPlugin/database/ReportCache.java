@@ -0,0 +1,149 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 15:30
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportSnapshot;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size and time bounded in-memory cache of reports by id.
+ * <p>
+ * Entries are evicted least recently used first once {@code maxSize} is reached, and expire {@code ttlMillis}
+ * after they were loaded so changes made by other servers become visible. Reports are stored as immutable
+ * {@link ReportSnapshot}s, so callers that modify a returned report never change the cached copy.
+ * <p>
+ * A lookup that misses takes a {@link #ticket()} before reading the backend and passes it to
+ * {@link #put(Report, long)}. If the report was invalidated in the meantime the stale read is not cached.
+ */
+final class ReportCache {
+
+    private record Entry(ReportSnapshot snapshot, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock, access order makes the first entry the least recently used one
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * @param maxSize   the maximum number of cached reports
+     * @param ttlMillis how long a report stays cached after it was loaded, 0 to never expire
+     */
+    ReportCache(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = Math.max(0L, ttlMillis);
+    }
+
+    /**
+     * @return a copy of the cached report or null if it is not cached or expired
+     */
+    Report get(String reportId) {
+        ReportSnapshot snapshot;
+        lock.lock();
+        try {
+            Entry entry = entries.get(reportId);
+            if (entry != null && entry.expiresAt() < System.currentTimeMillis()) {
+                entries.remove(reportId);
+                evictions++;
+                entry = null;
+            }
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            snapshot = entry.snapshot();
+        } finally {
+            lock.unlock();
+        }
+        return snapshot.toReport();
+    }
+
+    /**
+     * @return a ticket for {@link #put(Report, long)}, taken before the backend is read
+     */
+    long ticket() {
+        lock.lock();
+        try {
+            return invalidations;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Caches a report read from the backend unless any report was invalidated since the ticket was taken.
+     */
+    void put(Report report, long ticket) {
+        if (report == null || report.getReportId() == null) {
+            return;
+        }
+        ReportSnapshot snapshot = report.snapshot();
+        long expiresAt = ttlMillis == 0L ? Long.MAX_VALUE : System.currentTimeMillis() + ttlMillis;
+        lock.lock();
+        try {
+            if (ticket != invalidations) {
+                return;
+            }
+            entries.put(report.getReportId(), new Entry(snapshot, expiresAt));
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxSize && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a report after it was changed or deleted.
+     */
+    void invalidate(String reportId) {
+        lock.lock();
+        try {
+            invalidations++;
+            entries.remove(reportId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidateAll() {
+        lock.lock();
+        try {
+            invalidations++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(entries.size(), maxSize, hits, misses, evictions);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 20:20
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Serializes reports for a storage backend or Redis.
+ * <p>
+ * Codecs are registered by name with {@link ReportCodecs#register(ReportCodec)} and selected in the config.
+ * Stored data is always read with {@link ReportCodecs#decode(String)}, which detects the codec that wrote it,
+ * so switching the codec only affects reports written afterwards.
+ */
+public interface ReportCodec {
+
+    /**
+     * @return the unique name the codec is selected and detected by, e.g. "json"
+     */
+    String name();
+
+    /**
+     * @return the serialized report
+     */
+    byte[] encode(Report report);
+
+    /**
+     * @param data data written by {@link #encode(Report)}
+     * @return the report
+     * @throws IllegalArgumentException if the data can not be read
+     */
+    Report decode(byte[] data);
+
+    /**
+     * Serializes the report for a text column or key. The text starts with {@code #name:} followed by the
+     * Base64 encoded bytes, so {@link ReportCodecs#decode(String)} can detect the codec.
+     */
+    default String encodeToString(Report report) {
+        return "#" + name() + ":" + Base64.getEncoder().encodeToString(encode(report));
+    }
+
+    /**
+     * @param data text written by {@link #encodeToString(Report)}
+     * @return the report
+     * @throws IllegalArgumentException if the text can not be read
+     */
+    default Report decodeFromString(String data) {
+        String prefix = "#" + name() + ":";
+        if (!data.startsWith(prefix)) {
+            throw new IllegalArgumentException("Not encoded with the " + name() + " codec");
+        }
+        return decode(Base64.getDecoder().decode(data.substring(prefix.length()).getBytes(StandardCharsets.US_ASCII)));
+    }
+}
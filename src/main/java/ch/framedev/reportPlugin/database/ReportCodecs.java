@@ -0,0 +1,196 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 20:20
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the {@link ReportCodec}s. Every registered codec is measured, see {@link #getStats()}.
+ * <p>
+ * The codec of a backend is selected with {@code <section>.codec} (e.g. {@code sqlite.codec} or
+ * {@code redis.codec}) and falls back to {@code codec.format}. Reading detects the codec from the data,
+ * so every backend reads reports written by any registered codec.
+ */
+public final class ReportCodecs {
+
+    private static final Map<String, MeasuredCodec> CODECS = new ConcurrentHashMap<>();
+
+    static {
+        register(new JsonReportCodec());
+        register(new BinaryReportCodec());
+    }
+
+    private ReportCodecs() {
+    }
+
+    /**
+     * Registers a codec, so it can be selected in the config and data written by it can be read.
+     *
+     * @throws IllegalArgumentException if a codec with the same name is registered
+     */
+    public static void register(ReportCodec codec) {
+        String name = codec.name().toLowerCase(Locale.ROOT);
+        if (name.isEmpty() || name.contains(":")) {
+            throw new IllegalArgumentException("Invalid codec name: " + codec.name());
+        }
+        if (CODECS.putIfAbsent(name, new MeasuredCodec(codec)) != null) {
+            throw new IllegalArgumentException("A codec named " + name + " is already registered");
+        }
+    }
+
+    /**
+     * @return the registered codec, or null if there is none with that name
+     */
+    public static ReportCodec get(String name) {
+        return name == null ? null : CODECS.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @return the JSON codec
+     */
+    public static ReportCodec json() {
+        return CODECS.get(JsonReportCodec.NAME);
+    }
+
+    /**
+     * Selects the codec of a backend from {@code <section>.codec}, or {@code codec.format} if not set.
+     * Unknown names fall back to JSON.
+     */
+    public static ReportCodec fromConfig(FileConfiguration config, String section) {
+        String name = config.getString(section + ".codec", config.getString("codec.format", JsonReportCodec.NAME));
+        ReportCodec codec = get(name);
+        if (codec == null) {
+            logger().warning("Unknown report codec '" + name + "' for " + section + ", using json.");
+            return json();
+        }
+        return codec;
+    }
+
+    /**
+     * Reads a report written by {@link ReportCodec#encodeToString(Report)} of any registered codec,
+     * text without a codec prefix is read as JSON.
+     *
+     * @return the report, null if {@code data} is null
+     * @throws IllegalArgumentException if the data can not be read
+     */
+    public static Report decode(String data) {
+        if (data == null) {
+            return null;
+        }
+        if (!data.startsWith("#")) {
+            return json().decodeFromString(data);
+        }
+        int separator = data.indexOf(':');
+        ReportCodec codec = separator < 0 ? null : get(data.substring(1, separator));
+        if (codec == null) {
+            throw new IllegalArgumentException("Report written by an unknown codec");
+        }
+        return codec.decodeFromString(data);
+    }
+
+    /**
+     * @return the statistics of every codec that was used since startup
+     */
+    public static List<CodecStats> getStats() {
+        List<CodecStats> stats = new ArrayList<>();
+        for (MeasuredCodec codec : CODECS.values()) {
+            CodecStats codecStats = codec.getStats();
+            if (codecStats.encodes() > 0 || codecStats.decodes() > 0) {
+                stats.add(codecStats);
+            }
+        }
+        return stats;
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(ReportCodecs.class.getName());
+    }
+
+    // Counts the calls, sizes and time of a codec
+    private static final class MeasuredCodec implements ReportCodec {
+
+        private final ReportCodec codec;
+        private final LongAdder encodes = new LongAdder();
+        private final LongAdder encodedBytes = new LongAdder();
+        private final LongAdder encodeNanos = new LongAdder();
+        private final LongAdder decodes = new LongAdder();
+        private final LongAdder decodedBytes = new LongAdder();
+        private final LongAdder decodeNanos = new LongAdder();
+
+        private MeasuredCodec(ReportCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public String name() {
+            return codec.name();
+        }
+
+        @Override
+        public byte[] encode(Report report) {
+            long start = System.nanoTime();
+            byte[] data = codec.encode(report);
+            recordEncode(data.length, start);
+            return data;
+        }
+
+        @Override
+        public Report decode(byte[] data) {
+            long start = System.nanoTime();
+            Report report = codec.decode(data);
+            recordDecode(data.length, start);
+            return report;
+        }
+
+        @Override
+        public String encodeToString(Report report) {
+            long start = System.nanoTime();
+            String data = codec.encodeToString(report);
+            recordEncode(data.length(), start);
+            return data;
+        }
+
+        @Override
+        public Report decodeFromString(String data) {
+            long start = System.nanoTime();
+            Report report = codec.decodeFromString(data);
+            recordDecode(data.length(), start);
+            return report;
+        }
+
+        private void recordEncode(int size, long start) {
+            encodeNanos.add(System.nanoTime() - start);
+            encodes.increment();
+            encodedBytes.add(size);
+        }
+
+        private void recordDecode(int size, long start) {
+            decodeNanos.add(System.nanoTime() - start);
+            decodes.increment();
+            decodedBytes.add(size);
+        }
+
+        private CodecStats getStats() {
+            return new CodecStats(codec.name(), encodes.sum(), encodedBytes.sum(), encodeNanos.sum(),
+                    decodes.sum(), decodedBytes.sum(), decodeNanos.sum());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 15:05
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+
+/**
+ * Reads the report files of a directory one at a time while iterating,
+ * so only the current report is held in memory instead of the whole directory.
+ */
+final class ReportFileIterator implements CloseableIterator<Report> {
+
+    /**
+     * Parses a single report file.
+     */
+    @FunctionalInterface
+    interface Reader {
+        Report read(File file) throws IOException;
+    }
+
+    private final DirectoryStream<Path> directory;
+    private final Iterator<Path> files;
+    private final Reader reader;
+
+    private Report next;
+    private boolean closed;
+
+    private ReportFileIterator(DirectoryStream<Path> directory, Reader reader) {
+        this.directory = directory;
+        this.files = directory.iterator();
+        this.reader = reader;
+    }
+
+    /**
+     * Iterates over the reports matching the query. Unsorted queries are evaluated lazily while the files are read,
+     * sorted queries keep only the matching reports in memory to sort them.
+     *
+     * @param reportsDir the directory holding one file per report
+     * @param extension  the file extension including the dot, e.g. ".json"
+     * @param reader     parses a single file
+     * @param query      the filter, sort order and paging to apply
+     * @return the matching reports in query order
+     */
+    static CloseableIterator<Report> query(File reportsDir, String extension, Reader reader, ReportQuery query) {
+        if (!reportsDir.isDirectory()) {
+            return CloseableIterator.empty();
+        }
+        ReportFileIterator iterator;
+        try {
+            iterator = new ReportFileIterator(Files.newDirectoryStream(reportsDir.toPath(), "*" + extension), reader);
+        } catch (IOException ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Could not list report files in " + reportsDir.getAbsolutePath(), ex);
+            return CloseableIterator.empty();
+        }
+        if (query.getSortKey() == ReportQuery.SortKey.UNSORTED) {
+            Stream<Report> reports = iterator.stream().filter(query::matches).skip(query.getOffset());
+            if (query.getLimit() > 0) {
+                reports = reports.limit(query.getLimit());
+            }
+            return CloseableIterator.of(reports.iterator(), reports::close);
+        }
+        List<Report> matches = new ArrayList<>();
+        try (iterator) {
+            while (iterator.hasNext()) {
+                Report report = iterator.next();
+                if (query.matches(report)) {
+                    matches.add(report);
+                }
+            }
+        }
+        return CloseableIterator.of(query.apply(matches).iterator());
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && !closed && files.hasNext()) {
+            File file = files.next().toFile();
+            try {
+                next = reader.read(file);
+            } catch (Exception ex) {
+                // The file may have been deleted or replaced since the directory was listed
+                ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Could not read report file: " + file.getName(), ex);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Report next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Report report = next;
+        next = null;
+        return report;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            directory.close();
+        } catch (IOException ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.WARNING, "Could not close report directory", ex);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 16:30
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import redis.clients.jedis.JedisPubSub;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tells the other servers sharing the same database and Redis that a report changed.
+ * <p>
+ * Every change made on this server is published to a Redis channel. A background thread subscribes to the
+ * same channel and notifies the registered {@link Listener}s of changes made on other servers, so their
+ * caches are evicted right away instead of serving the old state until the TTL expires.
+ * If the subscription is lost, messages published in the meantime are missed, so the listeners are told
+ * to drop everything once it is re-established.
+ */
+public class ReportInvalidationBus {
+
+    /**
+     * The kind of change made to a report.
+     */
+    public enum Change {
+        INSERT,
+        UPDATE,
+        DELETE,
+        // Only the update history of the report was cleared
+        HISTORY_CLEARED
+    }
+
+    /**
+     * Receives changes made on other servers. Called on the subscriber thread.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param change   the kind of change
+         * @param reportId the id of the changed report, or null if any report may have changed
+         */
+        void onChange(Change change, String reportId);
+    }
+
+    private record Message(String origin, Change change, String reportId) {
+    }
+
+    private static final Gson GSON = new Gson();
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000L;
+
+    private final RedisManager redis;
+    private final String channel;
+    // Identifies this server so its own messages are ignored
+    private final String origin = UUID.randomUUID().toString();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile JedisPubSub subscription;
+    private Thread subscriber;
+
+    /**
+     * @param redis   the Redis connection
+     * @param channel the channel shared by every server
+     */
+    public ReportInvalidationBus(RedisManager redis, String channel) {
+        this.redis = redis;
+        this.channel = channel;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Announces a change made on this server to the other servers.
+     */
+    public void publish(Change change, String reportId) {
+        if (!redis.publish(channel, GSON.toJson(new Message(origin, change, reportId)))) {
+            logger().warning("Could not publish the " + change + " of report " + reportId + " to other servers.");
+        }
+    }
+
+    /**
+     * Starts the subscriber thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        subscriber = new Thread(this::subscribeLoop, "ReportPlugin-invalidation");
+        subscriber.setDaemon(true);
+        subscriber.start();
+    }
+
+    /**
+     * Unsubscribes and stops the subscriber thread.
+     */
+    public synchronized void stop() {
+        running = false;
+        JedisPubSub current = subscription;
+        if (current != null && current.isSubscribed()) {
+            try {
+                current.unsubscribe();
+            } catch (Exception ignored) {
+            }
+        }
+        if (subscriber != null) {
+            subscriber.interrupt();
+            try {
+                subscriber.join(2000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            subscriber = null;
+        }
+    }
+
+    private void subscribeLoop() {
+        long delay = 1000L;
+        boolean reconnect = false;
+        while (running) {
+            boolean resubscribed = reconnect;
+            JedisPubSub listener = new JedisPubSub() {
+                @Override
+                public void onSubscribe(String subscribedChannel, int subscribedChannels) {
+                    connected = true;
+                    if (resubscribed) {
+                        logger().info("Resubscribed to report invalidations on " + channel + ".");
+                        notifyListeners(Change.UPDATE, null);
+                    }
+                }
+
+                @Override
+                public void onMessage(String messageChannel, String json) {
+                    handle(json);
+                }
+            };
+            subscription = listener;
+            try {
+                redis.subscribe(listener, channel);
+                delay = 1000L;
+            } catch (Exception ex) {
+                if (!running) {
+                    return;
+                }
+                // Only log the first failure, not every retry while Redis is down
+                if (connected || !reconnect) {
+                    logger().log(Level.WARNING, "Lost the report invalidation subscription, retrying in the background", ex);
+                }
+                connected = false;
+            }
+            reconnect = true;
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+            delay = Math.min(delay * 2, MAX_RECONNECT_DELAY_MILLIS);
+        }
+    }
+
+    private void handle(String json) {
+        Message message;
+        try {
+            message = GSON.fromJson(json, Message.class);
+        } catch (JsonParseException ex) {
+            logger().warning("Ignoring malformed report invalidation: " + json);
+            return;
+        }
+        if (message == null || origin.equals(message.origin()) || message.change() == null) {
+            return;
+        }
+        notifyListeners(message.change(), message.reportId());
+    }
+
+    private void notifyListeners(Change change, String reportId) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onChange(change, reportId);
+            } catch (RuntimeException ex) {
+                logger().log(Level.WARNING, "Report invalidation listener failed", ex);
+            }
+        }
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(ReportInvalidationBus.class.getName());
+    }
+}
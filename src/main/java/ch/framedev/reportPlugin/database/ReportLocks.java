@@ -0,0 +1,70 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 23:20
+ */
+
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks that order the writes of the same report without serializing writes of different reports.
+ * <p>
+ * Decorators keeping an in-memory copy of the reports hold the lock of a report across the backend write and
+ * the update of their copy, so two writes of the same report are applied in the order the backend made them.
+ * Several reports are locked in stripe order, so batches cannot deadlock each other.
+ */
+final class ReportLocks {
+
+    private static final int STRIPES = 64;
+
+    /**
+     * Locks held by {@link #lock(Collection)}, released on {@link #close()}.
+     */
+    interface Held extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    /**
+     * Holds nothing, for writes that do not have to be ordered.
+     */
+    static final Held NONE = () -> {
+    };
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    ReportLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * @param reportIds the ids of the reports about to be written, null ids are ignored
+     * @return the held locks, to be closed once the write and its in-memory update are done
+     */
+    Held lock(Collection<String> reportIds) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (String reportId : reportIds) {
+            if (reportId != null) {
+                stripes.add(Math.floorMod(reportId.hashCode(), STRIPES));
+            }
+        }
+        List<ReentrantLock> held = stripes.stream().map(stripe -> locks[stripe]).toList();
+        held.forEach(ReentrantLock::lock);
+        return () -> {
+            for (int i = held.size() - 1; i >= 0; i--) {
+                held.get(i).unlock();
+            }
+        };
+    }
+}
@@ -0,0 +1,788 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 18:00
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, log-structured store for reports and their update history.
+ * <p>
+ * Every change is appended to the active segment file as a record framed by its length and a CRC32 checksum.
+ * A single writer thread appends whatever was queued while the previous write was being synced, so concurrent
+ * writers share one {@code fsync} (group commit). An in-memory index maps every report id to the position of
+ * its latest version, so a lookup costs one positional read.
+ * <p>
+ * Once a segment reaches {@code segmentBytes} a new one is started. Sealed segments whose share of superseded
+ * and deleted records exceeds {@code garbageRatio} are compacted by copying their live records to the active
+ * segment and deleting the file. Copies keep the sequence number of the original record, so replaying the
+ * segments yields the same state no matter where a record ended up. On startup the segments are replayed to
+ * rebuild the index, a torn or corrupt record at the end of the newest segment, e.g. after a crash, is truncated.
+ */
+final class ReportLog implements AutoCloseable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final byte HISTORY = 3;
+    private static final byte CLEAR_HISTORY = 4;
+
+    // Payload length and CRC32 of the payload
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_PAYLOAD_BYTES = 64 * 1024 * 1024;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.log");
+
+    /**
+     * A change, {@code sequence} orders the changes of a report independent of where their records are stored.
+     */
+    private record Record(byte type, long sequence, String reportId, String key, String value) {
+    }
+
+    /**
+     * Position of a framed record, {@code size} includes the header.
+     */
+    private record Location(long segment, long offset, int size, long sequence) {
+    }
+
+    private record HistoryRef(String key, Location location) {
+    }
+
+    /**
+     * Records to append. Records copied by compaction carry the location they are copied from and are only
+     * written if that location is still current.
+     */
+    private record Batch(List<Record> records, List<Location> sources, CompletableFuture<Void> done) {
+    }
+
+    private static final Batch STOP = new Batch(List.of(), null, new CompletableFuture<>());
+
+    private static final class Segment {
+        final long id;
+        final Path path;
+        final FileChannel channel;
+        final AtomicLong size;
+        final AtomicLong liveBytes = new AtomicLong();
+
+        Segment(long id, Path path, FileChannel channel, long size) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.size = new AtomicLong(size);
+        }
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean sync;
+
+    // Only modified by the writer thread, or by recovery before it is started
+    private final ConcurrentHashMap<String, Location> reports = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, List<HistoryRef>> history = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Location> tombstones = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Location> historyClears = new ConcurrentHashMap<>();
+    // Next sequence number, only used by the writer thread
+    private long nextSequence = 1L;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    // Readers hold the read lock while reading a segment, compaction takes the write lock to delete one
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final BlockingQueue<Batch> queue = new LinkedBlockingQueue<>();
+    private volatile Segment active;
+    private volatile boolean open;
+    private Thread writer;
+
+    /**
+     * @param directory    the directory holding the segment files
+     * @param segmentBytes the size after which a new segment is started
+     * @param sync         whether every group of writes is forced to disk before it is acknowledged
+     */
+    ReportLog(Path directory, long segmentBytes, boolean sync) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(64 * 1024L, segmentBytes);
+        this.sync = sync;
+    }
+
+    /**
+     * Replays the segments to rebuild the index and starts the writer thread.
+     */
+    synchronized void open() throws IOException {
+        if (open) {
+            return;
+        }
+        Files.createDirectories(directory);
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    ids.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        Collections.sort(ids);
+        for (int i = 0; i < ids.size(); i++) {
+            recover(openSegment(ids.get(i)), i == ids.size() - 1);
+        }
+        active = segments.isEmpty() ? openSegment(1L) : segments.lastEntry().getValue();
+        open = true;
+        writer = new Thread(this::writeLoop, "ReportPlugin-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Waits for queued writes, stops the writer thread and closes every segment.
+     */
+    @Override
+    public synchronized void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Writes that raced with closing
+        List<Batch> rejected = new ArrayList<>();
+        queue.drainTo(rejected);
+        rejected.forEach(batch -> batch.done().completeExceptionally(new IOException("The report log is closed")));
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+        segments.clear();
+    }
+
+    // ---- Reads --------------------------------------------------------------
+
+    /**
+     * @return the latest stored value of the report or null if it does not exist
+     */
+    String get(String reportId) {
+        // The record may be moved by compaction between the lookup and the read, look it up again then
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Location location = reports.get(reportId);
+            if (location == null) {
+                return null;
+            }
+            Record record = read(location);
+            if (record != null) {
+                return record.value();
+            }
+        }
+        logger().severe("Could not read report " + reportId + " from the report log.");
+        return null;
+    }
+
+    boolean contains(String reportId) {
+        return reports.containsKey(reportId);
+    }
+
+    int size() {
+        return reports.size();
+    }
+
+    /**
+     * Iterates over the values of every report in file order, so the segments are read sequentially.
+     * Reports written while iterating may be missed.
+     */
+    Iterator<String> values() {
+        List<Map.Entry<String, Location>> entries = new ArrayList<>(reports.entrySet());
+        entries.sort(Map.Entry.comparingByValue(Comparator.comparingLong(Location::segment).thenComparingLong(Location::offset)));
+        Iterator<Map.Entry<String, Location>> iterator = entries.iterator();
+        return new Iterator<>() {
+            private String next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && iterator.hasNext()) {
+                    Map.Entry<String, Location> entry = iterator.next();
+                    Record record = read(entry.getValue());
+                    next = record != null ? record.value() : get(entry.getKey());
+                }
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String value = next;
+                next = null;
+                return value;
+            }
+        };
+    }
+
+    /**
+     * @return the history entries of the report by key in the order they were written
+     */
+    Map<String, String> history(String reportId) {
+        return history(reportId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the newest {@code limit} history entries of the report by key in the order they were written,
+     * older entries are not read
+     */
+    Map<String, String> history(String reportId, int limit) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        List<HistoryRef> refs = history.getOrDefault(reportId, List.of());
+        for (HistoryRef ref : refs.subList(Math.max(0, refs.size() - Math.max(0, limit)), refs.size())) {
+            Record record = read(ref.location());
+            if (record == null) {
+                // Moved by compaction, read the current list again
+                return history(reportId, limit);
+            }
+            entries.put(ref.key(), record.value());
+        }
+        return entries;
+    }
+
+    /**
+     * @return the number of segments, the bytes stored in them and the bytes still referenced by the index
+     */
+    long[] stats() {
+        long size = 0;
+        long live = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.size.get();
+            live += segment.liveBytes.get();
+        }
+        return new long[]{segments.size(), size, live};
+    }
+
+    /**
+     * @return the record or null if its segment was deleted by compaction
+     */
+    private Record read(Location location) {
+        segmentLock.readLock().lock();
+        try {
+            Segment segment = segments.get(location.segment());
+            if (segment == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(location.size());
+            while (buffer.hasRemaining()) {
+                if (segment.channel.read(buffer, location.offset() + buffer.position()) < 0) {
+                    throw new EOFException("Record ends after the end of " + segment.path.getFileName());
+                }
+            }
+            buffer.flip();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (checksum != checksum(payload)) {
+                throw new IOException("Checksum mismatch in " + segment.path.getFileName() + " at offset " + location.offset());
+            }
+            return decode(payload);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not read the report log", ex);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    // ---- Writes -------------------------------------------------------------
+
+    boolean put(String reportId, String value) {
+        return append(List.of(new Record(PUT, 0L, reportId, null, value)));
+    }
+
+    /**
+     * Writes every report as part of the same group commit.
+     */
+    boolean putAll(Map<String, String> values) {
+        List<Record> records = new ArrayList<>(values.size());
+        values.forEach((reportId, value) -> records.add(new Record(PUT, 0L, reportId, null, value)));
+        return append(records);
+    }
+
+    boolean delete(String reportId) {
+        return append(List.of(new Record(DELETE, 0L, reportId, null, null)));
+    }
+
+    boolean addHistory(String reportId, String key, String value) {
+        return append(List.of(new Record(HISTORY, 0L, reportId, key, value)));
+    }
+
+    /**
+     * Writes every history entry as part of the same group commit.
+     *
+     * @param entries report id, key and value of every entry
+     */
+    boolean addHistory(List<String[]> entries) {
+        List<Record> records = new ArrayList<>(entries.size());
+        for (String[] entry : entries) {
+            records.add(new Record(HISTORY, 0L, entry[0], entry[1], entry[2]));
+        }
+        return append(records);
+    }
+
+    boolean clearHistory(String reportId) {
+        return append(List.of(new Record(CLEAR_HISTORY, 0L, reportId, null, null)));
+    }
+
+    private boolean append(List<Record> records) {
+        return append(new Batch(records, null, new CompletableFuture<>()));
+    }
+
+    private boolean append(Batch batch) {
+        if (batch.records().isEmpty()) {
+            return true;
+        }
+        if (!open) {
+            logger().severe("Cannot write to the report log, it is closed.");
+            return false;
+        }
+        queue.add(batch);
+        try {
+            batch.done().join();
+            return true;
+        } catch (CompletionException ex) {
+            logger().log(Level.SEVERE, "Could not write to the report log", ex.getCause());
+            return false;
+        }
+    }
+
+    private void writeLoop() {
+        List<Batch> group = new ArrayList<>();
+        while (true) {
+            try {
+                group.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            // Everything queued while the previous group was synced goes into this group
+            queue.drainTo(group);
+            boolean stop = group.remove(STOP);
+            if (!group.isEmpty()) {
+                writeGroup(group);
+            }
+            group.clear();
+            if (stop) {
+                queue.drainTo(group);
+                if (group.isEmpty()) {
+                    return;
+                }
+                writeGroup(group);
+                group.clear();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Appends the group and acknowledges it once it is written. A group either lands completely or not at all,
+     * if a write fails every segment it touched, including segments it already filled before rolling over, is
+     * cut back to where the group started, so none of its records are replayed after a restart.
+     */
+    private void writeGroup(List<Batch> group) {
+        Segment segment = active;
+        // Where the group started in every segment it wrote to, in the order they were written
+        Map<Segment, Long> starts = new LinkedHashMap<>();
+        starts.put(segment, segment.size.get());
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        List<Runnable> updates = new ArrayList<>();
+        try {
+            for (Batch batch : group) {
+                for (int i = 0; i < batch.records().size(); i++) {
+                    Location source = batch.sources() == null ? null : batch.sources().get(i);
+                    Record record = batch.records().get(i);
+                    if (source == null) {
+                        record = new Record(record.type(), nextSequence++, record.reportId(), record.key(), record.value());
+                    } else if (!isCurrent(record, source)) {
+                        // Superseded since compaction read it, the copy would only be garbage
+                        continue;
+                    }
+                    byte[] frame = frame(record);
+                    if (segment.size.get() + buffer.size() + frame.length > segmentBytes && segment.size.get() + buffer.size() > 0) {
+                        flush(segment, buffer);
+                        segment = roll();
+                        starts.put(segment, 0L);
+                    }
+                    Location location = new Location(segment.id, segment.size.get() + buffer.size(), frame.length, record.sequence());
+                    buffer.write(frame);
+                    Record written = record;
+                    updates.add(() -> apply(written, location));
+                }
+            }
+            flush(segment, buffer);
+        } catch (IOException ex) {
+            // Cut off the partial group so the next records are not written behind garbage
+            List<Map.Entry<Segment, Long>> touched = new ArrayList<>(starts.entrySet());
+            Collections.reverse(touched);
+            for (Map.Entry<Segment, Long> entry : touched) {
+                truncate(entry.getKey(), entry.getValue());
+            }
+            group.forEach(batch -> batch.done().completeExceptionally(ex));
+            return;
+        }
+        updates.forEach(Runnable::run);
+        group.forEach(batch -> batch.done().complete(null));
+    }
+
+    private void truncate(Segment segment, long start) {
+        try {
+            segment.channel.truncate(start);
+            if (sync) {
+                segment.channel.force(false);
+            }
+            segment.size.set(Math.min(segment.size.get(), start));
+        } catch (IOException ex) {
+            logger().log(Level.SEVERE, "Could not remove a failed write from " + segment.path.getFileName()
+                                       + ", its records may be replayed on the next start", ex);
+        }
+    }
+
+    private void flush(Segment segment, ByteArrayOutputStream buffer) throws IOException {
+        if (buffer.size() > 0) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            long position = segment.size.get();
+            while (bytes.hasRemaining()) {
+                position += segment.channel.write(bytes, position);
+            }
+            segment.size.set(position);
+            buffer.reset();
+        }
+        if (sync) {
+            segment.channel.force(false);
+        }
+    }
+
+    private Segment roll() throws IOException {
+        Segment segment = openSegment(active.id + 1);
+        active = segment;
+        return segment;
+    }
+
+    private boolean isCurrent(Record record, Location source) {
+        return switch (record.type()) {
+            case PUT -> source.equals(reports.get(record.reportId()));
+            case DELETE -> source.equals(tombstones.get(record.reportId()));
+            case CLEAR_HISTORY -> source.equals(historyClears.get(record.reportId()));
+            case HISTORY -> history.getOrDefault(record.reportId(), List.of()).stream()
+                    .anyMatch(ref -> ref.location().equals(source));
+            default -> false;
+        };
+    }
+
+    /**
+     * Updates the index after a record was written or replayed. A record older than the current state of its
+     * report is dead, a record with the same sequence is a copy made by compaction and replaces the original.
+     *
+     * @return whether the record is live
+     */
+    private boolean apply(Record record, Location location) {
+        String reportId = record.reportId();
+        long sequence = record.sequence();
+        switch (record.type()) {
+            case PUT, DELETE -> {
+                if (sequence < Math.max(sequenceOf(reports.get(reportId)), sequenceOf(tombstones.get(reportId)))) {
+                    return false;
+                }
+                if (record.type() == PUT) {
+                    release(reports.put(reportId, location));
+                    release(tombstones.remove(reportId));
+                } else {
+                    release(reports.remove(reportId));
+                    release(tombstones.put(reportId, location));
+                }
+            }
+            case HISTORY -> {
+                if (sequence < sequenceOf(historyClears.get(reportId))) {
+                    return false;
+                }
+                List<HistoryRef> refs = new ArrayList<>(history.getOrDefault(reportId, List.of()));
+                int index = 0;
+                while (index < refs.size() && refs.get(index).location().sequence() < sequence) {
+                    index++;
+                }
+                if (index < refs.size() && refs.get(index).location().sequence() == sequence) {
+                    release(refs.set(index, new HistoryRef(record.key(), location)).location());
+                } else {
+                    refs.add(index, new HistoryRef(record.key(), location));
+                }
+                history.put(reportId, List.copyOf(refs));
+            }
+            case CLEAR_HISTORY -> {
+                if (sequence < sequenceOf(historyClears.get(reportId))) {
+                    return false;
+                }
+                List<HistoryRef> refs = history.getOrDefault(reportId, List.of());
+                List<HistoryRef> kept = new ArrayList<>();
+                for (HistoryRef ref : refs) {
+                    if (ref.location().sequence() < sequence) {
+                        release(ref.location());
+                    } else {
+                        kept.add(ref);
+                    }
+                }
+                if (kept.isEmpty()) {
+                    history.remove(reportId);
+                } else {
+                    history.put(reportId, List.copyOf(kept));
+                }
+                release(historyClears.put(reportId, location));
+            }
+            default -> throw new IllegalStateException("Unknown record type " + record.type());
+        }
+        addLive(location, location.size());
+        return true;
+    }
+
+    private static long sequenceOf(Location location) {
+        return location == null ? 0L : location.sequence();
+    }
+
+    private void addLive(Location location, long bytes) {
+        Segment segment = segments.get(location.segment());
+        if (segment != null) {
+            segment.liveBytes.addAndGet(bytes);
+        }
+    }
+
+    private void release(Location location) {
+        if (location != null) {
+            addLive(location, -location.size());
+        }
+    }
+
+    // ---- Compaction ---------------------------------------------------------
+
+    /**
+     * Compacts every sealed segment whose share of dead bytes is at least {@code garbageRatio}.
+     *
+     * @return the number of compacted segments
+     */
+    int compact(double garbageRatio) {
+        int compacted = 0;
+        for (Segment segment : List.copyOf(segments.values())) {
+            if (!open || segment == active) {
+                continue;
+            }
+            long size = segment.size.get();
+            if (size > 0 && 1D - (double) segment.liveBytes.get() / size < garbageRatio) {
+                continue;
+            }
+            if (compact(segment)) {
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    private boolean compact(Segment segment) {
+        // Tombstones only hide records in older segments, there are none left once this is the oldest one
+        boolean oldest = segments.firstKey() == segment.id;
+        List<Record> records = new ArrayList<>();
+        List<Location> sources = new ArrayList<>();
+        reports.forEach((reportId, location) -> collect(segment, location, records, sources));
+        history.values().forEach(refs -> refs.forEach(ref -> collect(segment, ref.location(), records, sources)));
+        if (!oldest) {
+            tombstones.values().forEach(location -> collect(segment, location, records, sources));
+            historyClears.values().forEach(location -> collect(segment, location, records, sources));
+        }
+        if (!append(new Batch(records, sources, new CompletableFuture<>()))) {
+            return false;
+        }
+        segmentLock.writeLock().lock();
+        try {
+            segments.remove(segment.id);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException ex) {
+            logger().log(Level.WARNING, "Could not delete compacted segment " + segment.path.getFileName(), ex);
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        if (oldest) {
+            // Dropped together with the segment, no older record is left for them to hide
+            tombstones.values().removeIf(location -> location.segment() == segment.id);
+            historyClears.values().removeIf(location -> location.segment() == segment.id);
+        }
+        return true;
+    }
+
+    private void collect(Segment segment, Location location, List<Record> records, List<Location> sources) {
+        if (location.segment() != segment.id) {
+            return;
+        }
+        Record record = read(location);
+        if (record != null) {
+            records.add(record);
+            sources.add(location);
+        }
+    }
+
+    // ---- Segments and recovery ----------------------------------------------
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("segment-%08d.log", id));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Segment segment = new Segment(id, path, channel, channel.size());
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * Replays every intact record of the segment into the index.
+     *
+     * @param newest whether this is the segment that was written last, a damaged tail is truncated there
+     */
+    private void recover(Segment segment, boolean newest) throws IOException {
+        long offset = 0;
+        long size = segment.channel.size();
+        InputStream stream = new BufferedInputStream(Channels.newInputStream(segment.channel.position(0)), 64 * 1024);
+        DataInputStream input = new DataInputStream(stream);
+        while (offset < size) {
+            Record record;
+            int length;
+            try {
+                length = input.readInt();
+                int checksum = input.readInt();
+                if (length < 0 || length > MAX_PAYLOAD_BYTES || offset + HEADER_BYTES + length > size) {
+                    throw new IOException("Invalid record length " + length);
+                }
+                byte[] payload = new byte[length];
+                input.readFully(payload);
+                if (checksum != checksum(payload)) {
+                    throw new IOException("Checksum mismatch");
+                }
+                record = decode(payload);
+            } catch (IOException ex) {
+                if (newest) {
+                    logger().warning("Truncating damaged tail of " + segment.path.getFileName() + " at offset " + offset
+                                     + " (" + (size - offset) + " bytes): " + ex.getMessage());
+                    segment.channel.truncate(offset);
+                } else {
+                    logger().severe("Ignoring damaged records in " + segment.path.getFileName() + " after offset " + offset
+                                    + ": " + ex.getMessage());
+                }
+                break;
+            }
+            apply(record, new Location(segment.id, offset, HEADER_BYTES + length, record.sequence()));
+            nextSequence = Math.max(nextSequence, record.sequence() + 1);
+            offset += HEADER_BYTES + length;
+        }
+        segment.size.set(offset);
+    }
+
+    // ---- Encoding -----------------------------------------------------------
+
+    private static byte[] frame(Record record) throws IOException {
+        byte[] payload = encode(record);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        frame.putInt(payload.length);
+        frame.putInt(checksum(payload));
+        frame.put(payload);
+        return frame.array();
+    }
+
+    private static byte[] encode(Record record) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(record.type());
+            output.writeLong(record.sequence());
+            output.writeUTF(record.reportId());
+            writeNullable(output, record.key());
+            writeNullable(output, record.value());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Record decode(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+        byte type = input.readByte();
+        long sequence = input.readLong();
+        String reportId = input.readUTF();
+        String key = readNullable(input);
+        String value = readNullable(input);
+        if (type < PUT || type > CLEAR_HISTORY) {
+            throw new IOException("Unknown record type " + type);
+        }
+        return new Record(type, sequence, reportId, key, value);
+    }
+
+    // Values can exceed the 64 KiB limit of writeUTF, so they are written as length prefixed UTF-8
+    private static void writeNullable(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readNullable(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(ReportLog.class.getName());
+    }
+}
@@ -0,0 +1,480 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 18:45
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persisted index of the fields reports are looked up and filtered by, for backends storing one file per report.
+ * <p>
+ * The index is kept in memory and stored as a snapshot plus a journal of the changes made since. Every change is
+ * appended to the journal before the report file is written, so after a crash the index may list a report that
+ * was not written, but never misses one that was. Callers therefore verify the files they read. Once the journal
+ * holds {@link #CHECKPOINT_ENTRIES} changes, and on {@link #close()}, the snapshot is rewritten and the journal
+ * cleared.
+ * <p>
+ * On {@link #load(Set, Function)} the report ids of the index are compared with the report files on disk. A journal
+ * that is not empty means the last shutdown was not clean, so every report it names is read back and its entry
+ * corrected if the file was not written. If the snapshot is missing or unreadable, or a report was added or
+ * removed without the index, it has to be rebuilt with {@link #rebuild(Map)}.
+ */
+final class ReportManifest implements AutoCloseable {
+
+    private static final int CHECKPOINT_ENTRIES = 1000;
+    private static final Gson GSON = new Gson();
+    private static final Type SNAPSHOT_TYPE = new TypeToken<Map<String, Entry>>() {
+    }.getType();
+
+    /**
+     * The indexed fields of a report, together they are enough to answer {@link ReportSummary} queries.
+     * The reason is never null, indexes stored before it was part of the entry lack it and are rebuilt.
+     */
+    record Entry(String reportedPlayer, String reporter, String reason, String status, long timestamp) {
+
+        static Entry of(Report report) {
+            return new Entry(report.getReportedPlayer(), report.getReporter(), report.getReason() == null ? "" : report.getReason(),
+                    report.getStatus().name(), report.getTimestamp());
+        }
+
+        /**
+         * @return a report holding only the indexed fields, enough to evaluate and sort a {@link ReportQuery}
+         */
+        Report toReport(String reportId) {
+            Report report = new Report();
+            report.setReportId(reportId);
+            report.setReportedPlayer(reportedPlayer);
+            report.setReporter(reporter);
+            report.setReason(reason);
+            report.setStatus(status);
+            report.setTimestamp(timestamp);
+            return report;
+        }
+    }
+
+    // A journal line, a null entry removes the report
+    private record Change(String id, Entry entry) {
+    }
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> byPlayer = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> byReporter = new ConcurrentHashMap<>();
+
+    // Serializes changes, the journal is only written while holding it
+    private final ReentrantLock lock = new ReentrantLock();
+    private BufferedWriter journal;
+    private int journalEntries;
+    private volatile boolean loaded;
+
+    /**
+     * @param directory the directory of the report files, the index is stored next to them
+     * @param name      the file name of the index without extension
+     */
+    ReportManifest(Path directory, String name) {
+        this.snapshotFile = directory.resolve(name + ".manifest");
+        this.journalFile = directory.resolve(name + ".journal");
+    }
+
+    /**
+     * @return whether the index was loaded or rebuilt and answers lookups
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Loads the snapshot and replays the journal.
+     *
+     * @param reportIds the ids of the report files on disk
+     * @param stored    reads the entry of a report from its file, null if it does not exist
+     * @return false if the index is missing or does not match the report files and has to be rebuilt
+     */
+    boolean load(Set<String> reportIds, Function<String, Entry> stored) {
+        lock.lock();
+        try {
+            loaded = false;
+            clear();
+            if (!Files.isRegularFile(snapshotFile)) {
+                return false;
+            }
+            try (Reader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+                Map<String, Entry> snapshot = GSON.fromJson(reader, SNAPSHOT_TYPE);
+                if (snapshot != null) {
+                    snapshot.forEach(this::index);
+                }
+            }
+            Set<String> journaled = new HashSet<>();
+            journalEntries = replayJournal(journaled);
+            int corrected = verify(journaled, stored);
+            if (corrected > 0) {
+                logger().warning("Corrected " + corrected + " entries of report index " + snapshotFile.getFileName()
+                                 + " whose report files were not written before the last shutdown.");
+            }
+            if (entries.values().stream().anyMatch(entry -> entry.reason() == null)) {
+                logger().info("Report index " + snapshotFile.getFileName() + " was written by an older version.");
+                clear();
+                return false;
+            }
+            if (!entries.keySet().equals(reportIds)) {
+                logger().warning("Report index " + snapshotFile.getFileName() + " lists " + entries.size() + " reports but "
+                                 + reportIds.size() + " report files exist.");
+                clear();
+                return false;
+            }
+            openJournal(false);
+            loaded = true;
+            if (!journaled.isEmpty()) {
+                // Store the verified state, so the next start does not check the same reports again
+                checkpoint();
+            }
+            return true;
+        } catch (IOException | JsonParseException ex) {
+            logger().log(Level.WARNING, "Could not read report index " + snapshotFile.getFileName(), ex);
+            clear();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the index with the given entries and stores it as a new snapshot.
+     *
+     * @param reports the indexed fields of every report file by report id
+     */
+    void rebuild(Map<String, Entry> reports) {
+        lock.lock();
+        try {
+            clear();
+            reports.forEach(this::index);
+            loaded = true;
+            checkpoint();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the new state of a report, call before its file is written.
+     *
+     * @return the previous entry, to {@link #restore(String, Entry)} it if the file could not be written
+     */
+    Entry put(String reportId, Entry entry) {
+        return change(reportId, entry);
+    }
+
+    /**
+     * Records that a report was removed, call after its file was deleted.
+     */
+    void remove(String reportId) {
+        change(reportId, null);
+    }
+
+    /**
+     * Puts back the entry a failed write replaced.
+     */
+    void restore(String reportId, Entry previous) {
+        change(reportId, previous);
+    }
+
+    private Entry change(String reportId, Entry entry) {
+        lock.lock();
+        try {
+            if (!loaded) {
+                return null;
+            }
+            Entry previous = entries.get(reportId);
+            if (entry == null ? previous == null : entry.equals(previous)) {
+                return previous;
+            }
+            try {
+                journal.write(GSON.toJson(new Change(reportId, entry)));
+                journal.newLine();
+                journal.flush();
+            } catch (IOException ex) {
+                // The index is still correct in memory, the next checkpoint stores it
+                logger().log(Level.WARNING, "Could not append to report index journal " + journalFile.getFileName(), ex);
+            }
+            unindex(reportId);
+            if (entry != null) {
+                index(reportId, entry);
+            }
+            if (++journalEntries >= CHECKPOINT_ENTRIES) {
+                checkpoint();
+            }
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the ids of the reports against the player, matched case-insensitively
+     */
+    Set<String> idsForPlayer(String reportedPlayer) {
+        return reportedPlayer == null ? Set.of() : Set.copyOf(byPlayer.getOrDefault(lower(reportedPlayer), Set.of()));
+    }
+
+    /**
+     * @return the ids of the reports created by the reporter, matched case-insensitively
+     */
+    Set<String> idsForReporter(String reporter) {
+        return reporter == null ? Set.of() : Set.copyOf(byReporter.getOrDefault(lower(reporter), Set.of()));
+    }
+
+    /**
+     * Evaluates the query against the indexed fields.
+     *
+     * @return the ids of the matching reports in query order, after offset and limit
+     */
+    List<String> select(ReportQuery query) {
+        List<Report> matches = matching(query);
+        List<String> ids = new ArrayList<>(matches.size());
+        for (Report report : matches) {
+            ids.add(report.getReportId());
+        }
+        return ids;
+    }
+
+    /**
+     * Answers the query from the index alone. A report whose file was not rewritten before a crash is listed with
+     * its new state, as by {@link #count(ReportQuery)}.
+     *
+     * @return the summaries of the matching reports in query order, after offset and limit
+     */
+    List<ReportSummary> summaries(ReportQuery query) {
+        return matching(query).stream().map(ReportSummary::of).toList();
+    }
+
+    /**
+     * @return the number of reports matching the filter criteria of the query
+     */
+    int count(ReportQuery query) {
+        return matching(query.filterOnly()).size();
+    }
+
+    /**
+     * @return the number of reports matching the filter criteria of the query per status, every status is present
+     */
+    Map<ReportStatus, Integer> countByStatus(ReportQuery query) {
+        return ReportQuery.countByStatus(matching(query.filterOnly()));
+    }
+
+    /**
+     * @return the indexed fields of the matching reports in query order, after offset and limit
+     */
+    private List<Report> matching(ReportQuery query) {
+        List<Report> candidates = new ArrayList<>();
+        if (query.getReportedPlayer() != null || query.getReporter() != null) {
+            Set<String> ids = query.getReportedPlayer() != null ? idsForPlayer(query.getReportedPlayer()) : idsForReporter(query.getReporter());
+            for (String reportId : ids) {
+                Entry entry = entries.get(reportId);
+                if (entry != null) {
+                    candidates.add(entry.toReport(reportId));
+                }
+            }
+        } else {
+            entries.forEach((reportId, entry) -> candidates.add(entry.toReport(reportId)));
+        }
+        return query.apply(candidates);
+    }
+
+    /**
+     * Stores the snapshot and clears the journal.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (loaded) {
+                checkpoint();
+            }
+            closeJournal();
+            loaded = false;
+            clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Called while holding the lock
+    private void checkpoint() {
+        try {
+            Path tmp = Files.createTempFile(snapshotFile.getParent(), "manifest_", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                GSON.toJson(new HashMap<>(entries), SNAPSHOT_TYPE, writer);
+            }
+            try {
+                Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // Replaying the old journal on the new snapshot would be harmless, so a crash before this point is fine
+            openJournal(true);
+            journalEntries = 0;
+        } catch (IOException ex) {
+            logger().log(Level.SEVERE, "Could not store report index " + snapshotFile.getFileName(), ex);
+        }
+    }
+
+    /**
+     * Replaces the entries of the given reports with the state of their files.
+     *
+     * @return the number of entries that did not match their file
+     */
+    private int verify(Set<String> reportIds, Function<String, Entry> stored) {
+        int corrected = 0;
+        for (String reportId : reportIds) {
+            Entry onDisk = stored.apply(reportId);
+            if (Objects.equals(entries.get(reportId), onDisk)) {
+                continue;
+            }
+            unindex(reportId);
+            if (onDisk != null) {
+                index(reportId, onDisk);
+            }
+            corrected++;
+        }
+        return corrected;
+    }
+
+    /**
+     * @param changed receives the id of every report the journal names
+     */
+    private int replayJournal(Set<String> changed) throws IOException {
+        if (!Files.isRegularFile(journalFile)) {
+            return 0;
+        }
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                Change change;
+                try {
+                    change = GSON.fromJson(line, Change.class);
+                } catch (JsonParseException ex) {
+                    // A torn last line after a crash, the consistency check decides whether to rebuild
+                    logger().warning("Ignoring damaged line in report index journal " + journalFile.getFileName());
+                    continue;
+                }
+                if (change == null || change.id() == null) {
+                    continue;
+                }
+                unindex(change.id());
+                if (change.entry() != null) {
+                    index(change.id(), change.entry());
+                }
+                changed.add(change.id());
+                replayed++;
+            }
+        }
+        return replayed;
+    }
+
+    private void openJournal(boolean truncate) throws IOException {
+        closeJournal();
+        journal = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                truncate ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException ex) {
+            logger().log(Level.WARNING, "Could not close report index journal " + journalFile.getFileName(), ex);
+        }
+        journal = null;
+    }
+
+    private void index(String reportId, Entry entry) {
+        entries.put(reportId, entry);
+        add(byPlayer, entry.reportedPlayer(), reportId);
+        add(byReporter, entry.reporter(), reportId);
+    }
+
+    private void unindex(String reportId) {
+        Entry entry = entries.remove(reportId);
+        if (entry != null) {
+            remove(byPlayer, entry.reportedPlayer(), reportId);
+            remove(byReporter, entry.reporter(), reportId);
+        }
+    }
+
+    private void clear() {
+        entries.clear();
+        byPlayer.clear();
+        byReporter.clear();
+        journalEntries = 0;
+    }
+
+    private static void add(Map<String, Set<String>> index, String name, String reportId) {
+        if (name != null) {
+            index.computeIfAbsent(lower(name), ignored -> ConcurrentHashMap.newKeySet()).add(reportId);
+        }
+    }
+
+    private static void remove(Map<String, Set<String>> index, String name, String reportId) {
+        if (name != null) {
+            index.computeIfPresent(lower(name), (ignored, ids) -> {
+                ids.remove(reportId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(ReportManifest.class.getName());
+    }
+}
@@ -0,0 +1,441 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 12:02
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Criteria for {@link DatabaseHelper#findReports(ReportQuery)}.
+ * <p>
+ * Player names are matched case-insensitively. A query without any criteria matches every report.
+ * Results are ordered by the sort key, then by newest timestamp and finally by report id so that
+ * paging with {@link Builder#offset(int)} is stable. {@link SortKey#UNSORTED} queries return storage order,
+ * which allows {@link DatabaseHelper#streamReports(ReportQuery)} to read without buffering.
+ * <p>
+ * Large result sets should be paged with {@link Builder#after(ReportSummary)} instead of an offset. The cursor
+ * is the last row of the previous page and backends seek to it with their indexes, so every page costs the same.
+ */
+public final class ReportQuery {
+
+    /**
+     * The keys reports can be sorted by.
+     */
+    public enum SortKey {
+        TIMESTAMP,
+        REPORTED_PLAYER,
+        REPORTER,
+        STATUS,
+        /**
+         * Storage order. Lets backends stream matches as they are read instead of sorting them first,
+         * paging is not stable across calls.
+         */
+        UNSORTED
+    }
+
+    private final String reportedPlayer;
+    private final String reporter;
+    private final Set<ReportStatus> statuses;
+    private final Long from;
+    private final Long to;
+    private final SortKey sortKey;
+    private final boolean descending;
+    private final int limit;
+    private final int offset;
+    private final ReportSummary after;
+    private final Comparator<ReportSummary> cursorComparator;
+
+    private ReportQuery(Builder builder) {
+        this.reportedPlayer = builder.reportedPlayer;
+        this.reporter = builder.reporter;
+        this.statuses = builder.statuses.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(builder.statuses));
+        this.from = builder.from;
+        this.to = builder.to;
+        this.sortKey = builder.sortKey;
+        this.descending = builder.descending;
+        this.limit = builder.limit;
+        this.offset = builder.offset;
+        this.after = builder.after;
+        this.cursorComparator = after == null ? null : summaryComparator();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a query matching every report, newest first
+     */
+    public static ReportQuery all() {
+        return builder().build();
+    }
+
+    public String getReportedPlayer() {
+        return reportedPlayer;
+    }
+
+    public String getReporter() {
+        return reporter;
+    }
+
+    /**
+     * @return the allowed statuses, empty if every status is allowed
+     */
+    public Set<ReportStatus> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * @return the inclusive lower timestamp bound in epoch millis or null
+     */
+    public Long getFrom() {
+        return from;
+    }
+
+    /**
+     * @return the exclusive upper timestamp bound in epoch millis or null
+     */
+    public Long getTo() {
+        return to;
+    }
+
+    public SortKey getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * @return the maximum number of results, 0 for no limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the last row of the previous page, results start after it, or null for the first page
+     */
+    public ReportSummary getAfter() {
+        return after;
+    }
+
+    public boolean hasCursor() {
+        return after != null;
+    }
+
+    public boolean hasStatusFilter() {
+        return !statuses.isEmpty();
+    }
+
+    public boolean hasTimeRange() {
+        return from != null || to != null;
+    }
+
+    /**
+     * Checks the filter criteria against a single report.
+     *
+     * @param report the report to check
+     * @return true if the report matches every criterion
+     */
+    public boolean matches(Report report) {
+        if (report == null) {
+            return false;
+        }
+        if (reportedPlayer != null && !reportedPlayer.equalsIgnoreCase(report.getReportedPlayer())) {
+            return false;
+        }
+        if (reporter != null && !reporter.equalsIgnoreCase(report.getReporter())) {
+            return false;
+        }
+        if (!statuses.isEmpty() && !statuses.contains(report.getStatus())) {
+            return false;
+        }
+        if (from != null && report.getTimestamp() < from) {
+            return false;
+        }
+        return to == null || report.getTimestamp() < to;
+    }
+
+    /**
+     * Checks whether the report sorts after the cursor, see {@link Builder#after(ReportSummary)}.
+     * Only used for paging, {@link #matches(Report)} checks the filter criteria.
+     *
+     * @return true if the report belongs to a page after the cursor, always true without a cursor
+     */
+    public boolean isAfterCursor(Report report) {
+        return after == null || report != null && isAfterCursor(ReportSummary.of(report));
+    }
+
+    /**
+     * @see #isAfterCursor(Report)
+     */
+    public boolean isAfterCursor(ReportSummary summary) {
+        return after == null || cursorComparator.compare(summary, after) > 0;
+    }
+
+    /**
+     * @return the comparator matching the sort order of this query
+     */
+    public Comparator<Report> comparator() {
+        return comparator(Report::getTimestamp, Report::getReportedPlayer, Report::getReporter, Report::getStatus,
+                Report::getReportId);
+    }
+
+    /**
+     * @return the comparator matching the sort order of this query for {@link ReportSummary} rows
+     */
+    public Comparator<ReportSummary> summaryComparator() {
+        return comparator(ReportSummary::timestamp, ReportSummary::reportedPlayer, ReportSummary::reporter,
+                ReportSummary::status, ReportSummary::reportId);
+    }
+
+    private <T> Comparator<T> comparator(ToLongFunction<T> timestamp, Function<T, String> reportedPlayer,
+                                         Function<T, String> reporter, Function<T, ReportStatus> status,
+                                         Function<T, String> reportId) {
+        if (sortKey == SortKey.UNSORTED) {
+            return (first, second) -> 0;
+        }
+        Comparator<T> primary = switch (sortKey) {
+            case TIMESTAMP -> Comparator.comparingLong(timestamp);
+            case REPORTED_PLAYER -> Comparator.comparing(row -> lower(reportedPlayer.apply(row)));
+            case REPORTER -> Comparator.comparing(row -> lower(reporter.apply(row)));
+            case STATUS -> Comparator.comparing(row -> status.apply(row).name());
+            case UNSORTED -> throw new IllegalStateException("Unsorted queries have no order");
+        };
+        if (descending) {
+            primary = primary.reversed();
+        }
+        return primary
+                .thenComparing(Comparator.comparingLong(timestamp).reversed())
+                .thenComparing(row -> reportId.apply(row) == null ? "" : reportId.apply(row));
+    }
+
+    /**
+     * Applies filter, sort order, offset and limit in memory.
+     * Used by backends that cannot evaluate the query natively.
+     *
+     * @param reports the candidate reports
+     * @return the matching reports in query order
+     */
+    public List<Report> apply(Collection<Report> reports) {
+        var stream = reports.stream().filter(report -> matches(report) && isAfterCursor(report));
+        if (sortKey != SortKey.UNSORTED) {
+            stream = stream.sorted(comparator());
+        }
+        stream = stream.skip(offset);
+        if (limit > 0) {
+            stream = stream.limit(limit);
+        }
+        return stream.toList();
+    }
+
+    /**
+     * @return a copy of this query without limit, offset and cursor, e.g. to count every match
+     */
+    public ReportQuery withoutPaging() {
+        if (limit == 0 && offset == 0 && after == null) {
+            return this;
+        }
+        return toBuilder().limit(0).offset(0).after(null).build();
+    }
+
+    /**
+     * @return a copy of this query with only the filter criteria, unsorted and without paging, e.g. to scan every match
+     */
+    public ReportQuery filterOnly() {
+        if (sortKey == SortKey.UNSORTED && limit == 0 && offset == 0 && after == null) {
+            return this;
+        }
+        return toBuilder().sortBy(SortKey.UNSORTED, false).limit(0).offset(0).after(null).build();
+    }
+
+    /**
+     * @return a builder initialized with the criteria of this query
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.reportedPlayer = reportedPlayer;
+        builder.reporter = reporter;
+        builder.statuses.addAll(statuses);
+        builder.from = from;
+        builder.to = to;
+        builder.sortKey = sortKey;
+        builder.descending = descending;
+        builder.limit = limit;
+        builder.offset = offset;
+        builder.after = after;
+        return builder;
+    }
+
+    /**
+     * Groups the given reports by status.
+     *
+     * @param reports the reports to count
+     * @return the number of reports per status, every status is present
+     */
+    public static Map<ReportStatus, Integer> countByStatus(Collection<Report> reports) {
+        Map<ReportStatus, Integer> counts = emptyStatusCounts();
+        for (Report report : reports) {
+            counts.merge(report.getStatus(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * @return a mutable map with a count of 0 for every status
+     */
+    public static Map<ReportStatus, Integer> emptyStatusCounts() {
+        Map<ReportStatus, Integer> counts = new EnumMap<>(ReportStatus.class);
+        for (ReportStatus status : ReportStatus.values()) {
+            counts.put(status, 0);
+        }
+        return counts;
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return "ReportQuery{reportedPlayer=" + reportedPlayer + ", reporter=" + reporter + ", statuses=" + statuses +
+               ", from=" + from + ", to=" + to + ", sortKey=" + sortKey + ", descending=" + descending +
+               ", limit=" + limit + ", offset=" + offset + ", after=" + (after == null ? null : after.reportId()) + "}";
+    }
+
+    /**
+     * Builder for {@link ReportQuery}. Defaults to all reports, newest first, without a limit.
+     */
+    public static final class Builder {
+        private String reportedPlayer;
+        private String reporter;
+        private final Set<ReportStatus> statuses = EnumSet.noneOf(ReportStatus.class);
+        private Long from;
+        private Long to;
+        private SortKey sortKey = SortKey.TIMESTAMP;
+        private boolean descending = true;
+        private int limit;
+        private int offset;
+        private ReportSummary after;
+
+        private Builder() {
+        }
+
+        public Builder reportedPlayer(String reportedPlayer) {
+            this.reportedPlayer = reportedPlayer;
+            return this;
+        }
+
+        public Builder reporter(String reporter) {
+            this.reporter = reporter;
+            return this;
+        }
+
+        public Builder statuses(ReportStatus... statuses) {
+            return statuses(Arrays.asList(statuses));
+        }
+
+        public Builder statuses(Collection<ReportStatus> statuses) {
+            this.statuses.addAll(statuses);
+            return this;
+        }
+
+        /**
+         * Restricts the query to statuses that are not closed.
+         */
+        public Builder openOnly() {
+            for (ReportStatus status : ReportStatus.values()) {
+                if (!status.isClosed()) {
+                    statuses.add(status);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Restricts the query to closed statuses such as resolved, rejected and punished.
+         */
+        public Builder closedOnly() {
+            for (ReportStatus status : ReportStatus.values()) {
+                if (status.isClosed()) {
+                    statuses.add(status);
+                }
+            }
+            return this;
+        }
+
+        public Builder from(long fromInclusive) {
+            this.from = fromInclusive;
+            return this;
+        }
+
+        public Builder to(long toExclusive) {
+            this.to = toExclusive;
+            return this;
+        }
+
+        public Builder sortBy(SortKey sortKey, boolean descending) {
+            this.sortKey = sortKey;
+            this.descending = descending;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            this.limit = Math.max(0, limit);
+            return this;
+        }
+
+        public Builder offset(int offset) {
+            this.offset = Math.max(0, offset);
+            return this;
+        }
+
+        /**
+         * Starts the results after the given row (keyset paging). Pass the last row of the previous page,
+         * or null for the first page. Requires a sort key other than {@link SortKey#UNSORTED}.
+         */
+        public Builder after(ReportSummary after) {
+            this.after = after;
+            return this;
+        }
+
+        /**
+         * @throws IllegalStateException if a cursor is set on an unsorted query
+         */
+        public ReportQuery build() {
+            if (after != null && sortKey == SortKey.UNSORTED) {
+                throw new IllegalStateException("Keyset paging requires a sorted query");
+            }
+            return new ReportQuery(this);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 13:10
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Column layout of the {@code reports} table shared by the SQL backends.
+ * <p>
+ * The full report is stored as JSON in {@code data}. The structured columns duplicate the fields that are
+ * filtered and sorted on, so the database can answer those queries from its indexes without parsing JSON.
+ * Player names are additionally stored lower-cased in the {@code *_key} columns for case-insensitive lookups.
+ * Together with {@code reason} they hold every field of a {@link ReportSummary}, so list views never read {@code data}.
+ */
+final class ReportTable {
+
+    static final String INSERT_SQL = "INSERT INTO reports (report_id, reported_player, reporter, data, " +
+                                     "reported_player_key, reporter_key, status, report_timestamp, server_name, " +
+                                     "world_name, location_x, location_y, location_z, reason) " +
+                                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    static final String UPDATE_SQL = "UPDATE reports SET reported_player = ?, reporter = ?, data = ?, " +
+                                     "reported_player_key = ?, reporter_key = ?, status = ?, report_timestamp = ?, " +
+                                     "server_name = ?, world_name = ?, location_x = ?, location_y = ?, location_z = ?, reason = ? " +
+                                     "WHERE report_id = ?";
+
+    static final String BACKFILL_SQL = "UPDATE reports SET reported_player_key = ?, reporter_key = ?, status = ?, " +
+                                       "report_timestamp = ?, server_name = ?, world_name = ?, location_x = ?, " +
+                                       "location_y = ?, location_z = ?, reason = ? WHERE id = ?";
+
+    // The columns read by findReportSummaries, see readSummary
+    static final String SUMMARY_COLUMNS = "report_id, reported_player, reporter, reason, status, report_timestamp";
+
+    // Stays well below the bind parameter limits of every supported database
+    static final int MAX_IDS_PER_SELECT = 500;
+
+    private ReportTable() {
+    }
+
+    /**
+     * Loads the reports with the given ids using one {@code IN} statement per {@link #MAX_IDS_PER_SELECT} ids.
+     *
+     * @return the found reports by id, ids without a report are absent
+     */
+    static Map<String, Report> selectByIds(Connection connection, Collection<String> reportIds) throws SQLException {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(reportIds));
+        ids.removeIf(Objects::isNull);
+        Map<String, Report> reports = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_SELECT) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + MAX_IDS_PER_SELECT));
+            String sql = "SELECT data FROM reports WHERE report_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (var preparedStatement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    preparedStatement.setString(i + 1, chunk.get(i));
+                }
+                try (var resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        Report report = ReportCodecs.decode(resultSet.getString("data"));
+                        if (report != null && report.getReportId() != null) {
+                            reports.put(report.getReportId(), report);
+                        }
+                    }
+                }
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * @return the statement creating the original table layout
+     */
+    static String createTableSql(SqlDialect dialect) {
+        return "CREATE TABLE IF NOT EXISTS reports (" +
+               dialect.autoIncrementPrimaryKey() + ", " +
+               "report_id " + dialect.varchar(255) + " NOT NULL UNIQUE, " +
+               "reported_player " + dialect.varchar(255) + " NOT NULL, " +
+               "reporter " + dialect.varchar(255) + " NOT NULL, " +
+               "data TEXT NOT NULL" +
+               ")";
+    }
+
+    /**
+     * @return the structured columns added by schema version 2 as name and type pairs
+     */
+    static String[][] structuredColumns(SqlDialect dialect) {
+        return new String[][]{
+                {"reported_player_key", dialect.varchar(255)},
+                {"reporter_key", dialect.varchar(255)},
+                {"status", dialect.varchar(32)},
+                {"report_timestamp", "BIGINT"},
+                {"server_name", dialect.varchar(255)},
+                {"world_name", dialect.varchar(255)},
+                {"location_x", dialect.doubleType()},
+                {"location_y", dialect.doubleType()},
+                {"location_z", dialect.doubleType()}
+        };
+    }
+
+    /**
+     * @return the summary columns added by schema version 4 as name and type pairs
+     */
+    static String[][] summaryColumns() {
+        return new String[][]{
+                {"reason", "TEXT"}
+        };
+    }
+
+    /**
+     * @return the indexes added by schema version 2 as name and column list pairs
+     */
+    static String[][] indexes() {
+        return new String[][]{
+                {"idx_reports_player_time", "reported_player_key, report_timestamp"},
+                {"idx_reports_reporter_time", "reporter_key, report_timestamp"},
+                {"idx_reports_status_time", "status, report_timestamp"}
+        };
+    }
+
+    /**
+     * Binds the parameters of {@link #INSERT_SQL}, the data column is written with the given codec.
+     */
+    static void bindInsert(PreparedStatement statement, Report report, ReportCodec codec) throws SQLException {
+        statement.setString(1, report.getReportId());
+        statement.setString(2, report.getReportedPlayer());
+        statement.setString(3, report.getReporter());
+        statement.setString(4, codec.encodeToString(report));
+        bindStructured(statement, 5, report);
+    }
+
+    /**
+     * Binds the parameters of {@link #UPDATE_SQL}, the data column is written with the given codec.
+     */
+    static void bindUpdate(PreparedStatement statement, Report report, ReportCodec codec) throws SQLException {
+        statement.setString(1, report.getReportedPlayer());
+        statement.setString(2, report.getReporter());
+        statement.setString(3, codec.encodeToString(report));
+        int next = bindStructured(statement, 4, report);
+        statement.setString(next, report.getReportId());
+    }
+
+    /**
+     * Reads a row selected with {@link #SUMMARY_COLUMNS}.
+     */
+    static ReportSummary readSummary(ResultSet resultSet) throws SQLException {
+        return new ReportSummary(resultSet.getString("report_id"), resultSet.getString("reported_player"),
+                resultSet.getString("reporter"), resultSet.getString("reason"),
+                ReportStatus.fromStorage(resultSet.getString("status")), resultSet.getLong("report_timestamp"));
+    }
+
+    /**
+     * Binds the structured and summary columns in table order starting at the given parameter index.
+     *
+     * @return the index of the next parameter
+     */
+    static int bindStructured(PreparedStatement statement, int index, Report report) throws SQLException {
+        statement.setString(index++, key(report.getReportedPlayer()));
+        statement.setString(index++, key(report.getReporter()));
+        statement.setString(index++, report.getStatus().name());
+        statement.setLong(index++, report.getTimestamp());
+        statement.setString(index++, report.getServerName());
+        statement.setString(index++, report.getWorldName());
+        for (double coordinate : new double[]{report.getLocationX(), report.getLocationY(), report.getLocationZ()}) {
+            if (report.hasCoordinates()) {
+                statement.setDouble(index++, coordinate);
+            } else {
+                statement.setNull(index++, Types.DOUBLE);
+            }
+        }
+        // Never null once written, so the backfill can tell rows without it apart
+        statement.setString(index++, report.getReason() == null ? "" : report.getReason());
+        return index;
+    }
+
+    /**
+     * Normalizes a player name for the {@code *_key} columns.
+     */
+    static String key(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+}
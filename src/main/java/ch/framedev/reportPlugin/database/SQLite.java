@@ -14,6 +14,9 @@ package ch.framedev.reportPlugin.database;
 import ch.framedev.reportPlugin.main.ReportPlugin;
 
 import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 @SuppressWarnings("unused")
@@ -21,10 +24,19 @@ public class SQLite {
 
     private String path;
     private String databaseName;
+    private final PoolSettings poolSettings;
+    // Created on first use, written under poolLock and read without it
+    private volatile ConnectionPool pool;
+    private final ReentrantLock poolLock = new ReentrantLock();
 
     public SQLite(String path, String databaseName) {
+        this(path, databaseName, PoolSettings.embeddedDefaults(1));
+    }
+
+    public SQLite(String path, String databaseName, PoolSettings poolSettings) {
         this.path = path;
         this.databaseName = databaseName;
+        this.poolSettings = poolSettings;
     }
 
     public String getPath() {
@@ -48,21 +60,64 @@ public class SQLite {
     }
 
     /**
-     * Establishes and returns a connection to the SQLite database.
+     * Borrows a connection to the SQLite database from the connection pool.
+     * Closing the returned connection hands it back to the pool.
      *
      * @return A Connection object if the connection is successful, null otherwise.
      */
     public Connection connect() {
         try {
-            Class.forName("org.sqlite.JDBC");
-            return java.sql.DriverManager.getConnection(getDatabaseUrl());
+            return getPool().borrow();
         } catch (ClassNotFoundException e) {
             System.err.println("SQLite JDBC driver not found.");
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "SQLite JDBC driver not found. Please ensure the SQLite JDBC library is included in your project dependencies.", e);
-        } catch (java.sql.SQLException e) {
+        } catch (SQLException e) {
             System.err.println("Failed to connect to SQLite database.");
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to connect to SQLite database at " + getDatabaseUrl(), e);
         }
         return null;
     }
+
+    /**
+     * Returns the connection pool and creates it on first use.
+     */
+    private ConnectionPool getPool() throws ClassNotFoundException {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        poolLock.lock();
+        try {
+            if (pool == null) {
+                Class.forName("org.sqlite.JDBC");
+                pool = new ConnectionPool("sqlite", () -> DriverManager.getConnection(getDatabaseUrl()), poolSettings);
+            }
+            return pool;
+        } finally {
+            poolLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the statistics of the connection pool or null if no connection was opened yet.
+     */
+    public PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Closes all pooled connections.
+     */
+    public void close() {
+        poolLock.lock();
+        try {
+            if (pool != null) {
+                pool.close();
+                pool = null;
+            }
+        } finally {
+            poolLock.unlock();
+        }
+    }
 }
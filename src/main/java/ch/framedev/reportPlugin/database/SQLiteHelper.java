@@ -12,10 +12,15 @@ package ch.framedev.reportPlugin.database;
  */
 
 import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
 import ch.framedev.reportPlugin.main.ReportPlugin;
-import com.google.gson.Gson;
 
 import java.sql.Connection;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -23,6 +28,9 @@ import java.util.logging.Level;
 public class SQLiteHelper implements DatabaseHelper {
 
     private final SQLite sqLite;
+    private final SchemaMigrator schemaMigrator;
+    private final ReportCodec codec;
+    private final UpdateHistoryCodec historyCodec;
 
     /**
      * Initializes the SQLiteHelper with the specified ReportPlugin instance.
@@ -33,7 +41,12 @@ public class SQLiteHelper implements DatabaseHelper {
     public SQLiteHelper(ReportPlugin plugin) {
         String path = plugin.getConfig().getString("sqlite.path", plugin.getDataFolder() + "database");
         String databaseName = plugin.getConfig().getString("sqlite.database", "reports.db");
-        this.sqLite = new SQLite(path, databaseName);
+        // SQLite only supports a single writer, so the pool defaults to one connection
+        PoolSettings poolSettings = PoolSettings.fromConfig(plugin.getConfig(), "sqlite", PoolSettings.embeddedDefaults(1));
+        this.sqLite = new SQLite(path, databaseName, poolSettings);
+        this.schemaMigrator = new SchemaMigrator("SQLite", SqlDialect.SQLITE, sqLite::connect);
+        this.codec = ReportCodecs.fromConfig(plugin.getConfig(), "sqlite");
+        this.historyCodec = new UpdateHistoryCodec(plugin.getConfig().getInt("update-history.keyframe-interval", 10));
         plugin.getLogger().info("Connecting to SQLite database at " + sqLite.getPath() + " with database " + sqLite.getDatabaseName());
         plugin.getLogger().info("Creating reports table...");
         createTable();
@@ -41,49 +54,60 @@ public class SQLiteHelper implements DatabaseHelper {
     }
 
     /**
-     * Creates the reports table in the SQLite database if it does not already exist.
-     * The table includes columns for id, report_id, reported_player, reporter, and data.
+     * Creates the reports table in the SQLite database if it does not already exist and
+     * upgrades it to the current schema version, see {@link SchemaMigrator}.
+     * The update history table is created here once instead of before every history access.
      */
     public void createTable() {
+        schemaMigrator.migrate();
+        createUpdateHistoryTable();
+    }
+
+    /**
+     * Inserts a new report into the reports table.
+     *
+     * @param report The Report object to be inserted into the database.
+     */
+    public void insertReport(Report report) {
         try (Connection connection = sqLite.connect()) {
             if (connection != null) {
-                String sql = "CREATE TABLE IF NOT EXISTS reports (" +
-                             "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                             "report_id TEXT NOT NULL UNIQUE, " +
-                             "reported_player TEXT NOT NULL, " +
-                             "reporter TEXT NOT NULL, " +
-                             "data TEXT NOT NULL" +
-                             ")";
-                connection.createStatement().executeUpdate(sql);
+                var preparedStatement = connection.prepareStatement(ReportTable.INSERT_SQL);
+                ReportTable.bindInsert(preparedStatement, report, codec);
+                preparedStatement.executeUpdate();
             } else {
                 System.err.println("Failed to connect to the database.");
             }
         } catch (Exception ex) {
-            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error creating reports table", ex);
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error inserting report", ex);
         }
     }
 
     /**
-     * Inserts a new report into the reports table.
+     * Inserts several reports in a single transaction using a JDBC batch.
      *
-     * @param report The Report object to be inserted into the database.
+     * @param reports The reports to insert.
+     * @return false if the batch was rolled back.
      */
-    public void insertReport(Report report) {
+    @Override
+    public boolean insertReports(List<Report> reports) {
         try (Connection connection = sqLite.connect()) {
             if (connection != null) {
-                String sql = "INSERT INTO reports (report_id, reported_player, reporter, data) VALUES (?, ?, ?, ?)";
-                var preparedStatement = connection.prepareStatement(sql);
-                preparedStatement.setString(1, report.getReportId());
-                preparedStatement.setString(2, report.getReportedPlayer());
-                preparedStatement.setString(3, report.getReporter());
-                preparedStatement.setString(4, report.toJson());
-                preparedStatement.executeUpdate();
+                connection.setAutoCommit(false);
+                var preparedStatement = connection.prepareStatement(ReportTable.INSERT_SQL);
+                for (Report report : reports) {
+                    ReportTable.bindInsert(preparedStatement, report, codec);
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                connection.commit();
+                return true;
             } else {
                 System.err.println("Failed to connect to the database.");
             }
         } catch (Exception ex) {
-            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error inserting report", ex);
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error inserting " + reports.size() + " reports", ex);
         }
+        return false;
     }
 
     /**
@@ -159,7 +183,7 @@ public class SQLiteHelper implements DatabaseHelper {
                 List<Report> reports = new java.util.ArrayList<>();
                 while (resultSet.next()) {
                     String data = resultSet.getString("data");
-                    reports.add(new Gson().fromJson(data, Report.class));
+                    reports.add(ReportCodecs.decode(data));
                 }
                 return reports;
             } else {
@@ -180,7 +204,7 @@ public class SQLiteHelper implements DatabaseHelper {
                 var resultSet = preparedStatement.executeQuery();
                 if (resultSet.next()) {
                     String data = resultSet.getString("data");
-                    return new Gson().fromJson(data, Report.class);
+                    return ReportCodecs.decode(data);
                 }
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -200,7 +224,7 @@ public class SQLiteHelper implements DatabaseHelper {
                 var resultSet = preparedStatement.executeQuery();
                 if (resultSet.next()) {
                     String data = resultSet.getString("data");
-                    return new Gson().fromJson(data, Report.class);
+                    return ReportCodecs.decode(data);
                 }
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -220,7 +244,7 @@ public class SQLiteHelper implements DatabaseHelper {
                 var resultSet = preparedStatement.executeQuery();
                 if (resultSet.next()) {
                     String data = resultSet.getString("data");
-                    return new Gson().fromJson(data, Report.class);
+                    return ReportCodecs.decode(data);
                 }
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -231,6 +255,20 @@ public class SQLiteHelper implements DatabaseHelper {
         return null;
     }
 
+    @Override
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        try (Connection connection = sqLite.connect()) {
+            if (connection != null) {
+                return ReportTable.selectByIds(connection, reportIds);
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error retrieving reports by ID", ex);
+        }
+        return new HashMap<>();
+    }
+
     @Override
     public Report getReportByReportedPlayer(String reportedPlayer) {
         return getReportByPlayer(reportedPlayer);
@@ -239,12 +277,8 @@ public class SQLiteHelper implements DatabaseHelper {
     public void updateReport(Report report) {
         try (Connection connection = sqLite.connect()) {
             if (connection != null) {
-                String sql = "UPDATE reports SET reported_player = ?, reporter = ?, data = ? WHERE report_id = ?";
-                var preparedStatement = connection.prepareStatement(sql);
-                preparedStatement.setString(1, report.getReportedPlayer());
-                preparedStatement.setString(2, report.getReporter());
-                preparedStatement.setString(3, report.toJson());
-                preparedStatement.setString(4, report.getReportId());
+                var preparedStatement = connection.prepareStatement(ReportTable.UPDATE_SQL);
+                ReportTable.bindUpdate(preparedStatement, report, codec);
                 preparedStatement.executeUpdate();
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -271,6 +305,122 @@ public class SQLiteHelper implements DatabaseHelper {
         return false;
     }
 
+    @Override
+    public List<Report> findReports(ReportQuery query) {
+        SqlReportQuery sqlQuery = SqlReportQuery.select(query, "data", schemaMigrator.isStructured());
+        try (Connection connection = sqLite.connect()) {
+            if (connection != null) {
+                var preparedStatement = sqlQuery.prepare(connection);
+                var resultSet = preparedStatement.executeQuery();
+                List<Report> reports = new java.util.ArrayList<>();
+                while (resultSet.next()) {
+                    reports.add(ReportCodecs.decode(resultSet.getString("data")));
+                }
+                return sqlQuery.finish(reports);
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error finding reports for " + query, ex);
+        }
+        return java.util.Collections.emptyList();
+    }
+
+    /**
+     * Reads only the summary columns once they are backfilled, otherwise the summaries are built from {@code data}.
+     */
+    @Override
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        if (!schemaMigrator.isSummarized()) {
+            return DatabaseHelper.super.findReportSummaries(query);
+        }
+        SqlReportQuery sqlQuery = SqlReportQuery.select(query, ReportTable.SUMMARY_COLUMNS, true);
+        try (Connection connection = sqLite.connect()) {
+            if (connection != null) {
+                var preparedStatement = sqlQuery.prepare(connection);
+                var resultSet = preparedStatement.executeQuery();
+                List<ReportSummary> summaries = new java.util.ArrayList<>();
+                while (resultSet.next()) {
+                    summaries.add(ReportTable.readSummary(resultSet));
+                }
+                return summaries;
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error finding report summaries for " + query, ex);
+        }
+        return java.util.Collections.emptyList();
+    }
+
+    /**
+     * Reads the matching reports through a cursor that holds a pooled connection until it is closed.
+     * Until the backfill has finished, sorted queries filtering on status or timestamp are buffered instead.
+     * SQLite uses a single pooled connection, other database calls wait until the cursor is closed.
+     */
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        SqlReportQuery sqlQuery = SqlReportQuery.select(query, "data", schemaMigrator.isStructured());
+        if (!sqlQuery.isStreamable()) {
+            return DatabaseHelper.super.iterateReports(query);
+        }
+        Connection connection = sqLite.connect();
+        if (connection == null) {
+            System.err.println("Failed to connect to the database.");
+            return CloseableIterator.empty();
+        }
+        try {
+            return SqlReportCursor.open(connection, SqlDialect.SQLITE, sqlQuery);
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error streaming reports for " + query, ex);
+        }
+        return CloseableIterator.empty();
+    }
+
+    @Override
+    public int countReports(ReportQuery query) {
+        if (!schemaMigrator.isStructured()) {
+            // Status and timestamp can not be counted by the database until the backfill has finished, count while streaming
+            return DatabaseHelper.super.countReports(query);
+        }
+        try (Connection connection = sqLite.connect()) {
+            if (connection != null) {
+                var preparedStatement = SqlReportQuery.count(query).prepare(connection);
+                var resultSet = preparedStatement.executeQuery();
+                if (resultSet.next()) {
+                    return resultSet.getInt(1);
+                }
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error counting reports for " + query, ex);
+        }
+        return 0;
+    }
+
+    @Override
+    public Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        if (!schemaMigrator.isStructured()) {
+            return DatabaseHelper.super.countReportsByStatus(query);
+        }
+        Map<ReportStatus, Integer> counts = ReportQuery.emptyStatusCounts();
+        try (Connection connection = sqLite.connect()) {
+            if (connection != null) {
+                var preparedStatement = SqlReportQuery.countByStatus(query).prepare(connection);
+                var resultSet = preparedStatement.executeQuery();
+                while (resultSet.next()) {
+                    counts.merge(ReportStatus.fromStorage(resultSet.getString(1)), resultSet.getInt(2), Integer::sum);
+                }
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error counting reports by status for " + query, ex);
+        }
+        return counts;
+    }
+
     @Override
     public boolean connect() {
         try(Connection connection = sqLite.connect()) {
@@ -283,21 +433,28 @@ public class SQLiteHelper implements DatabaseHelper {
 
     @Override
     public void disconnect() {
-        // SQLite connections are typically closed after each operation.
-        // If you maintain a persistent connection, implement the logic to close it here.
+        schemaMigrator.stop();
+        sqLite.close();
+    }
+
+    @Override
+    public PoolStats getPoolStats() {
+        return sqLite.getPoolStats();
     }
 
     private void createUpdateHistoryTable() {
         try (Connection connection = sqLite.connect()) {
             if (connection != null) {
+                SqlDialect dialect = SqlDialect.SQLITE;
                 String sql = "CREATE TABLE IF NOT EXISTS update_history (" +
-                             "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
-                             "report_id TEXT NOT NULL, " +
-                             "updated_at TEXT NOT NULL, " +
+                             dialect.autoIncrementPrimaryKey() + ", " +
+                             "report_id " + dialect.varchar(255) + " NOT NULL, " +
+                             "updated_at " + dialect.varchar(64) + " NOT NULL, " +
                              "update_data TEXT NOT NULL, " +
                              "FOREIGN KEY(report_id) REFERENCES reports(report_id)" +
                              ")";
                 connection.createStatement().executeUpdate(sql);
+                schemaMigrator.createIndexIfMissing(connection, "update_history", "idx_update_history_report", "report_id");
             } else {
                 System.err.println("Failed to connect to the database.");
             }
@@ -308,40 +465,68 @@ public class SQLiteHelper implements DatabaseHelper {
 
     @Override
     public boolean writeToUpdateHistory(Report report, String updater) {
-        createUpdateHistoryTable();
+        UpdateHistoryCodec.Batch batch = historyCodec.batch();
         try (Connection connection = sqLite.connect()) {
             if (connection != null) {
                 String sql = "INSERT INTO update_history (report_id, updated_at, update_data) VALUES (?, ?, ?)";
                 var preparedStatement = connection.prepareStatement(sql);
                 preparedStatement.setString(1, report.getReportId());
                 preparedStatement.setString(2, java.time.Instant.now().toString());
-                preparedStatement.setString(3, report.toJson());
+                preparedStatement.setString(3, batch.encode(report).toJson());
                 preparedStatement.executeUpdate();
+                batch.commit();
                 return true;
             } else {
                 System.err.println("Failed to connect to the database.");
             }
         } catch (Exception ex) {
+            batch.discard();
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error writing to update history", ex);
         }
         return false;
     }
 
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        UpdateHistoryCodec.Batch batch = historyCodec.batch();
+        try (Connection connection = sqLite.connect()) {
+            if (connection != null) {
+                connection.setAutoCommit(false);
+                String sql = "INSERT INTO update_history (report_id, updated_at, update_data) VALUES (?, ?, ?)";
+                var preparedStatement = connection.prepareStatement(sql);
+                for (UpdateHistoryEntry entry : entries) {
+                    preparedStatement.setString(1, entry.report().getReportId());
+                    preparedStatement.setString(2, java.time.Instant.ofEpochMilli(entry.timestamp()).toString());
+                    preparedStatement.setString(3, batch.encode(entry.report()).toJson());
+                    preparedStatement.addBatch();
+                }
+                preparedStatement.executeBatch();
+                connection.commit();
+                batch.commit();
+                return true;
+            } else {
+                System.err.println("Failed to connect to the database.");
+            }
+        } catch (Exception ex) {
+            batch.discard();
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error writing " + entries.size() + " update history entries", ex);
+        }
+        return false;
+    }
+
     @Override
     public Map<String, Report> getUpdateHistory(Report report) {
-        createUpdateHistoryTable();
-        Map<String, Report> history = new java.util.HashMap<>();
+        List<Map.Entry<String, String>> entries = new ArrayList<>();
         try (Connection connection = sqLite.connect()) {
             if (connection != null) {
-                String sql = "SELECT updated_at, update_data FROM update_history WHERE report_id = ?";
+                String sql = "SELECT updated_at, update_data FROM update_history WHERE report_id = ? ORDER BY id";
                 var preparedStatement = connection.prepareStatement(sql);
                 preparedStatement.setString(1, report.getReportId());
                 var resultSet = preparedStatement.executeQuery();
                 while (resultSet.next()) {
                     String updatedAt = resultSet.getString("updated_at");
                     String data = resultSet.getString("update_data");
-                    Report historicalReport = new Gson().fromJson(data, Report.class);
-                    history.put(updatedAt, historicalReport);
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(updatedAt, data));
                 }
             } else {
                 System.err.println("Failed to connect to the database.");
@@ -349,12 +534,12 @@ public class SQLiteHelper implements DatabaseHelper {
         } catch (Exception ex) {
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error retrieving update history", ex);
         }
-        return history;
+        return UpdateHistoryCodec.decodeJson(entries, report);
     }
 
     @Override
     public boolean clearUpdateHistory(Report report) {
-        createUpdateHistoryTable();
+        historyCodec.forget(report.getReportId());
         try (Connection connection = sqLite.connect()) {
             if (connection != null) {
                 String sql = "DELETE FROM update_history WHERE report_id = ?";
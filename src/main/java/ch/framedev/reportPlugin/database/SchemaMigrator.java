@@ -0,0 +1,332 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 13:20
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Versions the {@code reports} table of the SQL backends.
+ * <p>
+ * The applied version is stored in {@code report_schema_version}:
+ * <ol>
+ *     <li>the original table with the report serialized in {@code data}</li>
+ *     <li>structured columns and composite indexes, see {@link ReportTable}</li>
+ *     <li>existing rows have been backfilled from {@code data}</li>
+ *     <li>the {@code reason} summary column has been added and backfilled</li>
+ * </ol>
+ * Versions 1 and 2 and the column of version 4 only change the table definition and are applied while the plugin starts.
+ * The backfill runs in the background in small batches so a large table does not delay startup.
+ * Rows written by the plugin in the meantime already carry the structured columns, and a row is only
+ * backfilled while {@code report_timestamp} or {@code reason} is still empty, so an interrupted backfill simply
+ * resumes on the next start. Until it has finished {@link #isStructured()} returns false and queries fall back
+ * to evaluating status and timestamp in memory, and {@link #isSummarized()} returns false and summaries are
+ * read from {@code data}.
+ */
+public class SchemaMigrator {
+
+    public static final int CURRENT_VERSION = 4;
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    // Short pause between batches so regular database work is not starved during the backfill
+    private static final long BACKFILL_PAUSE_MILLIS = 50L;
+    // Rows missing a column of version 3 or 4
+    private static final String BACKFILL_PENDING = "report_timestamp IS NULL OR reason IS NULL";
+
+    private final String name;
+    private final SqlDialect dialect;
+    private final Supplier<Connection> connections;
+
+    private volatile boolean structured;
+    private volatile boolean summarized;
+    private volatile boolean stopped;
+    private Thread backfillThread;
+
+    /**
+     * @param name        backend name used in log messages
+     * @param dialect     the DDL dialect of the backend
+     * @param connections borrows a connection, returning null if the database is unavailable
+     */
+    public SchemaMigrator(String name, SqlDialect dialect, Supplier<Connection> connections) {
+        this.name = name;
+        this.dialect = dialect;
+        this.connections = connections;
+    }
+
+    /**
+     * Creates or upgrades the reports table and starts the backfill if it has not finished yet.
+     */
+    public void migrate() {
+        int version;
+        try (Connection connection = connections.get()) {
+            if (connection == null) {
+                logger().severe("Failed to connect to the database, the " + name + " schema could not be migrated.");
+                return;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS report_schema_version (version INTEGER NOT NULL)");
+            }
+            version = readVersion(connection);
+            if (version < 1) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(ReportTable.createTableSql(dialect));
+                }
+                version = writeVersion(connection, 1);
+            }
+            if (version < 2) {
+                Set<String> existing = columns(connection, "reports");
+                for (String[] column : ReportTable.structuredColumns(dialect)) {
+                    if (!existing.contains(column[0])) {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.executeUpdate("ALTER TABLE reports ADD COLUMN " + column[0] + " " + column[1]);
+                        }
+                    }
+                }
+                for (String[] index : ReportTable.indexes()) {
+                    createIndexIfMissing(connection, "reports", index[0], index[1]);
+                }
+                version = writeVersion(connection, 2);
+                logger().info("Upgraded " + name + " reports table to schema version 2.");
+            }
+            if (version < 4) {
+                // The version is only written once the backfill has filled the column
+                Set<String> existing = columns(connection, "reports");
+                for (String[] column : ReportTable.summaryColumns()) {
+                    if (!existing.contains(column[0])) {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.executeUpdate("ALTER TABLE reports ADD COLUMN " + column[0] + " " + column[1]);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            logger().log(Level.SEVERE, "Error migrating the " + name + " reports table", ex);
+            return;
+        }
+
+        // Rows backfilled by version 3 keep their structured columns while the summary column is filled
+        structured = version >= 3;
+        if (version >= CURRENT_VERSION) {
+            summarized = true;
+            return;
+        }
+        startBackfill();
+    }
+
+    /**
+     * @return true once every row has its structured columns filled and queries may rely on them
+     */
+    public boolean isStructured() {
+        return structured;
+    }
+
+    /**
+     * @return true once every row has its summary columns filled, see {@link ReportTable#SUMMARY_COLUMNS}
+     */
+    public boolean isSummarized() {
+        return summarized;
+    }
+
+    /**
+     * Stops a running backfill. It continues with the remaining rows on the next start.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        if (backfillThread != null) {
+            backfillThread.interrupt();
+            try {
+                backfillThread.join(5000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            backfillThread = null;
+        }
+    }
+
+    /**
+     * Creates an index unless an index with the same name already exists on the table.
+     */
+    void createIndexIfMissing(Connection connection, String table, String index, String columns) throws SQLException {
+        if (indexes(connection, table).contains(index.toLowerCase(Locale.ROOT))) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE INDEX " + index + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    private synchronized void startBackfill() {
+        if (stopped) {
+            return;
+        }
+        backfillThread = Thread.ofVirtual().name("ReportPlugin-" + name + "-backfill").start(this::backfill);
+    }
+
+    private void backfill() {
+        logger().info("Backfilling structured report columns for " + name + " in the background...");
+        long total = 0;
+        try {
+            while (!stopped) {
+                int processed = backfillBatch();
+                total += processed;
+                if (processed < BACKFILL_BATCH_SIZE) {
+                    break;
+                }
+                Thread.sleep(BACKFILL_PAUSE_MILLIS);
+            }
+            if (stopped) {
+                return;
+            }
+            try (Connection connection = connections.get()) {
+                if (connection == null) {
+                    return;
+                }
+                writeVersion(connection, CURRENT_VERSION);
+            }
+            structured = true;
+            summarized = true;
+            logger().info("Backfilled " + total + " reports, " + name + " reports table is at schema version " + CURRENT_VERSION + ".");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException ex) {
+            if (!stopped) {
+                logger().log(Level.WARNING,
+                        "Backfill of the " + name + " reports table failed after " + total + " reports, it will resume on the next start", ex);
+            }
+        }
+    }
+
+    /**
+     * Fills the structured columns of the next batch of rows.
+     *
+     * @return the number of rows read
+     */
+    private int backfillBatch() throws SQLException {
+        try (Connection connection = connections.get()) {
+            if (connection == null) {
+                throw new SQLException("No connection available for the " + name + " backfill.");
+            }
+            List<Object[]> rows = new ArrayList<>();
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT id, reported_player, reporter, data FROM reports WHERE " + BACKFILL_PENDING + " ORDER BY id LIMIT ?")) {
+                select.setInt(1, BACKFILL_BATCH_SIZE);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.add(new Object[]{resultSet.getLong("id"), resultSet.getString("reported_player"),
+                                resultSet.getString("reporter"), resultSet.getString("data")});
+                    }
+                }
+            }
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            connection.setAutoCommit(false);
+            // Rows written since the select already have their columns set and are left untouched
+            try (PreparedStatement update = connection.prepareStatement(
+                    ReportTable.BACKFILL_SQL + " AND (" + BACKFILL_PENDING + ")")) {
+                for (Object[] row : rows) {
+                    Report report = parse((String) row[3]);
+                    if (report == null) {
+                        // Keep unreadable rows findable by player and stop them from being selected again
+                        report = new Report();
+                        report.setReportedPlayer((String) row[1]);
+                        report.setReporter((String) row[2]);
+                    }
+                    int next = ReportTable.bindStructured(update, 1, report);
+                    update.setLong(next, (Long) row[0]);
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+            connection.commit();
+            return rows.size();
+        }
+    }
+
+    private Report parse(String data) {
+        try {
+            return ReportCodecs.decode(data);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private int readVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT MAX(version) FROM report_schema_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private int writeVersion(Connection connection, int version) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO report_schema_version (version) VALUES (?)")) {
+            statement.setInt(1, version);
+            statement.executeUpdate();
+        }
+        return version;
+    }
+
+    /**
+     * @return the lower-cased column names of the table
+     */
+    private Set<String> columns(Connection connection, String table) throws SQLException {
+        Set<String> names = new HashSet<>();
+        DatabaseMetaData metaData = connection.getMetaData();
+        // Unquoted identifiers are stored upper-case by H2 and lower-case by PostgreSQL
+        for (String tableName : Set.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet resultSet = metaData.getColumns(connection.getCatalog(), null, tableName, null)) {
+                while (resultSet.next()) {
+                    names.add(resultSet.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return the lower-cased index names of the table
+     */
+    private Set<String> indexes(Connection connection, String table) throws SQLException {
+        Set<String> names = new HashSet<>();
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String tableName : Set.of(table, table.toUpperCase(Locale.ROOT))) {
+            try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), null, tableName, false, true)) {
+                while (resultSet.next()) {
+                    String indexName = resultSet.getString("INDEX_NAME");
+                    if (indexName != null) {
+                        names.add(indexName.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(SchemaMigrator.class.getName());
+    }
+}
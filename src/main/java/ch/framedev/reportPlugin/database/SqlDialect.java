@@ -0,0 +1,74 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 13:05
+ */
+
+/**
+ * The DDL and driver differences between the SQL backends.
+ * Everything else the helpers use (DML, LIMIT/OFFSET) is shared by all of them.
+ */
+public enum SqlDialect {
+    // Connector/J only streams rows one by one with a fetch size of Integer.MIN_VALUE,
+    // any other value buffers the whole result unless useCursorFetch is set
+    MYSQL("id INT AUTO_INCREMENT PRIMARY KEY", "VARCHAR(%d)", "DOUBLE", Integer.MIN_VALUE, false),
+    // The PostgreSQL driver ignores the fetch size in auto-commit mode
+    POSTGRESQL("id SERIAL PRIMARY KEY", "VARCHAR(%d)", "DOUBLE PRECISION", 500, true),
+    SQLITE("id INTEGER PRIMARY KEY AUTOINCREMENT", "TEXT", "REAL", 500, false),
+    H2("id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY", "VARCHAR(%d)", "DOUBLE PRECISION", 500, false);
+
+    private final String autoIncrementPrimaryKey;
+    private final String varcharType;
+    private final String doubleType;
+    private final int cursorFetchSize;
+    private final boolean cursorRequiresTransaction;
+
+    SqlDialect(String autoIncrementPrimaryKey, String varcharType, String doubleType,
+               int cursorFetchSize, boolean cursorRequiresTransaction) {
+        this.autoIncrementPrimaryKey = autoIncrementPrimaryKey;
+        this.varcharType = varcharType;
+        this.doubleType = doubleType;
+        this.cursorFetchSize = cursorFetchSize;
+        this.cursorRequiresTransaction = cursorRequiresTransaction;
+    }
+
+    /**
+     * @return the column definition of an auto incremented integer primary key named {@code id}
+     */
+    public String autoIncrementPrimaryKey() {
+        return autoIncrementPrimaryKey;
+    }
+
+    /**
+     * Returns a bounded string type that can be indexed.
+     * Large text types (TEXT in MySQL, CLOB in H2) can not be used in indexes or unique constraints.
+     *
+     * @param length the maximum length
+     */
+    public String varchar(int length) {
+        return varcharType.formatted(length);
+    }
+
+    public String doubleType() {
+        return doubleType;
+    }
+
+    /**
+     * @return the fetch size that makes the driver read a result in chunks instead of buffering it
+     */
+    public int cursorFetchSize() {
+        return cursorFetchSize;
+    }
+
+    /**
+     * @return true if auto-commit has to be disabled for the driver to honour the fetch size
+     */
+    public boolean cursorRequiresTransaction() {
+        return cursorRequiresTransaction;
+    }
+}
@@ -0,0 +1,122 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 14:50
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+
+/**
+ * Reads the reports of a {@link SqlReportQuery} row by row from a JDBC cursor.
+ * <p>
+ * The cursor owns the connection until it is closed, so only the rows of the current fetch are held in memory.
+ * Rows the database could not filter are checked with {@link SqlReportQuery#accepts(Report)} while reading.
+ */
+final class SqlReportCursor implements CloseableIterator<Report> {
+
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final SqlReportQuery query;
+
+    private Report next;
+    private boolean closed;
+
+    private SqlReportCursor(Connection connection, PreparedStatement statement, ResultSet resultSet, SqlReportQuery query) {
+        this.connection = connection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.query = query;
+    }
+
+    /**
+     * Executes the query on the given connection. The connection is closed when the cursor is closed,
+     * or right away if the query fails.
+     *
+     * @param connection a connection borrowed for the lifetime of the cursor
+     * @param dialect    the dialect of the backend
+     * @param query      a streamable query, see {@link SqlReportQuery#isStreamable()}
+     */
+    static SqlReportCursor open(Connection connection, SqlDialect dialect, SqlReportQuery query) throws SQLException {
+        PreparedStatement statement = null;
+        try {
+            statement = query.prepareCursor(connection, dialect);
+            return new SqlReportCursor(connection, statement, statement.executeQuery(), query);
+        } catch (SQLException | RuntimeException ex) {
+            if (statement != null) {
+                statement.close();
+            }
+            connection.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            while (resultSet.next()) {
+                Report report = parse(resultSet.getString("data"));
+                if (query.accepts(report)) {
+                    next = report;
+                    return true;
+                }
+            }
+        } catch (SQLException ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Error reading reports from the database", ex);
+        }
+        // Release the connection as soon as the last row was read
+        close();
+        return false;
+    }
+
+    @Override
+    public Report next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Report report = next;
+        next = null;
+        return report;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try (connection; statement; resultSet) {
+            // Closing in reverse order releases the cursor before the connection goes back to the pool
+        } catch (SQLException ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.WARNING, "Error closing report cursor", ex);
+        }
+    }
+
+    private Report parse(String data) {
+        try {
+            return ReportCodecs.decode(data);
+        } catch (IllegalArgumentException ex) {
+            ReportPlugin.getInstance().getLogger().log(Level.WARNING, "Skipping unreadable report row", ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 12:20
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates a {@link ReportQuery} into SQL for the reports table shared by the SQL backends.
+ * <p>
+ * Once the structured columns of {@link ReportTable} are populated the whole query is evaluated by the
+ * database using the composite indexes. Before that, only the player filters are evaluated by the database
+ * and criteria that depend on values stored inside the serialized {@code data} column (status and timestamp)
+ * are applied in memory on the already narrowed rows, see {@link #finish(List)}.
+ * <p>
+ * A keyset cursor ({@link ReportQuery#getAfter()}) becomes a seek condition on the sort columns, so the
+ * database starts reading at the cursor in the index instead of skipping every row before it.
+ */
+final class SqlReportQuery {
+
+    private final ReportQuery query;
+    private final String sql;
+    private final List<Object> parameters;
+    private final boolean ordered;
+    private final boolean complete;
+
+    private SqlReportQuery(ReportQuery query, String sql, List<Object> parameters, boolean ordered, boolean complete) {
+        this.query = query;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.ordered = ordered;
+        this.complete = complete;
+    }
+
+    /**
+     * Builds the select statement for the given query.
+     *
+     * @param query      the query to translate
+     * @param columns    the selected columns, e.g. "data"
+     * @param structured whether the structured columns are populated for every row, see {@link SchemaMigrator#isStructured()}
+     * @return the translated query
+     */
+    static SqlReportQuery select(ReportQuery query, String columns, boolean structured) {
+        return structured ? selectStructured(query, columns) : selectLegacy(query, columns);
+    }
+
+    /**
+     * Builds a {@code COUNT(*)} statement for the filter criteria of the query.
+     * Requires the structured columns, see {@link SchemaMigrator#isStructured()}.
+     */
+    static SqlReportQuery count(ReportQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM reports" + structuredWhere(query, parameters);
+        return new SqlReportQuery(query, sql, parameters, true, true);
+    }
+
+    /**
+     * Builds a statement returning the status and the number of matching reports per status.
+     * Requires the structured columns, see {@link SchemaMigrator#isStructured()}.
+     */
+    static SqlReportQuery countByStatus(ReportQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT status, COUNT(*) FROM reports" + structuredWhere(query, parameters) + " GROUP BY status";
+        return new SqlReportQuery(query, sql, parameters, true, true);
+    }
+
+    private static SqlReportQuery selectStructured(ReportQuery query, String columns) {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM reports");
+        String where = structuredWhere(query, parameters);
+        sql.append(where);
+        if (query.hasCursor()) {
+            sql.append(where.isEmpty() ? " WHERE " : " AND ").append(keysetCondition(query, parameters));
+        }
+
+        String direction = query.isDescending() ? "DESC" : "ASC";
+        switch (query.getSortKey()) {
+            case TIMESTAMP -> sql.append(" ORDER BY report_timestamp ").append(direction);
+            case REPORTED_PLAYER -> sql.append(" ORDER BY reported_player_key ").append(direction).append(", report_timestamp DESC");
+            case REPORTER -> sql.append(" ORDER BY reporter_key ").append(direction).append(", report_timestamp DESC");
+            case STATUS -> sql.append(" ORDER BY status ").append(direction).append(", report_timestamp DESC");
+            case UNSORTED -> {
+                // Storage order, lets the database return rows without sorting them first
+            }
+        }
+        if (query.getSortKey() != ReportQuery.SortKey.UNSORTED) {
+            sql.append(", report_id ASC");
+        }
+        appendPaging(query, sql, parameters);
+        return new SqlReportQuery(query, sql.toString(), parameters, true, true);
+    }
+
+    private static String structuredWhere(ReportQuery query, List<Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (query.getReportedPlayer() != null) {
+            conditions.add("reported_player_key = ?");
+            parameters.add(ReportTable.key(query.getReportedPlayer()));
+        }
+        if (query.getReporter() != null) {
+            conditions.add("reporter_key = ?");
+            parameters.add(ReportTable.key(query.getReporter()));
+        }
+        if (query.hasStatusFilter()) {
+            List<String> placeholders = new ArrayList<>();
+            for (ReportStatus status : query.getStatuses()) {
+                placeholders.add("?");
+                parameters.add(status.name());
+            }
+            conditions.add("status IN (" + String.join(", ", placeholders) + ")");
+        }
+        if (query.getFrom() != null) {
+            conditions.add("report_timestamp >= ?");
+            parameters.add(query.getFrom());
+        }
+        if (query.getTo() != null) {
+            conditions.add("report_timestamp < ?");
+            parameters.add(query.getTo());
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * Rows after the cursor in the order of {@link #selectStructured(ReportQuery, String)}: the sort column,
+     * then the newest timestamp, then the report id.
+     */
+    private static String keysetCondition(ReportQuery query, List<Object> parameters) {
+        ReportSummary after = query.getAfter();
+        String comparison = query.isDescending() ? " < ?" : " > ?";
+        String tieBreak = "report_timestamp < ? OR (report_timestamp = ? AND report_id > ?)";
+        String column;
+        Object value;
+        switch (query.getSortKey()) {
+            case TIMESTAMP -> {
+                parameters.add(after.timestamp());
+                parameters.add(after.timestamp());
+                parameters.add(after.reportId() == null ? "" : after.reportId());
+                return "(report_timestamp" + comparison + " OR (report_timestamp = ? AND report_id > ?))";
+            }
+            case REPORTED_PLAYER -> {
+                column = "reported_player_key";
+                value = ReportTable.key(after.reportedPlayer() == null ? "" : after.reportedPlayer());
+            }
+            case REPORTER -> {
+                column = "reporter_key";
+                value = ReportTable.key(after.reporter() == null ? "" : after.reporter());
+            }
+            case STATUS -> {
+                column = "status";
+                value = after.status().name();
+            }
+            default -> throw new IllegalStateException("Unsorted queries have no cursor");
+        }
+        parameters.add(value);
+        parameters.add(value);
+        parameters.add(after.timestamp());
+        parameters.add(after.timestamp());
+        parameters.add(after.reportId() == null ? "" : after.reportId());
+        return "(" + column + comparison + " OR (" + column + " = ? AND (" + tieBreak + ")))";
+    }
+
+    private static SqlReportQuery selectLegacy(ReportQuery query, String columns) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM reports");
+        List<Object> parameters = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (query.getReportedPlayer() != null) {
+            conditions.add("LOWER(reported_player) = LOWER(?)");
+            parameters.add(query.getReportedPlayer());
+        }
+        if (query.getReporter() != null) {
+            conditions.add("LOWER(reporter) = LOWER(?)");
+            parameters.add(query.getReporter());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        // Ordering and paging can only be done by the database if nothing is left to filter in memory
+        // and the sort key is a real column
+        boolean complete = !query.hasStatusFilter() && !query.hasTimeRange() && !query.hasCursor()
+                           && (query.getSortKey() == ReportQuery.SortKey.REPORTED_PLAYER
+                               || query.getSortKey() == ReportQuery.SortKey.REPORTER
+                               || query.getSortKey() == ReportQuery.SortKey.UNSORTED);
+        if (complete && query.getSortKey() == ReportQuery.SortKey.UNSORTED) {
+            appendPaging(query, sql, parameters);
+        } else if (complete) {
+            String column = query.getSortKey() == ReportQuery.SortKey.REPORTED_PLAYER ? "reported_player" : "reporter";
+            sql.append(" ORDER BY LOWER(").append(column).append(") ").append(query.isDescending() ? "DESC" : "ASC")
+                    .append(", report_id ASC");
+            appendPaging(query, sql, parameters);
+        }
+        return new SqlReportQuery(query, sql.toString(), parameters, false, complete);
+    }
+
+    private static void appendPaging(ReportQuery query, StringBuilder sql, List<Object> parameters) {
+        if (query.getLimit() > 0) {
+            sql.append(" LIMIT ?");
+            parameters.add(query.getLimit());
+        }
+        if (query.getOffset() > 0) {
+            if (query.getLimit() <= 0) {
+                // LIMIT is required before OFFSET by most dialects
+                sql.append(" LIMIT ?");
+                parameters.add(Integer.MAX_VALUE);
+            }
+            sql.append(" OFFSET ?");
+            parameters.add(query.getOffset());
+        }
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * Prepares the statement and binds all parameters.
+     */
+    PreparedStatement prepare(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+        return statement;
+    }
+
+    /**
+     * Prepares the statement for reading the rows through a cursor instead of buffering the whole result.
+     * The connection must not be used for anything else until the result set is closed.
+     *
+     * @param connection the connection to read with
+     * @param dialect    the dialect of the backend, see {@link SqlDialect#cursorFetchSize()}
+     */
+    PreparedStatement prepareCursor(Connection connection, SqlDialect dialect) throws SQLException {
+        if (dialect.cursorRequiresTransaction()) {
+            connection.setAutoCommit(false);
+        }
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(dialect.cursorFetchSize());
+        for (int i = 0; i < parameters.size(); i++) {
+            statement.setObject(i + 1, parameters.get(i));
+        }
+        return statement;
+    }
+
+    /**
+     * @return true if the rows can be returned one by one as they are read, see {@link #accepts(Report)}.
+     * Otherwise the rows have to be collected and passed to {@link #finish(List)}.
+     */
+    boolean isStreamable() {
+        return ordered || complete
+               || (query.getSortKey() == ReportQuery.SortKey.UNSORTED && query.getLimit() == 0 && query.getOffset() == 0);
+    }
+
+    /**
+     * Checks a single row of a streamable query against the criteria the database could not evaluate.
+     */
+    boolean accepts(Report report) {
+        return ordered || complete ? report != null : query.matches(report) && query.isAfterCursor(report);
+    }
+
+    /**
+     * Applies the part of the query the database could not evaluate.
+     *
+     * @param rows the decoded rows returned by the statement
+     * @return the final result
+     */
+    List<Report> finish(List<Report> rows) {
+        if (ordered) {
+            return rows;
+        }
+        if (complete) {
+            // The secondary timestamp order is not known to SQL yet, restore it within equal sort keys
+            List<Report> sorted = new ArrayList<>(rows);
+            sorted.sort(query.comparator());
+            return sorted;
+        }
+        return query.apply(rows);
+    }
+}
@@ -14,6 +14,9 @@ public class TextFileSystemHelper implements DatabaseHelper {
 
     private final File reportsDir;
     private final ReportPlugin plugin;
+    private final ParallelReportLoader loader;
+    // Append-only update history, one JSON Lines file per report
+    private final JsonLinesHistoryStore history;
 
     public TextFileSystemHelper(ReportPlugin plugin) {
         this.plugin = plugin;
@@ -21,10 +24,23 @@ public class TextFileSystemHelper implements DatabaseHelper {
         if (!reportsDir.exists() && !reportsDir.mkdirs()) {
             plugin.getLogger().log(Level.SEVERE, "Could not create reports directory at " + reportsDir.getAbsolutePath());
         }
+        // The text parser keeps no state, so the workers can share it
+        this.loader = new ParallelReportLoader("ReportPlugin-text-loader", plugin.getConfig().getInt("file-loader.threads", 0), () -> this::readReportFromFile);
+        this.history = new JsonLinesHistoryStore(new File(reportsDir, "history"), new JsonLinesHistoryStore.LegacyHistory() {
+            @Override
+            public File file(String reportId) {
+                return legacyHistoryFile(reportId);
+            }
+
+            @Override
+            public Map<String, Report> read(File file) {
+                return readUpdateHistory(file);
+            }
+        }, new UpdateHistoryCodec(plugin.getConfig().getInt("update-history.keyframe-interval", 10)));
         plugin.getLogger().info("TextFileSystemHelper initialized. Reports directory: " + reportsDir.getAbsolutePath());
     }
 
-    private void saveReportToFile(File target, Report report) {
+    private boolean saveReportToFile(File target, Report report) {
         StringBuilder data = new StringBuilder();
         data.append("reporter").append(report.getReporter()).append(";")
                 .append("reportId").append(report.getReportId()).append(";")
@@ -44,8 +60,10 @@ public class TextFileSystemHelper implements DatabaseHelper {
         // Write 'data' to the file at 'filePath'
         try (FileWriter writer = new FileWriter(target, false)) {
             writer.write(data.toString());
+            return true;
         } catch (Exception e) {
             ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to save report to file: " + e.getMessage(), e);
+            return false;
         }
     }
 
@@ -106,13 +124,29 @@ public class TextFileSystemHelper implements DatabaseHelper {
 
     @Override
     public void insertReport(Report report) {
+        saveNewReport(report);
+    }
+
+    /**
+     * Writes every report, false if any of them could not be written.
+     */
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        boolean written = true;
+        for (Report report : reports) {
+            written &= saveNewReport(report);
+        }
+        return written;
+    }
+
+    private boolean saveNewReport(Report report) {
         if(report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
             ReportPlugin.getInstance().getLogger().log(Level.WARNING, "Cannot insert null report or report with empty ID.");
-            return;
+            return false;
         }
         String reportId = report.getReportId();
         File reportFile = new File(reportsDir, reportId + ".txt");
-        saveReportToFile(reportFile, report);
+        return saveReportToFile(reportFile, report);
     }
 
     @Override
@@ -151,19 +185,27 @@ public class TextFileSystemHelper implements DatabaseHelper {
 
     @Override
     public List<Report> getAllReports() {
+        // Reads and parses the report files in parallel
+        return loader.loadAll(reportsDir, ".txt");
+    }
+
+    /**
+     * Reads the report files lazily, only the matching reports are kept in memory.
+     */
+    @Override
+    public List<Report> findReports(ReportQuery query) {
         List<Report> reports = new java.util.ArrayList<>();
-        File[] files = reportsDir.listFiles((dir, name) -> name.endsWith(".txt"));
-        if (files != null) {
-            for (File file : files) {
-                Report report = readReportFromFile(file);
-                if (report != null) {
-                    reports.add(report);
-                }
-            }
+        try (CloseableIterator<Report> iterator = iterateReports(query)) {
+            iterator.forEachRemaining(reports::add);
         }
         return reports;
     }
 
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        return ReportFileIterator.query(reportsDir, ".txt", this::readReportFromFile, query);
+    }
+
     @Override
     public void updateReport(Report report) {
         if(report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
@@ -248,20 +290,13 @@ public class TextFileSystemHelper implements DatabaseHelper {
         // No action needed for text file system
     }
 
-    private void writeUpdateHistory(File target, Map<String, Report> history) {
-        StringBuilder data = new StringBuilder();
-        for (Map.Entry<String, Report> entry : history.entrySet()) {
-            data.append(entry.getKey()).append("=>").append(entry.getValue().getReportId()).append(";;");
-        }
-        try (FileWriter writer = new FileWriter(target, false)) {
-            writer.write(data.toString());
-        } catch (Exception e) {
-            ReportPlugin.getInstance().getLogger().log(Level.SEVERE, "Failed to save update history to file: " + e.getMessage(), e);
-        }
+    // Report ids by updater of the previous format, converted by the history store on first access
+    private File legacyHistoryFile(String reportId) {
+        return new File(reportsDir, reportId + "_history.txt");
     }
 
     private Map<String, Report> readUpdateHistory(File file) {
-        Map<String, Report> history = new java.util.HashMap<>();
+        Map<String, Report> history = new java.util.LinkedHashMap<>();
         try (BufferedReader reader = new BufferedReader(new java.io.FileReader(file))) {
             StringBuilder content = new StringBuilder();
             String line;
@@ -291,40 +326,71 @@ public class TextFileSystemHelper implements DatabaseHelper {
 
     @Override
     public boolean writeToUpdateHistory(Report report, String updater) {
-        if(report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
-            ReportPlugin.getInstance().getLogger().log(Level.WARNING, "Cannot write to update history for null report or report with empty ID.");
+        if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
+            plugin.getLogger().log(Level.SEVERE, "writeToUpdateHistory called with invalid report");
+            return false;
+        }
+        try {
+            // Updater and timestamp as the unique key
+            history.append(report.getReportId(), JsonLinesHistoryStore.key(updater, System.currentTimeMillis()), report);
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write update history for report " + report.getReportId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Appends the entries of every report with one write per history file.
+     */
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        try {
+            history.appendAll(entries);
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write " + entries.size() + " update history entries", e);
             return false;
         }
-        String reportId = report.getReportId();
-        File historyFile = new File(reportsDir, reportId + "_history.txt");
-        Map<String, Report> history = readUpdateHistory(historyFile);
-        history.put(updater, report);
-        writeUpdateHistory(historyFile, history);
-        return true;
     }
 
     @Override
     public Map<String, Report> getUpdateHistory(Report report) {
-        if(report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
-            ReportPlugin.getInstance().getLogger().log(Level.WARNING, "Cannot get update history for null report or report with empty ID.");
-            return new java.util.HashMap<>();
+        if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
+            plugin.getLogger().log(Level.SEVERE, "getUpdateHistory called with invalid report");
+            return Map.of();
+        }
+        try {
+            return history.read(report.getReportId());
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read update history for report " + report.getReportId(), e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Reads the history file from its end, older entries are not parsed.
+     */
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report, int limit) {
+        if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
+            plugin.getLogger().log(Level.SEVERE, "getUpdateHistory called with invalid report");
+            return Map.of();
+        }
+        try {
+            return history.readNewest(report.getReportId(), limit);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read update history for report " + report.getReportId(), e);
+            return Map.of();
         }
-        String reportId = report.getReportId();
-        File historyFile = new File(reportsDir, reportId + "_history.txt");
-        return readUpdateHistory(historyFile);
     }
 
     @Override
     public boolean clearUpdateHistory(Report report) {
-        if(report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
-            ReportPlugin.getInstance().getLogger().log(Level.WARNING, "Cannot clear update history for null report or report with empty ID.");
+        if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
+            plugin.getLogger().log(Level.SEVERE, "clearUpdateHistory called with invalid report");
             return false;
         }
-        String reportId = report.getReportId();
-        File historyFile = new File(reportsDir, reportId + "_history.txt");
-        if(historyFile.exists()) {
-            return historyFile.delete();
-        }
-        return true;
+        return history.clear(report.getReportId());
     }
 }
@@ -0,0 +1,400 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 19:50
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Encodes update history entries as field-level deltas against periodic full keyframes.
+ * <p>
+ * The first entry this server writes for a report, and every {@code keyframeInterval}-th entry after it, is a
+ * keyframe: the full report with a random keyframe id. The entries in between only hold the fields that differ
+ * from that keyframe, removed fields as {@code null}, and the id of the keyframe. Since every delta names its
+ * keyframe, entries can be decoded in any order and servers sharing a database never decode against each
+ * other's keyframes. Entries written before deltas existed are plain reports and are read as keyframes.
+ * <p>
+ * The last keyframe of recently edited reports is kept in memory, a report that is not cached gets a new keyframe.
+ * Entries are encoded in a {@link Batch} that only moves the cached keyframes forward once the backend confirmed
+ * the write, so a failed write never leaves deltas against a keyframe that was not stored. A delta whose keyframe
+ * is missing anyway, e.g. because another server cleared the history, is decoded against the entry before it.
+ * With Redis, cleared histories are announced to the other servers, see {@link #forgetEverywhere(String)}.
+ */
+final class UpdateHistoryCodec {
+
+    static final String KEYFRAME_ID = "$id";
+    static final String BASE_ID = "$base";
+    static final String DELTA = "$delta";
+
+    private static final Gson GSON = new Gson();
+    // Removed fields are written as null
+    private static final Gson DELTA_GSON = new GsonBuilder().serializeNulls().create();
+    private static final int MAX_CACHED_REPORTS = 1024;
+    // Every codec of this server, so a history cleared by another server is forgotten by all of them
+    private static final Set<UpdateHistoryCodec> CODECS = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * A stored history entry.
+     *
+     * @param keyframeId the id of this keyframe, null for deltas and entries of the previous format
+     * @param baseId     the id of the keyframe this delta applies to, null for keyframes
+     * @param fields     the full report for keyframes, the changed fields for deltas
+     */
+    record Encoded(String keyframeId, String baseId, JsonObject fields) {
+
+        boolean isKeyframe() {
+            return baseId == null;
+        }
+
+        /**
+         * @return the entry as JSON, for backends storing it as text
+         */
+        String toJson() {
+            return DELTA_GSON.toJson(toJsonObject());
+        }
+
+        /**
+         * @return the entry as a JSON object, removed fields of a delta are {@link JsonNull} and must be serialized
+         */
+        JsonObject toJsonObject() {
+            if (isKeyframe()) {
+                JsonObject keyframe = fields.deepCopy();
+                if (keyframeId != null) {
+                    keyframe.addProperty(KEYFRAME_ID, keyframeId);
+                }
+                return keyframe;
+            }
+            JsonObject delta = new JsonObject();
+            delta.addProperty(BASE_ID, baseId);
+            delta.add(DELTA, fields);
+            return delta;
+        }
+
+        /**
+         * @return the fields of a delta as JSON, for backends storing the keyframe id separately
+         */
+        String deltaJson() {
+            return DELTA_GSON.toJson(fields);
+        }
+
+        /**
+         * Reads an entry written by {@link #toJson()} or a plain report of the previous format.
+         */
+        static Encoded parse(String json) {
+            return of(JsonParser.parseString(json).getAsJsonObject());
+        }
+
+        /**
+         * Reads an entry created by {@link #toJsonObject()} or a plain report of the previous format.
+         */
+        static Encoded of(JsonObject json) {
+            if (json.has(DELTA)) {
+                return new Encoded(null, json.get(BASE_ID).getAsString(), json.getAsJsonObject(DELTA));
+            }
+            JsonObject fields = json.deepCopy();
+            JsonElement id = fields.remove(KEYFRAME_ID);
+            return new Encoded(id == null || id.isJsonNull() ? null : id.getAsString(), null, fields);
+        }
+
+        static Encoded keyframe(String keyframeId, Report report) {
+            return new Encoded(keyframeId, null, GSON.toJsonTree(report).getAsJsonObject());
+        }
+
+        static Encoded delta(String baseId, String deltaJson) {
+            return new Encoded(null, baseId, JsonParser.parseString(deltaJson).getAsJsonObject());
+        }
+    }
+
+    // The keyframe deltas of a report are written against
+    private record Keyframe(String id, JsonObject fields, int deltas) {
+    }
+
+    private final int keyframeInterval;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Keyframe> keyframes = new LinkedHashMap<>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Keyframe> eldest) {
+            return size() > MAX_CACHED_REPORTS;
+        }
+    };
+
+    /**
+     * @param keyframeInterval the number of entries per keyframe, 1 or less writes only keyframes
+     */
+    UpdateHistoryCodec(int keyframeInterval) {
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+        CODECS.add(this);
+    }
+
+    /**
+     * Forgets the keyframe of the report in every codec, call when another server cleared its history.
+     *
+     * @param reportId the id of the report, or null to forget every keyframe, e.g. after messages were missed
+     */
+    static void forgetEverywhere(String reportId) {
+        synchronized (CODECS) {
+            for (UpdateHistoryCodec codec : CODECS) {
+                if (reportId == null) {
+                    codec.forgetAll();
+                } else {
+                    codec.forget(reportId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts encoding entries, call {@link Batch#commit()} once they are stored or {@link Batch#discard()} if the
+     * write failed.
+     */
+    Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Forgets the keyframe of the report, the next entry is a keyframe. Call when its history is cleared.
+     */
+    void forget(String reportId) {
+        lock.lock();
+        try {
+            keyframes.remove(reportId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void forgetAll() {
+        lock.lock();
+        try {
+            keyframes.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Entries encoded for one write. Later entries of the same report are encoded against the keyframes of
+     * earlier ones, the cached keyframes are only replaced on {@link #commit()}.
+     */
+    final class Batch {
+
+        private final Map<String, Keyframe> staged = new HashMap<>();
+
+        private Batch() {
+        }
+
+        /**
+         * Encodes the next history entry of the report, entries have to be stored in the order they are encoded.
+         */
+        Encoded encode(Report report) {
+            JsonObject fields = GSON.toJsonTree(report).getAsJsonObject();
+            String reportId = report.getReportId();
+            Keyframe keyframe = staged.get(reportId);
+            if (keyframe == null) {
+                lock.lock();
+                try {
+                    keyframe = keyframes.get(reportId);
+                } finally {
+                    lock.unlock();
+                }
+            }
+            if (keyframe == null || keyframe.deltas() + 1 >= keyframeInterval) {
+                String id = Long.toHexString(ThreadLocalRandom.current().nextLong());
+                staged.put(reportId, new Keyframe(id, fields, 0));
+                return new Encoded(id, null, fields.deepCopy());
+            }
+            staged.put(reportId, new Keyframe(keyframe.id(), keyframe.fields(), keyframe.deltas() + 1));
+            return new Encoded(null, keyframe.id(), diff(keyframe.fields(), fields));
+        }
+
+        /**
+         * Remembers the keyframes of the entries, call once they are stored.
+         */
+        void commit() {
+            lock.lock();
+            try {
+                keyframes.putAll(staged);
+            } finally {
+                lock.unlock();
+            }
+            staged.clear();
+        }
+
+        /**
+         * Forgets the keyframes of the reports in this batch, call if the write failed. Some entries may have been
+         * stored anyway, so the next entry of each report is a keyframe.
+         */
+        void discard() {
+            lock.lock();
+            try {
+                keyframes.keySet().removeAll(staged.keySet());
+            } finally {
+                lock.unlock();
+            }
+            staged.clear();
+        }
+    }
+
+    /**
+     * Reconstructs the reports of the entries. A delta whose keyframe is not among the entries is applied to the
+     * entry before it, so it is shown with the fields it changed instead of being lost.
+     *
+     * @param entries the entries by key, oldest first
+     * @return the report of every entry by key in the order of {@code entries}
+     */
+    static Map<String, Report> decode(List<Map.Entry<String, Encoded>> entries) {
+        return decode(entries, null);
+    }
+
+    /**
+     * Same as {@link #decode(List)}, a delta without keyframe and without an entry before it is applied to
+     * {@code current}. Without {@code current} it is skipped.
+     *
+     * @param entries the entries by key, oldest first
+     * @param current the current state of the report, may be null
+     */
+    static Map<String, Report> decode(List<Map.Entry<String, Encoded>> entries, Report current) {
+        Map<String, JsonObject> keyframes = new HashMap<>();
+        for (Map.Entry<String, Encoded> entry : entries) {
+            Encoded encoded = entry.getValue();
+            if (encoded.isKeyframe() && encoded.keyframeId() != null) {
+                keyframes.put(encoded.keyframeId(), encoded.fields());
+            }
+        }
+        Map<String, Report> history = new LinkedHashMap<>();
+        JsonObject previous = current == null ? null : GSON.toJsonTree(current).getAsJsonObject();
+        int skipped = 0;
+        int rebased = 0;
+        for (Map.Entry<String, Encoded> entry : entries) {
+            Encoded encoded = entry.getValue();
+            JsonObject fields;
+            if (encoded.isKeyframe()) {
+                fields = encoded.fields();
+            } else {
+                JsonObject keyframe = keyframes.get(encoded.baseId());
+                if (keyframe == null) {
+                    if (previous == null) {
+                        skipped++;
+                        continue;
+                    }
+                    keyframe = previous;
+                    rebased++;
+                }
+                fields = apply(keyframe, encoded.fields());
+            }
+            try {
+                history.put(entry.getKey(), GSON.fromJson(fields, Report.class));
+                previous = fields;
+            } catch (JsonParseException ex) {
+                skipped++;
+            }
+        }
+        if (rebased > 0) {
+            logger().warning("Read " + rebased + " update history entries whose keyframe is missing against the entry before them");
+        }
+        if (skipped > 0) {
+            logger().warning("Skipped " + skipped + " update history entries that could not be read");
+        }
+        return history;
+    }
+
+    /**
+     * Parses and reconstructs entries stored with {@link Encoded#toJson()}.
+     */
+    static Map<String, Report> decodeJson(List<Map.Entry<String, String>> entries) {
+        return decodeJson(entries, null);
+    }
+
+    /**
+     * Parses and reconstructs entries stored with {@link Encoded#toJson()}, see {@link #decode(List, Report)}.
+     */
+    static Map<String, Report> decodeJson(List<Map.Entry<String, String>> entries, Report current) {
+        List<Map.Entry<String, Encoded>> parsed = new ArrayList<>(entries.size());
+        for (Map.Entry<String, String> entry : entries) {
+            try {
+                parsed.add(Map.entry(entry.getKey(), Encoded.parse(entry.getValue())));
+            } catch (RuntimeException ex) {
+                logger().fine("Skipping damaged update history entry " + entry.getKey());
+            }
+        }
+        return decode(parsed, current);
+    }
+
+    /**
+     * @return whether the keyframe of every delta is among the entries, so reading further back is not needed
+     */
+    static boolean isComplete(List<Encoded> entries) {
+        Set<String> keyframeIds = new HashSet<>();
+        for (Encoded encoded : entries) {
+            if (encoded.isKeyframe() && encoded.keyframeId() != null) {
+                keyframeIds.add(encoded.keyframeId());
+            }
+        }
+        for (Encoded encoded : entries) {
+            if (!encoded.isKeyframe() && !keyframeIds.contains(encoded.baseId())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static JsonObject diff(JsonObject keyframe, JsonObject current) {
+        JsonObject delta = new JsonObject();
+        for (Map.Entry<String, JsonElement> field : current.entrySet()) {
+            if (!Objects.equals(keyframe.get(field.getKey()), field.getValue())) {
+                delta.add(field.getKey(), field.getValue());
+            }
+        }
+        for (String field : keyframe.keySet()) {
+            if (!current.has(field)) {
+                delta.add(field, JsonNull.INSTANCE);
+            }
+        }
+        return delta;
+    }
+
+    private static JsonObject apply(JsonObject keyframe, JsonObject delta) {
+        JsonObject fields = keyframe.deepCopy();
+        for (Map.Entry<String, JsonElement> field : delta.entrySet()) {
+            if (field.getValue().isJsonNull()) {
+                fields.remove(field.getKey());
+            } else {
+                fields.add(field.getKey(), field.getValue());
+            }
+        }
+        return fields;
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(UpdateHistoryCodec.class.getName());
+    }
+}
@@ -0,0 +1,22 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 14:05
+ */
+
+import ch.framedev.reportPlugin.utils.Report;
+
+/**
+ * A single update history write, used for batched history writes.
+ *
+ * @param report    the state of the report after the update
+ * @param updater   the name of the player or console that made the update
+ * @param timestamp the time of the update in epoch millis
+ */
+public record UpdateHistoryEntry(Report report, String updater, long timestamp) {
+}
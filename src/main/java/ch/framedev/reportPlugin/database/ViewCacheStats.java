@@ -0,0 +1,31 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 22:10
+ */
+
+/**
+ * Point-in-time statistics of a {@link ViewCachingDatabaseHelper}.
+ *
+ * @param views    views currently kept in memory
+ * @param maxViews the maximum number of views
+ * @param reports  reports the views are built from, 0 until the first view was requested
+ * @param hits     list queries answered by an existing view since startup
+ * @param builds   views built because they were not cached since startup
+ */
+public record ViewCacheStats(int views,
+                             int maxViews,
+                             int reports,
+                             long hits,
+                             long builds) {
+
+    @Override
+    public String toString() {
+        return "views=" + views + "/" + maxViews + ", reports=" + reports + ", hits=" + hits + ", builds=" + builds;
+    }
+}
@@ -0,0 +1,369 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 22:10
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that keeps the sorted report lists shown to staff in memory, shared by every viewer.
+ * <p>
+ * A view is the list of reports with a set of statuses in one sort order, e.g. open reports newest first.
+ * The summaries of every report are loaded once when the first view is requested and kept in memory, every
+ * view after that is built from memory. It is therefore opt-in, large report stores browse with keyset queries. The sort keys are computed once per report, not on every comparison. Views are kept up to
+ * date by every write through this helper, so switching sort order or filter and paging only walk a sorted set.
+ * Queries filtering by player or time are forwarded to the backend.
+ * <p>
+ * Reads are lock-free. Writes of the same report are applied in the order the backend made them, writes of
+ * different reports reach the backend in parallel. At most {@code maxViews} views are kept and the least recently
+ * used one is dropped first. Changes made by other servers have to be applied with {@link #refresh(String)}.
+ */
+public class ViewCachingDatabaseHelper extends ForwardingDatabaseHelper {
+
+    private record ViewKey(ReportQuery.SortKey sortKey, boolean descending, Set<ReportStatus> statuses) {
+
+        static ViewKey of(ReportQuery query) {
+            Set<ReportStatus> statuses = query.hasStatusFilter() ? EnumSet.copyOf(query.getStatuses()) : Set.of();
+            return new ViewKey(query.getSortKey(), query.isDescending(), statuses);
+        }
+    }
+
+    // A report with its sort keys, shared by every view
+    private record Row(ReportSummary summary, String reportId, String reportedKey, String reporterKey) {
+
+        static Row of(ReportSummary summary) {
+            return new Row(summary, summary.reportId() == null ? "" : summary.reportId(),
+                    lower(summary.reportedPlayer()), lower(summary.reporter()));
+        }
+    }
+
+    private static final class View {
+        private final ViewKey key;
+        private final NavigableSet<Row> rows;
+        private volatile long lastUsed;
+
+        private View(ViewKey key) {
+            this.key = key;
+            this.rows = new ConcurrentSkipListSet<>(comparator(key));
+        }
+
+        private boolean accepts(Row row) {
+            return key.statuses().isEmpty() || key.statuses().contains(row.summary().status());
+        }
+
+        /**
+         * Same order as {@link ReportQuery#summaryComparator()} on the precomputed keys.
+         */
+        private static Comparator<Row> comparator(ViewKey key) {
+            Comparator<Row> primary = switch (key.sortKey()) {
+                case TIMESTAMP -> Comparator.comparingLong(row -> row.summary().timestamp());
+                case REPORTED_PLAYER -> Comparator.comparing(Row::reportedKey);
+                case REPORTER -> Comparator.comparing(Row::reporterKey);
+                case STATUS -> Comparator.comparing(row -> row.summary().status().name());
+                case UNSORTED -> throw new IllegalArgumentException("Unsorted queries have no view");
+            };
+            if (key.descending()) {
+                primary = primary.reversed();
+            }
+            return primary
+                    .thenComparing(Comparator.comparingLong((Row row) -> row.summary().timestamp()).reversed())
+                    .thenComparing(Row::reportId);
+        }
+    }
+
+    private final int maxViews;
+    private final Map<String, Row> byId = new ConcurrentHashMap<>();
+    private final Map<ViewKey, View> views = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+
+    // Serializes changes of the maps above, backend writes only hold the lock of their report
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReportLocks reportLocks = new ReportLocks();
+    private volatile boolean loaded;
+    private volatile boolean loading;
+
+    /**
+     * @param delegate the backend to read the views from
+     * @param maxViews the maximum number of views kept in memory
+     */
+    public ViewCachingDatabaseHelper(DatabaseHelper delegate, int maxViews) {
+        super(delegate);
+        this.maxViews = Math.max(1, maxViews);
+    }
+
+    /**
+     * @return the number of views, the reports they are built from and how often they were used
+     */
+    public ViewCacheStats getViewCacheStats() {
+        return new ViewCacheStats(views.size(), maxViews, byId.size(), hits.sum(), builds.sum());
+    }
+
+    /**
+     * Reloads a report from the backend, e.g. after it was changed by another server.
+     *
+     * @param reportId the id of the changed report, or null to drop every view
+     */
+    public void refresh(String reportId) {
+        writeLock.lock();
+        try {
+            if (reportId == null) {
+                clear();
+                return;
+            }
+            if (loaded) {
+                reload(reportId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void reload(String reportId) {
+        Report report = delegate.getReportById(reportId);
+        apply(reportId, report == null ? null : ReportSummary.of(report));
+    }
+
+    @Override
+    public void disconnect() {
+        writeLock.lock();
+        try {
+            clear();
+        } finally {
+            writeLock.unlock();
+        }
+        delegate.disconnect();
+    }
+
+    /**
+     * Answered from the view of the sort order and statuses of the query, which is built on first use.
+     */
+    @Override
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        if (query.getSortKey() == ReportQuery.SortKey.UNSORTED || query.getReportedPlayer() != null
+            || query.getReporter() != null || query.hasTimeRange()) {
+            return delegate.findReportSummaries(query);
+        }
+        View view = view(ViewKey.of(query));
+        if (view == null) {
+            return delegate.findReportSummaries(query);
+        }
+        NavigableSet<Row> rows = query.hasCursor() ? view.rows.tailSet(Row.of(query.getAfter()), false) : view.rows;
+        Stream<Row> page = rows.stream().skip(query.getOffset());
+        if (query.getLimit() > 0) {
+            page = page.limit(query.getLimit());
+        }
+        return page.map(Row::summary).toList();
+    }
+
+    /**
+     * Written through {@link DatabaseHelper#insertReports(List)}, which tells whether the report was stored.
+     */
+    @Override
+    public void insertReport(Report report) {
+        if (report == null) {
+            delegate.insertReport(null);
+            return;
+        }
+        insertReports(List.of(report));
+    }
+
+    /**
+     * Reports are only shown once the backend confirmed the write, after a failed write they are read back.
+     */
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        try (ReportLocks.Held ignored = lockIfLoaded(reports.stream().filter(Objects::nonNull).map(Report::getReportId).toList())) {
+            boolean written = delegate.insertReports(reports);
+            whenLoaded(() -> {
+                for (Report report : reports) {
+                    if (report != null && report.getReportId() != null) {
+                        if (written) {
+                            apply(report.getReportId(), ReportSummary.of(report));
+                        } else {
+                            reload(report.getReportId());
+                        }
+                    }
+                }
+            });
+            return written;
+        }
+    }
+
+    @Override
+    public void updateReport(Report report) {
+        if (report == null || report.getReportId() == null) {
+            delegate.updateReport(report);
+            return;
+        }
+        try (ReportLocks.Held ignored = lockIfLoaded(List.of(report.getReportId()))) {
+            delegate.updateReport(report);
+            whenLoaded(() -> apply(report.getReportId(), ReportSummary.of(report)));
+        }
+    }
+
+    @Override
+    public boolean deleteReport(String reportId) {
+        if (reportId == null) {
+            return delegate.deleteReport(null);
+        }
+        try (ReportLocks.Held ignored = lockIfLoaded(List.of(reportId))) {
+            boolean deleted = delegate.deleteReport(reportId);
+            if (deleted) {
+                whenLoaded(() -> apply(reportId, null));
+            }
+            return deleted;
+        }
+    }
+
+    /**
+     * Orders the writes of the same reports while there is an in-memory copy to keep up to date.
+     */
+    private ReportLocks.Held lockIfLoaded(Collection<String> reportIds) {
+        return loaded || loading ? reportLocks.lock(reportIds) : ReportLocks.NONE;
+    }
+
+    /**
+     * Applies a change after its backend write returned. Nothing is locked while nothing is loaded, a write that
+     * returns while loading waits for it and is applied on top, since the load may have read the old state.
+     */
+    private void whenLoaded(Runnable change) {
+        if (!loaded && !loading) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return the view, built from the loaded summaries if it is not cached yet, or null if they could not be loaded
+     */
+    private View view(ViewKey key) {
+        View view = views.get(key);
+        if (view == null) {
+            writeLock.lock();
+            try {
+                view = views.get(key);
+                if (view == null) {
+                    if (!loaded && !load()) {
+                        return null;
+                    }
+                    view = build(key);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        } else {
+            hits.increment();
+        }
+        view.lastUsed = System.nanoTime();
+        return view;
+    }
+
+    /**
+     * Called while holding the write lock, writes returning meanwhile wait for it and are applied afterwards.
+     */
+    private boolean load() {
+        long start = System.nanoTime();
+        loading = true;
+        try {
+            List<ReportSummary> summaries = delegate.findReportSummaries(ReportQuery.builder()
+                    .sortBy(ReportQuery.SortKey.UNSORTED, false)
+                    .build());
+            for (ReportSummary summary : summaries) {
+                if (summary.reportId() != null) {
+                    byId.put(summary.reportId(), Row.of(summary));
+                }
+            }
+            loaded = true;
+        } catch (RuntimeException ex) {
+            byId.clear();
+            logger().log(Level.SEVERE, "Could not load the report views, reading from the database instead", ex);
+            return false;
+        } finally {
+            loading = false;
+        }
+        logger().info("Loaded " + byId.size() + " reports for the report views in " + (System.nanoTime() - start) / 1_000_000L + "ms.");
+        return true;
+    }
+
+    private View build(ViewKey key) {
+        if (views.size() >= maxViews) {
+            views.values().stream()
+                    .min(Comparator.comparingLong(cached -> cached.lastUsed))
+                    .ifPresent(oldest -> views.remove(oldest.key));
+        }
+        View view = new View(key);
+        for (Row row : byId.values()) {
+            if (view.accepts(row)) {
+                view.rows.add(row);
+            }
+        }
+        views.put(key, view);
+        builds.increment();
+        return view;
+    }
+
+    /**
+     * Moves a report to its new position in every view, a null summary removes it.
+     */
+    private void apply(String reportId, ReportSummary summary) {
+        Row row = summary == null ? null : Row.of(summary);
+        Row previous = row == null ? byId.remove(reportId) : byId.put(reportId, row);
+        for (View view : views.values()) {
+            if (previous != null) {
+                view.rows.remove(previous);
+            }
+            if (row != null && view.accepts(row)) {
+                view.rows.add(row);
+            }
+        }
+    }
+
+    private void clear() {
+        loaded = false;
+        views.clear();
+        byId.clear();
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(ViewCachingDatabaseHelper.class.getName());
+    }
+}
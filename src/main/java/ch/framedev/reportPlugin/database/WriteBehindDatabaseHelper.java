@@ -0,0 +1,834 @@
+package ch.framedev.reportPlugin.database;
+
+/*
+ * ch.framedev.reportPlugin.database
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 14:10
+ */
+
+import ch.framedev.reportPlugin.main.ReportPlugin;
+import ch.framedev.reportPlugin.utils.Report;
+import ch.framedev.reportPlugin.utils.ReportStatus;
+import ch.framedev.reportPlugin.utils.ReportSummary;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind decorator that batches report inserts and update history writes.
+ * <p>
+ * New reports and history entries are queued and written with {@link DatabaseHelper#insertReports(List)} and
+ * {@link DatabaseHelper#writeToUpdateHistory(List)} once {@code flushSize} writes are pending or
+ * {@code flushIntervalMillis} has passed, so a burst of reports costs one round trip instead of one per report.
+ * <p>
+ * Reads see queued writes: lookups check the queue first and queries merge the queued reports into the
+ * backend results. A flush holds the write side of {@code flushLock} while reads and updates hold the read
+ * side, so a read never misses a report that is in the middle of being flushed, and an update of such a
+ * report waits until its insert is committed. Queueing itself never waits for a flush.
+ * Writes the backend rejects stay queued and are retried by the next few flushes before they are given up.
+ * {@link #disconnect()} flushes everything before the backend is closed.
+ */
+public class WriteBehindDatabaseHelper extends ForwardingDatabaseHelper {
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000L;
+    // Flushes a write may fail in before it is given up, e.g. a duplicate key that can never be written
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final int flushSize;
+    private final long intervalMillis;
+
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    // Guarded by queueLock
+    private final Map<String, Report> pendingInserts = new LinkedHashMap<>();
+    private List<UpdateHistoryEntry> pendingHistory = new ArrayList<>();
+    private boolean closed;
+
+    // Guarded by the write side of flushLock, read without it by the background flushes
+    private volatile long retryDelayMillis;
+    private volatile long retryAt;
+    // Guarded by the write side of flushLock, failed flushes of the writes that are queued again
+    private Map<String, Integer> insertAttempts = new HashMap<>();
+    private Map<UpdateHistoryEntry, Integer> historyAttempts = new IdentityHashMap<>();
+
+    /**
+     * @param delegate            the backend the writes are flushed to
+     * @param flushSize           number of pending writes that triggers an immediate flush
+     * @param flushIntervalMillis maximum time a write stays queued
+     */
+    public WriteBehindDatabaseHelper(DatabaseHelper delegate, int flushSize, long flushIntervalMillis) {
+        super(delegate);
+        this.flushSize = Math.max(1, flushSize);
+        this.intervalMillis = Math.max(10L, flushIntervalMillis);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ReportPlugin-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushIfDue, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return the number of queued writes
+     */
+    public int getPendingWrites() {
+        queueLock.lock();
+        try {
+            return pendingInserts.size() + pendingHistory.size();
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every queued insert and history entry to the backend.
+     * <p>
+     * Writes that fail even when retried one by one are put back at the front of the queue, so nothing that was
+     * accepted is lost while the backend is unavailable. A write that failed in {@link #MAX_ATTEMPTS} flushes is
+     * given up and logged with its data, so it cannot hold up the rest of the queue. While no write of a flush
+     * succeeds, the background flushes back off for up to {@link #MAX_RETRY_DELAY_MILLIS} so a failing backend
+     * is not hammered every interval.
+     */
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            List<Report> inserts;
+            List<UpdateHistoryEntry> history;
+            queueLock.lock();
+            try {
+                if (pendingInserts.isEmpty() && pendingHistory.isEmpty()) {
+                    return;
+                }
+                inserts = new ArrayList<>(pendingInserts.values());
+                pendingInserts.clear();
+                history = pendingHistory;
+                pendingHistory = new ArrayList<>();
+            } finally {
+                queueLock.unlock();
+            }
+
+            // Reports first, history rows reference them
+            List<Report> failedInserts = inserts.isEmpty() ? List.of() : writeInserts(inserts);
+            List<UpdateHistoryEntry> failedHistory = history.isEmpty() ? List.of() : writeHistory(history);
+            int failed = failedInserts.size() + failedHistory.size();
+            List<Report> retryInserts = giveUpInserts(failedInserts);
+            List<UpdateHistoryEntry> retryHistory = giveUpHistory(failedHistory);
+            requeue(retryInserts, retryHistory);
+            if (failed < inserts.size() + history.size()) {
+                // The backend accepts writes, at most some of them are rejected
+                retryDelayMillis = 0L;
+                if (!retryInserts.isEmpty() || !retryHistory.isEmpty()) {
+                    logger().warning("Could not write " + retryInserts.size() + " queued reports and " + retryHistory.size()
+                                     + " update history entries, retrying with the next flush.");
+                }
+                return;
+            }
+            retryDelayMillis = retryDelayMillis == 0L ? intervalMillis : Math.min(MAX_RETRY_DELAY_MILLIS, retryDelayMillis * 2);
+            retryAt = System.currentTimeMillis() + retryDelayMillis;
+            if (!retryInserts.isEmpty() || !retryHistory.isEmpty()) {
+                logger().severe("Could not write " + retryInserts.size() + " queued reports and " + retryHistory.size()
+                                + " update history entries, retrying in " + retryDelayMillis + " ms.");
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Background flush, skipped while the backend is backing off after a failed flush.
+     */
+    private void flushIfDue() {
+        if (retryDelayMillis == 0L || System.currentTimeMillis() >= retryAt) {
+            flush();
+        }
+    }
+
+    /**
+     * @return the reports that could not be written
+     */
+    private List<Report> writeInserts(List<Report> inserts) {
+        try {
+            if (delegate.insertReports(inserts)) {
+                return List.of();
+            }
+        } catch (RuntimeException ex) {
+            logger().log(Level.SEVERE, "Batch insert of " + inserts.size() + " reports failed", ex);
+        }
+        logger().warning("Batch insert of " + inserts.size() + " reports failed, retrying one by one.");
+        List<Report> failed = new ArrayList<>();
+        for (Report report : inserts) {
+            try {
+                if (!delegate.insertReports(List.of(report))) {
+                    failed.add(report);
+                }
+            } catch (RuntimeException ex) {
+                logger().log(Level.SEVERE, "Could not write queued report " + report.getReportId(), ex);
+                failed.add(report);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Retries go through the batch write as well so every entry keeps the time it was made at.
+     *
+     * @return the entries that could not be written, in the order they were made
+     */
+    private List<UpdateHistoryEntry> writeHistory(List<UpdateHistoryEntry> history) {
+        try {
+            if (delegate.writeToUpdateHistory(history)) {
+                return List.of();
+            }
+        } catch (RuntimeException ex) {
+            logger().log(Level.SEVERE, "Batch write of " + history.size() + " history entries failed", ex);
+        }
+        logger().warning("Batch write of " + history.size() + " history entries failed, retrying one by one.");
+        List<UpdateHistoryEntry> failed = new ArrayList<>();
+        for (UpdateHistoryEntry entry : history) {
+            try {
+                if (!delegate.writeToUpdateHistory(List.of(entry))) {
+                    failed.add(entry);
+                }
+            } catch (RuntimeException ex) {
+                logger().log(Level.SEVERE, "Could not write queued update history entry of report "
+                                           + entry.report().getReportId(), ex);
+                failed.add(entry);
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Counts the failed flush of every report and drops the ones that failed too often.
+     *
+     * @return the reports to queue again
+     */
+    private List<Report> giveUpInserts(List<Report> failed) {
+        Map<String, Integer> attempts = new HashMap<>();
+        List<Report> retry = new ArrayList<>(failed.size());
+        for (Report report : failed) {
+            int attempt = insertAttempts.getOrDefault(report.getReportId(), 0) + 1;
+            if (attempt >= MAX_ATTEMPTS) {
+                logger().severe("Giving up queued report " + report.getReportId() + " after " + attempt
+                                + " failed flushes: " + ReportCodecs.json().encodeToString(report));
+            } else {
+                attempts.put(report.getReportId(), attempt);
+                retry.add(report);
+            }
+        }
+        insertAttempts = attempts;
+        return retry;
+    }
+
+    /**
+     * Counts the failed flush of every history entry and drops the ones that failed too often.
+     *
+     * @return the entries to queue again, in the order they were made
+     */
+    private List<UpdateHistoryEntry> giveUpHistory(List<UpdateHistoryEntry> failed) {
+        Map<UpdateHistoryEntry, Integer> attempts = new IdentityHashMap<>();
+        List<UpdateHistoryEntry> retry = new ArrayList<>(failed.size());
+        for (UpdateHistoryEntry entry : failed) {
+            int attempt = historyAttempts.getOrDefault(entry, 0) + 1;
+            if (attempt >= MAX_ATTEMPTS) {
+                logger().severe("Giving up queued update history entry of report " + entry.report().getReportId() + " by "
+                                + entry.updater() + " at " + Instant.ofEpochMilli(entry.timestamp()) + " after " + attempt
+                                + " failed flushes: " + ReportCodecs.json().encodeToString(entry.report()));
+            } else {
+                attempts.put(entry, attempt);
+                retry.add(entry);
+            }
+        }
+        historyAttempts = attempts;
+        return retry;
+    }
+
+    /**
+     * Puts failed writes back in front of everything queued during the flush. A report that was queued again in
+     * the meantime keeps its newer state.
+     */
+    private void requeue(List<Report> failedInserts, List<UpdateHistoryEntry> failedHistory) {
+        queueLock.lock();
+        try {
+            if (!failedInserts.isEmpty()) {
+                Map<String, Report> inserts = new LinkedHashMap<>();
+                for (Report report : failedInserts) {
+                    inserts.put(report.getReportId(), report);
+                }
+                inserts.putAll(pendingInserts);
+                pendingInserts.clear();
+                pendingInserts.putAll(inserts);
+            }
+            if (!failedHistory.isEmpty()) {
+                List<UpdateHistoryEntry> history = new ArrayList<>(failedHistory);
+                history.addAll(pendingHistory);
+                pendingHistory = history;
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    @Override
+    public void insertReport(Report report) {
+        Report snapshot = copy(report);
+        queueLock.lock();
+        try {
+            if (!closed) {
+                pendingInserts.put(report.getReportId(), snapshot);
+                requestFlushIfFull();
+                return;
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        delegate.insertReport(report);
+    }
+
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        reports.forEach(this::insertReport);
+        return true;
+    }
+
+    @Override
+    public boolean writeToUpdateHistory(Report report, String updater) {
+        UpdateHistoryEntry entry = new UpdateHistoryEntry(copy(report), updater, System.currentTimeMillis());
+        queueLock.lock();
+        try {
+            if (!closed) {
+                pendingHistory.add(entry);
+                requestFlushIfFull();
+                return true;
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        return delegate.writeToUpdateHistory(report, updater);
+    }
+
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        List<UpdateHistoryEntry> snapshots = new ArrayList<>(entries.size());
+        for (UpdateHistoryEntry entry : entries) {
+            snapshots.add(new UpdateHistoryEntry(copy(entry.report()), entry.updater(), entry.timestamp()));
+        }
+        queueLock.lock();
+        try {
+            if (!closed) {
+                pendingHistory.addAll(snapshots);
+                requestFlushIfFull();
+                return true;
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        return delegate.writeToUpdateHistory(entries);
+    }
+
+    @Override
+    public void updateReport(Report report) {
+        flushLock.readLock().lock();
+        try {
+            queueLock.lock();
+            try {
+                if (pendingInserts.containsKey(report.getReportId())) {
+                    // Not written yet, the queued insert simply carries the new state
+                    pendingInserts.put(report.getReportId(), copy(report));
+                    return;
+                }
+            } finally {
+                queueLock.unlock();
+            }
+            delegate.updateReport(report);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean deleteReport(String reportId) {
+        flushLock.readLock().lock();
+        try {
+            boolean removed;
+            queueLock.lock();
+            try {
+                removed = pendingInserts.remove(reportId) != null;
+                pendingHistory.removeIf(entry -> reportId.equals(entry.report().getReportId()));
+            } finally {
+                queueLock.unlock();
+            }
+            return delegate.deleteReport(reportId) || removed;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean clearUpdateHistory(Report report) {
+        flushLock.readLock().lock();
+        try {
+            boolean removed;
+            queueLock.lock();
+            try {
+                removed = pendingHistory.removeIf(entry -> report.getReportId().equals(entry.report().getReportId()));
+            } finally {
+                queueLock.unlock();
+            }
+            return delegate.clearUpdateHistory(report) || removed;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Report getReportById(String reportId) {
+        flushLock.readLock().lock();
+        try {
+            Report pending = pendingInsert(reportId);
+            return pending != null ? pending : delegate.getReportById(reportId);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Report> getReportsByIds(Collection<String> reportIds) {
+        flushLock.readLock().lock();
+        try {
+            Map<String, Report> reports = new HashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String reportId : reportIds) {
+                Report pending = pendingInsert(reportId);
+                if (pending != null) {
+                    reports.put(reportId, pending);
+                } else {
+                    missing.add(reportId);
+                }
+            }
+            if (!missing.isEmpty()) {
+                reports.putAll(delegate.getReportsByIds(missing));
+            }
+            return reports;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Report getReportByReportedPlayer(String reportedPlayer) {
+        return getReportByPlayer(reportedPlayer);
+    }
+
+    @Override
+    public Report getReportByPlayer(String reportedPlayer) {
+        flushLock.readLock().lock();
+        try {
+            Report report = delegate.getReportByPlayer(reportedPlayer);
+            if (report != null) {
+                return report;
+            }
+            return pendingReports().stream()
+                    .filter(pending -> reportedPlayer.equalsIgnoreCase(pending.getReportedPlayer()))
+                    .findFirst()
+                    .orElse(null);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Report getReportByReporter(String reporter) {
+        flushLock.readLock().lock();
+        try {
+            Report report = delegate.getReportByReporter(reporter);
+            if (report != null) {
+                return report;
+            }
+            return pendingReports().stream()
+                    .filter(pending -> reporter.equalsIgnoreCase(pending.getReporter()))
+                    .findFirst()
+                    .orElse(null);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean reportExists(String reportId) {
+        flushLock.readLock().lock();
+        try {
+            return pendingInsert(reportId) != null || delegate.reportExists(reportId);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean playerHasReport(String reportedPlayer) {
+        flushLock.readLock().lock();
+        try {
+            return pendingReports().stream().anyMatch(report -> reportedPlayer.equalsIgnoreCase(report.getReportedPlayer()))
+                   || delegate.playerHasReport(reportedPlayer);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countReportsForPlayer(String reportedPlayer) {
+        flushLock.readLock().lock();
+        try {
+            int pending = (int) pendingReports().stream()
+                    .filter(report -> reportedPlayer.equalsIgnoreCase(report.getReportedPlayer()))
+                    .count();
+            return delegate.countReportsForPlayer(reportedPlayer) + pending;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isResolved(String reportId) {
+        flushLock.readLock().lock();
+        try {
+            Report pending = pendingInsert(reportId);
+            return pending != null ? pending.isResolved() : delegate.isResolved(reportId);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Report> getAllReports() {
+        flushLock.readLock().lock();
+        try {
+            List<Report> pending = pendingReports();
+            if (pending.isEmpty()) {
+                return delegate.getAllReports();
+            }
+            List<Report> reports = new ArrayList<>(delegate.getAllReports());
+            reports.addAll(pending);
+            return reports;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Report> findReports(ReportQuery query) {
+        flushLock.readLock().lock();
+        try {
+            List<Report> pending = pendingReports().stream()
+                    .filter(report -> query.matches(report) && query.isAfterCursor(report))
+                    .toList();
+            if (pending.isEmpty()) {
+                return delegate.findReports(query);
+            }
+            // Queued reports may land anywhere in the result, fetch everything up to the end of the page
+            ReportQuery.Builder widened = query.toBuilder().offset(0);
+            if (query.getLimit() > 0) {
+                widened.limit(query.getOffset() + query.getLimit());
+            }
+            List<Report> reports = new ArrayList<>(delegate.findReports(widened.build()));
+            reports.addAll(pending);
+            return query.apply(reports);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Read from the backend while nothing matching is queued, otherwise merged by {@link #findReports(ReportQuery)}.
+     */
+    @Override
+    public List<ReportSummary> findReportSummaries(ReportQuery query) {
+        flushLock.readLock().lock();
+        try {
+            if (pendingReports().stream().noneMatch(report -> query.matches(report) && query.isAfterCursor(report))) {
+                return delegate.findReportSummaries(query);
+            }
+            return findReports(query).stream().map(ReportSummary::of).toList();
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Answered by {@link #findReports(ReportQuery)} so queued reports count without flushing them.
+     */
+    @Override
+    public boolean hasRecentReport(String reporter, String reportedPlayer, long sinceMillis) {
+        return !findReports(DatabaseHelper.recentReportQuery(reporter, reportedPlayer, sinceMillis)).isEmpty();
+    }
+
+    /**
+     * Streams the cursor of the backend while nothing matching is queued, otherwise the page merged by
+     * {@link #findReports(ReportQuery)}. Reports queued while the cursor is open are not included.
+     */
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        flushLock.readLock().lock();
+        try {
+            if (pendingReports().stream().noneMatch(report -> query.matches(report) && query.isAfterCursor(report))) {
+                return delegate.iterateReports(query);
+            }
+            return CloseableIterator.of(findReports(query).iterator());
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queued reports are suggested first, tab completion never waits for a flush.
+     */
+    @Override
+    public List<String> suggestReportIds(String prefix, int limit) {
+        flushLock.readLock().lock();
+        try {
+            String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+            Set<String> reportIds = new LinkedHashSet<>();
+            for (Report report : pendingReports()) {
+                String reportId = report.getReportId();
+                if (reportIds.size() < limit && reportId != null && reportId.toLowerCase(Locale.ROOT).startsWith(lowerPrefix)) {
+                    reportIds.add(reportId);
+                }
+            }
+            if (reportIds.isEmpty()) {
+                return delegate.suggestReportIds(prefix, limit);
+            }
+            for (String reportId : delegate.suggestReportIds(prefix, limit)) {
+                if (reportIds.size() >= limit) {
+                    break;
+                }
+                reportIds.add(reportId);
+            }
+            return List.copyOf(reportIds);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queued reports are suggested first, tab completion never waits for a flush.
+     */
+    @Override
+    public List<String> suggestReportedPlayers(String prefix, int limit) {
+        flushLock.readLock().lock();
+        try {
+            String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+            Map<String, String> names = new LinkedHashMap<>();
+            for (Report report : pendingReports()) {
+                String name = report.getReportedPlayer();
+                if (names.size() < limit && name != null && name.toLowerCase(Locale.ROOT).startsWith(lowerPrefix)) {
+                    names.putIfAbsent(name.toLowerCase(Locale.ROOT), name);
+                }
+            }
+            if (names.isEmpty()) {
+                return delegate.suggestReportedPlayers(prefix, limit);
+            }
+            for (String name : delegate.suggestReportedPlayers(prefix, limit)) {
+                if (names.size() >= limit) {
+                    break;
+                }
+                names.putIfAbsent(name.toLowerCase(Locale.ROOT), name);
+            }
+            return List.copyOf(names.values());
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int countReports(ReportQuery query) {
+        flushLock.readLock().lock();
+        try {
+            int pending = (int) pendingReports().stream().filter(query::matches).count();
+            return delegate.countReports(query) + pending;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<ReportStatus, Integer> countReportsByStatus(ReportQuery query) {
+        flushLock.readLock().lock();
+        try {
+            List<Report> pending = pendingReports().stream().filter(query::matches).toList();
+            Map<ReportStatus, Integer> counts = delegate.countReportsByStatus(query);
+            if (pending.isEmpty()) {
+                return counts;
+            }
+            Map<ReportStatus, Integer> merged = ReportQuery.emptyStatusCounts();
+            counts.forEach((status, count) -> merged.merge(status, count, Integer::sum));
+            ReportQuery.countByStatus(pending).forEach((status, count) -> merged.merge(status, count, Integer::sum));
+            return merged;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report) {
+        flushLock.readLock().lock();
+        try {
+            List<UpdateHistoryEntry> pending = pendingHistory(report);
+            Map<String, Report> stored = delegate.getUpdateHistory(report);
+            if (pending.isEmpty()) {
+                return stored;
+            }
+            return withPending(stored, pending);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Queued entries are the newest ones, the backend is only asked for the rest.
+     */
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report, int limit) {
+        flushLock.readLock().lock();
+        try {
+            List<UpdateHistoryEntry> pending = pendingHistory(report);
+            if (pending.isEmpty()) {
+                return delegate.getUpdateHistory(report, limit);
+            }
+            Map<String, Report> stored = pending.size() >= limit ? Map.of() : delegate.getUpdateHistory(report, limit - pending.size());
+            return DatabaseHelper.newest(withPending(stored, pending), limit);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private List<UpdateHistoryEntry> pendingHistory(Report report) {
+        List<UpdateHistoryEntry> pending = new ArrayList<>();
+        queueLock.lock();
+        try {
+            for (UpdateHistoryEntry entry : pendingHistory) {
+                if (report.getReportId().equals(entry.report().getReportId())) {
+                    pending.add(entry);
+                }
+            }
+        } finally {
+            queueLock.unlock();
+        }
+        return pending;
+    }
+
+    /**
+     * The stored history is oldest first, so the queued entries are appended after it in the order they were made.
+     */
+    private Map<String, Report> withPending(Map<String, Report> stored, List<UpdateHistoryEntry> pending) {
+        Map<String, Report> history = new LinkedHashMap<>(stored == null ? Map.of() : stored);
+        for (UpdateHistoryEntry entry : pending) {
+            history.put(entry.updater() + " at " + Instant.ofEpochMilli(entry.timestamp()), copy(entry.report()));
+        }
+        return history;
+    }
+
+    /**
+     * Stops the background flushing, writes everything still queued and disconnects the backend.
+     */
+    @Override
+    public void disconnect() {
+        queueLock.lock();
+        try {
+            closed = true;
+        } finally {
+            queueLock.unlock();
+        }
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        int lost = getPendingWrites();
+        if (lost > 0) {
+            logger().severe(lost + " queued writes could not be written before the database was closed.");
+        }
+        delegate.disconnect();
+    }
+
+    private void requestFlushIfFull() {
+        if (pendingInserts.size() + pendingHistory.size() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(() -> {
+                    flushRequested.set(false);
+                    flushIfDue();
+                });
+            } catch (RejectedExecutionException ex) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private Report pendingInsert(String reportId) {
+        queueLock.lock();
+        try {
+            Report report = pendingInserts.get(reportId);
+            return report == null ? null : copy(report);
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * @return copies of all queued reports
+     */
+    private List<Report> pendingReports() {
+        queueLock.lock();
+        try {
+            if (pendingInserts.isEmpty()) {
+                return List.of();
+            }
+            List<Report> reports = new ArrayList<>(pendingInserts.size());
+            for (Report report : pendingInserts.values()) {
+                reports.add(copy(report));
+            }
+            return reports;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Queued reports are copied in and out so later changes by the caller do not leak into the queue.
+     */
+    private static Report copy(Report report) {
+        return report == null ? null : report.snapshot().toReport();
+    }
+
+    private static Logger logger() {
+        ReportPlugin plugin = ReportPlugin.getInstance();
+        return plugin != null ? plugin.getLogger() : Logger.getLogger(WriteBehindDatabaseHelper.class.getName());
+    }
+}
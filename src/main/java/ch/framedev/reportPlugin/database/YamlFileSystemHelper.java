@@ -18,6 +18,9 @@ public class YamlFileSystemHelper implements DatabaseHelper {
 
     private final ReportPlugin plugin;
     private final File reportsDir;
+    private final ParallelReportLoader loader;
+    // Append-only update history, one JSON Lines file per report
+    private final JsonLinesHistoryStore history;
 
     public YamlFileSystemHelper(ReportPlugin plugin) {
         this.plugin = plugin;
@@ -25,6 +28,19 @@ public class YamlFileSystemHelper implements DatabaseHelper {
         if (!reportsDir.exists() && !reportsDir.mkdirs()) {
             plugin.getLogger().log(Level.SEVERE, "Could not create reports directory: " + reportsDir.getAbsolutePath());
         }
+        // Every file is parsed into its own YamlConfiguration, so the workers can share the same parser
+        this.loader = new ParallelReportLoader("ReportPlugin-yaml-loader", plugin.getConfig().getInt("file-loader.threads", 0), () -> this::readReportFile);
+        this.history = new JsonLinesHistoryStore(new File(reportsDir, HISTORY_DIR_NAME), new JsonLinesHistoryStore.LegacyHistory() {
+            @Override
+            public File file(String reportId) {
+                return legacyHistoryFile(reportId);
+            }
+
+            @Override
+            public Map<String, Report> read(File file) {
+                return readHistoryFile(file);
+            }
+        }, new UpdateHistoryCodec(plugin.getConfig().getInt("update-history.keyframe-interval", 10)));
         plugin.getLogger().info("FileSystemHelper initialized. Reports directory: " + reportsDir.getAbsolutePath());
     }
 
@@ -95,21 +111,39 @@ public class YamlFileSystemHelper implements DatabaseHelper {
 
     @Override
     public void insertReport(Report report) {
+        saveNewReport(report);
+    }
+
+    /**
+     * Writes every report, false if any of them could not be written.
+     */
+    @Override
+    public boolean insertReports(List<Report> reports) {
+        boolean written = true;
+        for (Report report : reports) {
+            written &= saveNewReport(report);
+        }
+        return written;
+    }
+
+    private boolean saveNewReport(Report report) {
         if(report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
             plugin.getLogger().log(Level.WARNING, "Cannot insert null or invalid report.");
-            return;
+            return false;
         }
         String reportId = report.getReportId();
         File reportFile = fileForReportId(reportId);
         if (reportFile.exists()) {
             plugin.getLogger().log(Level.WARNING, "Report with ID " + reportId + " already exists. Use updateReport to modify it.");
-            return;
+            return false;
         }
         try {
             writeReportFile(reportFile, report);
             plugin.getLogger().info("Inserted report with ID " + reportId);
+            return true;
         } catch (IOException e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to write report file for ID " + reportId, e);
+            return false;
         }
     }
 
@@ -154,21 +188,27 @@ public class YamlFileSystemHelper implements DatabaseHelper {
 
     @Override
     public List<Report> getAllReports() {
+        // Reads and parses the report files in parallel
+        return loader.loadAll(reportsDir, ".yml");
+    }
+
+    /**
+     * Reads the report files lazily, only the matching reports are kept in memory.
+     */
+    @Override
+    public List<Report> findReports(ReportQuery query) {
         List<Report> reports = new java.util.ArrayList<>();
-        File[] files = reportsDir.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (files != null) {
-            for (File file : files) {
-                try {
-                    Report report = readReportFile(file);
-                    reports.add(report);
-                } catch (IOException e) {
-                    plugin.getLogger().log(Level.SEVERE, "Failed to read report file: " + file.getName(), e);
-                }
-            }
+        try (CloseableIterator<Report> iterator = iterateReports(query)) {
+            iterator.forEachRemaining(reports::add);
         }
         return reports;
     }
 
+    @Override
+    public CloseableIterator<Report> iterateReports(ReportQuery query) {
+        return ReportFileIterator.query(reportsDir, ".yml", this::readReportFile, query);
+    }
+
     @Override
     public void updateReport(Report report) {
         if(report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
@@ -258,16 +298,10 @@ public class YamlFileSystemHelper implements DatabaseHelper {
     }
 
     private static final String HISTORY_DIR_NAME = "history";
-    private File getHistoryDir() {
-        File historyDir = new File(reportsDir, HISTORY_DIR_NAME);
-        if (!historyDir.exists() && !historyDir.mkdirs()) {
-            plugin.getLogger().log(Level.SEVERE, "Could not create history directory: " + historyDir.getAbsolutePath());
-        }
-        return historyDir;
-    }
 
-    private File historyFileForReportId(String reportId) {
-        return new File(getHistoryDir(), "history_" + reportId + ".yml");
+    // YAML history of the previous format, converted by the history store on first access
+    private File legacyHistoryFile(String reportId) {
+        return new File(new File(reportsDir, HISTORY_DIR_NAME), "history_" + reportId + ".yml");
     }
 
     private Map<String, Report> readHistoryFile(File file) {
@@ -305,51 +339,15 @@ public class YamlFileSystemHelper implements DatabaseHelper {
         return history;
     }
 
-    private void writeHistoryFile(File target, Map<String, Report> history) throws IOException {
-        // Write to a temp file then move into place for atomic-ish replace
-        File tmp = File.createTempFile("history_", ".yml", getHistoryDir());
-        FileConfiguration fileConfig = YamlConfiguration.loadConfiguration(tmp);
-        for (Map.Entry<String, Report> entry : history.entrySet()) {
-            String key = entry.getKey();
-            Report report = entry.getValue();
-            fileConfig.set(key + ".reportId", report.getReportId());
-            fileConfig.set(key + ".reportedPlayer", report.getReportedPlayer());
-            fileConfig.set(key + ".reporter", report.getReporter());
-            fileConfig.set(key + ".reason", report.getReason());
-            fileConfig.set(key + ".timestamp", report.getTimestamp());
-            fileConfig.set(key + ".resolved", report.isResolved());
-            fileConfig.set(key + ".status", report.getStatus().name());
-            fileConfig.set(key + ".additionalInfo", report.getAdditionalInfo());
-            fileConfig.set(key + ".evidenceUrl", report.getEvidenceUrl());
-            fileConfig.set(key + ".resolutionComment", report.getResolutionComment());
-            fileConfig.set(key + ".location", report.getLocation());
-            fileConfig.set(key + ".serverIp", report.getServerIp());
-            fileConfig.set(key + ".world", report.getWorldName());
-            fileConfig.set(key + ".serverName", report.getServerName());
-            fileConfig.set(key + ".serverVersion", report.getServerVersion());
-        }
-        fileConfig.save(tmp);
-        try {
-            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-        } catch (AtomicMoveNotSupportedException e) {
-            // Fallback if filesystem doesn't support atomic move
-            Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
-        }
-    }
-
     @Override
     public boolean writeToUpdateHistory(Report report, String updater) {
         if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
             plugin.getLogger().log(Level.SEVERE, "writeToUpdateHistory called with invalid report");
             return false;
         }
-        File historyFile = historyFileForReportId(report.getReportId());
         try {
-            Map<String, Report> history = readHistoryFile(historyFile);
-            // Nutze Updater und Zeitstempel als eindeutigen Schlüssel
-            String key = updater + "_-_" + System.currentTimeMillis();
-            history.put(key, report);
-            writeHistoryFile(historyFile, history);
+            // Updater and timestamp as the unique key
+            history.append(report.getReportId(), JsonLinesHistoryStore.key(updater, System.currentTimeMillis()), report);
             return true;
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Could not write update history for report " + report.getReportId(), e);
@@ -357,15 +355,45 @@ public class YamlFileSystemHelper implements DatabaseHelper {
         }
     }
 
+    /**
+     * Appends the entries of every report with one write per history file.
+     */
+    @Override
+    public boolean writeToUpdateHistory(List<UpdateHistoryEntry> entries) {
+        try {
+            history.appendAll(entries);
+            return true;
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write " + entries.size() + " update history entries", e);
+            return false;
+        }
+    }
+
     @Override
     public Map<String, Report> getUpdateHistory(Report report) {
         if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
             plugin.getLogger().log(Level.SEVERE, "getUpdateHistory called with invalid report");
             return Map.of();
         }
-        File historyFile = historyFileForReportId(report.getReportId());
         try {
-            return readHistoryFile(historyFile);
+            return history.read(report.getReportId());
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not read update history for report " + report.getReportId(), e);
+            return Map.of();
+        }
+    }
+
+    /**
+     * Reads the history file from its end, older entries are not parsed.
+     */
+    @Override
+    public Map<String, Report> getUpdateHistory(Report report, int limit) {
+        if (report == null || report.getReportId() == null || report.getReportId().isEmpty()) {
+            plugin.getLogger().log(Level.SEVERE, "getUpdateHistory called with invalid report");
+            return Map.of();
+        }
+        try {
+            return history.readNewest(report.getReportId(), limit);
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Could not read update history for report " + report.getReportId(), e);
             return Map.of();
@@ -378,11 +406,6 @@ public class YamlFileSystemHelper implements DatabaseHelper {
             plugin.getLogger().log(Level.SEVERE, "clearUpdateHistory called with invalid report");
             return false;
         }
-        File historyFile = historyFileForReportId(report.getReportId());
-        if (historyFile.exists() && !historyFile.delete()) {
-            plugin.getLogger().log(Level.SEVERE, "Could not delete history file: " + historyFile.getAbsolutePath());
-            return false;
-        }
-        return true;
+        return history.clear(report.getReportId());
     }
 }
@@ -1,11 +1,19 @@
 package ch.framedev.reportPlugin.main;
 
 import ch.framedev.reportPlugin.commands.*;
+import ch.framedev.reportPlugin.database.CacheStats;
+import ch.framedev.reportPlugin.database.CodecStats;
 import ch.framedev.reportPlugin.database.Database;
+import ch.framedev.reportPlugin.database.IndexStats;
+import ch.framedev.reportPlugin.database.ViewCacheStats;
+import ch.framedev.reportPlugin.database.PoolStats;
+import ch.framedev.reportPlugin.database.ReportQuery;
 import ch.framedev.reportPlugin.utils.ConfigUtils;
 import ch.framedev.reportPlugin.utils.MessageUtils;
+import ch.framedev.reportPlugin.utils.ReportStatus;
 
 import java.io.File;
+import java.util.Locale;
 
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
@@ -46,6 +54,9 @@ public final class ReportPlugin extends JavaPlugin {
     private ReportListCommand reportListCommand;
     private ReportHelpCommand reportHelpCommand;
 
+    // Rendered GUI items, shared by the report GUI and the report data GUI
+    private final ReportItemCache itemCache = new ReportItemCache();
+
     @Override
     public void onEnable() {
         instance = this;
@@ -60,8 +71,8 @@ public final class ReportPlugin extends JavaPlugin {
 
         this.reportCommand = new ReportCommand(this, database);
         this.reportListCommand = new ReportListCommand(database);
-        this.reportGUI = new ReportGUI(database);
-        this.reportDataCommand = new ReportDataCommand(database);
+        this.reportGUI = new ReportGUI(database, itemCache);
+        this.reportDataCommand = new ReportDataCommand(database, itemCache);
         this.reportTeleportCommand = new ReportTeleportCommand(database);
         this.reportDeleteCommand = new ReportDeleteCommand(database);
         this.reportUpdateHistoryCommand = new ReportUpdateHistoryCommand(database);
@@ -182,6 +193,7 @@ public final class ReportPlugin extends JavaPlugin {
         }
 
         disconnectDatabase();
+        itemCache.clear();
         database = null;
         messagesConfig = null;
         reportCommand = null;
@@ -207,6 +219,8 @@ public final class ReportPlugin extends JavaPlugin {
     private void reloadMessagesConfig() {
         File messageFile = new File(getDataFolder(), MESSAGE_FILE_NAME);
         messagesConfig = YamlConfiguration.loadConfiguration(messageFile);
+        // Items show messages, render them again with the reloaded ones
+        itemCache.invalidateAll();
     }
 
     private void setupMessageFile() {
@@ -231,13 +245,112 @@ public final class ReportPlugin extends JavaPlugin {
                     MessageUtils.send(sender, "messages.reportplugin_reload_no_permission",
                             "&cYou do not have permission to execute this command.");
                 }
+            } else if (args.length == 1 && args[0].equalsIgnoreCase("stats")) {
+                if (sender.hasPermission("reportplugin.stats")) {
+                    sendStats(sender);
+                } else {
+                    MessageUtils.send(sender, "messages.no_permission",
+                            "&cYou do not have permission to use this command.");
+                }
             } else {
                 MessageUtils.send(sender, "messages.usage_reportplugin_reload",
-                        "&cUsage: /{label} reload",
+                        "&cUsage: /{label} <reload|stats>",
                         "{label}", label);
             }
             return true;
         }
         return super.onCommand(sender, command, label, args);
     }
+
+    private void sendStats(CommandSender sender) {
+        if (database == null) {
+            MessageUtils.send(sender, "messages.stats_no_database", "&cThe database is not connected.");
+            return;
+        }
+        MessageUtils.send(sender, "messages.stats_header",
+                "&6&lReportPlugin Statistics &7({database})",
+                "{database}", database.getDatabaseType());
+        PoolStats poolStats = database.getPoolStats();
+        if (poolStats == null) {
+            MessageUtils.send(sender, "messages.stats_pool_none", "&7Connection pool: &fnot used by this backend");
+        } else {
+            sendPoolStats(sender, poolStats);
+        }
+        int pendingWrites = database.getPendingWrites();
+        if (pendingWrites >= 0) {
+            MessageUtils.send(sender, "messages.stats_write_behind",
+                    "&7Write-behind queue: &f{pending}&7 pending writes",
+                    "{pending}", String.valueOf(pendingWrites));
+        }
+        CacheStats cacheStats = database.getCacheStats();
+        if (cacheStats != null) {
+            MessageUtils.send(sender, "messages.stats_cache",
+                    "&7Report cache: &f{size}&7/&f{max_size}&7 cached, &f{hits}&7 hits, &f{misses}&7 misses, &f{evictions}&7 evictions (&f{hit_rate}%&7 hit rate)",
+                    "{size}", String.valueOf(cacheStats.size()),
+                    "{max_size}", String.valueOf(cacheStats.maxSize()),
+                    "{hits}", String.valueOf(cacheStats.hits()),
+                    "{misses}", String.valueOf(cacheStats.misses()),
+                    "{evictions}", String.valueOf(cacheStats.evictions()),
+                    "{hit_rate}", String.valueOf(Math.round(cacheStats.hitRate() * 100)));
+        }
+        IndexStats indexStats = database.getIndexStats();
+        if (indexStats != null) {
+            if (indexStats.loaded()) {
+                MessageUtils.send(sender, "messages.stats_index",
+                        "&7Report index: &f{reports}&7 reports, &f{players}&7 reported players, &f{reporters}&7 reporters, ~&f{memory_kib}&7 KiB",
+                        "{reports}", String.valueOf(indexStats.reports()),
+                        "{players}", String.valueOf(indexStats.reportedPlayers()),
+                        "{reporters}", String.valueOf(indexStats.reporters()),
+                        "{memory_kib}", String.valueOf(indexStats.estimatedBytes() / 1024L));
+            } else {
+                MessageUtils.send(sender, "messages.stats_index_loading", "&7Report index: &fnot loaded, reading from the database");
+            }
+        }
+        ViewCacheStats viewCacheStats = database.getViewCacheStats();
+        if (viewCacheStats != null) {
+            MessageUtils.send(sender, "messages.stats_view_cache",
+                    "&7View cache: &f{views}&7/&f{max_views}&7 views of &f{reports}&7 reports, &f{hits}&7 hits, &f{builds}&7 builds",
+                    "{views}", String.valueOf(viewCacheStats.views()),
+                    "{max_views}", String.valueOf(viewCacheStats.maxViews()),
+                    "{reports}", String.valueOf(viewCacheStats.reports()),
+                    "{hits}", String.valueOf(viewCacheStats.hits()),
+                    "{builds}", String.valueOf(viewCacheStats.builds()));
+        }
+        for (CodecStats codecStats : database.getCodecStats()) {
+            MessageUtils.send(sender, "messages.stats_codec",
+                    "&7Codec {codec}: &f{encodes}&7 encoded, &f{decodes}&7 decoded, ~&f{bytes}&7 bytes per report, &f{encode_us}&7/&f{decode_us}&7 µs to encode/decode",
+                    "{codec}", codecStats.name(),
+                    "{encodes}", String.valueOf(codecStats.encodes()),
+                    "{decodes}", String.valueOf(codecStats.decodes()),
+                    "{bytes}", String.valueOf(codecStats.averageBytes()),
+                    "{encode_us}", String.format(Locale.ROOT, "%.1f", codecStats.averageEncodeMicros()),
+                    "{decode_us}", String.format(Locale.ROOT, "%.1f", codecStats.averageDecodeMicros()));
+        }
+        database.async().countReportsByStatus(ReportQuery.all()).thenAccept(counts -> {
+            int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+            MessageUtils.send(sender, "messages.stats_reports",
+                    "&7Reports: &f{total}&7 total, &f{open}&7 open, &f{in_progress}&7 in progress, &f{resolved}&7 resolved, &f{rejected}&7 rejected, &f{punished}&7 punished",
+                    "{total}", String.valueOf(total),
+                    "{open}", String.valueOf(counts.get(ReportStatus.OPEN)),
+                    "{in_progress}", String.valueOf(counts.get(ReportStatus.IN_PROGRESS)),
+                    "{resolved}", String.valueOf(counts.get(ReportStatus.RESOLVED)),
+                    "{rejected}", String.valueOf(counts.get(ReportStatus.REJECTED)),
+                    "{punished}", String.valueOf(counts.get(ReportStatus.PUNISHED)));
+        });
+    }
+
+    private void sendPoolStats(CommandSender sender, PoolStats poolStats) {
+        MessageUtils.send(sender, "messages.stats_pool",
+                "&7Connection pool: &f{active}&7 active, &f{idle}&7 idle, &f{waiting}&7 waiting",
+                "{active}", String.valueOf(poolStats.active()),
+                "{idle}", String.valueOf(poolStats.idle()),
+                "{waiting}", String.valueOf(poolStats.waiting()));
+        MessageUtils.send(sender, "messages.stats_pool_totals",
+                "&7Pool totals: &f{borrows}&7 borrows, &f{created}&7 opened, &f{destroyed}&7 closed, &f{timeouts}&7 timeouts, &f{leaks}&7 leaks",
+                "{borrows}", String.valueOf(poolStats.borrows()),
+                "{created}", String.valueOf(poolStats.created()),
+                "{destroyed}", String.valueOf(poolStats.destroyed()),
+                "{timeouts}", String.valueOf(poolStats.timeouts()),
+                "{leaks}", String.valueOf(poolStats.leaks()));
+    }
 }
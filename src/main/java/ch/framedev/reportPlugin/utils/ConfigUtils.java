@@ -144,6 +144,7 @@ public record ConfigUtils(FileConfiguration config) {
         setDefault("mysql.database", "reports");
         setDefault("mysql.username", "yourUsername");
         setDefault("mysql.password", "yourPassword");
+        setupPoolConfig("mysql", 2, 10, "SELECT 1");
 
         setComments("postgresql", "PostgreSQL connection settings.");
         setDefault("postgresql.host", "localhost");
@@ -151,6 +152,7 @@ public record ConfigUtils(FileConfiguration config) {
         setDefault("postgresql.database", "reports");
         setDefault("postgresql.username", "yourUsername");
         setDefault("postgresql.password", "yourPassword");
+        setupPoolConfig("postgresql", 2, 10, "SELECT 1");
 
         setComments("sqlite", "SQLite stores the database in a local file inside the plugin folder.");
         setDefault("sqlite.file", "reports.db");
@@ -159,10 +161,13 @@ public record ConfigUtils(FileConfiguration config) {
         setComments("sqlite.path", "Relative folder path for the SQLite database file.");
         setDefault("sqlite.database", "reports.db");
         setComments("sqlite.database", "Actual SQLite database filename used by the plugin.");
+        setupPoolConfig("sqlite", 1, 1, "");
+        setComments("sqlite.pool.maximum-size", "SQLite only allows one writer, keep this at 1 unless WAL mode is enabled.");
 
         setComments("h2Storage", "H2 local file storage settings.");
         setDefault("h2Storage.file", "reports");
         setDefault("h2Storage.path", "database");
+        setupPoolConfig("h2Storage", 1, 4, "");
 
         setComments("mongodb", "MongoDB connection settings.");
         setDefault("mongodb.host", "localhost");
@@ -171,18 +176,102 @@ public record ConfigUtils(FileConfiguration config) {
         setDefault("mongodb.username", "yourUsername");
         setDefault("mongodb.password", "yourPassword");
 
-        setComments("redis", "Optional Redis cache used by the MySQL backend.");
+        setComments("redis", "Optional Redis cache shared between servers, works with every storage backend.");
         setDefault("redis.enabled", false);
         setDefault("redis.host", "localhost");
         setDefault("redis.port", 6379);
         setDefault("redis.password", "");
         setDefault("redis.ttl", 300);
         setComments("redis.ttl", "Cache TTL in seconds.");
+        setDefault("redis.invalidation-channel", "reportplugin:invalidate");
+        setComments("redis.invalidation-channel",
+                "Pub/sub channel used to tell other servers that a report changed, so they evict it from their caches.",
+                "Every server sharing the same database has to use the same channel.");
+
+        setComments("write-behind", "Batches new reports and update history writes before they are sent to the database.");
+        setDefault("write-behind.enabled", true);
+        setComments("write-behind.enabled", "Set to false to write every change immediately.");
+        setDefault("write-behind.flush-size", 50);
+        setComments("write-behind.flush-size", "Queued writes are flushed as soon as this many are pending.");
+        setDefault("write-behind.flush-interval-ms", 250);
+        setComments("write-behind.flush-interval-ms", "Queued writes are flushed at least this often.");
+
+        setComments("cache", "In-memory cache for reports looked up by id. Works with every backend, independent of Redis.");
+        setDefault("cache.enabled", true);
+        setComments("cache.enabled", "Set to false to read every report from the database.");
+        setDefault("cache.max-size", 1000);
+        setComments("cache.max-size", "Maximum number of cached reports, the least recently used ones are evicted first.");
+        setDefault("cache.ttl-seconds", 60);
+        setComments("cache.ttl-seconds", "Seconds a report stays cached, bounds how long changes made by other servers can be missed.");
+
+        setComments("admission-index", "Counts reports per player and reporter in memory for the report-settings limits.");
+        setDefault("admission-index.enabled", true);
+        setComments("admission-index.enabled",
+                "Answers the limit and duplicate-window checks of /report without querying the database.",
+                "The counters are built from the stored reports at startup.");
+
+        setComments("index", "Keeps every report in memory with indexes by id, player, reporter, status and time.");
+        setDefault("index.enabled", false);
+        setComments("index.enabled",
+                "Loads all reports at startup so lookups, limits and tab completion never scan the database.",
+                "Needs memory for every report, /reportplugin stats shows an estimate.");
+
+        setComments("view-cache", "Keeps the sorted report lists of the GUI and /reports-list in memory, shared by all staff.");
+        setDefault("view-cache.enabled", false);
+        setComments("view-cache.enabled",
+                "Loads the summary of every report on the first list view and keeps them in memory, only enable it if all reports fit comfortably.",
+                "Without it the lists are read page by page from the database.");
+        setDefault("view-cache.max-views", 16);
+        setComments("view-cache.max-views", "Maximum number of sort order and filter combinations kept, the least recently used is dropped.");
+
+        setComments("file-loader", "Full scans of the jsonfilesystem, yamlfilesystem and textfilesystem backends read files in parallel.");
+        setDefault("file-loader.threads", 0);
+        setComments("file-loader.threads", "Maximum number of threads reading report files, 0 uses one per CPU core.");
+
+        setComments("update-history", "Update history entries only store the fields changed since the last full copy of the report.");
+        setDefault("update-history.keyframe-interval", 10);
+        setComments("update-history.keyframe-interval",
+                "Number of history entries per full copy, 1 stores every entry in full.");
+
+        setComments("codec", "How reports are serialized by the SQL backends, logfilesystem and Redis.");
+        setDefault("codec.format", "json");
+        setComments("codec.format",
+                "json or binary (smaller and faster, not human-readable). Set <backend>.codec, e.g. redis.codec, to override it for one backend.",
+                "Existing data stays readable after switching, only new writes use the new format.");
+
+        setComments("logfilesystem", "Settings of the logfilesystem backend, which appends every change to segment files.");
+        setDefault("logfilesystem.segment-size-mb", 16);
+        setComments("logfilesystem.segment-size-mb", "A new segment file is started once the current one reaches this size.");
+        setDefault("logfilesystem.sync", true);
+        setComments("logfilesystem.sync",
+                "Forces every group of writes to disk before it is acknowledged.",
+                "Set to false for faster writes that may lose the last changes on a power loss.");
+        setDefault("logfilesystem.compaction-interval-seconds", 300);
+        setComments("logfilesystem.compaction-interval-seconds", "How often segments are checked for compaction, 0 disables compaction.");
+        setDefault("logfilesystem.compaction-garbage-ratio", 0.5);
+        setComments("logfilesystem.compaction-garbage-ratio", "Segments are rewritten once this share of their bytes belongs to superseded or deleted versions.");
 
         setDefault("database", "jsonfilesystem");
         setComments("database",
                 "Storage backend to use.",
-                "Supported values: mysql, sqlite, postgresql, h2, mongodb, jsonfilesystem, yamlfilesystem, textfilesystem");
+                "Supported values: mysql, sqlite, postgresql, h2, mongodb, jsonfilesystem, yamlfilesystem, textfilesystem, logfilesystem");
+    }
+
+    private void setupPoolConfig(String section, int minimumIdle, int maximumSize, String validationQuery) {
+        String prefix = section + ".pool";
+        setComments(prefix, "Connection pool settings.");
+        setDefault(prefix + ".minimum-idle", minimumIdle);
+        setComments(prefix + ".minimum-idle", "Connections kept open while the server is idle.");
+        setDefault(prefix + ".maximum-size", maximumSize);
+        setComments(prefix + ".maximum-size", "Maximum number of open connections.");
+        setDefault(prefix + ".idle-timeout-seconds", 600);
+        setComments(prefix + ".idle-timeout-seconds", "Idle connections above minimum-idle are closed after this many seconds.");
+        setDefault(prefix + ".acquire-timeout-ms", 5000);
+        setComments(prefix + ".acquire-timeout-ms", "How long a database call waits for a free connection before failing.");
+        setDefault(prefix + ".leak-detection-threshold-ms", 0);
+        setComments(prefix + ".leak-detection-threshold-ms", "Logs connections held longer than this. Set to 0 to disable.");
+        setDefault(prefix + ".validation-query", validationQuery);
+        setComments(prefix + ".validation-query", "Query used to check idle connections. Leave empty to use the driver check.");
     }
 
     private void setDefault(String path, Object value) {
@@ -12,10 +12,16 @@ package ch.framedev.reportPlugin.utils;
  */
 
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import org.bson.Document;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -29,14 +35,16 @@ import java.util.Date;
  * @version 1.0
  * @since 2025-07-29
  */
+@JsonAdapter(Report.GsonAdapter.class)
 public class Report {
 
+    private static final Gson GSON = new Gson();
+
     private String reportedPlayer;
     private String reason;
     private String reporter;
     private long timestamp;
     private String timeAsString;
-    private boolean resolved;
     private String resolutionComment;
     private String reportId;
     private String serverName;
@@ -45,9 +53,17 @@ public class Report {
     private String worldName;
     private String location; // Format: "world,x,y,z"
     private String additionalInfo;
-    private String status;
+    // Resolved is derived from the status, the enum is parsed once when the report is created or read
+    private ReportStatus status = ReportStatus.OPEN;
     private String evidenceUrl;
 
+    // Parsed from location whenever it is set, so teleports and notifications do not split it again
+    private String locationWorld;
+    private double locationX;
+    private double locationY;
+    private double locationZ;
+    private boolean hasCoordinates;
+
     public Report() {
     }
 
@@ -71,16 +87,15 @@ public class Report {
         this.timestamp = System.currentTimeMillis();
         SimpleDateFormat simpleDateFormat = new SimpleDateFormat("HH:mm-dd.MM.yyyy");
         this.timeAsString = simpleDateFormat.format(new Date());
-        this.resolved = false;
         this.resolutionComment = "";
         this.reportId = reportId;
         this.serverName = serverName;
         this.serverIp = serverIp;
         this.serverVersion = serverVersion;
         this.worldName = worldName;
-        this.location = location;
+        setLocation(location);
         this.additionalInfo = "";
-        this.status = ReportStatus.OPEN.name();
+        this.status = ReportStatus.OPEN;
         this.evidenceUrl = "";
     }
 
@@ -135,22 +150,45 @@ public class Report {
             SimpleDateFormat simpleDateFormat = new SimpleDateFormat("HH:mm-dd.MM.yyyy");
             this.timeAsString = simpleDateFormat.format(new Date(this.timestamp));
         }
-        this.resolved = document.getBoolean("resolved", false);
         this.resolutionComment = document.getString("resolutionComment");
         this.reportId = document.getString("reportId");
         this.serverName = document.getString("serverName");
         this.serverIp = document.getString("serverIp");
         this.serverVersion = document.getString("serverVersion");
         this.worldName = document.getString("worldName");
-        this.location = document.getString("location");
+        setLocation(document.getString("location"));
         this.additionalInfo = document.getString("additionalInfo");
-        this.status = document.getString("status");
+        String storedStatus = document.getString("status");
+        this.status = storedStatus == null || storedStatus.isBlank()
+                ? ReportStatus.fromResolved(document.getBoolean("resolved", false))
+                : ReportStatus.fromStorage(storedStatus);
         this.evidenceUrl = document.getString("evidenceUrl");
-        if (this.status == null || this.status.isBlank()) {
-            this.status = ReportStatus.fromResolved(this.resolved).name();
-        } else {
-            this.resolved = getStatus().isClosed();
-        }
+    }
+
+    /**
+     * Creates a mutable copy of a snapshot, the parsed location is taken over as is.
+     */
+    Report(ReportSnapshot snapshot) {
+        this.reportedPlayer = snapshot.getReportedPlayer();
+        this.reason = snapshot.getReason();
+        this.reporter = snapshot.getReporter();
+        this.timestamp = snapshot.getTimestamp();
+        this.timeAsString = snapshot.getTimeAsString();
+        this.resolutionComment = snapshot.getResolutionComment();
+        this.reportId = snapshot.getReportId();
+        this.serverName = snapshot.getServerName();
+        this.serverIp = snapshot.getServerIp();
+        this.serverVersion = snapshot.getServerVersion();
+        this.worldName = snapshot.getWorldName();
+        this.location = snapshot.getLocation();
+        this.additionalInfo = snapshot.getAdditionalInfo();
+        this.status = snapshot.getStatus();
+        this.evidenceUrl = snapshot.getEvidenceUrl();
+        this.locationWorld = snapshot.getLocationWorld();
+        this.locationX = snapshot.getLocationX();
+        this.locationY = snapshot.getLocationY();
+        this.locationZ = snapshot.getLocationZ();
+        this.hasCoordinates = snapshot.hasCoordinates();
     }
 
     public String getReportedPlayer() {
@@ -185,13 +223,20 @@ public class Report {
         this.timestamp = timestamp;
     }
 
+    public String getTimeAsString() {
+        return timeAsString;
+    }
+
+    public void setTimeAsString(String timeAsString) {
+        this.timeAsString = timeAsString;
+    }
+
     public boolean isResolved() {
-        return getStatus().isClosed();
+        return status.isClosed();
     }
 
     public void setResolved(boolean resolved) {
-        this.resolved = resolved;
-        this.status = ReportStatus.fromResolved(resolved).name();
+        this.status = ReportStatus.fromResolved(resolved);
     }
 
     public String getResolutionComment() {
@@ -262,6 +307,65 @@ public class Report {
 
     public void setLocation(String location) {
         this.location = location;
+        this.hasCoordinates = false;
+        this.locationWorld = null;
+        if (location == null) {
+            return;
+        }
+        int first = location.indexOf(',');
+        int second = first < 0 ? -1 : location.indexOf(',', first + 1);
+        int third = second < 0 ? -1 : location.indexOf(',', second + 1);
+        if (third < 0 || location.indexOf(',', third + 1) >= 0) {
+            return;
+        }
+        try {
+            this.locationX = Double.parseDouble(location.substring(first + 1, second));
+            this.locationY = Double.parseDouble(location.substring(second + 1, third));
+            this.locationZ = Double.parseDouble(location.substring(third + 1));
+        } catch (NumberFormatException ex) {
+            return;
+        }
+        this.locationWorld = location.substring(0, first);
+        this.hasCoordinates = true;
+    }
+
+    /**
+     * @return whether the location is in "world,x,y,z" format, otherwise the coordinates are 0
+     */
+    public boolean hasCoordinates() {
+        return hasCoordinates;
+    }
+
+    /**
+     * @return the world name of the location, null if it has no coordinates
+     */
+    public String getLocationWorld() {
+        return locationWorld;
+    }
+
+    public double getLocationX() {
+        return locationX;
+    }
+
+    public double getLocationY() {
+        return locationY;
+    }
+
+    public double getLocationZ() {
+        return locationZ;
+    }
+
+    /**
+     * Creates the Bukkit location from the already parsed coordinates.
+     *
+     * @return the location of the report.
+     * @throws IllegalArgumentException if the location is not in the correct format.
+     */
+    public Location getBukkitLocation() {
+        if (!hasCoordinates) {
+            throw new IllegalArgumentException("Invalid location format: " + location);
+        }
+        return new Location(Bukkit.getWorld(locationWorld), locationX, locationY, locationZ);
     }
 
     /**
@@ -288,16 +392,11 @@ public class Report {
     }
 
     public ReportStatus getStatus() {
-        ReportStatus currentStatus = ReportStatus.fromStorage(status);
-        this.status = currentStatus.name();
-        this.resolved = currentStatus.isClosed();
-        return currentStatus;
+        return status;
     }
 
     public void setStatus(ReportStatus status) {
-        ReportStatus safeStatus = status == null ? ReportStatus.OPEN : status;
-        this.status = safeStatus.name();
-        this.resolved = safeStatus.isClosed();
+        this.status = status == null ? ReportStatus.OPEN : status;
     }
 
     public void setStatus(String status) {
@@ -319,7 +418,7 @@ public class Report {
                ", reason='" + reason + '\'' +
                ", reporter='" + reporter + '\'' +
                ", timestamp=" + timestamp +
-               ", status='" + getStatus().name() + '\'' +
+               ", status='" + status.name() + '\'' +
                ", resolved=" + isResolved() +
                ", resolutionComment='" + resolutionComment + '\'' +
                ", reportId='" + reportId + '\'' +
@@ -333,8 +432,15 @@ public class Report {
                '}';
     }
 
+    /**
+     * @return an immutable copy of this report that can be shared across threads and caches
+     */
+    public ReportSnapshot snapshot() {
+        return ReportSnapshot.of(this);
+    }
+
     public String toJson() {
-        return new Gson().toJson(this);
+        return GSON.toJson(this);
     }
 
     /**
@@ -362,4 +468,90 @@ public class Report {
         document.put("evidenceUrl", getEvidenceUrl());
         return document;
     }
+
+    /**
+     * Streams the fields of a report without reflection. Used by every {@link Gson} instance through
+     * {@link JsonAdapter}, it writes the same JSON as the reflective adapter did, null fields are left out.
+     * The status is parsed once while reading.
+     */
+    public static final class GsonAdapter extends TypeAdapter<Report> {
+
+        @Override
+        public void write(JsonWriter out, Report report) throws IOException {
+            if (report == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeString(out, "reportedPlayer", report.reportedPlayer);
+            writeString(out, "reason", report.reason);
+            writeString(out, "reporter", report.reporter);
+            out.name("timestamp").value(report.timestamp);
+            writeString(out, "timeAsString", report.timeAsString);
+            out.name("resolved").value(report.isResolved());
+            writeString(out, "resolutionComment", report.resolutionComment);
+            writeString(out, "reportId", report.reportId);
+            writeString(out, "serverName", report.serverName);
+            writeString(out, "serverIp", report.serverIp);
+            writeString(out, "serverVersion", report.serverVersion);
+            writeString(out, "worldName", report.worldName);
+            writeString(out, "location", report.location);
+            writeString(out, "additionalInfo", report.additionalInfo);
+            writeString(out, "status", report.status.name());
+            writeString(out, "evidenceUrl", report.evidenceUrl);
+            out.endObject();
+        }
+
+        @Override
+        public Report read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            Report report = new Report();
+            String status = null;
+            boolean resolved = false;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "reportedPlayer" -> report.reportedPlayer = in.nextString();
+                    case "reason" -> report.reason = in.nextString();
+                    case "reporter" -> report.reporter = in.nextString();
+                    case "timestamp" -> report.timestamp = in.nextLong();
+                    case "timeAsString" -> report.timeAsString = in.nextString();
+                    case "resolved" -> resolved = in.peek() == JsonToken.STRING
+                            ? Boolean.parseBoolean(in.nextString())
+                            : in.nextBoolean();
+                    case "resolutionComment" -> report.resolutionComment = in.nextString();
+                    case "reportId" -> report.reportId = in.nextString();
+                    case "serverName" -> report.serverName = in.nextString();
+                    case "serverIp" -> report.serverIp = in.nextString();
+                    case "serverVersion" -> report.serverVersion = in.nextString();
+                    case "worldName" -> report.worldName = in.nextString();
+                    case "location" -> report.setLocation(in.nextString());
+                    case "additionalInfo" -> report.additionalInfo = in.nextString();
+                    case "status" -> status = in.nextString();
+                    case "evidenceUrl" -> report.evidenceUrl = in.nextString();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            // Reports written before statuses existed only have the resolved flag
+            report.status = status == null || status.isBlank()
+                    ? ReportStatus.fromResolved(resolved)
+                    : ReportStatus.fromStorage(status);
+            return report;
+        }
+
+        private static void writeString(JsonWriter out, String name, String value) throws IOException {
+            if (value != null) {
+                out.name(name).value(value);
+            }
+        }
+    }
 }
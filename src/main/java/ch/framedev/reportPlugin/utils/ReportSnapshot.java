@@ -0,0 +1,365 @@
+package ch.framedev.reportPlugin.utils;
+
+/*
+ * ch.framedev.reportPlugin.utils
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 20:55
+ */
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+
+/**
+ * Immutable copy of a {@link Report}, safe to share across async threads and caches without copying.
+ * <p>
+ * The status is an enum and the location is parsed into primitive coordinates, so reading a snapshot never
+ * allocates. Server and world names are interned, since thousands of reports share the same few values.
+ * Edits go through {@link #toBuilder()}, {@link #toReport()} creates a mutable report again.
+ */
+public final class ReportSnapshot {
+
+    private final String reportId;
+    private final String reportedPlayer;
+    private final String reporter;
+    private final String reason;
+    private final long timestamp;
+    private final String timeAsString;
+    private final ReportStatus status;
+    private final String resolutionComment;
+    private final String serverName;
+    private final String serverIp;
+    private final String serverVersion;
+    private final String worldName;
+    private final String location;
+    private final String additionalInfo;
+    private final String evidenceUrl;
+    private final String locationWorld;
+    private final double locationX;
+    private final double locationY;
+    private final double locationZ;
+    private final boolean hasCoordinates;
+
+    private ReportSnapshot(Builder builder) {
+        this.reportId = builder.reportId;
+        this.reportedPlayer = builder.reportedPlayer;
+        this.reporter = builder.reporter;
+        this.reason = builder.reason;
+        this.timestamp = builder.timestamp;
+        this.timeAsString = builder.timeAsString;
+        this.status = builder.status == null ? ReportStatus.OPEN : builder.status;
+        this.resolutionComment = builder.resolutionComment == null ? "" : builder.resolutionComment;
+        this.serverName = intern(builder.serverName);
+        this.serverIp = intern(builder.serverIp);
+        this.serverVersion = intern(builder.serverVersion);
+        this.worldName = intern(builder.worldName);
+        this.additionalInfo = builder.additionalInfo == null ? "" : builder.additionalInfo;
+        this.evidenceUrl = builder.evidenceUrl == null ? "" : builder.evidenceUrl;
+        // Parsed by the same code as Report, so both agree on malformed locations
+        Report parsed = new Report();
+        parsed.setLocation(builder.location);
+        this.location = builder.location;
+        this.hasCoordinates = parsed.hasCoordinates();
+        this.locationWorld = intern(parsed.getLocationWorld());
+        this.locationX = parsed.getLocationX();
+        this.locationY = parsed.getLocationY();
+        this.locationZ = parsed.getLocationZ();
+    }
+
+    private ReportSnapshot(Report report) {
+        this.reportId = report.getReportId();
+        this.reportedPlayer = report.getReportedPlayer();
+        this.reporter = report.getReporter();
+        this.reason = report.getReason();
+        this.timestamp = report.getTimestamp();
+        this.timeAsString = report.getTimeAsString();
+        this.status = report.getStatus();
+        this.resolutionComment = report.getResolutionComment();
+        this.serverName = intern(report.getServerName());
+        this.serverIp = intern(report.getServerIp());
+        this.serverVersion = intern(report.getServerVersion());
+        this.worldName = intern(report.getWorldName());
+        this.location = report.getLocation();
+        this.additionalInfo = report.getAdditionalInfo();
+        this.evidenceUrl = report.getEvidenceUrl();
+        this.hasCoordinates = report.hasCoordinates();
+        this.locationWorld = intern(report.getLocationWorld());
+        this.locationX = report.getLocationX();
+        this.locationY = report.getLocationY();
+        this.locationZ = report.getLocationZ();
+    }
+
+    /**
+     * @return an immutable copy of the report, later changes to the report do not affect it
+     */
+    public static ReportSnapshot of(Report report) {
+        return new ReportSnapshot(report);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a builder initialized with the fields of this snapshot
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.reportId = reportId;
+        builder.reportedPlayer = reportedPlayer;
+        builder.reporter = reporter;
+        builder.reason = reason;
+        builder.timestamp = timestamp;
+        builder.timeAsString = timeAsString;
+        builder.status = status;
+        builder.resolutionComment = resolutionComment;
+        builder.serverName = serverName;
+        builder.serverIp = serverIp;
+        builder.serverVersion = serverVersion;
+        builder.worldName = worldName;
+        builder.location = location;
+        builder.additionalInfo = additionalInfo;
+        builder.evidenceUrl = evidenceUrl;
+        return builder;
+    }
+
+    /**
+     * @return a new mutable report with the fields of this snapshot
+     */
+    public Report toReport() {
+        return new Report(this);
+    }
+
+    public String getReportId() {
+        return reportId;
+    }
+
+    public String getReportedPlayer() {
+        return reportedPlayer;
+    }
+
+    public String getReporter() {
+        return reporter;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getTimeAsString() {
+        return timeAsString;
+    }
+
+    public ReportStatus getStatus() {
+        return status;
+    }
+
+    public boolean isResolved() {
+        return status.isClosed();
+    }
+
+    public String getResolutionComment() {
+        return resolutionComment;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public String getServerIp() {
+        return serverIp;
+    }
+
+    public String getServerVersion() {
+        return serverVersion;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getAdditionalInfo() {
+        return additionalInfo;
+    }
+
+    public String getEvidenceUrl() {
+        return evidenceUrl;
+    }
+
+    /**
+     * @return whether the location is in "world,x,y,z" format, otherwise the coordinates are 0
+     */
+    public boolean hasCoordinates() {
+        return hasCoordinates;
+    }
+
+    /**
+     * @return the world name of the location, null if it has no coordinates
+     */
+    public String getLocationWorld() {
+        return locationWorld;
+    }
+
+    public double getLocationX() {
+        return locationX;
+    }
+
+    public double getLocationY() {
+        return locationY;
+    }
+
+    public double getLocationZ() {
+        return locationZ;
+    }
+
+    /**
+     * @return the location of the report.
+     * @throws IllegalArgumentException if the location is not in the correct format.
+     */
+    public Location getBukkitLocation() {
+        if (!hasCoordinates) {
+            throw new IllegalArgumentException("Invalid location format: " + location);
+        }
+        return new Location(Bukkit.getWorld(locationWorld), locationX, locationY, locationZ);
+    }
+
+    /**
+     * @return a rough estimate of the heap used by this snapshot in bytes
+     */
+    public long estimatedBytes() {
+        // Object header and fields, strings cost their header and one byte per Latin-1 character
+        long bytes = 112L;
+        for (String value : new String[]{reportId, reportedPlayer, reporter, reason, timeAsString, resolutionComment,
+                location, additionalInfo, evidenceUrl}) {
+            bytes += value == null ? 0L : 40L + value.length();
+        }
+        // Interned strings are shared with every other report and not counted
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportSnapshot{reportId='" + reportId + "', reportedPlayer='" + reportedPlayer + "', reporter='" + reporter +
+               "', status=" + status + ", timestamp=" + timestamp + "}";
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+
+    /**
+     * Builder for {@link ReportSnapshot}, e.g. {@code snapshot.toBuilder().status(ReportStatus.RESOLVED).build()}.
+     */
+    public static final class Builder {
+        private String reportId;
+        private String reportedPlayer;
+        private String reporter;
+        private String reason;
+        private long timestamp;
+        private String timeAsString;
+        private ReportStatus status = ReportStatus.OPEN;
+        private String resolutionComment;
+        private String serverName;
+        private String serverIp;
+        private String serverVersion;
+        private String worldName;
+        private String location;
+        private String additionalInfo;
+        private String evidenceUrl;
+
+        private Builder() {
+        }
+
+        public Builder reportId(String reportId) {
+            this.reportId = reportId;
+            return this;
+        }
+
+        public Builder reportedPlayer(String reportedPlayer) {
+            this.reportedPlayer = reportedPlayer;
+            return this;
+        }
+
+        public Builder reporter(String reporter) {
+            this.reporter = reporter;
+            return this;
+        }
+
+        public Builder reason(String reason) {
+            this.reason = reason;
+            return this;
+        }
+
+        public Builder timestamp(long timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        public Builder timeAsString(String timeAsString) {
+            this.timeAsString = timeAsString;
+            return this;
+        }
+
+        public Builder status(ReportStatus status) {
+            this.status = status;
+            return this;
+        }
+
+        public Builder resolutionComment(String resolutionComment) {
+            this.resolutionComment = resolutionComment;
+            return this;
+        }
+
+        public Builder serverName(String serverName) {
+            this.serverName = serverName;
+            return this;
+        }
+
+        public Builder serverIp(String serverIp) {
+            this.serverIp = serverIp;
+            return this;
+        }
+
+        public Builder serverVersion(String serverVersion) {
+            this.serverVersion = serverVersion;
+            return this;
+        }
+
+        public Builder worldName(String worldName) {
+            this.worldName = worldName;
+            return this;
+        }
+
+        /**
+         * @param location the location in "world,x,y,z" format
+         */
+        public Builder location(String location) {
+            this.location = location;
+            return this;
+        }
+
+        public Builder additionalInfo(String additionalInfo) {
+            this.additionalInfo = additionalInfo;
+            return this;
+        }
+
+        public Builder evidenceUrl(String evidenceUrl) {
+            this.evidenceUrl = evidenceUrl;
+            return this;
+        }
+
+        public ReportSnapshot build() {
+            return new ReportSnapshot(this);
+        }
+    }
+}
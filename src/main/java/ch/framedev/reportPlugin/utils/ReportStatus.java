@@ -9,6 +9,9 @@ public enum ReportStatus {
     REJECTED("Rejected", true),
     PUNISHED("Punished", true);
 
+    // values() copies the array on every call
+    private static final ReportStatus[] VALUES = values();
+
     private final String displayName;
     private final boolean closed;
 
@@ -29,9 +32,15 @@ public enum ReportStatus {
         if (value == null || value.isBlank()) {
             return OPEN;
         }
+        // Stored values are enum names, so the common case needs no normalization
+        for (ReportStatus status : VALUES) {
+            if (status.name().equals(value)) {
+                return status;
+            }
+        }
 
         String normalized = normalize(value);
-        for (ReportStatus status : values()) {
+        for (ReportStatus status : VALUES) {
             if (normalize(status.name()).equals(normalized)) {
                 return status;
             }
@@ -0,0 +1,48 @@
+package ch.framedev.reportPlugin.utils;
+
+/*
+ * ch.framedev.reportPlugin.utils
+ * =============================================
+ * This File was Created by FrameDev
+ * Please do not change anything without my consent!
+ * =============================================
+ * This Class was created at 18.10.2026 21:30
+ */
+
+/**
+ * The fields of a report shown in list views. Backends read only these columns instead of the whole report,
+ * the full report is loaded by id once a single report is opened.
+ *
+ * @param reportId       the unique identifier of the report
+ * @param reportedPlayer the name of the reported player
+ * @param reporter       the name of the player who made the report
+ * @param reason         the reason for the report
+ * @param status         the status of the report
+ * @param timestamp      the creation time in epoch millis
+ */
+public record ReportSummary(String reportId,
+                            String reportedPlayer,
+                            String reporter,
+                            String reason,
+                            ReportStatus status,
+                            long timestamp) {
+
+    public ReportSummary {
+        if (status == null) {
+            status = ReportStatus.OPEN;
+        }
+        if (reason == null) {
+            reason = "";
+        }
+    }
+
+    public static ReportSummary of(Report report) {
+        return new ReportSummary(report.getReportId(), report.getReportedPlayer(), report.getReporter(),
+                report.getReason(), report.getStatus(), report.getTimestamp());
+    }
+
+    public static ReportSummary of(ReportSnapshot snapshot) {
+        return new ReportSummary(snapshot.getReportId(), snapshot.getReportedPlayer(), snapshot.getReporter(),
+                snapshot.getReason(), snapshot.getStatus(), snapshot.getTimestamp());
+    }
+}